@@ -0,0 +1,144 @@
+package io.github.danielliu1123.httpexchange.benchmark;
+
+import io.github.danielliu1123.httpexchange.BeanParam;
+import io.github.danielliu1123.httpexchange.BeanParamArgumentResolver;
+import io.github.danielliu1123.httpexchange.HttpExchangeProperties;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.invoker.HttpRequestValues;
+
+/**
+ * {@link BeanParamArgumentResolver} cost with beans of different property counts.
+ *
+ * @author Freeman
+ */
+@State(Scope.Benchmark)
+public class BeanParamBenchmark {
+
+    @Param({"5", "20", "50"})
+    public int properties;
+
+    private BeanParamArgumentResolver resolver;
+    private MethodParameter parameter;
+    private Object bean;
+
+    @Setup
+    public void setup() throws Exception {
+        resolver = new BeanParamArgumentResolver(new HttpExchangeProperties());
+        Class<?> beanClass =
+                switch (properties) {
+                    case 5 -> Bean5.class;
+                    case 20 -> Bean20.class;
+                    case 50 -> Bean50.class;
+                    default -> throw new IllegalArgumentException("Unsupported properties: " + properties);
+                };
+        parameter = new MethodParameter(Api.class.getMethod("find" + properties, beanClass), 0);
+        Object[] values = IntStream.range(0, properties).mapToObj(i -> "v" + i).toArray();
+        bean = beanClass.getDeclaredConstructors()[0].newInstance(values);
+    }
+
+    @Benchmark
+    public HttpRequestValues.Builder resolve() {
+        HttpRequestValues.Builder builder = HttpRequestValues.builder();
+        resolver.resolve(bean, parameter, builder);
+        return builder;
+    }
+
+    public interface Api {
+        @GetExchange("/beans")
+        void find5(@BeanParam Bean5 bean);
+
+        @GetExchange("/beans")
+        void find20(@BeanParam Bean20 bean);
+
+        @GetExchange("/beans")
+        void find50(@BeanParam Bean50 bean);
+    }
+
+    public record Bean5(
+            String p0,
+            String p1,
+            String p2,
+            String p3,
+            String p4) {}
+
+    public record Bean20(
+            String p0,
+            String p1,
+            String p2,
+            String p3,
+            String p4,
+            String p5,
+            String p6,
+            String p7,
+            String p8,
+            String p9,
+            String p10,
+            String p11,
+            String p12,
+            String p13,
+            String p14,
+            String p15,
+            String p16,
+            String p17,
+            String p18,
+            String p19) {}
+
+    public record Bean50(
+            String p0,
+            String p1,
+            String p2,
+            String p3,
+            String p4,
+            String p5,
+            String p6,
+            String p7,
+            String p8,
+            String p9,
+            String p10,
+            String p11,
+            String p12,
+            String p13,
+            String p14,
+            String p15,
+            String p16,
+            String p17,
+            String p18,
+            String p19,
+            String p20,
+            String p21,
+            String p22,
+            String p23,
+            String p24,
+            String p25,
+            String p26,
+            String p27,
+            String p28,
+            String p29,
+            String p30,
+            String p31,
+            String p32,
+            String p33,
+            String p34,
+            String p35,
+            String p36,
+            String p37,
+            String p38,
+            String p39,
+            String p40,
+            String p41,
+            String p42,
+            String p43,
+            String p44,
+            String p45,
+            String p46,
+            String p47,
+            String p48,
+            String p49) {}
+}
@@ -0,0 +1,56 @@
+package io.github.danielliu1123.httpexchange.benchmark;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpRequestValues;
+
+/**
+ * {@link HttpExchangeAdapter} that does nothing, used to measure the cost of the client side only.
+ *
+ * @author Freeman
+ */
+public final class NoopExchangeAdapter implements HttpExchangeAdapter {
+
+    /**
+     * The last request values, keep it to avoid dead code elimination.
+     */
+    public volatile HttpRequestValues requestValues;
+
+    @Override
+    public boolean supportsRequestAttributes() {
+        return true;
+    }
+
+    @Override
+    public void exchange(HttpRequestValues requestValues) {
+        this.requestValues = requestValues;
+    }
+
+    @Override
+    public HttpHeaders exchangeForHeaders(HttpRequestValues requestValues) {
+        this.requestValues = requestValues;
+        return HttpHeaders.EMPTY;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T exchangeForBody(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        this.requestValues = requestValues;
+        return (T) "ok";
+    }
+
+    @Override
+    public ResponseEntity<Void> exchangeForBodilessEntity(HttpRequestValues requestValues) {
+        this.requestValues = requestValues;
+        return ResponseEntity.ok().build();
+    }
+
+    @Override
+    public <T> ResponseEntity<T> exchangeForEntity(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        this.requestValues = requestValues;
+        return ResponseEntity.ok().build();
+    }
+}
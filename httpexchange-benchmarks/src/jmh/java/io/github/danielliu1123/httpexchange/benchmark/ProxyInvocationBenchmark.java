@@ -0,0 +1,93 @@
+package io.github.danielliu1123.httpexchange.benchmark;
+
+import io.github.danielliu1123.httpexchange.shaded.ShadedHttpServiceProxyFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.support.RestClientAdapter;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpServiceProxyFactory;
+
+/**
+ * Proxy invocation cost of the different client implementations.
+ *
+ * <p> {@code noop*} benchmarks use {@link NoopExchangeAdapter}, only the proxy dispatch and request building are measured.
+ *
+ * <p> {@code restClient*} benchmarks use {@link RestClient} with {@link InMemoryClientHttpRequestFactory},
+ * compare the proxies with a hand-written {@link RestClient} call.
+ *
+ * @author Freeman
+ */
+@State(Scope.Benchmark)
+public class ProxyInvocationBenchmark {
+
+    public interface Api {
+        @GetExchange("/users/{id}")
+        String get(@PathVariable("id") String id);
+    }
+
+    private Api noopSpringProxy;
+    private Api noopShadedJdkProxy;
+    private Api noopShadedHiddenClassProxy;
+
+    private RestClient restClient;
+    private Api restClientSpringProxy;
+    private Api restClientShadedProxy;
+
+    @Setup
+    public void setup() {
+        HttpExchangeAdapter noop = new NoopExchangeAdapter();
+        noopSpringProxy = HttpServiceProxyFactory.builderFor(noop).build().createClient(Api.class);
+        noopShadedJdkProxy =
+                ShadedHttpServiceProxyFactory.builderFor(noop).build().createClient(Api.class);
+        noopShadedHiddenClassProxy = ShadedHttpServiceProxyFactory.builderFor(noop)
+                .hiddenClassProxy(true)
+                .build()
+                .createClient(Api.class);
+
+        restClient = RestClient.builder()
+                .baseUrl("http://localhost")
+                .requestFactory(new InMemoryClientHttpRequestFactory())
+                .build();
+        HttpExchangeAdapter adapter = RestClientAdapter.create(restClient);
+        restClientSpringProxy = HttpServiceProxyFactory.builderFor(adapter).build().createClient(Api.class);
+        restClientShadedProxy = ShadedHttpServiceProxyFactory.builderFor(adapter)
+                .hiddenClassProxy(true)
+                .build()
+                .createClient(Api.class);
+    }
+
+    @Benchmark
+    public String noopSpringProxy() {
+        return noopSpringProxy.get("1");
+    }
+
+    @Benchmark
+    public String noopShadedJdkProxy() {
+        return noopShadedJdkProxy.get("1");
+    }
+
+    @Benchmark
+    public String noopShadedHiddenClassProxy() {
+        return noopShadedHiddenClassProxy.get("1");
+    }
+
+    @Benchmark
+    public String restClientHandWritten() {
+        return restClient.get().uri("/users/{id}", "1").retrieve().body(String.class);
+    }
+
+    @Benchmark
+    public String restClientSpringProxy() {
+        return restClientSpringProxy.get("1");
+    }
+
+    @Benchmark
+    public String restClientShadedProxy() {
+        return restClientShadedProxy.get("1");
+    }
+}
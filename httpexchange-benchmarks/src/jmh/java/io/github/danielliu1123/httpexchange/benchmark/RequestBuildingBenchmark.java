@@ -0,0 +1,66 @@
+package io.github.danielliu1123.httpexchange.benchmark;
+
+import io.github.danielliu1123.httpexchange.BeanParamArgumentResolver;
+import io.github.danielliu1123.httpexchange.HttpExchangeProperties;
+import io.github.danielliu1123.httpexchange.shaded.ShadedHttpServiceProxyFactory;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PostExchange;
+import org.springframework.web.service.invoker.HttpRequestValues;
+
+/**
+ * Request building cost of {@code ShadedHttpServiceMethod} with {@link NoopExchangeAdapter}.
+ *
+ * <p> Run with {@code -prof gc} (default in build.gradle) to see the allocation rate per call.
+ *
+ * @author Freeman
+ */
+@State(Scope.Benchmark)
+public class RequestBuildingBenchmark {
+
+    @HttpExchange("/users")
+    public interface UserApi {
+        @GetExchange("/{id}")
+        String get(
+                @PathVariable("id") String id,
+                @RequestParam("tags") List<String> tags,
+                @RequestHeader("X-Trace") String trace);
+
+        @PostExchange
+        void create(@RequestBody String body);
+    }
+
+    private static final List<String> TAGS = List.of("a", "b", "c");
+
+    private NoopExchangeAdapter adapter;
+    private UserApi api;
+
+    @Setup
+    public void setup() {
+        adapter = new NoopExchangeAdapter();
+        api = ShadedHttpServiceProxyFactory.builderFor(adapter)
+                .customArgumentResolver(new BeanParamArgumentResolver(new HttpExchangeProperties()))
+                .build()
+                .createClient(UserApi.class);
+    }
+
+    @Benchmark
+    public String getWithPathQueryAndHeader() {
+        return api.get("1", TAGS, "trace");
+    }
+
+    @Benchmark
+    public HttpRequestValues postWithBody() {
+        api.create("{}");
+        return adapter.requestValues;
+    }
+}
@@ -0,0 +1,192 @@
+package io.github.danielliu1123.httpexchange.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Startup benchmark with N synthetic {@code @HttpExchange} interfaces with M methods each.
+ *
+ * <p> Reports context refresh time, time-to-first-call, retained heap per client,
+ * and the time of each phase recorded by {@link org.springframework.core.metrics.ApplicationStartup}:
+ * <ul>
+ *     <li> {@code httpexchange.clients.scan}: classpath scanning </li>
+ *     <li> {@code httpexchange.clients.register}: bean definition registration </li>
+ *     <li> {@code httpexchange.client.factory}: building {@code HttpServiceProxyFactory.Builder} </li>
+ *     <li> {@code httpexchange.client.create}: client creation, includes factory building and proxy creation </li>
+ * </ul>
+ *
+ * <p> Run: {@code ./gradlew :httpexchange-benchmarks:startupBenchmark -Pinterfaces=100,1000,5000 -Pmethods=10}
+ *
+ * <p> Each round runs in a fresh class loader, run one round per JVM for the most stable numbers.
+ *
+ * @author Freeman
+ */
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int[] interfaces = Arrays.stream((args.length > 0 ? args[0] : "100,1000,5000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        int methods = args.length > 1 ? Integer.parseInt(args[1].trim()) : 10;
+
+        for (int n : interfaces) {
+            Path dir = Files.createTempDirectory("httpexchange-startup-benchmark");
+            try {
+                SyntheticClients.generate(dir, n, methods);
+                try (URLClassLoader classLoader = newClassLoader(dir)) {
+                    Class<?> round = classLoader.loadClass(Round.class.getName());
+                    Method run = round.getMethod("run", int.class, int.class);
+                    ClassLoader original = Thread.currentThread().getContextClassLoader();
+                    Thread.currentThread().setContextClassLoader(classLoader);
+                    try {
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> result = (Map<String, Object>) run.invoke(null, n, methods);
+                        print(n, methods, result);
+                    } finally {
+                        Thread.currentThread().setContextClassLoader(original);
+                    }
+                }
+            } finally {
+                FileSystemUtils.deleteRecursively(dir);
+            }
+        }
+    }
+
+    /**
+     * Class loader contains the synthetic interfaces and the whole application classpath,
+     * the synthetic interfaces are visible to the library classes.
+     */
+    private static URLClassLoader newClassLoader(Path dir) throws Exception {
+        List<URL> urls = new ArrayList<>();
+        urls.add(dir.toUri().toURL());
+        for (String path : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            urls.add(new File(path).toURI().toURL());
+        }
+        return new URLClassLoader(urls.toArray(URL[]::new), ClassLoader.getPlatformClassLoader());
+    }
+
+    private static void print(int interfaces, int methods, Map<String, Object> result) {
+        System.out.printf("%n=== %d interfaces x %d methods ===%n", interfaces, methods);
+        result.forEach((k, v) -> System.out.printf("%-40s %s%n", k, v));
+    }
+
+    /**
+     * One benchmark round, loaded by the class loader contains the synthetic interfaces.
+     */
+    public static final class Round {
+
+        public static Map<String, Object> run(int interfaces, int methods) throws Exception {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "text/plain");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+            });
+            server.start();
+
+            BufferingApplicationStartup startup = new BufferingApplicationStartup(interfaces * 4 + 10_000);
+            Map<String, Object> result = new LinkedHashMap<>();
+            long start = System.nanoTime();
+            try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(Config.class)
+                    .web(WebApplicationType.NONE)
+                    .applicationStartup(startup)
+                    .properties("spring.main.banner-mode=off")
+                    .properties("logging.level.root=warn")
+                    .properties("http-exchange.base-packages=" + SyntheticClients.PACKAGE)
+                    .properties("http-exchange.base-url=http://localhost:"
+                            + server.getAddress().getPort())
+                    .run()) {
+                result.put("context refresh (ms)", millis(System.nanoTime() - start));
+
+                ClassLoader classLoader = Round.class.getClassLoader();
+                Class<?> first = classLoader.loadClass(SyntheticClients.className(0));
+                start = System.nanoTime();
+                Object client = ctx.getBean(first);
+                Object response = first.getMethod("m0", String.class).invoke(client, "1");
+                result.put("time to first call (ms)", millis(System.nanoTime() - start));
+                if (!"ok".equals(response)) {
+                    throw new IllegalStateException("Unexpected response: " + response);
+                }
+
+                long heapBefore = usedHeapAfterGc();
+                start = System.nanoTime();
+                List<Object> clients = new ArrayList<>(interfaces);
+                for (int i = 0; i < interfaces; i++) {
+                    clients.add(ctx.getBean(classLoader.loadClass(SyntheticClients.className(i))));
+                }
+                result.put("create all clients (ms)", millis(System.nanoTime() - start));
+                long heapAfter = usedHeapAfterGc();
+                result.put("retained heap per client (bytes)", (heapAfter - heapBefore) / Math.max(1, interfaces - 1));
+                result.put("clients", clients.size());
+
+                result.putAll(phases(startup));
+            } finally {
+                server.stop(0);
+            }
+            return result;
+        }
+
+        private static Map<String, Object> phases(BufferingApplicationStartup startup) {
+            Map<String, long[]> phases = new TreeMap<>();
+            for (StartupTimeline.TimelineEvent event : startup.getBufferedTimeline().getEvents()) {
+                String name = event.getStartupStep().getName();
+                if (name.startsWith("httpexchange.")) {
+                    long[] stat = phases.computeIfAbsent(name, k -> new long[2]);
+                    stat[0]++;
+                    stat[1] += event.getDuration().toNanos();
+                }
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            phases.forEach((name, stat) ->
+                    result.put(name + " (ms, count)", millis(stat[1]) + ", " + stat[0]));
+            long create = phases.getOrDefault("httpexchange.client.create", new long[2])[1];
+            long factory = phases.getOrDefault("httpexchange.client.factory", new long[2])[1];
+            result.put("proxy creation (ms)", millis(create - factory));
+            return result;
+        }
+
+        private static long usedHeapAfterGc() throws InterruptedException {
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+
+        private static String millis(long nanos) {
+            return String.format("%.2f", nanos / 1_000_000.0);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration
+    static class Config {}
+}
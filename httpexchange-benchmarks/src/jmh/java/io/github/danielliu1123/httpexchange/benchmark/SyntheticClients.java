@@ -0,0 +1,83 @@
+package io.github.danielliu1123.httpexchange.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+
+/**
+ * Generate synthetic {@code @HttpExchange} interfaces as class files.
+ *
+ * <pre>{@code
+ * @HttpExchange("/api{i}")
+ * public interface Api{i} {
+ *     @GetExchange("/m{j}/{id}")
+ *     String m{j}(@PathVariable("id") String id);
+ * }
+ * }</pre>
+ *
+ * @author Freeman
+ */
+final class SyntheticClients {
+
+    static final String PACKAGE = "io.github.danielliu1123.httpexchange.benchmark.synthetic";
+
+    private SyntheticClients() {}
+
+    static String className(int index) {
+        return PACKAGE + ".Api" + index;
+    }
+
+    /**
+     * @param dir        classes root directory
+     * @param interfaces number of interfaces
+     * @param methods    number of methods per interface
+     */
+    static void generate(Path dir, int interfaces, int methods) throws IOException {
+        Path packageDir = dir.resolve(PACKAGE.replace('.', '/'));
+        Files.createDirectories(packageDir);
+        for (int i = 0; i < interfaces; i++) {
+            Files.write(packageDir.resolve("Api" + i + ".class"), generate(i, methods));
+        }
+    }
+
+    private static byte[] generate(int index, int methods) {
+        ClassWriter cw = new ClassWriter(0);
+        cw.visit(
+                Opcodes.V17,
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT | Opcodes.ACC_INTERFACE,
+                className(index).replace('.', '/'),
+                null,
+                "java/lang/Object",
+                null);
+
+        AnnotationVisitor exchange =
+                cw.visitAnnotation("Lorg/springframework/web/service/annotation/HttpExchange;", true);
+        exchange.visit("value", "/api" + index);
+        exchange.visitEnd();
+
+        for (int j = 0; j < methods; j++) {
+            MethodVisitor mv = cw.visitMethod(
+                    Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT,
+                    "m" + j,
+                    "(Ljava/lang/String;)Ljava/lang/String;",
+                    null,
+                    null);
+            AnnotationVisitor get = mv.visitAnnotation("Lorg/springframework/web/service/annotation/GetExchange;", true);
+            get.visit("value", "/m" + j + "/{id}");
+            get.visitEnd();
+            mv.visitAnnotableParameterCount(1, true);
+            AnnotationVisitor pathVariable =
+                    mv.visitParameterAnnotation(0, "Lorg/springframework/web/bind/annotation/PathVariable;", true);
+            pathVariable.visit("value", "id");
+            pathVariable.visitEnd();
+            mv.visitEnd();
+        }
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+}
@@ -46,7 +46,8 @@ public class ApiBaseProcessor extends AbstractProcessor {
             // Perhaps just process the interfaces to enhance compile performance?
             processElement(annotations, element);
         }
-        return true;
+        // Do not claim the annotations, ExchangeClientProcessor processes them too
+        return false;
     }
 
     private static boolean isInterface(Element element) {
@@ -0,0 +1,331 @@
+package io.github.danielliu1123.httpexchange.processor;
+
+import java.beans.Introspector;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Generated;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import lombok.SneakyThrows;
+import org.springframework.beans.BeanUtils;
+import org.springframework.javapoet.AnnotationSpec;
+import org.springframework.javapoet.ClassName;
+import org.springframework.javapoet.JavaFile;
+import org.springframework.javapoet.MethodSpec;
+import org.springframework.javapoet.ParameterizedTypeName;
+import org.springframework.javapoet.TypeName;
+import org.springframework.javapoet.TypeSpec;
+import org.springframework.web.service.invoker.HttpRequestValues;
+
+/**
+ * Generate query parameter binders for the Java beans used as {@code @BeanParam} (or as parameters without
+ * Spring web annotations, which are converted to query parameters when {@code http-exchange.bean-to-query-enabled=true}).
+ *
+ * <p> The generated binder is a {@link BiConsumer BiConsumer&lt;Bean, HttpRequestValues.Builder&gt;},
+ * it writes the properties to {@link HttpRequestValues.Builder} with plain getter calls,
+ * {@code BeanParamArgumentResolver} uses it instead of reflection.
+ *
+ * <p> Only the beans compiled together with the exchange interfaces are processed.
+ *
+ * @author Freeman
+ */
+@SupportedSourceVersion(SourceVersion.RELEASE_17)
+@SupportedAnnotationTypes({
+    "org.springframework.web.service.annotation.HttpExchange",
+    "org.springframework.web.service.annotation.GetExchange",
+    "org.springframework.web.service.annotation.PostExchange",
+    "org.springframework.web.service.annotation.PutExchange",
+    "org.springframework.web.service.annotation.DeleteExchange",
+    "org.springframework.web.service.annotation.PatchExchange",
+})
+public class BeanParamBinderProcessor extends AbstractProcessor {
+
+    /**
+     * NOTE: keep the same as {@code BeanParamArgumentResolver}.
+     */
+    private static final String GENERATED_CLASS_SUFFIX = "QueryBinder";
+
+    private static final String BEAN_PARAM_ANNOTATION = "io.github.danielliu1123.httpexchange.BeanParam";
+    private static final String WEB_BIND_ANNOTATION_PACKAGE = "org.springframework.web.bind.annotation";
+    private static final Set<String> EXCHANGE_ANNOTATIONS = Set.of(
+            "org.springframework.web.service.annotation.HttpExchange",
+            "org.springframework.web.service.annotation.GetExchange",
+            "org.springframework.web.service.annotation.PostExchange",
+            "org.springframework.web.service.annotation.PutExchange",
+            "org.springframework.web.service.annotation.DeleteExchange",
+            "org.springframework.web.service.annotation.PatchExchange");
+
+    private final Set<String> compiledTypes = new HashSet<>();
+    private final Set<String> generatedBinders = new HashSet<>();
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            if (element instanceof TypeElement te) {
+                compiledTypes.add(te.getQualifiedName().toString());
+            }
+        }
+        for (Element element : roundEnv.getRootElements()) {
+            processElement(element);
+        }
+        return false;
+    }
+
+    private void processElement(Element element) {
+        if (element.getKind() == ElementKind.INTERFACE) {
+            for (ExecutableElement method : ElementFilter.methodsIn(element.getEnclosedElements())) {
+                if (isExchangeMethod(method)) {
+                    method.getParameters().forEach(this::processParameter);
+                }
+            }
+        }
+        for (Element enclosedElement : element.getEnclosedElements()) {
+            if (enclosedElement.getKind().isClass() || enclosedElement.getKind().isInterface()) {
+                processElement(enclosedElement);
+            }
+        }
+    }
+
+    private static boolean isExchangeMethod(ExecutableElement method) {
+        return method.getAnnotationMirrors().stream()
+                .anyMatch(it -> EXCHANGE_ANNOTATIONS.contains(annotationName(it)));
+    }
+
+    private void processParameter(VariableElement parameter) {
+        boolean beanParam = false;
+        for (AnnotationMirror annotation : parameter.getAnnotationMirrors()) {
+            String name = annotationName(annotation);
+            if (name.equals(BEAN_PARAM_ANNOTATION)) {
+                beanParam = true;
+            } else if (name.startsWith(WEB_BIND_ANNOTATION_PACKAGE)) {
+                return;
+            }
+        }
+        TypeMirror type = parameter.asType();
+        if (type.getKind() != TypeKind.DECLARED) {
+            return;
+        }
+        TypeElement bean = (TypeElement) ((DeclaredType) type).asElement();
+        if (isBean(bean, beanParam)) {
+            generateBinder(bean);
+        }
+    }
+
+    private boolean isBean(TypeElement type, boolean beanParam) {
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD) {
+            return false;
+        }
+        if (!type.getTypeParameters().isEmpty()
+                || type.getModifiers().contains(Modifier.ABSTRACT)
+                || isPrivate(type)
+                || !compiledTypes.contains(topLevel(type).getQualifiedName().toString())) {
+            return false;
+        }
+        String name = type.getQualifiedName().toString();
+        // Unannotated parameters of JDK/Spring types are not beans, e.g. URI, MultipartFile
+        return beanParam || !(name.startsWith("java.") || name.startsWith("org.springframework."));
+    }
+
+    private void generateBinder(TypeElement bean) {
+        String binderName = binderSimpleName(bean);
+        String packageName =
+                processingEnv.getElementUtils().getPackageOf(bean).getQualifiedName().toString();
+        if (!generatedBinders.add(packageName + "." + binderName)) {
+            return;
+        }
+
+        Map<String, ExecutableElement> properties = getProperties(bean);
+        if (properties.values().stream().anyMatch(it -> mayBeNestedBean(it.getReturnType()))) {
+            // Nested Java beans are flattened by BeanParamArgumentResolver
+            return;
+        }
+
+        TypeName beanType = TypeName.get(bean.asType());
+        MethodSpec.Builder accept = MethodSpec.methodBuilder("accept")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(beanType, "bean")
+                .addParameter(HttpRequestValues.Builder.class, "requestValues");
+        properties.forEach((property, getter) -> {
+            TypeMirror type = getter.getReturnType();
+            if (type.getKind().isPrimitive()) {
+                accept.addStatement(
+                        "requestValues.addRequestParameter($S, $T.valueOf(bean.$N()))",
+                        property,
+                        String.class,
+                        getter.getSimpleName());
+            } else {
+                accept.addStatement("addValue(requestValues, $S, bean.$N())", property, getter.getSimpleName());
+            }
+        });
+
+        TypeSpec binder = TypeSpec.classBuilder(binderName)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addSuperinterface(ParameterizedTypeName.get(
+                        ClassName.get(BiConsumer.class), beanType, ClassName.get(HttpRequestValues.Builder.class)))
+                .addAnnotation(AnnotationSpec.builder(Generated.class)
+                        .addMember("value", "$S", BeanParamBinderProcessor.class.getName())
+                        .addMember("comments", "$S", "Generated by httpexchange-processor, DO NOT modify!")
+                        .build())
+                .addJavadoc("Generated query parameter binder for {@link $T}.\n", beanType)
+                .addMethod(accept.build())
+                .addMethod(addValueMethod())
+                .build();
+
+        writeJavaFile(packageName, binder);
+    }
+
+    /**
+     * Same as {@code BeanParamArgumentResolver#populateRequestValues}, except nested Java beans.
+     */
+    private static MethodSpec addValueMethod() {
+        return MethodSpec.methodBuilder("addValue")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(HttpRequestValues.Builder.class, "requestValues")
+                .addParameter(String.class, "name")
+                .addParameter(Object.class, "value")
+                .beginControlFlow("if (value == null)")
+                .addStatement("return")
+                .endControlFlow()
+                .addStatement("Class<?> clz = value.getClass()")
+                .beginControlFlow("if ($T.isSimpleValueType(clz))", BeanUtils.class)
+                .addStatement("requestValues.addRequestParameter(name, value.toString())")
+                .nextControlFlow("else if (clz.isArray() && $T.isSimpleValueType(clz.getComponentType()))", BeanUtils.class)
+                .addStatement(
+                        "String[] values = value instanceof Object[] arr"
+                                + " ? $T.stream(arr).filter($T::nonNull).map(Object::toString).toArray(String[]::new)"
+                                + " : $T.range(0, $T.getLength(value)).mapToObj(i -> $T.valueOf($T.get(value, i))).toArray(String[]::new)",
+                        Arrays.class,
+                        Objects.class,
+                        IntStream.class,
+                        Array.class,
+                        String.class,
+                        Array.class)
+                .beginControlFlow("if (values.length > 0)")
+                .addStatement("requestValues.addRequestParameter(name, values)")
+                .endControlFlow()
+                .nextControlFlow("else if (value instanceof Iterable<?> iter)")
+                .addStatement("$T<String> values = new $T<>()", List.class, ArrayList.class)
+                .beginControlFlow("for (Object item : iter)")
+                .beginControlFlow("if (item != null && $T.isSimpleValueType(item.getClass()))", BeanUtils.class)
+                .addStatement("values.add(item.toString())")
+                .endControlFlow()
+                .endControlFlow()
+                .beginControlFlow("if (!values.isEmpty())")
+                .addStatement("requestValues.addRequestParameter(name, values.toArray(String[]::new))")
+                .endControlFlow()
+                .endControlFlow()
+                .build();
+    }
+
+    /**
+     * Readable properties, record components in declaration order, Java bean properties in name order,
+     * same as {@code BeanParamArgumentResolver#createGetters}.
+     */
+    private Map<String, ExecutableElement> getProperties(TypeElement bean) {
+        if (bean.getKind() == ElementKind.RECORD) {
+            Map<String, ExecutableElement> result = new LinkedHashMap<>();
+            for (RecordComponentElement component : bean.getRecordComponents()) {
+                result.put(component.getSimpleName().toString(), component.getAccessor());
+            }
+            return result;
+        }
+        Map<String, ExecutableElement> result = new TreeMap<>();
+        for (ExecutableElement method :
+                ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(bean))) {
+            if (!method.getModifiers().contains(Modifier.PUBLIC)
+                    || method.getModifiers().contains(Modifier.STATIC)
+                    || !method.getParameters().isEmpty()
+                    || !method.getTypeParameters().isEmpty()) {
+                continue;
+            }
+            String methodName = method.getSimpleName().toString();
+            TypeMirror returnType = method.getReturnType();
+            String property = null;
+            if (methodName.startsWith("get") && methodName.length() > 3 && returnType.getKind() != TypeKind.VOID) {
+                property = Introspector.decapitalize(methodName.substring(3));
+            } else if (methodName.startsWith("is") && methodName.length() > 2 && returnType.getKind() == TypeKind.BOOLEAN) {
+                property = Introspector.decapitalize(methodName.substring(2));
+            }
+            if (property != null && !property.equals("class")) {
+                result.putIfAbsent(property, method);
+            }
+        }
+        return result;
+    }
+
+    private static boolean mayBeNestedBean(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        String name = element.getQualifiedName().toString();
+        return (element.getKind() == ElementKind.CLASS || element.getKind() == ElementKind.RECORD)
+                && !name.startsWith("java.")
+                && !name.startsWith("javax.");
+    }
+
+    @SneakyThrows
+    private void writeJavaFile(String packageName, TypeSpec typeSpec) {
+        JavaFile.builder(packageName, typeSpec).build().writeTo(processingEnv.getFiler());
+    }
+
+    /**
+     * {@code com.example.Outer.Bean} -> {@code Outer_BeanQueryBinder}.
+     */
+    private static String binderSimpleName(TypeElement bean) {
+        StringBuilder sb = new StringBuilder(bean.getSimpleName());
+        for (Element e = bean.getEnclosingElement(); e instanceof TypeElement te; e = e.getEnclosingElement()) {
+            sb.insert(0, te.getSimpleName() + "_");
+        }
+        return sb.append(GENERATED_CLASS_SUFFIX).toString();
+    }
+
+    private static TypeElement topLevel(TypeElement type) {
+        TypeElement result = type;
+        while (result.getEnclosingElement() instanceof TypeElement te) {
+            result = te;
+        }
+        return result;
+    }
+
+    private static boolean isPrivate(Element element) {
+        for (Element e = element; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String annotationName(AnnotationMirror annotation) {
+        return ((TypeElement) annotation.getAnnotationType().asElement())
+                .getQualifiedName()
+                .toString();
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.danielliu1123.httpexchange.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Write all {@code @HttpExchange}/{@code @RequestMapping} client interfaces to {@value #INDEX_LOCATION},
+ * {@code HttpClientBeanRegistrar} reads the indexes instead of scanning the classpath.
+ *
+ * <p> The index of the previous compilation is merged for incremental compilation,
+ * the interfaces that no longer exist are removed.
+ *
+ * @author Freeman
+ */
+@SupportedSourceVersion(SourceVersion.RELEASE_17)
+@SupportedAnnotationTypes({
+    "org.springframework.web.service.annotation.HttpExchange",
+    "org.springframework.web.service.annotation.GetExchange",
+    "org.springframework.web.service.annotation.PostExchange",
+    "org.springframework.web.service.annotation.PutExchange",
+    "org.springframework.web.service.annotation.DeleteExchange",
+    "org.springframework.web.service.annotation.PatchExchange",
+    "org.springframework.web.bind.annotation.RequestMapping",
+    "org.springframework.web.bind.annotation.GetMapping",
+    "org.springframework.web.bind.annotation.PostMapping",
+    "org.springframework.web.bind.annotation.PutMapping",
+    "org.springframework.web.bind.annotation.DeleteMapping",
+    "org.springframework.web.bind.annotation.PatchMapping",
+})
+public class ClientIndexProcessor extends AbstractProcessor {
+
+    /**
+     * NOTE: keep the same as {@code HttpClientIndex}.
+     */
+    static final String INDEX_LOCATION = "META-INF/httpexchange/clients.index";
+
+    private static final String HTTP_EXCHANGE = "org.springframework.web.service.annotation.HttpExchange";
+    private static final String REQUEST_MAPPING = "org.springframework.web.bind.annotation.RequestMapping";
+
+    private final Set<String> clients = new TreeSet<>();
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+        for (Element element : roundEnv.getRootElements()) {
+            processElement(element);
+        }
+        return false;
+    }
+
+    private void processElement(Element element) {
+        if (element.getKind() == ElementKind.INTERFACE && isClient(element)) {
+            clients.add(processingEnv
+                    .getElementUtils()
+                    .getBinaryName((TypeElement) element)
+                    .toString());
+        }
+        for (Element enclosedElement : element.getEnclosedElements()) {
+            if (enclosedElement.getKind().isClass() || enclosedElement.getKind().isInterface()) {
+                processElement(enclosedElement);
+            }
+        }
+    }
+
+    private static boolean isClient(Element element) {
+        if (hasMappingAnnotation(element)) {
+            return true;
+        }
+        for (Element enclosedElement : element.getEnclosedElements()) {
+            if (enclosedElement.getKind() == ElementKind.METHOD && hasMappingAnnotation(enclosedElement)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the element is annotated with {@code @HttpExchange}/{@code @RequestMapping} or their composed annotations.
+     */
+    private static boolean hasMappingAnnotation(Element element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            Element type = annotation.getAnnotationType().asElement();
+            if (isMappingAnnotation(type)) {
+                return true;
+            }
+            for (AnnotationMirror meta : type.getAnnotationMirrors()) {
+                if (isMappingAnnotation(meta.getAnnotationType().asElement())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isMappingAnnotation(Element type) {
+        String name = ((TypeElement) type).getQualifiedName().toString();
+        return name.equals(HTTP_EXCHANGE) || name.equals(REQUEST_MAPPING);
+    }
+
+    private void writeIndex() {
+        if (clients.isEmpty()) {
+            return;
+        }
+        Set<String> index = new TreeSet<>(clients);
+        index.addAll(readPreviousIndex());
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = file.openWriter()) {
+                for (String client : index) {
+                    writer.write(client);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write " + INDEX_LOCATION, e);
+        }
+    }
+
+    /**
+     * Entries of the previous compilation, only keep the interfaces that still exist.
+     */
+    private Set<String> readPreviousIndex() {
+        Set<String> result = new TreeSet<>();
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (BufferedReader reader =
+                    new BufferedReader(new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String client = line.trim();
+                    if (!client.isEmpty()
+                            && processingEnv.getElementUtils().getTypeElement(client.replace('$', '.')) != null) {
+                        result.add(client);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // no previous index
+        }
+        return result;
+    }
+}
@@ -0,0 +1,705 @@
+package io.github.danielliu1123.httpexchange.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Generated;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import lombok.SneakyThrows;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.javapoet.AnnotationSpec;
+import org.springframework.javapoet.ClassName;
+import org.springframework.javapoet.CodeBlock;
+import org.springframework.javapoet.FieldSpec;
+import org.springframework.javapoet.JavaFile;
+import org.springframework.javapoet.MethodSpec;
+import org.springframework.javapoet.ParameterSpec;
+import org.springframework.javapoet.ParameterizedTypeName;
+import org.springframework.javapoet.TypeName;
+import org.springframework.javapoet.TypeSpec;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.util.StringValueResolver;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ValueConstants;
+import org.springframework.web.service.annotation.DeleteExchange;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PatchExchange;
+import org.springframework.web.service.annotation.PostExchange;
+import org.springframework.web.service.annotation.PutExchange;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpRequestValues;
+
+/**
+ * Generate client implementation for {@link HttpExchange} interfaces, the generated class builds
+ * {@link HttpRequestValues} from the metadata read at compile time and executes it with a {@link HttpExchangeAdapter},
+ * no annotation introspection and no proxy at runtime.
+ *
+ * <p> Only the interfaces that can be fully implemented are generated, the following are not supported
+ * and will be handled by the runtime proxy:
+ * <ul>
+ *     <li> generic interfaces, interfaces extending other interfaces </li>
+ *     <li> abstract methods without exchange annotation </li>
+ *     <li> parameters without {@link PathVariable}, {@link RequestParam}, {@link RequestHeader}, {@link CookieValue}, {@link RequestBody} annotation
+ *          (except {@link java.net.URI} and {@link HttpMethod}), e.g. {@code @BeanParam}</li>
+ *     <li> asynchronous return types, e.g. {@code Mono}, {@code Flux}, {@code CompletableFuture} </li>
+ * </ul>
+ *
+ * @author Freeman
+ */
+@SupportedSourceVersion(SourceVersion.RELEASE_17)
+@SupportedAnnotationTypes({
+    "org.springframework.web.service.annotation.HttpExchange",
+    "org.springframework.web.service.annotation.GetExchange",
+    "org.springframework.web.service.annotation.PostExchange",
+    "org.springframework.web.service.annotation.PutExchange",
+    "org.springframework.web.service.annotation.DeleteExchange",
+    "org.springframework.web.service.annotation.PatchExchange",
+})
+public class ExchangeClientProcessor extends AbstractProcessor {
+
+    /**
+     * NOTE: keep the same as {@code HttpClientBeanRegistrar}.
+     */
+    private static final String GENERATED_CLASS_SUFFIX = "ExchangeClient";
+
+    private static final Set<String> ASYNC_TYPES = Set.of(
+            "reactor.core.publisher.Mono",
+            "reactor.core.publisher.Flux",
+            "org.reactivestreams.Publisher",
+            "java.util.concurrent.Flow.Publisher",
+            "java.util.concurrent.CompletableFuture",
+            "java.util.concurrent.CompletionStage",
+            "java.util.concurrent.Future",
+            "kotlinx.coroutines.flow.Flow",
+            "kotlinx.coroutines.Deferred",
+            "io.reactivex.rxjava3.core.Single",
+            "io.reactivex.rxjava3.core.Maybe",
+            "io.reactivex.rxjava3.core.Completable",
+            "io.reactivex.rxjava3.core.Observable",
+            "io.reactivex.rxjava3.core.Flowable");
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            processElement(element);
+        }
+        return false;
+    }
+
+    private void processElement(Element element) {
+        if (element.getKind() == ElementKind.INTERFACE) {
+            TypeElement type = (TypeElement) element;
+            createClientSpec(type).ifPresent(spec -> generateJavaFile(type, spec));
+        }
+        for (Element enclosedElement : element.getEnclosedElements()) {
+            if (enclosedElement.getKind().isClass() || enclosedElement.getKind().isInterface()) {
+                processElement(enclosedElement);
+            }
+        }
+    }
+
+    private Optional<TypeSpec> createClientSpec(TypeElement type) {
+        if (!type.getTypeParameters().isEmpty()
+                || !type.getInterfaces().isEmpty()
+                || isPrivate(type)
+                || type.getAnnotation(RequestMapping.class) != null) {
+            return Optional.empty();
+        }
+
+        HttpExchange typeAnnot = type.getAnnotation(HttpExchange.class);
+        ClientBuilder builder = new ClientBuilder(type, typeAnnot);
+        for (Element enclosedElement : type.getEnclosedElements()) {
+            if (enclosedElement.getKind() != ElementKind.METHOD) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) enclosedElement;
+            if (method.getModifiers().contains(Modifier.STATIC)
+                    || method.getModifiers().contains(Modifier.PRIVATE)) {
+                continue;
+            }
+            // the runtime proxy sends the request for annotated default methods, so override them as well
+            if (method.getModifiers().contains(Modifier.DEFAULT) && !hasMappingAnnotation(method)) {
+                continue;
+            }
+            if (!builder.addMethod(method)) {
+                return Optional.empty();
+            }
+        }
+        return builder.hasMethods() ? Optional.of(builder.build()) : Optional.empty();
+    }
+
+    /**
+     * Whether the element is annotated with {@code @HttpExchange}/{@code @RequestMapping} or their composed annotations.
+     */
+    private static boolean hasMappingAnnotation(Element element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            Element type = annotation.getAnnotationType().asElement();
+            if (isMappingAnnotation(type)) {
+                return true;
+            }
+            for (AnnotationMirror meta : type.getAnnotationMirrors()) {
+                if (isMappingAnnotation(meta.getAnnotationType().asElement())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isMappingAnnotation(Element type) {
+        String name = ((TypeElement) type).getQualifiedName().toString();
+        return name.equals(HttpExchange.class.getName()) || name.equals(RequestMapping.class.getName());
+    }
+
+    private static boolean isPrivate(Element element) {
+        for (Element e = element; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SneakyThrows
+    private void generateJavaFile(TypeElement element, TypeSpec typeSpec) {
+        String packageName = processingEnv
+                .getElementUtils()
+                .getPackageOf(element)
+                .getQualifiedName()
+                .toString();
+        JavaFile.builder(packageName, typeSpec).build().writeTo(processingEnv.getFiler());
+    }
+
+    private record Exchange(String method, String url, String contentType, String[] accept) {
+
+        private static Exchange of(String method, String value, String url, String contentType, String[] accept) {
+            return new Exchange(method, StringUtils.hasText(value) ? value : url, contentType, accept);
+        }
+
+        private static Optional<Exchange> of(Element element) {
+            List<Exchange> exchanges = new ArrayList<>();
+            HttpExchange http = element.getAnnotation(HttpExchange.class);
+            if (http != null) {
+                exchanges.add(of(http.method(), http.value(), http.url(), http.contentType(), http.accept()));
+            }
+            GetExchange get = element.getAnnotation(GetExchange.class);
+            if (get != null) {
+                exchanges.add(of("GET", get.value(), get.url(), get.contentType(), get.accept()));
+            }
+            PostExchange post = element.getAnnotation(PostExchange.class);
+            if (post != null) {
+                exchanges.add(of("POST", post.value(), post.url(), post.contentType(), post.accept()));
+            }
+            PutExchange put = element.getAnnotation(PutExchange.class);
+            if (put != null) {
+                exchanges.add(of("PUT", put.value(), put.url(), put.contentType(), put.accept()));
+            }
+            DeleteExchange delete = element.getAnnotation(DeleteExchange.class);
+            if (delete != null) {
+                exchanges.add(of("DELETE", delete.value(), delete.url(), delete.contentType(), delete.accept()));
+            }
+            PatchExchange patch = element.getAnnotation(PatchExchange.class);
+            if (patch != null) {
+                exchanges.add(of("PATCH", patch.value(), patch.url(), patch.contentType(), patch.accept()));
+            }
+            return exchanges.size() == 1 ? Optional.of(exchanges.get(0)) : Optional.empty();
+        }
+    }
+
+    private final class ClientBuilder {
+        private final TypeElement type;
+        private final HttpExchange typeAnnot;
+        private final TypeSpec.Builder classBuilder;
+        private final MethodSpec.Builder constructorBuilder;
+        private int methodCount;
+
+        private ClientBuilder(TypeElement type, HttpExchange typeAnnot) {
+            this.type = type;
+            this.typeAnnot = typeAnnot;
+            this.classBuilder = TypeSpec.classBuilder(type.getSimpleName() + GENERATED_CLASS_SUFFIX)
+                    .addModifiers(Modifier.FINAL)
+                    .addSuperinterface(TypeName.get(type.asType()))
+                    .addAnnotation(AnnotationSpec.builder(Generated.class)
+                            .addMember("value", "$S", ExchangeClientProcessor.class.getName())
+                            .addMember("comments", "$S", "Generated by httpexchange-processor, DO NOT modify!")
+                            .build())
+                    .addJavadoc(
+                            "Generated client implementation for {@link $T}, used by httpexchange-spring-boot-starter instead of the runtime proxy.\n",
+                            TypeName.get(type.asType()))
+                    .addField(HttpExchangeAdapter.class, "exchangeAdapter", Modifier.PRIVATE, Modifier.FINAL)
+                    .addField(ConversionService.class, "conversionService", Modifier.PRIVATE, Modifier.FINAL);
+            if (type.getModifiers().contains(Modifier.PUBLIC)) {
+                this.classBuilder.addModifiers(Modifier.PUBLIC);
+            }
+            this.constructorBuilder = MethodSpec.constructorBuilder()
+                    .addModifiers(Modifier.PUBLIC)
+                    .addParameter(HttpExchangeAdapter.class, "exchangeAdapter")
+                    .addParameter(ConversionService.class, "conversionService")
+                    .addParameter(StringValueResolver.class, "embeddedValueResolver")
+                    .addStatement("this.exchangeAdapter = exchangeAdapter")
+                    .addStatement("this.conversionService = conversionService");
+        }
+
+        private boolean hasMethods() {
+            return methodCount > 0;
+        }
+
+        /**
+         * {@code @AliasFor} is not resolved for annotations read at compile time, so check both attributes.
+         */
+        private String typeUrl() {
+            if (typeAnnot == null) {
+                return null;
+            }
+            return StringUtils.hasText(typeAnnot.value()) ? typeAnnot.value() : typeAnnot.url();
+        }
+
+        private boolean addMethod(ExecutableElement method) {
+            Optional<Exchange> exchange = Exchange.of(method);
+            if (exchange.isEmpty() || !method.getTypeParameters().isEmpty()) {
+                return false;
+            }
+            int index = methodCount;
+            String localName = requestValuesVariableName(method);
+
+            MethodSpec.Builder methodBuilder = MethodSpec.methodBuilder(
+                            method.getSimpleName().toString())
+                    .addModifiers(Modifier.PUBLIC)
+                    .addAnnotation(Override.class)
+                    .returns(TypeName.get(method.getReturnType()));
+            for (VariableElement parameter : method.getParameters()) {
+                methodBuilder.addParameter(ParameterSpec.builder(
+                                TypeName.get(parameter.asType()),
+                                parameter.getSimpleName().toString())
+                        .build());
+            }
+
+            CodeBlock.Builder body = CodeBlock.builder();
+            body.addStatement("$T.Builder $N = $T.builder()", HttpRequestValues.class, localName, HttpRequestValues.class);
+            if (!addRequestMetadata(body, exchange.get(), index, localName)) {
+                return false;
+            }
+            for (VariableElement parameter : method.getParameters()) {
+                CodeBlock binding = bindParameter(parameter, localName);
+                if (binding == null) {
+                    return false;
+                }
+                body.add(binding);
+            }
+            CodeBlock exchangeCall = exchangeCall(method.getReturnType(), index, localName);
+            if (exchangeCall == null) {
+                return false;
+            }
+            body.add(exchangeCall);
+
+            classBuilder.addMethod(methodBuilder.addCode(body.build()).build());
+            methodCount++;
+            return true;
+        }
+
+        private boolean addRequestMetadata(CodeBlock.Builder body, Exchange exchange, int index, String localName) {
+            String method = StringUtils.hasText(exchange.method())
+                    ? exchange.method()
+                    : (typeAnnot != null && StringUtils.hasText(typeAnnot.method()) ? typeAnnot.method() : null);
+            if (method != null) {
+                body.addStatement("$N.setHttpMethod($T.valueOf($S))", localName, HttpMethod.class, method);
+            }
+
+            String urlField = "url" + index;
+            classBuilder.addField(String.class, urlField, Modifier.PRIVATE, Modifier.FINAL);
+            constructorBuilder.addStatement(
+                    "this.$N = url(embeddedValueResolver, $S, $S)",
+                    urlField,
+                    typeUrl(),
+                    exchange.url());
+            body.beginControlFlow("if (this.$N != null)", urlField)
+                    .addStatement("$N.setUriTemplate(this.$N)", localName, urlField)
+                    .endControlFlow();
+
+            String contentType = StringUtils.hasText(exchange.contentType())
+                    ? exchange.contentType()
+                    : (typeAnnot != null && StringUtils.hasText(typeAnnot.contentType())
+                            ? typeAnnot.contentType()
+                            : null);
+            if (contentType != null) {
+                String field = "CONTENT_TYPE_" + index;
+                classBuilder.addField(FieldSpec.builder(
+                                MediaType.class, field, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$T.parseMediaType($S)", MediaType.class, contentType)
+                        .build());
+                body.addStatement("$N.setContentType($N)", localName, field);
+            }
+
+            String[] accept = !ObjectUtils.isEmpty(exchange.accept())
+                    ? exchange.accept()
+                    : (typeAnnot != null && !ObjectUtils.isEmpty(typeAnnot.accept()) ? typeAnnot.accept() : null);
+            if (accept != null) {
+                String field = "ACCEPT_" + index;
+                CodeBlock values = Arrays.stream(accept)
+                        .map(it -> CodeBlock.of("$S", it))
+                        .collect(CodeBlock.joining(", "));
+                classBuilder.addField(FieldSpec.builder(
+                                ParameterizedTypeName.get(List.class, MediaType.class),
+                                field,
+                                Modifier.PRIVATE,
+                                Modifier.STATIC,
+                                Modifier.FINAL)
+                        .initializer("$T.parseMediaTypes($T.of($L))", MediaType.class, List.class, values)
+                        .build());
+                body.addStatement("$N.setAccept($N)", localName, field);
+            }
+            return true;
+        }
+
+        private CodeBlock bindParameter(VariableElement parameter, String localName) {
+            String name = parameter.getSimpleName().toString();
+            TypeMirror type = parameter.asType();
+
+            PathVariable pathVariable = parameter.getAnnotation(PathVariable.class);
+            RequestParam requestParam = parameter.getAnnotation(RequestParam.class);
+            RequestHeader requestHeader = parameter.getAnnotation(RequestHeader.class);
+            CookieValue cookieValue = parameter.getAnnotation(CookieValue.class);
+            RequestBody requestBody = parameter.getAnnotation(RequestBody.class);
+            long annotationCount = Stream.of(pathVariable, requestParam, requestHeader, cookieValue, requestBody)
+                    .filter(Objects::nonNull)
+                    .count();
+            if (annotationCount > 1) {
+                return null;
+            }
+
+            if (requestBody != null) {
+                if (type.getKind().isPrimitive() || isAsyncType(type) || isType(type, Optional.class.getName())) {
+                    return null;
+                }
+                return CodeBlock.builder()
+                        .beginControlFlow("if ($N != null)", name)
+                        .addStatement("$N.setBodyValue($N)", localName, name)
+                        .nextControlFlow("else if ($L)", requestBody.required())
+                        .addStatement("throw new $T($S)", IllegalArgumentException.class, "RequestBody is required")
+                        .endControlFlow()
+                        .build();
+            }
+
+            if (isAssignable(type, "java.util.Map")) {
+                return null;
+            }
+            boolean optional = isType(type, Optional.class.getName());
+            if (pathVariable != null) {
+                return namedValue(
+                        localName, "path variable", "setUriVariable", name(pathVariable.name(), pathVariable.value(), name),
+                        name, pathVariable.required() && !optional, null, false);
+            }
+            if (requestParam != null) {
+                return namedValue(
+                        localName, "request parameter", "addRequestParameter",
+                        name(requestParam.name(), requestParam.value(), name), name,
+                        requestParam.required() && !optional, requestParam.defaultValue(), true);
+            }
+            if (requestHeader != null) {
+                return namedValue(
+                        localName, "request header", "addHeader",
+                        name(requestHeader.name(), requestHeader.value(), name), name,
+                        requestHeader.required() && !optional, requestHeader.defaultValue(), true);
+            }
+            if (cookieValue != null) {
+                return namedValue(
+                        localName, "cookie value", "addCookie", name(cookieValue.name(), cookieValue.value(), name),
+                        name, cookieValue.required() && !optional, cookieValue.defaultValue(), true);
+            }
+
+            if (isType(type, "java.net.URI")) {
+                return CodeBlock.builder()
+                        .beginControlFlow("if ($N != null)", name)
+                        .addStatement("$N.setUri($N)", localName, name)
+                        .endControlFlow()
+                        .build();
+            }
+            if (isType(type, HttpMethod.class.getName())) {
+                return CodeBlock.builder()
+                        .beginControlFlow("if ($N == null)", name)
+                        .addStatement("throw new $T($S)", IllegalArgumentException.class, "HttpMethod is required")
+                        .endControlFlow()
+                        .addStatement("$N.setHttpMethod($N)", localName, name)
+                        .build();
+            }
+            return null;
+        }
+
+        private CodeBlock namedValue(
+                String localName,
+                String label,
+                String setter,
+                String name,
+                String parameterName,
+                boolean required,
+                String defaultValue,
+                boolean multiValued) {
+            String defaultValueToUse =
+                    (defaultValue == null || ValueConstants.DEFAULT_NONE.equals(defaultValue)) ? null : defaultValue;
+            return CodeBlock.builder()
+                    .addStatement(
+                            "addValues($S, $S, $N, $L, $S, $L, (k$$, v$$) -> $N.$N(k$$, v$$))",
+                            label,
+                            name,
+                            parameterName,
+                            required,
+                            defaultValueToUse,
+                            multiValued,
+                            localName,
+                            setter)
+                    .build();
+        }
+
+        private CodeBlock exchangeCall(TypeMirror returnType, int index, String localName) {
+            CodeBlock requestValues = CodeBlock.of("$N.build()", localName);
+            if (returnType.getKind() == TypeKind.VOID) {
+                return CodeBlock.builder()
+                        .addStatement("this.exchangeAdapter.exchange($L)", requestValues)
+                        .build();
+            }
+            if (isType(returnType, Void.class.getName())) {
+                return CodeBlock.builder()
+                        .addStatement("this.exchangeAdapter.exchange($L)", requestValues)
+                        .addStatement("return null")
+                        .build();
+            }
+
+            boolean optional = isType(returnType, Optional.class.getName());
+            TypeMirror actualType = returnType;
+            if (optional) {
+                actualType = typeArgument(returnType);
+                if (actualType == null) {
+                    return null;
+                }
+            }
+            if (actualType.getKind() == TypeKind.WILDCARD || isAsyncType(actualType)) {
+                return null;
+            }
+
+            CodeBlock call;
+            if (isType(actualType, HttpHeaders.class.getName())) {
+                call = CodeBlock.of("this.exchangeAdapter.exchangeForHeaders($L)", requestValues);
+            } else if (isType(actualType, "org.springframework.http.ResponseEntity")) {
+                TypeMirror bodyType = typeArgument(actualType);
+                if (bodyType == null || bodyType.getKind() == TypeKind.WILDCARD) {
+                    return null;
+                }
+                call = isType(bodyType, Void.class.getName())
+                        ? CodeBlock.of("this.exchangeAdapter.exchangeForBodilessEntity($L)", requestValues)
+                        : CodeBlock.of(
+                                "this.exchangeAdapter.exchangeForEntity($L, $N)",
+                                requestValues,
+                                typeReferenceField(bodyType, index));
+            } else {
+                call = CodeBlock.of(
+                        "this.exchangeAdapter.exchangeForBody($L, $N)", requestValues, typeReferenceField(actualType, index));
+            }
+
+            return optional
+                    ? CodeBlock.builder()
+                            .addStatement("return $T.ofNullable($L)", Optional.class, call)
+                            .build()
+                    : CodeBlock.builder().addStatement("return $L", call).build();
+        }
+
+        private String typeReferenceField(TypeMirror type, int index) {
+            String field = "TYPE_" + index;
+            TypeName typeReference = ParameterizedTypeName.get(
+                    ClassName.get(ParameterizedTypeReference.class),
+                    TypeName.get(type).box());
+            classBuilder.addField(FieldSpec.builder(
+                            typeReference, field, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer(
+                            "$L",
+                            TypeSpec.anonymousClassBuilder("")
+                                    .addSuperinterface(typeReference)
+                                    .build())
+                    .build());
+            return field;
+        }
+
+        private TypeSpec build() {
+            classBuilder.addMethod(constructorBuilder.build());
+            classBuilder.addMethod(urlMethod());
+            classBuilder.addMethod(addValuesMethod());
+            classBuilder.addMethod(addValueMethod());
+            return classBuilder.build();
+        }
+
+        /**
+         * Same as {@code HttpServiceMethod.HttpRequestValuesInitializer#initUrl}.
+         */
+        private MethodSpec urlMethod() {
+            return MethodSpec.methodBuilder("url")
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .returns(String.class)
+                    .addParameter(StringValueResolver.class, "resolver")
+                    .addParameter(String.class, "url1")
+                    .addParameter(String.class, "url2")
+                    .beginControlFlow("if (resolver != null)")
+                    .addStatement("url1 = (url1 != null ? resolver.resolveStringValue(url1) : null)")
+                    .addStatement("url2 = resolver.resolveStringValue(url2)")
+                    .endControlFlow()
+                    .addStatement("boolean hasUrl1 = $T.hasText(url1)", StringUtils.class)
+                    .addStatement("boolean hasUrl2 = $T.hasText(url2)", StringUtils.class)
+                    .beginControlFlow("if (hasUrl1 && hasUrl2)")
+                    .addStatement(
+                            "return (url1 + (!url1.endsWith(\"/\") && !url2.startsWith(\"/\") ? \"/\" : \"\") + url2)")
+                    .endControlFlow()
+                    .beginControlFlow("if (!hasUrl1 && !hasUrl2)")
+                    .addStatement("return null")
+                    .endControlFlow()
+                    .addStatement("return (hasUrl2 ? url2 : url1)")
+                    .build();
+        }
+
+        /**
+         * Same as {@code AbstractNamedValueArgumentResolver#addSingleOrMultipleValues}.
+         */
+        private MethodSpec addValuesMethod() {
+            return MethodSpec.methodBuilder("addValues")
+                    .addModifiers(Modifier.PRIVATE)
+                    .addParameter(String.class, "label")
+                    .addParameter(String.class, "name")
+                    .addParameter(Object.class, "value")
+                    .addParameter(boolean.class, "required")
+                    .addParameter(String.class, "defaultValue")
+                    .addParameter(boolean.class, "multiValued")
+                    .addParameter(ParameterizedTypeName.get(BiConsumer.class, String.class, String.class), "adder")
+                    .beginControlFlow("if (multiValued)")
+                    .beginControlFlow("if ($T.isArray(value))", ObjectUtils.class)
+                    .addStatement("value = $T.asList($T.toObjectArray(value))", Arrays.class, ObjectUtils.class)
+                    .endControlFlow()
+                    .beginControlFlow("if (value instanceof $T<?> elements)", Collection.class)
+                    .addStatement("boolean hasValues = false")
+                    .beginControlFlow("for (Object element : elements)")
+                    .beginControlFlow("if (element != null)")
+                    .addStatement("hasValues = true")
+                    .addStatement("addValue(label, name, element, false, null, adder)")
+                    .endControlFlow()
+                    .endControlFlow()
+                    .beginControlFlow("if (hasValues)")
+                    .addStatement("return")
+                    .endControlFlow()
+                    .addStatement("value = null")
+                    .endControlFlow()
+                    .endControlFlow()
+                    .addStatement("addValue(label, name, value, required, defaultValue, adder)")
+                    .build();
+        }
+
+        /**
+         * Same as {@code AbstractNamedValueArgumentResolver#addSingleValue}.
+         */
+        private MethodSpec addValueMethod() {
+            return MethodSpec.methodBuilder("addValue")
+                    .addModifiers(Modifier.PRIVATE)
+                    .addParameter(String.class, "label")
+                    .addParameter(String.class, "name")
+                    .addParameter(Object.class, "value")
+                    .addParameter(boolean.class, "required")
+                    .addParameter(String.class, "defaultValue")
+                    .addParameter(ParameterizedTypeName.get(BiConsumer.class, String.class, String.class), "adder")
+                    .beginControlFlow("if (value instanceof $T<?> optional)", Optional.class)
+                    .addStatement("value = optional.orElse(null)")
+                    .endControlFlow()
+                    .beginControlFlow("if (value == null && defaultValue != null)")
+                    .addStatement("value = defaultValue")
+                    .endControlFlow()
+                    .beginControlFlow("if (value != null && !(value instanceof String))")
+                    .addStatement("value = this.conversionService.convert(value, String.class)")
+                    .endControlFlow()
+                    .beginControlFlow("if (value == null)")
+                    .beginControlFlow("if (required)")
+                    .addStatement(
+                            "throw new $T(\"Missing \" + label + \" value '\" + name + \"'\")",
+                            IllegalArgumentException.class)
+                    .endControlFlow()
+                    .addStatement("return")
+                    .endControlFlow()
+                    .addStatement("adder.accept(name, (String) value)")
+                    .build();
+        }
+
+        private String requestValuesVariableName(ExecutableElement method) {
+            String name = "requestValues";
+            while (true) {
+                String candidate = name;
+                if (method.getParameters().stream()
+                        .noneMatch(p -> p.getSimpleName().contentEquals(candidate))) {
+                    return name;
+                }
+                name = name + "$";
+            }
+        }
+    }
+
+    private static String name(String name, String value, String parameterName) {
+        if (StringUtils.hasText(name)) {
+            return name;
+        }
+        return StringUtils.hasText(value) ? value : parameterName;
+    }
+
+    private boolean isType(TypeMirror type, String qualifiedName) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        return element.getQualifiedName().contentEquals(qualifiedName);
+    }
+
+    private boolean isAsyncType(TypeMirror type) {
+        return ASYNC_TYPES.stream().anyMatch(it -> isType(type, it));
+    }
+
+    private boolean isAssignable(TypeMirror type, String qualifiedName) {
+        TypeElement target = processingEnv.getElementUtils().getTypeElement(qualifiedName);
+        if (target == null) {
+            return false;
+        }
+        return processingEnv
+                .getTypeUtils()
+                .isAssignable(
+                        processingEnv.getTypeUtils().erasure(type),
+                        processingEnv.getTypeUtils().erasure(target.asType()));
+    }
+
+    private static TypeMirror typeArgument(TypeMirror type) {
+        if (type instanceof DeclaredType declaredType && declaredType.getTypeArguments().size() == 1) {
+            return declaredType.getTypeArguments().get(0);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.danielliu1123.httpexchange.it.beanparam;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.service.invoker.HttpRequestValues;
+
+class BeanParamBinderTest {
+
+    @Test
+    void testRecordBinder() throws Exception {
+        BiConsumer<Object, HttpRequestValues.Builder> binder = binder("QueryApi_QueryQueryBinder");
+
+        HttpRequestValues.Builder builder = HttpRequestValues.builder();
+        binder.accept(new QueryApi.Query("freeman", null, List.of("a", "b"), new String[] {"admin", null}), builder);
+
+        MultiValueMap<String, String> params = builder.build().getRequestParams();
+        assertEquals(List.of("name", "tags", "roles"), List.copyOf(params.keySet()));
+        assertEquals(List.of("freeman"), params.get("name"));
+        assertEquals(List.of("a", "b"), params.get("tags"));
+        assertEquals(List.of("admin"), params.get("roles"));
+        assertFalse(params.containsKey("age"));
+    }
+
+    @Test
+    void testJavaBeanBinder() throws Exception {
+        BiConsumer<Object, HttpRequestValues.Builder> binder = binder("QueryApi_PageQueryBinder");
+
+        QueryApi.Page page = new QueryApi.Page();
+        page.setPage(2);
+        page.setDesc(true);
+
+        HttpRequestValues.Builder builder = HttpRequestValues.builder();
+        binder.accept(page, builder);
+
+        MultiValueMap<String, String> params = builder.build().getRequestParams();
+        assertEquals(List.of("desc", "page"), List.copyOf(params.keySet()));
+        assertEquals(List.of("2"), params.get("page"));
+        assertEquals(List.of("true"), params.get("desc"));
+    }
+
+    @Test
+    void whenParameterIsRequestBody_thenNotGenerateBinder() {
+        assertThrows(ClassNotFoundException.class, () -> binder("QueryApi_BodyQueryBinder"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, HttpRequestValues.Builder> binder(String simpleName) throws Exception {
+        return (BiConsumer<Object, HttpRequestValues.Builder>) Class.forName(
+                        QueryApi.class.getPackageName() + "." + simpleName)
+                .getConstructor()
+                .newInstance();
+    }
+}
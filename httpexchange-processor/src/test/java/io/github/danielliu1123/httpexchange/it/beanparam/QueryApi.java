@@ -0,0 +1,52 @@
+package io.github.danielliu1123.httpexchange.it.beanparam;
+
+import java.util.List;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.PostExchange;
+
+/**
+ * @author Freeman
+ */
+public interface QueryApi {
+
+    @GetExchange("/users")
+    List<String> list(Query query, Page page);
+
+    @PostExchange("/users")
+    void create(@RequestBody Body body);
+
+    record Query(String name, Integer age, List<String> tags, String[] roles) {}
+
+    record Body(String name) {}
+
+    class Page {
+        private int page;
+        private boolean desc;
+        private String sort;
+
+        public int getPage() {
+            return page;
+        }
+
+        public void setPage(int page) {
+            this.page = page;
+        }
+
+        public boolean isDesc() {
+            return desc;
+        }
+
+        public void setDesc(boolean desc) {
+            this.desc = desc;
+        }
+
+        public String getSort() {
+            return sort;
+        }
+
+        public void setSort(String sort) {
+            this.sort = sort;
+        }
+    }
+}
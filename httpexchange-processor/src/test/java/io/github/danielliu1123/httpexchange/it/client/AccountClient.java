@@ -0,0 +1,25 @@
+package io.github.danielliu1123.httpexchange.it.client;
+
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.HttpExchange;
+
+/**
+ * @author Freeman
+ */
+@HttpExchange("/accounts")
+public interface AccountClient {
+
+    @GetExchange("/{id}")
+    String get(@PathVariable long id);
+
+    @GetExchange("/{id}/name")
+    default String getName(@PathVariable long id) {
+        return "local";
+    }
+
+    default String getOrEmpty(long id) {
+        String account = get(id);
+        return account != null ? account : "";
+    }
+}
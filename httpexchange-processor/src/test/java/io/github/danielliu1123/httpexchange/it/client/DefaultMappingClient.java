@@ -0,0 +1,19 @@
+package io.github.danielliu1123.httpexchange.it.client;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.service.annotation.GetExchange;
+
+/**
+ * @author Freeman
+ */
+public interface DefaultMappingClient {
+
+    @GetExchange("/items/{id}")
+    String get(@PathVariable long id);
+
+    @GetMapping("/items/{id}/name")
+    default String getName(@PathVariable long id) {
+        return "local";
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.danielliu1123.httpexchange.it.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringValueResolver;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpRequestValues;
+
+class ExchangeClientTest {
+
+    @Test
+    void testGeneratedClient() throws Exception {
+        RecordingAdapter adapter = new RecordingAdapter();
+        UserClient client = (UserClient)
+                Class.forName("io.github.danielliu1123.httpexchange.it.client.UserClientExchangeClient")
+                        .getConstructor(HttpExchangeAdapter.class, ConversionService.class, StringValueResolver.class)
+                        .newInstance(adapter, new DefaultConversionService(), null);
+
+        assertEquals("OK", client.get(1L, List.of("a", "b"), "trace").orElseThrow());
+        assertEquals(HttpMethod.GET, adapter.requestValues.getHttpMethod());
+        assertEquals("/users/{id}", adapter.requestValues.getUriTemplate());
+        assertEquals("1", adapter.requestValues.getUriVariables().get("id"));
+        assertEquals(List.of("a", "b"), adapter.requestValues.getRequestParams().get("tags"));
+        assertEquals("trace", adapter.requestValues.getHeaders().getFirst("X-Trace"));
+
+        assertEquals("OK", client.getOrEmpty(2L));
+        assertTrue(adapter.requestValues.getRequestParams().isEmpty());
+
+        client.create("{}");
+        assertEquals(HttpMethod.POST, adapter.requestValues.getHttpMethod());
+        assertEquals("/users", adapter.requestValues.getUriTemplate());
+        assertEquals(MediaType.APPLICATION_JSON, adapter.requestValues.getHeaders().getContentType());
+        assertEquals("{}", adapter.requestValues.getBodyValue());
+
+        assertThrows(IllegalArgumentException.class, () -> client.get(1L, null, null));
+    }
+
+    @Test
+    void testGeneratedClient_whenTypeLevelValue_thenPrefixUri() throws Exception {
+        RecordingAdapter adapter = new RecordingAdapter();
+        UserClient client = (UserClient)
+                Class.forName("io.github.danielliu1123.httpexchange.it.client.UserClientExchangeClient")
+                        .getConstructor(HttpExchangeAdapter.class, ConversionService.class, StringValueResolver.class)
+                        .newInstance(adapter, new DefaultConversionService(), null);
+
+        client.get(1L, null, "trace");
+        assertEquals("/users/{id}", adapter.requestValues.getUriTemplate());
+    }
+
+    @Test
+    void testGeneratedClient_whenTypeLevelUrl_thenPrefixUri() throws Exception {
+        RecordingAdapter adapter = new RecordingAdapter();
+        OrderClient client = (OrderClient)
+                Class.forName("io.github.danielliu1123.httpexchange.it.client.OrderClientExchangeClient")
+                        .getConstructor(HttpExchangeAdapter.class, ConversionService.class, StringValueResolver.class)
+                        .newInstance(adapter, new DefaultConversionService(), null);
+
+        assertEquals("OK", client.get(1L));
+        assertEquals("/orders/{id}", adapter.requestValues.getUriTemplate());
+        assertEquals("1", adapter.requestValues.getUriVariables().get("id"));
+    }
+
+    @Test
+    void testGeneratedClient_whenDefaultMethodIsExchangeMethod_thenSendRequest() throws Exception {
+        RecordingAdapter adapter = new RecordingAdapter();
+        AccountClient client = (AccountClient)
+                Class.forName("io.github.danielliu1123.httpexchange.it.client.AccountClientExchangeClient")
+                        .getConstructor(HttpExchangeAdapter.class, ConversionService.class, StringValueResolver.class)
+                        .newInstance(adapter, new DefaultConversionService(), null);
+
+        assertEquals("OK", client.getName(1L));
+        assertEquals("/accounts/{id}/name", adapter.requestValues.getUriTemplate());
+        assertEquals("1", adapter.requestValues.getUriVariables().get("id"));
+
+        assertEquals("OK", client.getOrEmpty(2L));
+        assertEquals("/accounts/{id}", adapter.requestValues.getUriTemplate());
+    }
+
+    @Test
+    void whenInterfaceNotFullySupported_thenNotGenerateClient() {
+        assertThrows(ClassNotFoundException.class, () -> {
+            Class.forName("io.github.danielliu1123.httpexchange.it.client.UnsupportedClientExchangeClient");
+        });
+        assertThrows(ClassNotFoundException.class, () -> {
+            Class.forName("io.github.danielliu1123.httpexchange.it.normal.GenericTypeApiExchangeClient");
+        });
+        assertThrows(ClassNotFoundException.class, () -> {
+            Class.forName("io.github.danielliu1123.httpexchange.it.normal.Api3ExchangeClient");
+        });
+        // annotated default method the generator can't override, left to the runtime proxy
+        assertThrows(ClassNotFoundException.class, () -> {
+            Class.forName("io.github.danielliu1123.httpexchange.it.client.DefaultMappingClientExchangeClient");
+        });
+    }
+
+    static class RecordingAdapter implements HttpExchangeAdapter {
+
+        HttpRequestValues requestValues;
+
+        @Override
+        public boolean supportsRequestAttributes() {
+            return false;
+        }
+
+        @Override
+        public void exchange(HttpRequestValues requestValues) {
+            this.requestValues = requestValues;
+        }
+
+        @Override
+        public HttpHeaders exchangeForHeaders(HttpRequestValues requestValues) {
+            this.requestValues = requestValues;
+            return new HttpHeaders();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T exchangeForBody(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+            this.requestValues = requestValues;
+            return (T) "OK";
+        }
+
+        @Override
+        public ResponseEntity<Void> exchangeForBodilessEntity(HttpRequestValues requestValues) {
+            this.requestValues = requestValues;
+            return ResponseEntity.ok().build();
+        }
+
+        @Override
+        public <T> ResponseEntity<T> exchangeForEntity(
+                HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+            this.requestValues = requestValues;
+            return ResponseEntity.ok().build();
+        }
+    }
+
+    @Test
+    void testClientIndex() throws Exception {
+        try (var is = getClass().getClassLoader().getResourceAsStream("META-INF/httpexchange/clients.index")) {
+            assertNotNull(is);
+            List<String> clients =
+                    List.of(new String(is.readAllBytes(), StandardCharsets.UTF_8).split("\n"));
+            assertTrue(clients.contains(UserClient.class.getName()));
+            assertTrue(clients.contains(UnsupportedClient.class.getName()));
+            assertTrue(clients.contains("io.github.danielliu1123.httpexchange.it.normal.Class1$Api6"));
+            assertTrue(clients.contains("io.github.danielliu1123.httpexchange.it.normal.Class1$Api7"));
+            assertFalse(clients.contains("io.github.danielliu1123.httpexchange.it.normal.Class1$Api8"));
+            assertFalse(clients.contains("io.github.danielliu1123.httpexchange.it.normal.Class1"));
+        }
+    }
+}
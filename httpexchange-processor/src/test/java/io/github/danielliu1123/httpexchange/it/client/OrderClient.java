@@ -0,0 +1,15 @@
+package io.github.danielliu1123.httpexchange.it.client;
+
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.HttpExchange;
+
+/**
+ * @author Freeman
+ */
+@HttpExchange(url = "/orders")
+public interface OrderClient {
+
+    @GetExchange(url = "/{id}")
+    String get(@PathVariable long id);
+}
@@ -0,0 +1,12 @@
+package io.github.danielliu1123.httpexchange.it.client;
+
+import org.springframework.web.service.annotation.GetExchange;
+
+/**
+ * @author Freeman
+ */
+public interface UnsupportedClient {
+
+    @GetExchange("/bean")
+    String getByBean(Object bean);
+}
@@ -0,0 +1,32 @@
+package io.github.danielliu1123.httpexchange.it.client;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PostExchange;
+
+/**
+ * @author Freeman
+ */
+@HttpExchange("/users")
+public interface UserClient {
+
+    @GetExchange("/{id}")
+    Optional<String> get(
+            @PathVariable long id,
+            @RequestParam(required = false) List<String> tags,
+            @RequestHeader("X-Trace") String trace);
+
+    @PostExchange(contentType = "application/json")
+    ResponseEntity<Void> create(@RequestBody String body);
+
+    default String getOrEmpty(long id) {
+        return get(id, null, "trace").orElse("");
+    }
+}
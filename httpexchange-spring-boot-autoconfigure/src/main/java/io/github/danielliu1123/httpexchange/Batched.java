@@ -0,0 +1,61 @@
+package io.github.danielliu1123.httpexchange;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Collect the calls of a single-key method made within a short window, and send them as one call of the bulk method.
+ *
+ * <p> Example:
+ * <pre>{@code
+ * @HttpExchange("/users")
+ * interface UserApi {
+ *     @GetExchange("/{id}")
+ *     @Batched(target = "batchGet", maxSize = 100, maxDelay = "5ms")
+ *     User get(@PathVariable String id);
+ *
+ *     @PostExchange(":batchGet")
+ *     Map<String, User> batchGet(@RequestBody List<String> ids);
+ * }
+ * }</pre>
+ *
+ * <p> Requirements:
+ * <ul>
+ *     <li> The annotated method has exactly one parameter (the key), and a blocking return type.</li>
+ *     <li> The target method has exactly one {@link java.util.Collection} or array parameter (the keys).</li>
+ *     <li> The target method returns a {@link java.util.Map} keyed by the key,
+ *          or a {@link java.util.Collection}/array in the same order as the keys.</li>
+ * </ul>
+ *
+ * <p> The first call of a window waits at most {@link #maxDelay()} for other calls, then sends the bulk call
+ * on its own thread, so no extra thread is used. Duplicate keys in a window are sent once.
+ * If the bulk call fails, each call of the window fails with the exception of the bulk call, the same as a call
+ * that is not batched. A {@link java.util.Map} result without the key of a call fails that call.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+public @interface Batched {
+    /**
+     * Name of the bulk method in the same interface.
+     */
+    String target();
+
+    /**
+     * Max number of distinct keys of a bulk call, the bulk call is sent immediately when reached.
+     */
+    int maxSize() default 100;
+
+    /**
+     * Max time to wait for other calls, e.g. {@code 5ms}, supports {@code ${}} placeholder.
+     *
+     * @see org.springframework.boot.convert.DurationStyle
+     */
+    String maxDelay() default "5ms";
+}
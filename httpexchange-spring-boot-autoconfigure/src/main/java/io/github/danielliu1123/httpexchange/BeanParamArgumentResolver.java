@@ -1,26 +1,33 @@
 package io.github.danielliu1123.httpexchange;
 
+import io.github.danielliu1123.httpexchange.shaded.SelectiveArgumentResolver;
 import java.beans.PropertyDescriptor;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
-import org.springframework.beans.BeanWrapper;
-import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpMethod;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.service.invoker.HttpRequestValues;
-import org.springframework.web.service.invoker.HttpServiceArgumentResolver;
 import org.springframework.web.util.UriBuilderFactory;
 
 /**
@@ -30,18 +37,51 @@ import org.springframework.web.util.UriBuilderFactory;
  *
  * <p> {@code Spring Cloud OpenFeign} or {@code Http Exchange} of Spring 6 does not support this feature by default.
  *
+ * <p> If the Java bean has a query binder generated by {@code httpexchange-processor},
+ * the binder will be used, otherwise the properties are read by the getters cached per class.
+ *
+ * <p> Nested Java beans are flattened, e.g. {@code address.city=Shanghai}.
+ *
  * <p> NOTE: make this class as public, give a chance to be replaced by user.
  *
  * @author Freeman
  * @see HttpExchangeAutoConfiguration#beanParamArgumentResolver(HttpExchangeProperties)
  */
-public class BeanParamArgumentResolver implements HttpServiceArgumentResolver, Ordered {
+public class BeanParamArgumentResolver implements SelectiveArgumentResolver, Ordered {
     private static final Logger log = LoggerFactory.getLogger(BeanParamArgumentResolver.class);
 
     public static final int ORDER = 0;
 
     private static final String WEB_BIND_ANNOTATION_PACKAGE = RequestParam.class.getPackageName();
 
+    /**
+     * NOTE: keep the same as {@code BeanParamBinderProcessor}.
+     */
+    static final String GENERATED_BINDER_SUFFIX = "QueryBinder";
+
+    /**
+     * Max depth of nested Java beans, avoid infinite recursion for cyclic references.
+     */
+    private static final int MAX_NESTING_DEPTH = 8;
+
+    private static final Binder NON_RESOLVABLE = (bean, requestValues) -> false;
+
+    private static final ClassValue<Binder> binders = new ClassValue<>() {
+        @Override
+        protected Binder computeValue(Class<?> type) {
+            return createBinder(type);
+        }
+    };
+
+    private static final ClassValue<PropertyGetter[]> getters = new ClassValue<>() {
+        @Override
+        protected PropertyGetter[] computeValue(Class<?> type) {
+            return createGetters(type);
+        }
+    };
+
+    private final Map<MethodParameter, ParameterInfo> parameterInfos = new ConcurrentHashMap<>();
+
     private final HttpExchangeProperties properties;
 
     public BeanParamArgumentResolver(HttpExchangeProperties properties) {
@@ -50,18 +90,34 @@ public class BeanParamArgumentResolver implements HttpServiceArgumentResolver, O
 
     @Override
     public boolean resolve(Object argument, MethodParameter parameter, HttpRequestValues.Builder requestValues) {
-        if (isNonResolvableArgument(argument, parameter)) {
+        // If there is @RequestParam, @PathVariable, @RequestHeader, @CookieValue, etc.,
+        // we cannot convert Java bean to request parameters,
+        // it will be resolved by other ArgumentResolver.
+        ParameterInfo info = parameterInfos.computeIfAbsent(parameter, ParameterInfo::of);
+        if (argument == null || info.hasWebBindPackageAnnotation()) {
             return false;
         }
-
-        if (hasAnnotation(parameter, BeanParam.class)) {
-            return process(argument, requestValues);
+        if (!info.hasBeanParamAnnotation() && !properties.isBeanToQueryEnabled()) {
+            return false;
         }
+        return binders.get(argument.getClass()).bind(argument, requestValues);
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        // Runtime types of these declared types are never resolvable, see isNonResolvableType
+        return !isNonResolvableType(type)
+                && !Map.class.isAssignableFrom(type)
+                && !hasWebBindPackageAnnotation(parameter);
+    }
 
-        return properties.isBeanToQueryEnabled() && process(argument, requestValues);
+    @Override
+    public int getOrder() {
+        return ORDER;
     }
 
-    private static boolean process(Object argument, HttpRequestValues.Builder requestValues) {
+    private static Binder createBinder(Class<?> type) {
         /*
         NOTE: why not convert map to request parameters?
 
@@ -74,75 +130,115 @@ public class BeanParamArgumentResolver implements HttpServiceArgumentResolver, O
 
         So on the client side, we do the same thing as the server side, DO NOT convert map to request parameters.
         */
-        if (argument instanceof Map) {
-            return false;
+        if (isNonResolvableType(type) || Map.class.isAssignableFrom(type)) {
+            return NON_RESOLVABLE;
         }
-        Map<String, Object> nameToValue = getPropertyValueMap(argument);
-        populateRequestValuesFromMap(requestValues, nameToValue);
-        return true;
+        BiConsumer<Object, HttpRequestValues.Builder> generatedBinder = findGeneratedBinder(type);
+        if (generatedBinder != null) {
+            return (bean, requestValues) -> {
+                generatedBinder.accept(bean, requestValues);
+                return true;
+            };
+        }
+        PropertyGetter[] propertyGetters = getters.get(type);
+        return (bean, requestValues) -> {
+            try {
+                populateRequestValues(requestValues, "", bean, propertyGetters, 0);
+            } catch (Throwable e) {
+                log.warn("Failed to convert object[{}] to request parameters", bean.getClass(), e);
+            }
+            return true;
+        };
     }
 
-    @Override
-    public int getOrder() {
-        return ORDER;
+    private static boolean isNonResolvableType(Class<?> type) {
+        return URI.class.isAssignableFrom(type) // UrlArgumentResolver
+                || HttpMethod.class.isAssignableFrom(type) // HttpMethodArgumentResolver
+                || UriBuilderFactory.class.isAssignableFrom(type) // UriBuilderFactoryArgumentResolver
+                || MultipartFile.class.isAssignableFrom(type) // RequestPartArgumentResolver
+                || BeanUtils.isSimpleValueType(type);
     }
 
-    private static boolean isNonResolvableArgument(Object argument, MethodParameter parameter) {
-        // If there is @RequestParam, @PathVariable, @RequestHeader, @CookieValue, etc.,
-        // we cannot convert Java bean to request parameters,
-        // it will be resolved by other ArgumentResolver.
-        return argument == null
-                || argument instanceof URI // UrlArgumentResolver
-                || argument instanceof HttpMethod // HttpMethodArgumentResolver
-                || argument instanceof UriBuilderFactory // UriBuilderFactoryArgumentResolver
-                || argument instanceof MultipartFile // RequestPartArgumentResolver
-                || BeanUtils.isSimpleValueType(argument.getClass())
-                || hasWebBindPackageAnnotation(parameter);
+    /**
+     * Find the query binder generated by {@code httpexchange-processor},
+     * {@code com.example.Outer$Bean} -> {@code com.example.Outer_BeanQueryBinder}.
+     */
+    @SuppressWarnings("unchecked")
+    static BiConsumer<Object, HttpRequestValues.Builder> findGeneratedBinder(Class<?> type) {
+        String binderName = generatedBinderName(type);
+        ClassLoader classLoader = type.getClassLoader();
+        if (!ClassUtils.isPresent(binderName, classLoader)) {
+            return null;
+        }
+        try {
+            Class<?> binderClass = ClassUtils.forName(binderName, classLoader);
+            if (!BiConsumer.class.isAssignableFrom(binderClass)) {
+                return null;
+            }
+            return (BiConsumer<Object, HttpRequestValues.Builder>) BeanUtils.instantiateClass(binderClass);
+        } catch (Exception e) {
+            log.warn("Failed to instantiate generated binder [{}], fallback to reflection", binderName, e);
+            return null;
+        }
     }
 
-    private static boolean hasAnnotation(MethodParameter parameter, Class<? extends Annotation> annotationClass) {
-        for (Annotation anno : parameter.getParameterAnnotations()) {
-            if (anno.annotationType() == annotationClass) {
-                return true;
+    static String generatedBinderName(Class<?> type) {
+        String packageName = type.getPackageName();
+        String simpleName = packageName.isEmpty()
+                ? type.getName()
+                : type.getName().substring(packageName.length() + 1);
+        return type.getName().substring(0, type.getName().length() - simpleName.length())
+                + simpleName.replace('$', '_')
+                + GENERATED_BINDER_SUFFIX;
+    }
+
+    private static PropertyGetter[] createGetters(Class<?> type) {
+        List<PropertyGetter> result = new ArrayList<>();
+        if (type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                addGetter(result, component.getName(), component.getAccessor());
+            }
+        } else {
+            for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(type)) {
+                if (pd.getReadMethod() != null && !Objects.equals(pd.getName(), "class")) {
+                    addGetter(result, pd.getName(), pd.getReadMethod());
+                }
             }
         }
-        return false;
+        return result.toArray(PropertyGetter[]::new);
     }
 
-    private static Map<String, Object> getPropertyValueMap(Object source) {
-        Map<String, Object> result = new LinkedHashMap<>();
+    private static void addGetter(List<PropertyGetter> getters, String name, Method readMethod) {
         try {
-            BeanWrapper src = new BeanWrapperImpl(source);
-            PropertyDescriptor[] pds = src.getPropertyDescriptors();
-            for (PropertyDescriptor pd : pds) {
-                String name = pd.getName();
-                Object srcValue = src.getPropertyValue(name);
-                if (!Objects.equals(name, "class")) {
-                    result.put(name, srcValue);
-                }
-            }
+            ReflectionUtils.makeAccessible(readMethod);
+            MethodHandle handle = MethodHandles.lookup()
+                    .unreflect(readMethod)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            getters.add(new PropertyGetter(name, handle));
         } catch (Exception e) {
-            log.warn("Failed to convert object[{}] to request parameters", source.getClass(), e);
+            log.warn("Failed to access property [{}] of [{}], ignored", name, readMethod.getDeclaringClass(), e);
         }
-        return result;
     }
 
-    private static void populateRequestValuesFromMap(
-            HttpRequestValues.Builder requestValues, Map<String, Object> nameToValue) {
-        nameToValue.forEach((k, v) -> {
+    private static void populateRequestValues(
+            HttpRequestValues.Builder requestValues,
+            String prefix,
+            Object bean,
+            PropertyGetter[] propertyGetters,
+            int depth)
+            throws Throwable {
+        for (PropertyGetter getter : propertyGetters) {
+            Object v = (Object) getter.handle().invokeExact(bean);
             if (v == null) {
-                return;
+                continue;
             }
+            String k = prefix.isEmpty() ? getter.name() : prefix + getter.name();
             Class<?> clz = v.getClass();
             if (BeanUtils.isSimpleValueType(clz)) {
                 requestValues.addRequestParameter(k, v.toString());
-            } else if (clz.isArray() && BeanUtils.isSimpleValueType(clz.getComponentType())) {
-                String[] arrValue = Arrays.stream((Object[]) v)
-                        .filter(Objects::nonNull)
-                        .map(Object::toString)
-                        .toArray(String[]::new);
-                if (arrValue.length > 0) {
-                    requestValues.addRequestParameter(k, arrValue);
+            } else if (clz.isArray()) {
+                if (BeanUtils.isSimpleValueType(clz.getComponentType())) {
+                    addArrayValue(requestValues, k, v);
                 }
             } else if (v instanceof Iterable<?> iter) {
                 List<String> values = new ArrayList<>();
@@ -154,8 +250,40 @@ public class BeanParamArgumentResolver implements HttpServiceArgumentResolver, O
                 if (!values.isEmpty()) {
                     requestValues.addRequestParameter(k, values.toArray(String[]::new));
                 }
+            } else if (isNestedBean(clz) && depth < MAX_NESTING_DEPTH) {
+                populateRequestValues(requestValues, k + ".", v, getters.get(clz), depth + 1);
             }
-        });
+        }
+    }
+
+    private static void addArrayValue(HttpRequestValues.Builder requestValues, String name, Object array) {
+        if (!(array instanceof Object[] arr)) {
+            // primitive array
+            int length = Array.getLength(array);
+            String[] values = new String[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = String.valueOf(Array.get(array, i));
+            }
+            if (length > 0) {
+                requestValues.addRequestParameter(name, values);
+            }
+            return;
+        }
+        String[] values = Arrays.stream(arr)
+                .filter(Objects::nonNull)
+                .map(Object::toString)
+                .toArray(String[]::new);
+        if (values.length > 0) {
+            requestValues.addRequestParameter(name, values);
+        }
+    }
+
+    private static boolean isNestedBean(Class<?> type) {
+        // JDK types (Optional, Map, etc.) are not treated as Java beans
+        return !Map.class.isAssignableFrom(type)
+                && !type.getName().startsWith("java.")
+                && !type.getName().startsWith("javax.")
+                && !isNonResolvableType(type);
     }
 
     private static boolean hasWebBindPackageAnnotation(MethodParameter parameter) {
@@ -166,4 +294,33 @@ public class BeanParamArgumentResolver implements HttpServiceArgumentResolver, O
         }
         return false;
     }
+
+    private static boolean hasAnnotation(MethodParameter parameter, Class<? extends Annotation> annotationClass) {
+        for (Annotation anno : parameter.getParameterAnnotations()) {
+            if (anno.annotationType() == annotationClass) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Bind a Java bean to request values.
+     */
+    @FunctionalInterface
+    private interface Binder {
+        /**
+         * @return whether the bean is resolved
+         */
+        boolean bind(Object bean, HttpRequestValues.Builder requestValues);
+    }
+
+    private record PropertyGetter(String name, MethodHandle handle) {}
+
+    private record ParameterInfo(boolean hasBeanParamAnnotation, boolean hasWebBindPackageAnnotation) {
+        static ParameterInfo of(MethodParameter parameter) {
+            return new ParameterInfo(
+                    hasAnnotation(parameter, BeanParam.class), hasWebBindPackageAnnotation(parameter));
+        }
+    }
 }
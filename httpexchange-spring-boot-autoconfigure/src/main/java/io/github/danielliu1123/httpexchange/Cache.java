@@ -1,24 +1,62 @@
 package io.github.danielliu1123.httpexchange;
 
+import io.github.danielliu1123.httpexchange.shaded.AsyncRequestExecutor;
+import jakarta.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import lombok.experimental.UtilityClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 
 /**
+ * Cache of clients and the objects shared by the clients of the same channel.
+ *
+ * <p> Entries are keyed by {@link ChannelFingerprint} and retained by the clients created from them.
+ * An entry is evicted when it's no longer configured after a refresh, or when the cache exceeds its max size
+ * and the entry is not used by any client. The transport of an evicted entry is released when its last client is destroyed.
+ *
  * @author Freeman
  */
 @UtilityClass
 class Cache {
+    private static final Logger log = LoggerFactory.getLogger(Cache.class);
+
+    static final int DEFAULT_MAX_SIZE = 256;
+
     /**
      * Cache all clients.
      */
     private static final Map<Class<?>, Object> classToInstance = new ConcurrentHashMap<>();
 
-    private static final Map<HttpExchangeProperties.Channel, HttpServiceProxyFactory.Builder> cfgToBuilder =
-            new ConcurrentHashMap<>();
+    private static final Object lock = new Object();
+
+    /**
+     * Access-ordered, the eldest entry is the least recently used one, guarded by {@link #lock}.
+     */
+    private static final Map<ChannelFingerprint, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Guarded by {@link #lock}.
+     */
+    private static final Map<Object, Entry> clientToEntry = new IdentityHashMap<>();
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+
+    private static volatile int maxSize = DEFAULT_MAX_SIZE;
 
     /**
      * Add a client to cache.
@@ -39,22 +77,368 @@ class Cache {
     }
 
     /**
-     * Get or supply a {@link HttpServiceProxyFactory.Builder}.
+     * Get the entry of the channel, create one if absent.
+     *
+     * @param cfg channel config
+     * @return the entry
+     */
+    public static Entry getEntry(HttpExchangeProperties.Channel cfg) {
+        ChannelFingerprint fingerprint = ChannelFingerprint.of(cfg);
+        Entry entry;
+        List<Entry> toClose;
+        synchronized (lock) {
+            entry = entries.get(fingerprint);
+            if (entry != null) {
+                hits.incrementAndGet();
+                return entry;
+            }
+            misses.incrementAndGet();
+            entry = new Entry(fingerprint);
+            entries.put(fingerprint, entry);
+            toClose = evictOverflow(entry);
+        }
+        toClose.forEach(Entry::close);
+        return entry;
+    }
+
+    /**
+     * Retain the entry for the given client until the client is {@link #release released}.
+     *
+     * @param entry  entry the client is created from
+     * @param client client
+     * @return false if the entry has been closed, the client should be recreated from a new entry
+     */
+    public static boolean retain(Entry entry, Object client) {
+        synchronized (lock) {
+            if (entry.closed) {
+                return false;
+            }
+            if (clientToEntry.putIfAbsent(client, entry) == null) {
+                entry.clients++;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Whether the client retains an entry.
+     *
+     * @param client client
+     * @return true if the client retains an entry
+     */
+    public static boolean isRetained(Object client) {
+        synchronized (lock) {
+            return clientToEntry.containsKey(client);
+        }
+    }
+
+    /**
+     * Release the entry retained by the client, close the entry if it's evicted and this is the last client.
+     *
+     * @param client client
+     */
+    public static void release(Object client) {
+        Entry toClose = null;
+        synchronized (lock) {
+            Entry entry = clientToEntry.remove(client);
+            if (entry != null && --entry.clients == 0 && entry.evicted) {
+                entry.closed = true;
+                toClose = entry;
+            }
+        }
+        if (toClose != null) {
+            toClose.close();
+        }
+    }
+
+    /**
+     * Get the fingerprint of the channel the client is created from.
      *
-     * @param cfg      channel config
-     * @param supplier {@link HttpServiceProxyFactory.Builder} supplier
-     * @return {@link HttpServiceProxyFactory.Builder}
+     * @param client client
+     * @return the fingerprint, or {@code null} if the client doesn't retain an entry
      */
-    public static HttpServiceProxyFactory.Builder getOrSupply(
-            HttpExchangeProperties.Channel cfg, Supplier<HttpServiceProxyFactory.Builder> supplier) {
-        return cfgToBuilder.computeIfAbsent(cfg, k -> supplier.get());
+    @Nullable
+    public static ChannelFingerprint getFingerprint(Object client) {
+        synchronized (lock) {
+            Entry entry = clientToEntry.get(client);
+            return entry != null ? entry.fingerprint : null;
+        }
     }
 
     /**
-     * Clear cache.
+     * Set the transport used by the clients of the entry, the transport is {@link TransportRegistry#acquire acquired}
+     * for the entry and released when the entry is closed.
+     *
+     * @param entry     entry
+     * @param transport transport retained by the entry
+     */
+    public static void setTransport(Entry entry, TransportRegistry.Transport transport) {
+        boolean entryClosed;
+        synchronized (lock) {
+            entry.transport = transport;
+            entryClosed = entry.closed;
+        }
+        if (entryClosed) {
+            // Evicted while building, the client will be recreated from a new entry
+            TransportRegistry.release(entry);
+        }
+    }
+
+    /**
+     * Run the action when the entry is closed, e.g. to unregister the state of the channel from global registries.
+     *
+     * @param entry  entry
+     * @param action action to run once the entry is closed, run immediately if the entry is already closed
+     */
+    public static void onClose(Entry entry, Runnable action) {
+        boolean entryClosed;
+        synchronized (lock) {
+            entryClosed = entry.closed;
+            if (!entryClosed) {
+                entry.closeActions.add(action);
+            }
+        }
+        if (entryClosed) {
+            action.run();
+        }
+    }
+
+    /**
+     * Evict the entries not belonging to the given channels, e.g. after configuration refreshed.
+     *
+     * @param channels channels currently configured
+     * @return number of evicted entries
+     */
+    public static int evictAllExcept(Collection<HttpExchangeProperties.Channel> channels) {
+        Set<ChannelFingerprint> live =
+                channels.stream().map(ChannelFingerprint::of).collect(Collectors.toSet());
+        List<Entry> toClose = new ArrayList<>();
+        int count = 0;
+        synchronized (lock) {
+            for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+                Entry entry = it.next();
+                if (!live.contains(entry.fingerprint)) {
+                    it.remove();
+                    count++;
+                    if (markEvicted(entry)) {
+                        toClose.add(entry);
+                    }
+                }
+            }
+        }
+        evictions.addAndGet(count);
+        toClose.forEach(Entry::close);
+        return count;
+    }
+
+    /**
+     * Evict the entries no longer configured after the clients are refreshed.
+     *
+     * @param properties refreshed properties
+     * @param refreshed  names of the refreshed clients
+     */
+    public static void evictStale(HttpExchangeProperties properties, List<String> refreshed) {
+        List<HttpExchangeProperties.Channel> channels = new ArrayList<>(properties.getChannels());
+        channels.add(properties.defaultClient());
+        int evicted = evictAllExcept(channels);
+
+        if (!refreshed.isEmpty() || evicted > 0) {
+            log.info("Refreshed http exchange clients {}, evicted {} stale cache entries", refreshed, evicted);
+        }
+    }
+
+    /**
+     * Get cache statistics.
+     *
+     * @return statistics
+     */
+    public static Stats stats() {
+        synchronized (lock) {
+            return new Stats(hits.get(), misses.get(), evictions.get(), entries.size());
+        }
+    }
+
+    /**
+     * Clear cache, the entries still used by clients are closed when their last client is destroyed.
      */
     public static void clear() {
         classToInstance.clear();
-        cfgToBuilder.clear();
+        List<Entry> toClose = new ArrayList<>();
+        synchronized (lock) {
+            for (Entry entry : entries.values()) {
+                if (markEvicted(entry)) {
+                    toClose.add(entry);
+                }
+            }
+            entries.clear();
+        }
+        toClose.forEach(Entry::close);
+    }
+
+    static void setMaxSize(int maxSize) {
+        Cache.maxSize = maxSize;
+    }
+
+    /**
+     * Guarded by {@link #lock}.
+     */
+    private static List<Entry> evictOverflow(Entry current) {
+        List<Entry> toClose = new ArrayList<>();
+        int overflow = entries.size() - maxSize;
+        for (Iterator<Entry> it = entries.values().iterator(); overflow > 0 && it.hasNext(); ) {
+            Entry entry = it.next();
+            // Entries used by clients are never evicted for capacity, the cache may exceed its max size temporarily
+            if (entry != current && entry.clients == 0) {
+                it.remove();
+                overflow--;
+                evictions.incrementAndGet();
+                markEvicted(entry);
+                toClose.add(entry);
+            }
+        }
+        return toClose;
+    }
+
+    /**
+     * Guarded by {@link #lock}.
+     *
+     * @return true if the entry should be closed now
+     */
+    private static boolean markEvicted(Entry entry) {
+        entry.evicted = true;
+        if (entry.clients == 0) {
+            entry.closed = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Cache statistics.
+     *
+     * @param hits      number of lookups finding an existing entry
+     * @param misses    number of lookups creating a new entry
+     * @param evictions number of evicted entries
+     * @param size      number of entries
+     */
+    record Stats(long hits, long misses, long evictions, int size) {}
+
+    /**
+     * Objects shared by the clients of the same channel.
+     */
+    static final class Entry {
+        private final ChannelFingerprint fingerprint;
+        private volatile HttpServiceProxyFactory.Builder builder;
+        private volatile AsyncRequestExecutor asyncRequestExecutor;
+        private volatile ResponseCacheStore responseCacheStore;
+        private volatile TransportRegistry.Transport transport;
+        /**
+         * Guarded by {@link #lock}.
+         */
+        private int clients;
+        /**
+         * Guarded by {@link #lock}.
+         */
+        private boolean evicted;
+        /**
+         * Guarded by {@link #lock}.
+         */
+        private boolean closed;
+        /**
+         * Guarded by {@link #lock}.
+         */
+        private final List<Runnable> closeActions = new ArrayList<>();
+
+        private Entry(ChannelFingerprint fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * Get or supply a {@link HttpServiceProxyFactory.Builder}.
+         *
+         * @param supplier {@link HttpServiceProxyFactory.Builder} supplier
+         * @return {@link HttpServiceProxyFactory.Builder}
+         */
+        HttpServiceProxyFactory.Builder getOrSupplyBuilder(Supplier<HttpServiceProxyFactory.Builder> supplier) {
+            HttpServiceProxyFactory.Builder result = builder;
+            if (result == null) {
+                synchronized (this) {
+                    result = builder;
+                    if (result == null) {
+                        result = supplier.get();
+                        builder = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Get or supply a {@link AsyncRequestExecutor}, the max in-flight limit is shared by all clients of the channel.
+         *
+         * @param supplier {@link AsyncRequestExecutor} supplier
+         * @return {@link AsyncRequestExecutor}
+         */
+        AsyncRequestExecutor getOrSupplyAsyncRequestExecutor(Supplier<AsyncRequestExecutor> supplier) {
+            AsyncRequestExecutor result = asyncRequestExecutor;
+            if (result == null) {
+                synchronized (this) {
+                    result = asyncRequestExecutor;
+                    if (result == null) {
+                        result = supplier.get();
+                        asyncRequestExecutor = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Get or supply a {@link ResponseCacheStore}, the cached responses are shared by all clients of the channel.
+         *
+         * @param supplier {@link ResponseCacheStore} supplier
+         * @return {@link ResponseCacheStore}
+         */
+        ResponseCacheStore getOrSupplyResponseCacheStore(Supplier<ResponseCacheStore> supplier) {
+            ResponseCacheStore result = responseCacheStore;
+            if (result == null) {
+                synchronized (this) {
+                    result = responseCacheStore;
+                    if (result == null) {
+                        result = supplier.get();
+                        responseCacheStore = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * @return the transport used by the clients, or {@code null} if the clients don't use a shared transport
+         */
+        @Nullable
+        TransportRegistry.Transport getTransport() {
+            return transport;
+        }
+
+        ChannelFingerprint getFingerprint() {
+            return fingerprint;
+        }
+
+        boolean isClosed() {
+            synchronized (lock) {
+                return closed;
+            }
+        }
+
+        private void close() {
+            TransportRegistry.release(this);
+            List<Runnable> actions;
+            synchronized (lock) {
+                actions = List.copyOf(closeActions);
+                closeActions.clear();
+            }
+            actions.forEach(Runnable::run);
+        }
     }
 }
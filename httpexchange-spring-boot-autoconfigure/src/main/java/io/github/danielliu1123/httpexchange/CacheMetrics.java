@@ -0,0 +1,39 @@
+package io.github.danielliu1123.httpexchange;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Expose {@link Cache} statistics as metrics.
+ *
+ * <ul>
+ *     <li> {@code http.exchange.cache.gets}: number of cache lookups, tagged by {@code result} ({@code hit}/{@code miss}).</li>
+ *     <li> {@code http.exchange.cache.evictions}: number of evicted entries.</li>
+ *     <li> {@code http.exchange.cache.size}: number of entries.</li>
+ * </ul>
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+class CacheMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("http.exchange.cache.gets", Cache.class, c -> Cache.stats().hits())
+                .tag("result", "hit")
+                .description("The number of times the http exchange cache lookups found an existing entry")
+                .register(registry);
+        FunctionCounter.builder("http.exchange.cache.gets", Cache.class, c -> Cache.stats().misses())
+                .tag("result", "miss")
+                .description("The number of times the http exchange cache lookups created a new entry")
+                .register(registry);
+        FunctionCounter.builder("http.exchange.cache.evictions", Cache.class, c -> Cache.stats().evictions())
+                .description("The number of evicted http exchange cache entries")
+                .register(registry);
+        Gauge.builder("http.exchange.cache.size", Cache.class, c -> Cache.stats().size())
+                .description("The number of http exchange cache entries")
+                .register(registry);
+    }
+}
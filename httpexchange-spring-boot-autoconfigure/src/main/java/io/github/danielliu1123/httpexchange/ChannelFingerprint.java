@@ -0,0 +1,102 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of the effective settings of a {@link HttpExchangeProperties.Channel}.
+ *
+ * <p> {@link HttpExchangeProperties.Channel} is mutable and rebound on refresh, so it can't be used as a cache key.
+ * The client matching rules ({@code clients}, {@code classes}) are not part of the fingerprint,
+ * channels with the same settings share the same cache entry.
+ * The channel name is only part of it when a feature keeping per-channel state (e.g. circuit breaker) is enabled,
+ * the state is registered and tagged by channel name and must not be shared across channels.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+record ChannelFingerprint(
+        @Nullable String name,
+        @Nullable String baseUrl,
+        List<Header> headers,
+        @Nullable HttpExchangeProperties.ClientType clientType,
+        @Nullable Integer connectTimeout,
+        @Nullable Integer readTimeout,
+        @Nullable Boolean loadbalancerEnabled,
+        @Nullable String executor,
+        @Nullable String asyncExecutor,
+        @Nullable Integer asyncMaxInFlight,
+        @Nullable String sslBundle,
+        @Nullable HttpExchangeProperties.HttpVersion httpVersion,
+        @Nullable Integer maxConnections,
+        @Nullable Integer maxConnectionsPerRoute,
+        @Nullable Integer idleTimeout,
+        @Nullable Integer evictionInterval,
+        @Nullable Integer validateAfterInactivity,
+        @Nullable Boolean responseCacheEnabled,
+        @Nullable Integer responseCacheMaxEntries,
+        @Nullable Boolean coalescingEnabled,
+        RetryPolicy retry,
+        HedgePolicy hedge,
+        ConcurrencyLimitPolicy concurrencyLimit,
+        RateLimitPolicy rateLimit,
+        CircuitBreakerPolicy circuitBreaker) {
+
+    static ChannelFingerprint of(HttpExchangeProperties.Channel channel) {
+        HttpExchangeProperties.ConnectionPool pool =
+                Optional.ofNullable(channel.getConnectionPool()).orElseGet(HttpExchangeProperties.ConnectionPool::new);
+        HttpExchangeProperties.ResponseCache responseCache =
+                Optional.ofNullable(channel.getResponseCache()).orElseGet(HttpExchangeProperties.ResponseCache::new);
+        List<Header> headers = Optional.ofNullable(channel.getHeaders()).orElseGet(List::of).stream()
+                .map(Header::of)
+                .toList();
+        RetryPolicy retry = RetryPolicy.of(channel.getRetry());
+        HedgePolicy hedge = HedgePolicy.of(channel.getHedge());
+        ConcurrencyLimitPolicy concurrencyLimit = ConcurrencyLimitPolicy.of(channel.getConcurrencyLimit());
+        RateLimitPolicy rateLimit = RateLimitPolicy.of(channel.getRateLimit());
+        CircuitBreakerPolicy circuitBreaker = CircuitBreakerPolicy.of(channel.getCircuitBreaker());
+        boolean stateful = retry.enabled()
+                || hedge.enabled()
+                || concurrencyLimit.enabled()
+                || rateLimit.enabled()
+                || circuitBreaker.enabled();
+        return new ChannelFingerprint(
+                stateful ? Util.channelName(channel) : null,
+                channel.getBaseUrl(),
+                headers,
+                channel.getClientType(),
+                channel.getConnectTimeout(),
+                channel.getReadTimeout(),
+                channel.getLoadbalancerEnabled(),
+                channel.getExecutor(),
+                channel.getAsyncExecutor(),
+                channel.getAsyncMaxInFlight(),
+                channel.getSslBundle(),
+                channel.getHttpVersion(),
+                pool.getMaxConnections(),
+                pool.getMaxConnectionsPerRoute(),
+                pool.getIdleTimeout(),
+                pool.getEvictionInterval(),
+                pool.getValidateAfterInactivity(),
+                responseCache.getEnabled(),
+                responseCache.getMaxEntries(),
+                channel.getCoalescingEnabled(),
+                retry,
+                hedge,
+                concurrencyLimit,
+                rateLimit,
+                circuitBreaker);
+    }
+
+    record Header(@Nullable String key, List<String> values) {
+
+        static Header of(HttpExchangeProperties.Header header) {
+            List<String> values = header.getValues() != null ? header.getValues() : List.of();
+            // header values may contain null, List.copyOf doesn't allow it
+            return new Header(header.getKey(), Collections.unmodifiableList(new ArrayList<>(values)));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.danielliu1123.httpexchange;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.experimental.UtilityClass;
+import org.springframework.beans.factory.BeanFactory;
+
+/**
+ * Expose the state of the channels as metrics, tagged by {@code channel} (channel name, or base url if absent).
+ *
+ * <ul>
+ *     <li> {@code http.exchange.concurrency.limit}: current concurrency limit.</li>
+ *     <li> {@code http.exchange.concurrency.inflight}: number of requests in flight.</li>
+ *     <li> {@code http.exchange.concurrency.rejections}: number of requests rejected by the concurrency limit.</li>
+ *     <li> {@code http.exchange.circuitbreaker.state}: {@code 1} for the current state of the circuit breaker,
+ *     tagged by {@code state} ({@code closed}/{@code open}/{@code half_open}).</li>
+ *     <li> {@code http.exchange.circuitbreaker.failure.rate}: failure rate of the sliding window.</li>
+ *     <li> {@code http.exchange.circuitbreaker.slow.call.rate}: slow call rate of the sliding window.</li>
+ *     <li> {@code http.exchange.circuitbreaker.rejections}: number of requests rejected by the circuit breaker.</li>
+ * </ul>
+ *
+ * <p> Meters of per-method circuit breakers are also tagged by {@code method} (HTTP method and URI template).
+ *
+ * <p> Meters hold weak references, the meters of a rebuilt channel (e.g. after a refresh) replace the old ones.
+ * The meters are removed by the unbind action returned by {@code bind} when the channel is closed.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+@UtilityClass
+class ChannelMetrics {
+
+    static final String CONCURRENCY_LIMIT = "http.exchange.concurrency.limit";
+    static final String CONCURRENCY_INFLIGHT = "http.exchange.concurrency.inflight";
+    static final String CONCURRENCY_REJECTIONS = "http.exchange.concurrency.rejections";
+    static final String CIRCUIT_BREAKER_STATE = "http.exchange.circuitbreaker.state";
+    static final String CIRCUIT_BREAKER_FAILURE_RATE = "http.exchange.circuitbreaker.failure.rate";
+    static final String CIRCUIT_BREAKER_SLOW_CALL_RATE = "http.exchange.circuitbreaker.slow.call.rate";
+    static final String CIRCUIT_BREAKER_REJECTIONS = "http.exchange.circuitbreaker.rejections";
+
+    /**
+     * Bind the meters of the concurrency limiter to the {@link MeterRegistry} in the bean factory, if any.
+     *
+     * @param beanFactory bean factory
+     * @param channel     channel config
+     * @param limiter     concurrency limiter of the channel
+     * @return the action to remove the bound meters
+     */
+    static Runnable bind(BeanFactory beanFactory, HttpExchangeProperties.Channel channel, ConcurrencyLimiter limiter) {
+        MeterRegistry registry = beanFactory.getBeanProvider(MeterRegistry.class).getIfUnique();
+        if (registry == null) {
+            return () -> {};
+        }
+        Tags tags = tags(channel);
+        remove(registry, tags, List.of(CONCURRENCY_LIMIT, CONCURRENCY_INFLIGHT, CONCURRENCY_REJECTIONS));
+        List<Meter> meters = List.of(
+                Gauge.builder(CONCURRENCY_LIMIT, limiter, ConcurrencyLimiter::getLimit)
+                        .tags(tags)
+                        .description("The current concurrency limit of the http exchange channel")
+                        .register(registry),
+                Gauge.builder(CONCURRENCY_INFLIGHT, limiter, ConcurrencyLimiter::getInFlight)
+                        .tags(tags)
+                        .description("The number of requests in flight of the http exchange channel")
+                        .register(registry),
+                FunctionCounter.builder(CONCURRENCY_REJECTIONS, limiter, ConcurrencyLimiter::getRejections)
+                        .tags(tags)
+                        .description(
+                                "The number of requests rejected by the concurrency limit of the http exchange channel")
+                        .register(registry));
+        return () -> unbind(registry, meters);
+    }
+
+    /**
+     * Bind the meters of the circuit breakers to the {@link MeterRegistry} in the bean factory, if any,
+     * circuit breakers created later (per method) are bound on creation.
+     *
+     * @param beanFactory     bean factory
+     * @param channel         channel config
+     * @param circuitBreakers circuit breakers of the channel
+     * @return the action to remove the bound meters
+     */
+    static Runnable bind(
+            BeanFactory beanFactory, HttpExchangeProperties.Channel channel, CircuitBreakers circuitBreakers) {
+        MeterRegistry registry = beanFactory.getBeanProvider(MeterRegistry.class).getIfUnique();
+        if (registry == null) {
+            return () -> {};
+        }
+        remove(
+                registry,
+                tags(channel),
+                List.of(
+                        CIRCUIT_BREAKER_STATE,
+                        CIRCUIT_BREAKER_FAILURE_RATE,
+                        CIRCUIT_BREAKER_SLOW_CALL_RATE,
+                        CIRCUIT_BREAKER_REJECTIONS));
+        List<Meter> meters = new CopyOnWriteArrayList<>();
+        circuitBreakers.forEach(circuitBreaker -> bind(registry, tags(channel), circuitBreaker, meters));
+        return () -> unbind(registry, meters);
+    }
+
+    private static void bind(
+            MeterRegistry registry, Tags channelTags, CircuitBreaker circuitBreaker, List<Meter> meters) {
+        Tags tags = circuitBreaker.getMethod() != null
+                ? channelTags.and("method", circuitBreaker.getMethod())
+                : channelTags;
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            meters.add(Gauge.builder(CIRCUIT_BREAKER_STATE, circuitBreaker, cb -> cb.getState() == state ? 1 : 0)
+                    .tags(tags)
+                    .tag("state", state.name().toLowerCase())
+                    .description("The state of the circuit breaker of the http exchange channel")
+                    .register(registry));
+        }
+        meters.add(Gauge.builder(CIRCUIT_BREAKER_FAILURE_RATE, circuitBreaker, cb -> cb.getStats().failureRate())
+                .tags(tags)
+                .description("The failure rate of the circuit breaker of the http exchange channel")
+                .register(registry));
+        meters.add(Gauge.builder(CIRCUIT_BREAKER_SLOW_CALL_RATE, circuitBreaker, cb -> cb.getStats().slowCallRate())
+                .tags(tags)
+                .description("The slow call rate of the circuit breaker of the http exchange channel")
+                .register(registry));
+        meters.add(FunctionCounter.builder(CIRCUIT_BREAKER_REJECTIONS, circuitBreaker, CircuitBreaker::getRejections)
+                .tags(tags)
+                .description("The number of requests rejected by the circuit breaker of the http exchange channel")
+                .register(registry));
+    }
+
+    static Tags tags(HttpExchangeProperties.Channel channel) {
+        return Tags.of("channel", Util.channelName(channel));
+    }
+
+    /**
+     * Remove the meters, the meters of a rebuilt channel have the same ids and are kept.
+     */
+    private static void unbind(MeterRegistry registry, List<Meter> meters) {
+        for (Meter meter : meters) {
+            if (registry.getMeters().stream().anyMatch(m -> m == meter)) {
+                registry.remove(meter);
+            }
+        }
+    }
+
+    private static void remove(MeterRegistry registry, Tags tags, List<String> names) {
+        for (String name : names) {
+            registry.find(name).tags(tags).meters().forEach(registry::remove);
+        }
+    }
+}
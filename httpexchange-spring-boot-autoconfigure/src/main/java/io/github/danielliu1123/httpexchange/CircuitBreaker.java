@@ -0,0 +1,283 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lock-free circuit breaker of a channel or a method.
+ *
+ * <p> The state is an immutable phase swapped by CAS, each phase owns its counters:
+ * the closed phase records the outcomes in a sliding window of {@value #BUCKETS} time buckets,
+ * the half-open phase counts the probes. Outcomes recorded against an outdated phase don't change the state.
+ *
+ * @author Freeman
+ * @see HttpExchangeProperties.CircuitBreaker
+ * @since 3.2.1
+ */
+final class CircuitBreaker {
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private static final int BUCKETS = 10;
+
+    private final String channel;
+
+    @Nullable
+    private final String method;
+
+    private final CircuitBreakerPolicy policy;
+    private final long bucketNanos;
+    private final AtomicReference<Phase> phase;
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * @param channel name of the channel
+     * @param method  HTTP method and URI template, or {@code null} for the channel circuit breaker
+     * @param policy  circuit breaker policy
+     */
+    CircuitBreaker(String channel, @Nullable String method, CircuitBreakerPolicy policy) {
+        this.channel = channel;
+        this.method = method;
+        this.policy = policy;
+        this.bucketNanos = Math.max(policy.window().toNanos() / BUCKETS, 1);
+        this.phase = new AtomicReference<>(new Phase(State.CLOSED, System.nanoTime(), null));
+    }
+
+    /**
+     * Acquire a permission to send a request.
+     *
+     * @return the phase to record the outcome against, or {@code null} if the request is not permitted
+     */
+    @Nullable
+    Phase tryAcquire() {
+        while (true) {
+            Phase p = phase.get();
+            switch (p.state) {
+                case CLOSED -> {
+                    return p;
+                }
+                case OPEN -> {
+                    if (System.nanoTime() - p.since < policy.openDuration().toNanos()) {
+                        rejections.increment();
+                        return null;
+                    }
+                    transition(p, State.HALF_OPEN, p.stats);
+                }
+                case HALF_OPEN -> {
+                    if (tryAcquireProbe(p)) {
+                        return p;
+                    }
+                    rejections.increment();
+                    return null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Rejected requests must not take a probe, otherwise {@link #onIgnored} can't release a probe for a new request.
+     */
+    private boolean tryAcquireProbe(Phase p) {
+        while (true) {
+            int probes = p.probes.get();
+            if (probes >= policy.halfOpenCalls()) {
+                return false;
+            }
+            if (p.probes.compareAndSet(probes, probes + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Record a completed request.
+     *
+     * @param p             phase returned by {@link #tryAcquire()}
+     * @param durationNanos duration of the request
+     * @param failed        whether the request failed, see {@link CircuitBreakingExchangeAdapter#isFailure}
+     */
+    void onResult(Phase p, long durationNanos, boolean failed) {
+        boolean slow = durationNanos >= policy.slowCallDuration().toNanos();
+        if (p.state == State.HALF_OPEN) {
+            if (failed || slow) {
+                transition(p, State.OPEN, p.stats);
+            } else if (p.successes.incrementAndGet() >= policy.halfOpenCalls()) {
+                transition(p, State.CLOSED, null);
+            }
+            return;
+        }
+        if (p.state != State.CLOSED) {
+            return;
+        }
+        long now = System.nanoTime();
+        Bucket bucket = bucket(p, now);
+        bucket.calls.incrementAndGet();
+        if (failed) {
+            bucket.failures.incrementAndGet();
+        }
+        if (slow) {
+            bucket.slowCalls.incrementAndGet();
+        }
+        if (failed || slow) {
+            Stats stats = stats(p, now);
+            if (stats.calls() >= policy.minCalls()
+                    && (stats.failureRate() >= policy.failureRateThreshold()
+                            || stats.slowCallRate() >= policy.slowCallRateThreshold())) {
+                transition(p, State.OPEN, stats);
+            }
+        }
+    }
+
+    /**
+     * Release the permission without recording an outcome, e.g. the request is cancelled.
+     *
+     * @param p phase returned by {@link #tryAcquire()}
+     */
+    void onIgnored(Phase p) {
+        if (p.state == State.HALF_OPEN) {
+            p.probes.decrementAndGet();
+        }
+    }
+
+    String getChannel() {
+        return channel;
+    }
+
+    @Nullable
+    String getMethod() {
+        return method;
+    }
+
+    State getState() {
+        return phase.get().state;
+    }
+
+    /**
+     * @return statistics of the sliding window, or of the last window before the circuit opened
+     */
+    Stats getStats() {
+        Phase p = phase.get();
+        if (p.stats != null) {
+            return p.stats;
+        }
+        return p.state == State.CLOSED ? stats(p, System.nanoTime()) : Stats.EMPTY;
+    }
+
+    long getRejections() {
+        return rejections.sum();
+    }
+
+    private void transition(Phase from, State to, @Nullable Stats stats) {
+        if (phase.compareAndSet(from, new Phase(to, System.nanoTime(), stats))) {
+            String name = method != null ? channel + " " + method : channel;
+            if (to == State.OPEN) {
+                log.warn("Circuit breaker of '{}' is open, stats: {}", name, stats);
+            } else if (log.isInfoEnabled()) {
+                log.info("Circuit breaker of '{}' is {}", name, to);
+            }
+        }
+    }
+
+    private Bucket bucket(Phase p, long now) {
+        long epoch = Math.floorDiv(now, bucketNanos);
+        int index = (int) Math.floorMod(epoch, (long) BUCKETS);
+        while (true) {
+            Bucket b = p.buckets.get(index);
+            if (b != null && b.epoch >= epoch) {
+                return b;
+            }
+            Bucket created = new Bucket(epoch);
+            if (p.buckets.compareAndSet(index, b, created)) {
+                return created;
+            }
+        }
+    }
+
+    private Stats stats(Phase p, long now) {
+        long epoch = Math.floorDiv(now, bucketNanos);
+        int calls = 0;
+        int failures = 0;
+        int slowCalls = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            Bucket b = p.buckets.get(i);
+            if (b != null && epoch - b.epoch < BUCKETS) {
+                calls += b.calls.get();
+                failures += b.failures.get();
+                slowCalls += b.slowCalls.get();
+            }
+        }
+        return new Stats(calls, failures, slowCalls);
+    }
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * @param calls     number of calls
+     * @param failures  number of failed calls
+     * @param slowCalls number of slow calls
+     */
+    record Stats(int calls, int failures, int slowCalls) {
+        static final Stats EMPTY = new Stats(0, 0, 0);
+
+        double failureRate() {
+            return calls == 0 ? 0 : (double) failures / calls;
+        }
+
+        double slowCallRate() {
+            return calls == 0 ? 0 : (double) slowCalls / calls;
+        }
+    }
+
+    /**
+     * State of the circuit breaker since a point in time.
+     */
+    static final class Phase {
+        private final State state;
+        private final long since;
+        /**
+         * Statistics of the last closed window, for the open and half-open phases.
+         */
+        @Nullable
+        private final Stats stats;
+        /**
+         * Sliding window of the closed phase.
+         */
+        private final AtomicReferenceArray<Bucket> buckets;
+        /**
+         * Probes of the half-open phase.
+         */
+        private final AtomicInteger probes = new AtomicInteger();
+
+        private final AtomicInteger successes = new AtomicInteger();
+
+        private Phase(State state, long since, @Nullable Stats stats) {
+            this.state = state;
+            this.since = since;
+            this.stats = stats;
+            this.buckets = new AtomicReferenceArray<>(state == State.CLOSED ? BUCKETS : 0);
+        }
+    }
+
+    private static final class Bucket {
+        /**
+         * {@link System#nanoTime()} divided by the bucket length.
+         */
+        private final long epoch;
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger slowCalls = new AtomicInteger();
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
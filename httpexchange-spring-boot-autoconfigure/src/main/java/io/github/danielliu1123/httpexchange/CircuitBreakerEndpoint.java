@@ -0,0 +1,70 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+/**
+ * Actuator endpoint exposing the state of the circuit breakers by channel name.
+ *
+ * <p> e.g. {@code GET /actuator/httpexchangecircuitbreakers}, {@code GET /actuator/httpexchangecircuitbreakers/order}
+ *
+ * @author Freeman
+ * @see HttpExchangeProperties.CircuitBreaker
+ * @since 3.2.1
+ */
+@Endpoint(id = "httpexchangecircuitbreakers")
+public class CircuitBreakerEndpoint {
+
+    @ReadOperation
+    public Map<String, List<CircuitBreakerDescriptor>> circuitBreakers() {
+        Map<String, List<CircuitBreakerDescriptor>> result = new TreeMap<>();
+        CircuitBreakers.getAll().forEach((channel, circuitBreakers) -> result.put(channel, describe(circuitBreakers)));
+        return result;
+    }
+
+    @Nullable
+    @ReadOperation
+    public List<CircuitBreakerDescriptor> circuitBreaker(@Selector String channel) {
+        CircuitBreakers circuitBreakers = CircuitBreakers.getAll().get(channel);
+        return circuitBreakers != null ? describe(circuitBreakers) : null;
+    }
+
+    private static List<CircuitBreakerDescriptor> describe(CircuitBreakers circuitBreakers) {
+        return circuitBreakers.getCircuitBreakers().stream()
+                .map(CircuitBreakerDescriptor::of)
+                .toList();
+    }
+
+    /**
+     * @param method       HTTP method and URI template, or {@code null} for the channel circuit breaker
+     * @param state        {@code CLOSED}, {@code OPEN} or {@code HALF_OPEN}
+     * @param calls        number of calls in the sliding window
+     * @param failureRate  failure rate of the sliding window
+     * @param slowCallRate slow call rate of the sliding window
+     * @param rejections   number of requests rejected by the circuit breaker
+     */
+    public record CircuitBreakerDescriptor(
+            @Nullable String method,
+            String state,
+            int calls,
+            double failureRate,
+            double slowCallRate,
+            long rejections) {
+
+        static CircuitBreakerDescriptor of(CircuitBreaker circuitBreaker) {
+            CircuitBreaker.Stats stats = circuitBreaker.getStats();
+            return new CircuitBreakerDescriptor(
+                    circuitBreaker.getMethod(),
+                    circuitBreaker.getState().name(),
+                    stats.calls(),
+                    stats.failureRate(),
+                    stats.slowCallRate(),
+                    circuitBreaker.getRejections());
+        }
+    }
+}
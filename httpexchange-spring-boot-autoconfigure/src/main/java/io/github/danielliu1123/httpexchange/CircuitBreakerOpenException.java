@@ -0,0 +1,17 @@
+package io.github.danielliu1123.httpexchange;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown when the circuit breaker is open, the request is not sent.
+ *
+ * @author Freeman
+ * @see HttpExchangeProperties.CircuitBreaker
+ * @since 3.2.1
+ */
+public class CircuitBreakerOpenException extends RestClientException {
+
+    public CircuitBreakerOpenException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of {@link HttpExchangeProperties.CircuitBreaker} with defaults applied.
+ *
+ * @param enabled               whether to enable the circuit breaker
+ * @param perMethod             whether to use a circuit breaker for each method
+ * @param window                length of the sliding window
+ * @param minCalls              min calls in the window before the circuit can open
+ * @param failureRateThreshold  failure rate to open the circuit
+ * @param slowCallDuration      calls slower than this are slow calls
+ * @param slowCallRateThreshold slow call rate to open the circuit
+ * @param openDuration          time to stay open before probing
+ * @param halfOpenCalls         number of probes in the half-open state
+ * @author Freeman
+ * @since 3.2.1
+ */
+record CircuitBreakerPolicy(
+        boolean enabled,
+        boolean perMethod,
+        Duration window,
+        int minCalls,
+        double failureRateThreshold,
+        Duration slowCallDuration,
+        double slowCallRateThreshold,
+        Duration openDuration,
+        int halfOpenCalls) {
+
+    static final int DEFAULT_WINDOW = 10_000;
+    static final int DEFAULT_MIN_CALLS = 20;
+    static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+    static final int DEFAULT_SLOW_CALL_DURATION = 5_000;
+    static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 1.0;
+    static final int DEFAULT_OPEN_DURATION = 30_000;
+    static final int DEFAULT_HALF_OPEN_CALLS = 5;
+
+    static CircuitBreakerPolicy of(@Nullable HttpExchangeProperties.CircuitBreaker circuitBreaker) {
+        HttpExchangeProperties.CircuitBreaker c =
+                Optional.ofNullable(circuitBreaker).orElseGet(HttpExchangeProperties.CircuitBreaker::new);
+        return new CircuitBreakerPolicy(
+                Boolean.TRUE.equals(c.getEnabled()),
+                Boolean.TRUE.equals(c.getPerMethod()),
+                Duration.ofMillis(Math.max(Optional.ofNullable(c.getWindow()).orElse(DEFAULT_WINDOW), 100)),
+                Math.max(Optional.ofNullable(c.getMinCalls()).orElse(DEFAULT_MIN_CALLS), 1),
+                rate(c.getFailureRateThreshold(), DEFAULT_FAILURE_RATE_THRESHOLD),
+                Duration.ofMillis(
+                        Math.max(Optional.ofNullable(c.getSlowCallDuration()).orElse(DEFAULT_SLOW_CALL_DURATION), 1)),
+                rate(c.getSlowCallRateThreshold(), DEFAULT_SLOW_CALL_RATE_THRESHOLD),
+                Duration.ofMillis(Math.max(Optional.ofNullable(c.getOpenDuration()).orElse(DEFAULT_OPEN_DURATION), 0)),
+                Math.max(Optional.ofNullable(c.getHalfOpenCalls()).orElse(DEFAULT_HALF_OPEN_CALLS), 1));
+    }
+
+    private static double rate(@Nullable Double rate, double defaultRate) {
+        return Math.min(Math.max(Optional.ofNullable(rate).orElse(defaultRate), 0.01), 1);
+    }
+}
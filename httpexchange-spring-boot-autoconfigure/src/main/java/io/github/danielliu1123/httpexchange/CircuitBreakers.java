@@ -0,0 +1,125 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.springframework.web.service.invoker.HttpRequestValues;
+
+/**
+ * Circuit breakers of a channel, one for the channel, or one for each method if
+ * {@link CircuitBreakerPolicy#perMethod()}.
+ *
+ * <p> The circuit breakers of all channels are registered by channel name, for metrics and the actuator endpoint.
+ * The circuit breakers of a rebuilt channel (e.g. after a refresh) replace the old ones,
+ * and are unregistered when the channel is closed.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+final class CircuitBreakers {
+
+    private static final ConcurrentMap<String, CircuitBreakers> registry = new ConcurrentHashMap<>();
+
+    private final String channel;
+    private final CircuitBreakerPolicy policy;
+
+    @Nullable
+    private final CircuitBreaker channelCircuitBreaker;
+
+    /**
+     * {@code HTTP method + URI template} to the circuit breaker, only if {@link CircuitBreakerPolicy#perMethod()}.
+     */
+    private final ConcurrentMap<String, CircuitBreaker> methodCircuitBreakers = new ConcurrentHashMap<>();
+
+    private final List<Consumer<CircuitBreaker>> listeners = new CopyOnWriteArrayList<>();
+
+    CircuitBreakers(String channel, CircuitBreakerPolicy policy) {
+        this.channel = channel;
+        this.policy = policy;
+        this.channelCircuitBreaker = policy.perMethod() ? null : new CircuitBreaker(channel, null, policy);
+    }
+
+    /**
+     * Create the circuit breakers of the channel and register them.
+     *
+     * @param channel channel config
+     * @param policy  circuit breaker policy of the channel
+     * @return the circuit breakers
+     */
+    static CircuitBreakers register(HttpExchangeProperties.Channel channel, CircuitBreakerPolicy policy) {
+        CircuitBreakers circuitBreakers = new CircuitBreakers(Util.channelName(channel), policy);
+        registry.put(circuitBreakers.channel, circuitBreakers);
+        return circuitBreakers;
+    }
+
+    /**
+     * Unregister the circuit breakers, no-op if they are already replaced by the circuit breakers of a rebuilt channel.
+     */
+    void unregister() {
+        registry.remove(channel, this);
+    }
+
+    /**
+     * @return registered circuit breakers by channel name
+     */
+    static Map<String, CircuitBreakers> getAll() {
+        return Map.copyOf(registry);
+    }
+
+    static void clear() {
+        registry.clear();
+    }
+
+    /**
+     * Get the circuit breaker of the request, requests without URI template use a circuit breaker per HTTP method.
+     *
+     * @param requestValues request values
+     * @return the circuit breaker
+     */
+    CircuitBreaker get(HttpRequestValues requestValues) {
+        if (channelCircuitBreaker != null) {
+            return channelCircuitBreaker;
+        }
+        String key = requestValues.getHttpMethod() + " " + requestValues.getUriTemplate();
+        CircuitBreaker circuitBreaker = methodCircuitBreakers.get(key);
+        if (circuitBreaker != null) {
+            return circuitBreaker;
+        }
+        CircuitBreaker created = new CircuitBreaker(channel, key, policy);
+        CircuitBreaker existing = methodCircuitBreakers.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        listeners.forEach(listener -> listener.accept(created));
+        return created;
+    }
+
+    /**
+     * @return the circuit breakers created so far
+     */
+    List<CircuitBreaker> getCircuitBreakers() {
+        if (channelCircuitBreaker != null) {
+            return List.of(channelCircuitBreaker);
+        }
+        return new ArrayList<>(methodCircuitBreakers.values());
+    }
+
+    /**
+     * Invoke the listener for the existing and the future circuit breakers.
+     *
+     * @param listener listener, e.g. to bind metrics
+     */
+    void forEach(Consumer<CircuitBreaker> listener) {
+        listeners.add(listener);
+        getCircuitBreakers().forEach(listener);
+    }
+
+    String getChannel() {
+        return channel;
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.util.function.Supplier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+
+/**
+ * {@link HttpExchangeAdapter} decorator that stops sending requests to a failing server by {@link CircuitBreaker}s,
+ * requests fail fast with {@link CircuitBreakerOpenException} while the circuit is open.
+ *
+ * @author Freeman
+ * @see HttpExchangeProperties.CircuitBreaker
+ * @since 3.2.1
+ */
+class CircuitBreakingExchangeAdapter implements HttpExchangeAdapter {
+
+    private final HttpExchangeAdapter delegate;
+    private final CircuitBreakers circuitBreakers;
+
+    CircuitBreakingExchangeAdapter(HttpExchangeAdapter delegate, CircuitBreakers circuitBreakers) {
+        this.delegate = delegate;
+        this.circuitBreakers = circuitBreakers;
+    }
+
+    /**
+     * Decorate the adapter, the reactive adapter is decorated by {@link ReactorCircuitBreakingExchangeAdapter}.
+     *
+     * @param adapter         adapter to decorate
+     * @param circuitBreakers circuit breakers of the channel
+     * @return the decorated adapter, or the given adapter if it's already decorated
+     */
+    static HttpExchangeAdapter wrap(HttpExchangeAdapter adapter, CircuitBreakers circuitBreakers) {
+        if (adapter instanceof CircuitBreakingExchangeAdapter) {
+            return adapter;
+        }
+        return adapter instanceof ReactorHttpExchangeAdapter reactorAdapter
+                ? new ReactorCircuitBreakingExchangeAdapter(reactorAdapter, circuitBreakers)
+                : new CircuitBreakingExchangeAdapter(adapter, circuitBreakers);
+    }
+
+    /**
+     * Whether the failed request indicates the server is unhealthy,
+     * i.e. an I/O error (e.g. read timeout) or {@code 5xx}.
+     */
+    static boolean isFailure(Throwable error) {
+        Integer status = RetryPolicy.Errors.status(error);
+        if (status != null) {
+            return status >= 500;
+        }
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (RetryPolicy.Errors.isIoError(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the request is rejected by the client-side limits and never reached the server.
+     */
+    static boolean isIgnored(Throwable error) {
+        return error instanceof ConcurrencyLimitExceededException || error instanceof RateLimitExceededException;
+    }
+
+    @Override
+    public boolean supportsRequestAttributes() {
+        return delegate.supportsRequestAttributes();
+    }
+
+    @Override
+    public void exchange(HttpRequestValues requestValues) {
+        execute(requestValues, () -> {
+            delegate.exchange(requestValues);
+            return null;
+        });
+    }
+
+    @Override
+    public HttpHeaders exchangeForHeaders(HttpRequestValues requestValues) {
+        return execute(requestValues, () -> delegate.exchangeForHeaders(requestValues));
+    }
+
+    @Nullable
+    @Override
+    public <T> T exchangeForBody(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return execute(requestValues, () -> delegate.exchangeForBody(requestValues, bodyType));
+    }
+
+    @Override
+    public ResponseEntity<Void> exchangeForBodilessEntity(HttpRequestValues requestValues) {
+        return execute(requestValues, () -> delegate.exchangeForBodilessEntity(requestValues));
+    }
+
+    @Override
+    public <T> ResponseEntity<T> exchangeForEntity(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return execute(requestValues, () -> delegate.exchangeForEntity(requestValues, bodyType));
+    }
+
+    private <T> T execute(HttpRequestValues requestValues, Supplier<T> call) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(requestValues);
+        CircuitBreaker.Phase phase = circuitBreaker.tryAcquire();
+        if (phase == null) {
+            throw rejected(requestValues, circuitBreaker);
+        }
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            if (isIgnored(e) || HedgingExchangeAdapter.isCancelled()) {
+                circuitBreaker.onIgnored(phase);
+            } else {
+                circuitBreaker.onResult(phase, System.nanoTime() - start, isFailure(e));
+            }
+            throw e;
+        }
+        circuitBreaker.onResult(phase, System.nanoTime() - start, false);
+        return result;
+    }
+
+    CircuitBreakerOpenException rejected(HttpRequestValues requestValues, CircuitBreaker circuitBreaker) {
+        return new CircuitBreakerOpenException("Circuit breaker is " + circuitBreaker.getState() + " for "
+                + requestValues.getHttpMethod() + " " + Util.expandUri(requestValues));
+    }
+
+    CircuitBreakers getCircuitBreakers() {
+        return circuitBreakers;
+    }
+}
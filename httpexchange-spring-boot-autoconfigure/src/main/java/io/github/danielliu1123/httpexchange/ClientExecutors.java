@@ -0,0 +1,132 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.util.concurrent.Executor;
+import lombok.experimental.UtilityClass;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.util.StringUtils;
+
+/**
+ * Resolves the executors configured by {@link HttpExchangeProperties#getExecutor()}
+ * and {@link HttpExchangeProperties#getAsyncExecutor()}.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+@UtilityClass
+class ClientExecutors {
+
+    /**
+     * Use the default executor of the underlying http client.
+     */
+    static final String PLATFORM = "platform";
+    /**
+     * Use a new virtual thread per task, requires Java 21+.
+     */
+    static final String VIRTUAL = "virtual";
+
+    private static final String VIRTUAL_THREAD_NAME_PREFIX = "http-exchange-";
+
+    private static final String PLATFORM_THREAD_NAME_PREFIX = "http-exchange-async-";
+
+    private static volatile Executor virtualThreadExecutor;
+    private static volatile Executor platformThreadExecutor;
+
+    /**
+     * Resolve the executor.
+     *
+     * <p> {@code null} or blank means {@link #VIRTUAL} if {@code spring.threads.virtual.enabled=true} (on Java 21+),
+     * otherwise {@link #PLATFORM}.
+     *
+     * @param executor    {@link #PLATFORM}, {@link #VIRTUAL} or the name of an {@link Executor} bean
+     * @param beanFactory bean factory
+     * @param environment environment
+     * @return the executor, or {@code null} for {@link #PLATFORM}
+     */
+    @Nullable
+    static Executor getExecutor(@Nullable String executor, BeanFactory beanFactory, Environment environment) {
+        String name = StringUtils.hasText(executor)
+                ? executor.trim()
+                : (Threading.VIRTUAL.isActive(environment) ? VIRTUAL : PLATFORM);
+        if (PLATFORM.equalsIgnoreCase(name)) {
+            return null;
+        }
+        if (VIRTUAL.equalsIgnoreCase(name)) {
+            return virtualThreadExecutor();
+        }
+        return beanFactory.getBean(name, Executor.class);
+    }
+
+    /**
+     * Resolve the executor for asynchronous requests.
+     *
+     * <p> {@code null} or blank means {@link #VIRTUAL} on Java 21+, otherwise {@link #PLATFORM}.
+     *
+     * @param executor    {@link #PLATFORM}, {@link #VIRTUAL} or the name of an {@link Executor} bean
+     * @param beanFactory bean factory
+     * @return the executor
+     */
+    static Executor getAsyncExecutor(@Nullable String executor, BeanFactory beanFactory) {
+        String name = StringUtils.hasText(executor)
+                ? executor.trim()
+                : (Runtime.version().feature() >= 21 ? VIRTUAL : PLATFORM);
+        if (PLATFORM.equalsIgnoreCase(name)) {
+            return platformThreadExecutor();
+        }
+        if (VIRTUAL.equalsIgnoreCase(name)) {
+            return virtualThreadExecutor();
+        }
+        return beanFactory.getBean(name, Executor.class);
+    }
+
+    /**
+     * Virtual threads are cheap and not pooled, all channels share the same executor.
+     *
+     * @return the shared virtual thread executor
+     */
+    static Executor virtualThreadExecutor() {
+        Executor result = virtualThreadExecutor;
+        if (result == null) {
+            synchronized (ClientExecutors.class) {
+                result = virtualThreadExecutor;
+                if (result == null) {
+                    try {
+                        result = new VirtualThreadTaskExecutor(VIRTUAL_THREAD_NAME_PREFIX);
+                    } catch (UnsupportedOperationException e) {
+                        throw new IllegalStateException(
+                                "Executor '" + VIRTUAL + "' requires Java 21+, current version is "
+                                        + System.getProperty("java.version"),
+                                e);
+                    }
+                    virtualThreadExecutor = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A new daemon thread per task, the number of threads is bounded by the max in-flight requests.
+     *
+     * @return the shared platform thread executor
+     */
+    static Executor platformThreadExecutor() {
+        Executor result = platformThreadExecutor;
+        if (result == null) {
+            synchronized (ClientExecutors.class) {
+                result = platformThreadExecutor;
+                if (result == null) {
+                    SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(PLATFORM_THREAD_NAME_PREFIX);
+                    executor.setDaemon(true);
+                    result = executor;
+                    platformThreadExecutor = result;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,179 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+
+/**
+ * {@link HttpExchangeAdapter} decorator that coalesces identical idempotent requests in flight at the same time,
+ * the first caller executes the request and the others wait for its result.
+ *
+ * <p> The result (including the response body) is shared by all callers, it should not be modified.
+ *
+ * @author Freeman
+ * @see HttpExchangeProperties#isCoalescingEnabled()
+ * @since 3.2.1
+ */
+class CoalescingExchangeAdapter implements HttpExchangeAdapter {
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+    private final HttpExchangeAdapter delegate;
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    CoalescingExchangeAdapter(HttpExchangeAdapter delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Decorate the adapter, the reactive adapter is decorated by {@link ReactorCoalescingExchangeAdapter}.
+     *
+     * @param adapter adapter to decorate
+     * @return the decorated adapter, or the given adapter if it's already decorated
+     */
+    static HttpExchangeAdapter wrap(HttpExchangeAdapter adapter) {
+        if (adapter instanceof CoalescingExchangeAdapter) {
+            return adapter;
+        }
+        return adapter instanceof ReactorHttpExchangeAdapter reactorAdapter
+                ? new ReactorCoalescingExchangeAdapter(reactorAdapter)
+                : new CoalescingExchangeAdapter(adapter);
+    }
+
+    @Override
+    public boolean supportsRequestAttributes() {
+        return delegate.supportsRequestAttributes();
+    }
+
+    @Override
+    public void exchange(HttpRequestValues requestValues) {
+        delegate.exchange(requestValues);
+    }
+
+    @Override
+    public HttpHeaders exchangeForHeaders(HttpRequestValues requestValues) {
+        return coalesce(Key.of(Kind.HEADERS, requestValues, null), () -> delegate.exchangeForHeaders(requestValues));
+    }
+
+    @Nullable
+    @Override
+    public <T> T exchangeForBody(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return coalesce(
+                Key.of(Kind.BODY, requestValues, bodyType), () -> delegate.exchangeForBody(requestValues, bodyType));
+    }
+
+    @Override
+    public ResponseEntity<Void> exchangeForBodilessEntity(HttpRequestValues requestValues) {
+        return coalesce(
+                Key.of(Kind.BODILESS_ENTITY, requestValues, null),
+                () -> delegate.exchangeForBodilessEntity(requestValues));
+    }
+
+    @Override
+    public <T> ResponseEntity<T> exchangeForEntity(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return coalesce(
+                Key.of(Kind.ENTITY, requestValues, bodyType),
+                () -> delegate.exchangeForEntity(requestValues, bodyType));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(@Nullable Key key, Supplier<T> call) {
+        if (key == null) {
+            return call.get();
+        }
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return (T) await(existing);
+        }
+        try {
+            T result = call.get();
+            inFlight.remove(key, future);
+            future.complete(result);
+            return result;
+        } catch (Throwable e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Type of the exchange, requests with the same values but different return types are not coalesced.
+     */
+    enum Kind {
+        HEADERS,
+        BODY,
+        BODILESS_ENTITY,
+        ENTITY
+    }
+
+    /**
+     * Identity of a request.
+     *
+     * @param kind     type of the exchange
+     * @param method   HTTP method
+     * @param uri      expanded URI
+     * @param headers  request headers
+     * @param cookies  request cookies
+     * @param bodyType body type of the response, {@code null} if there is no body
+     */
+    record Key(
+            Kind kind,
+            HttpMethod method,
+            String uri,
+            Map<String, List<String>> headers,
+            Map<String, List<String>> cookies,
+            @Nullable Type bodyType) {
+
+        /**
+         * Create the key of the request.
+         *
+         * @return the key, or {@code null} if the request can't be coalesced
+         */
+        @Nullable
+        static Key of(Kind kind, HttpRequestValues requestValues, @Nullable ParameterizedTypeReference<?> bodyType) {
+            HttpMethod method = requestValues.getHttpMethod();
+            if (method == null || !IDEMPOTENT_METHODS.contains(method) || requestValues.getBodyValue() != null) {
+                return null;
+            }
+            return new Key(
+                    kind,
+                    method,
+                    Util.expandUri(requestValues),
+                    new LinkedHashMap<>(requestValues.getHeaders()),
+                    new LinkedHashMap<>(requestValues.getCookies()),
+                    bodyType != null ? bodyType.getType() : null);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.danielliu1123.httpexchange;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown when the requests in flight of a channel reach the concurrency limit, the request is not sent.
+ *
+ * @author Freeman
+ * @see HttpExchangeProperties.ConcurrencyLimit
+ * @since 3.2.1
+ */
+public class ConcurrencyLimitExceededException extends RestClientException {
+
+    private final int limit;
+
+    public ConcurrencyLimitExceededException(String msg, int limit) {
+        super(msg);
+        this.limit = limit;
+    }
+
+    /**
+     * @return the concurrency limit when the request is rejected
+     */
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.danielliu1123.httpexchange;
+
+import io.github.danielliu1123.httpexchange.HttpExchangeProperties.ConcurrencyLimit.Algorithm;
+import jakarta.annotation.Nullable;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of {@link HttpExchangeProperties.ConcurrencyLimit} with defaults applied.
+ *
+ * @param enabled      whether to limit the requests in flight
+ * @param algorithm    algorithm to adapt the limit
+ * @param initialLimit initial limit
+ * @param minLimit     min limit
+ * @param maxLimit     max limit
+ * @param tolerance    tolerated ratio of the current latency to the long-term average latency
+ * @param backoffRatio ratio to shrink the limit when a request is dropped
+ * @author Freeman
+ * @since 3.2.1
+ */
+record ConcurrencyLimitPolicy(
+        boolean enabled,
+        Algorithm algorithm,
+        int initialLimit,
+        int minLimit,
+        int maxLimit,
+        double tolerance,
+        double backoffRatio) {
+
+    static final int DEFAULT_INITIAL_LIMIT = 20;
+    static final int DEFAULT_MIN_LIMIT = 4;
+    static final int DEFAULT_MAX_LIMIT = 200;
+    static final double DEFAULT_TOLERANCE = 1.5;
+    static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
+    static ConcurrencyLimitPolicy of(@Nullable HttpExchangeProperties.ConcurrencyLimit concurrencyLimit) {
+        HttpExchangeProperties.ConcurrencyLimit c =
+                Optional.ofNullable(concurrencyLimit).orElseGet(HttpExchangeProperties.ConcurrencyLimit::new);
+        int minLimit = Math.max(Optional.ofNullable(c.getMinLimit()).orElse(DEFAULT_MIN_LIMIT), 1);
+        int maxLimit = Math.max(Optional.ofNullable(c.getMaxLimit()).orElse(DEFAULT_MAX_LIMIT), minLimit);
+        int initialLimit = Optional.ofNullable(c.getInitialLimit()).orElse(DEFAULT_INITIAL_LIMIT);
+        return new ConcurrencyLimitPolicy(
+                Boolean.TRUE.equals(c.getEnabled()),
+                Optional.ofNullable(c.getAlgorithm()).orElse(Algorithm.GRADIENT),
+                Math.min(Math.max(initialLimit, minLimit), maxLimit),
+                minLimit,
+                maxLimit,
+                Math.max(Optional.ofNullable(c.getTolerance()).orElse(DEFAULT_TOLERANCE), 1),
+                Math.min(Math.max(Optional.ofNullable(c.getBackoffRatio()).orElse(DEFAULT_BACKOFF_RATIO), 0.1), 1));
+    }
+}
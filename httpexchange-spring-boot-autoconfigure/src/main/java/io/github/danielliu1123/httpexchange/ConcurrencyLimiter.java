@@ -0,0 +1,157 @@
+package io.github.danielliu1123.httpexchange;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free adaptive limit of the requests in flight.
+ *
+ * <p> Acquiring a permit is a CAS on the in-flight counter, the limit is updated by each completed request
+ * with a single CAS, an update losing the race is dropped instead of retried.
+ *
+ * @author Freeman
+ * @see HttpExchangeProperties.ConcurrencyLimit
+ * @since 3.2.1
+ */
+final class ConcurrencyLimiter {
+
+    /**
+     * Extra permits allowed above the gradient limit, so the limit can grow.
+     */
+    private static final double QUEUE_SIZE = 4;
+    /**
+     * Weight of the new limit of the gradient algorithm.
+     */
+    private static final double SMOOTHING = 0.2;
+    /**
+     * Number of samples of the long-term average latency.
+     */
+    private static final int LONG_WINDOW = 600;
+    /**
+     * The long-term average latency is a simple average of the first samples.
+     */
+    private static final int WARMUP_SAMPLES = 10;
+
+    private final ConcurrencyLimitPolicy policy;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong samples = new AtomicLong();
+    /**
+     * {@code double} bits of the estimated limit.
+     */
+    private final AtomicLong estimatedLimit;
+    /**
+     * {@code double} bits of the long-term average latency in nanoseconds.
+     */
+    private final AtomicLong longRtt = new AtomicLong(Double.doubleToLongBits(0));
+
+    private volatile int limit;
+
+    ConcurrencyLimiter(ConcurrencyLimitPolicy policy) {
+        this.policy = policy;
+        this.limit = policy.initialLimit();
+        this.estimatedLimit = new AtomicLong(Double.doubleToLongBits(policy.initialLimit()));
+    }
+
+    /**
+     * Try to acquire a permit.
+     *
+     * @return false if the limit is reached
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int n = inFlight.get();
+            if (n >= limit) {
+                rejections.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(n, n + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release the permit and update the limit.
+     *
+     * @param rttNanos latency of the request
+     * @param dropped  whether the request timed out or was throttled
+     */
+    void release(long rttNanos, boolean dropped) {
+        int n = inFlight.getAndDecrement();
+        long bits = estimatedLimit.get();
+        double current = Double.longBitsToDouble(bits);
+        double next =
+                switch (policy.algorithm()) {
+                    case GRADIENT -> gradient(current, Math.max(rttNanos, 1), n, dropped);
+                    case AIMD -> aimd(current, n, dropped);
+                };
+        if (next != current && estimatedLimit.compareAndSet(bits, Double.doubleToLongBits(next))) {
+            limit = (int) next;
+        }
+    }
+
+    /**
+     * Release the permit without updating the limit, e.g. the request is cancelled.
+     */
+    void releaseIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    long getRejections() {
+        return rejections.get();
+    }
+
+    private double gradient(double current, long rtt, int inFlight, boolean dropped) {
+        if (dropped) {
+            // the latency of a failed request is meaningless
+            return current;
+        }
+        double avg = updateLongRtt(rtt);
+        if (inFlight < current / 2) {
+            // not enough load to judge the limit
+            return current;
+        }
+        if (avg / rtt > 2) {
+            // the latency has recovered, let the average catch up
+            avg *= 0.95;
+            longRtt.set(Double.doubleToLongBits(avg));
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, policy.tolerance() * avg / rtt));
+        double newLimit = current * gradient + QUEUE_SIZE;
+        newLimit = current * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        return clamp(newLimit);
+    }
+
+    private double aimd(double current, int inFlight, boolean dropped) {
+        if (dropped) {
+            return clamp(current * policy.backoffRatio());
+        }
+        if (inFlight * 2 >= current) {
+            return clamp(current + 1);
+        }
+        return current;
+    }
+
+    private double updateLongRtt(long rtt) {
+        long n = samples.incrementAndGet();
+        double factor = n <= WARMUP_SAMPLES ? 1.0 / n : 2.0 / (LONG_WINDOW + 1);
+        long bits = longRtt.updateAndGet(b -> {
+            double avg = Double.longBitsToDouble(b);
+            return Double.doubleToLongBits(avg + (rtt - avg) * factor);
+        });
+        return Double.longBitsToDouble(bits);
+    }
+
+    private double clamp(double value) {
+        return Math.min(Math.max(value, policy.minLimit()), policy.maxLimit());
+    }
+}
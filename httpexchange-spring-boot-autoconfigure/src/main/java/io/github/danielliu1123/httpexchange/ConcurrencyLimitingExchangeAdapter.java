@@ -0,0 +1,131 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.util.function.Supplier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+
+/**
+ * {@link HttpExchangeAdapter} decorator that limits the requests in flight by a {@link ConcurrencyLimiter},
+ * requests exceeding the limit fail fast with {@link ConcurrencyLimitExceededException}.
+ *
+ * @author Freeman
+ * @see HttpExchangeProperties.ConcurrencyLimit
+ * @since 3.2.1
+ */
+class ConcurrencyLimitingExchangeAdapter implements HttpExchangeAdapter {
+
+    private final HttpExchangeAdapter delegate;
+    private final ConcurrencyLimiter limiter;
+
+    ConcurrencyLimitingExchangeAdapter(HttpExchangeAdapter delegate, ConcurrencyLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    /**
+     * Decorate the adapter, the reactive adapter is decorated by {@link ReactorConcurrencyLimitingExchangeAdapter}.
+     *
+     * @param adapter adapter to decorate
+     * @param limiter limiter of the channel
+     * @return the decorated adapter, or the given adapter if it's already decorated
+     */
+    static HttpExchangeAdapter wrap(HttpExchangeAdapter adapter, ConcurrencyLimiter limiter) {
+        if (adapter instanceof ConcurrencyLimitingExchangeAdapter) {
+            return adapter;
+        }
+        return adapter instanceof ReactorHttpExchangeAdapter reactorAdapter
+                ? new ReactorConcurrencyLimitingExchangeAdapter(reactorAdapter, limiter)
+                : new ConcurrencyLimitingExchangeAdapter(adapter, limiter);
+    }
+
+    /**
+     * Whether the failed request indicates the server is overloaded, i.e. an I/O error (e.g. read timeout),
+     * {@code 429} or {@code 5xx}.
+     */
+    static boolean isDropped(Throwable error) {
+        Integer status = RetryPolicy.Errors.status(error);
+        if (status != null) {
+            return status == 429 || status >= 500;
+        }
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (RetryPolicy.Errors.isIoError(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean supportsRequestAttributes() {
+        return delegate.supportsRequestAttributes();
+    }
+
+    @Override
+    public void exchange(HttpRequestValues requestValues) {
+        limit(requestValues, () -> {
+            delegate.exchange(requestValues);
+            return null;
+        });
+    }
+
+    @Override
+    public HttpHeaders exchangeForHeaders(HttpRequestValues requestValues) {
+        return limit(requestValues, () -> delegate.exchangeForHeaders(requestValues));
+    }
+
+    @Nullable
+    @Override
+    public <T> T exchangeForBody(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return limit(requestValues, () -> delegate.exchangeForBody(requestValues, bodyType));
+    }
+
+    @Override
+    public ResponseEntity<Void> exchangeForBodilessEntity(HttpRequestValues requestValues) {
+        return limit(requestValues, () -> delegate.exchangeForBodilessEntity(requestValues));
+    }
+
+    @Override
+    public <T> ResponseEntity<T> exchangeForEntity(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return limit(requestValues, () -> delegate.exchangeForEntity(requestValues, bodyType));
+    }
+
+    private <T> T limit(HttpRequestValues requestValues, Supplier<T> call) {
+        if (!limiter.tryAcquire()) {
+            throw rejected(requestValues);
+        }
+        long start = System.nanoTime();
+        boolean dropped = false;
+        boolean cancelled = false;
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            cancelled = HedgingExchangeAdapter.isCancelled();
+            dropped = !cancelled && isDropped(e);
+            throw e;
+        } finally {
+            if (cancelled) {
+                limiter.releaseIgnored();
+            } else {
+                limiter.release(System.nanoTime() - start, dropped);
+            }
+        }
+    }
+
+    ConcurrencyLimitExceededException rejected(HttpRequestValues requestValues) {
+        int limit = limiter.getLimit();
+        return new ConcurrencyLimitExceededException(
+                "Concurrency limit " + limit + " exceeded for " + requestValues.getHttpMethod() + " "
+                        + Util.expandUri(requestValues),
+                limit);
+    }
+
+    ConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+}
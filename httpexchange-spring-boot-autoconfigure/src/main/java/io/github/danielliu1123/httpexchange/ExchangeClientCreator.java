@@ -2,24 +2,31 @@ package io.github.danielliu1123.httpexchange;
 
 import static io.github.danielliu1123.httpexchange.Util.findMatchedConfig;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.github.danielliu1123.httpexchange.shaded.AsyncRequestExecutor;
 import io.github.danielliu1123.httpexchange.shaded.ShadedHttpServiceProxyFactory;
+import jakarta.annotation.Nullable;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.boot.ssl.SslBundle;
-import org.springframework.boot.web.client.ClientHttpRequestFactories;
-import org.springframework.boot.web.client.ClientHttpRequestFactorySettings;
+import org.springframework.boot.ssl.SslBundles;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.env.Environment;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.format.support.DefaultFormattingConversionService;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.JdkClientHttpRequestFactory;
@@ -41,6 +48,9 @@ import org.springframework.web.service.annotation.HttpExchange;
 import org.springframework.web.service.invoker.HttpExchangeAdapter;
 import org.springframework.web.service.invoker.HttpServiceArgumentResolver;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * @author Freeman
@@ -52,6 +62,10 @@ class ExchangeClientCreator {
             ClassUtils.isPresent("org.springframework.web.reactive.function.client.WebClient", null);
     private static final boolean LOADBALANCER_PRESENT =
             ClassUtils.isPresent("org.springframework.cloud.client.loadbalancer.LoadBalancerClient", null);
+    private static final boolean MICROMETER_PRESENT =
+            ClassUtils.isPresent("io.micrometer.core.instrument.MeterRegistry", null);
+    private static final boolean CONTEXT_PROPAGATION_PRESENT =
+            ClassUtils.isPresent("io.micrometer.context.ContextSnapshotFactory", null);
 
     private static final Field exchangeAdapterField;
     private static final Field customArgumentResolversField;
@@ -71,15 +85,21 @@ class ExchangeClientCreator {
     }
 
     private final ConfigurableBeanFactory beanFactory;
-    private final Environment environment;
-    private final Class<?> clientType;
+    private final String clientClassName;
     private final boolean usingNeutralAnnotation;
 
-    @SuppressFBWarnings("CT_CONSTRUCTOR_THROW")
-    ExchangeClientCreator(ConfigurableBeanFactory beanFactory, Class<?> clientType, boolean usingNeutralAnnotation) {
+    /**
+     * Resolved when the client is first created, the interface is not loaded at registration.
+     */
+    private volatile Class<?> clientType;
+
+    @Nullable
+    private Class<?> generatedClientType;
+
+    ExchangeClientCreator(
+            ConfigurableBeanFactory beanFactory, String clientClassName, boolean usingNeutralAnnotation) {
         this.beanFactory = beanFactory;
-        this.environment = beanFactory.getBean(Environment.class);
-        this.clientType = clientType;
+        this.clientClassName = clientClassName;
         this.usingNeutralAnnotation = usingNeutralAnnotation;
     }
 
@@ -89,65 +109,239 @@ class ExchangeClientCreator {
      * @param <T> type of the {@link HttpExchange}/{@link RequestMapping} interface
      * @return the proxy instance
      */
-    @SuppressWarnings("unchecked")
     public <T> T create() {
-        HttpExchangeProperties httpExchangeProperties = beanFactory
+        return create(beanFactory
                 .getBeanProvider(HttpExchangeProperties.class)
-                .getIfUnique(() -> Util.getProperties(environment));
+                .getIfUnique(() -> Util.getProperties(environment())));
+    }
+
+    /**
+     * Create a proxy {@link HttpExchange}/{@link RequestMapping} interface instance with the given properties.
+     *
+     * @param httpExchangeProperties properties, e.g. the newly bound properties on refresh
+     * @param <T>                    type of the {@link HttpExchange}/{@link RequestMapping} interface
+     * @return the proxy instance
+     */
+    <T> T create(HttpExchangeProperties httpExchangeProperties) {
+        StartupStep step = beanFactory
+                .getApplicationStartup()
+                .start("httpexchange.client.create")
+                .tag("client", clientClassName);
+        try {
+            resolveClientType();
+            return doCreate(httpExchangeProperties);
+        } finally {
+            step.end();
+        }
+    }
+
+    /**
+     * @return type of the client interface, resolved after the first {@link #create}
+     */
+    Class<?> getClientType() {
+        return clientType;
+    }
+
+    private <T> T doCreate(HttpExchangeProperties httpExchangeProperties) {
         HttpExchangeProperties.Channel chan =
                 findMatchedConfig(clientType, httpExchangeProperties).orElseGet(httpExchangeProperties::defaultClient);
-        if (usingNeutralAnnotation) {
-            HttpServiceProxyFactory factory = buildFactory(chan);
-            T result = (T) factory.createClient(clientType);
-            Cache.addClient(result);
-            return result;
+        Cache.Entry entry = Cache.getEntry(chan);
+        T result = withFallback(createClient(httpExchangeProperties, chan, entry), chan);
+        if (!Cache.retain(entry, result)) {
+            // The entry was evicted and closed while creating this client, build a new one
+            entry = Cache.getEntry(chan);
+            result = withFallback(createClient(httpExchangeProperties, chan, entry), chan);
+            Cache.retain(entry, result);
+        }
+        Cache.addClient(result);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T createClient(
+            HttpExchangeProperties httpExchangeProperties, HttpExchangeProperties.Channel chan, Cache.Entry entry) {
+        // @ResponseCacheable, @Retryable and @Batched are only supported by the shaded proxy
+        boolean hasCacheableMethods = ResponseCachingExchangeAdapter.hasCacheableMethods(clientType);
+        boolean shadedOnly = hasCacheableMethods
+                || RetryingExchangeAdapter.hasRetryableMethods(clientType)
+                || ShadedHttpServiceProxyFactory.hasBatchedMethods(clientType);
+        if (generatedClientType != null && httpExchangeProperties.isGeneratedClientEnabled() && !shadedOnly) {
+            T result = createGeneratedClient(chan, entry);
+            if (result != null) {
+                return result;
+            }
+        }
+        boolean hiddenClassProxy =
+                httpExchangeProperties.getProxyMode() == HttpExchangeProperties.ProxyMode.HIDDEN_CLASS;
+        // Spring's HttpServiceProxyFactory doesn't support CompletableFuture for blocking adapters
+        boolean hasFutureMethods = ShadedHttpServiceProxyFactory.hasFutureMethods(clientType);
+        if (usingNeutralAnnotation && !hiddenClassProxy && !hasFutureMethods && !shadedOnly) {
+            HttpServiceProxyFactory factory = buildFactory(chan, entry);
+            return (T) factory.createClient(clientType);
         }
-        if (!httpExchangeProperties.isRequestMappingSupportEnabled()) {
+        if (!usingNeutralAnnotation && !httpExchangeProperties.isRequestMappingSupportEnabled()) {
             throw new IllegalStateException(
                     "You're using @RequestMapping based annotation, please migrate to @HttpExchange or set 'http-exchange.request-mapping-support-enabled=true' to support processing @RequestMapping.");
         }
-        ShadedHttpServiceProxyFactory shadedFactory = buildShadedFactory(chan);
-        T result = (T) shadedFactory.createClient(clientType);
-        Cache.addClient(result);
-        return result;
+        ShadedHttpServiceProxyFactory shadedFactory =
+                buildShadedFactory(chan, entry, hiddenClassProxy, hasFutureMethods, hasCacheableMethods);
+        return (T) shadedFactory.createClient(clientType);
+    }
+
+    /**
+     * Fall back to the {@link Fallback} bean or the default methods if the circuit breaker is enabled.
+     */
+    private <T> T withFallback(T client, HttpExchangeProperties.Channel chan) {
+        if (!CircuitBreakerPolicy.of(chan.getCircuitBreaker()).enabled()) {
+            return client;
+        }
+        return FallbackInterceptor.wrap(client, clientType, beanFactory);
     }
 
-    private HttpServiceProxyFactory buildFactory(HttpExchangeProperties.Channel channelConfig) {
-        HttpServiceProxyFactory.Builder builder = Cache.getOrSupply(channelConfig, () -> factoryBuilder(channelConfig));
+    private void resolveClientType() {
+        if (clientType != null) {
+            return;
+        }
+        Class<?> type = ClassUtils.resolveClassName(clientClassName, beanFactory.getBeanClassLoader());
+        generatedClientType = usingNeutralAnnotation ? HttpClientBeanRegistrar.findGeneratedClient(type) : null;
+        clientType = type;
+    }
+
+    /**
+     * Create client from the implementation generated by {@code ExchangeClientProcessor}.
+     *
+     * <p> The generated client only knows the built-in argument resolvers,
+     * return {@code null} to fall back to the proxy if there are custom {@link HttpServiceArgumentResolver}s.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private <T> T createGeneratedClient(HttpExchangeProperties.Channel channelConfig, Cache.Entry entry) {
+        HttpServiceProxyFactory.Builder builder =
+                entry.getOrSupplyBuilder(() -> factoryBuilder(channelConfig, entry));
+
+        List<HttpServiceArgumentResolver> customArgumentResolvers =
+                getFieldValue(builder, customArgumentResolversField);
+        if (customArgumentResolvers != null
+                && customArgumentResolvers.stream().anyMatch(e -> !(e instanceof BeanParamArgumentResolver))) {
+            log.debug(
+                    "Custom HttpServiceArgumentResolver found, not using generated client '{}'",
+                    generatedClientType.getName());
+            return null;
+        }
+
+        HttpExchangeAdapter exchangeAdapter = getFieldValue(builder, exchangeAdapterField);
+        ConversionService conversionService = Optional.ofNullable(
+                        getFieldValue(builder, conversionServiceField))
+                .map(ConversionService.class::cast)
+                .orElseGet(DefaultFormattingConversionService::new);
+        StringValueResolver embeddedValueResolver = getFieldValue(builder, embeddedValueResolverField);
+
+        Constructor<?> constructor = ClassUtils.getConstructorIfAvailable(
+                generatedClientType, HttpExchangeAdapter.class, ConversionService.class, StringValueResolver.class);
+        if (constructor == null) {
+            log.warn(
+                    "Generated client '{}' is not compatible, please recompile it with the same version of httpexchange-processor",
+                    generatedClientType.getName());
+            return null;
+        }
+        return (T) BeanUtils.instantiateClass(constructor, exchangeAdapter, conversionService, embeddedValueResolver);
+    }
+
+    private HttpServiceProxyFactory buildFactory(HttpExchangeProperties.Channel channelConfig, Cache.Entry entry) {
+        HttpServiceProxyFactory.Builder builder = entry.getOrSupplyBuilder(() -> factoryBuilder(channelConfig, entry));
+        return builder.build();
+    }
+
+    private ShadedHttpServiceProxyFactory buildShadedFactory(
+            HttpExchangeProperties.Channel channelConfig,
+            Cache.Entry entry,
+            boolean hiddenClassProxy,
+            boolean hasFutureMethods,
+            boolean hasCacheableMethods) {
+        HttpServiceProxyFactory.Builder b = entry.getOrSupplyBuilder(() -> factoryBuilder(channelConfig, entry));
+        ShadedHttpServiceProxyFactory.Builder builder =
+                shadedProxyFactory(b).hiddenClassProxy(hiddenClassProxy);
+        HttpExchangeAdapter exchangeAdapter = getFieldValue(b, exchangeAdapterField);
+        if (hasFutureMethods && !(exchangeAdapter instanceof ReactorHttpExchangeAdapter)) {
+            builder.asyncRequestExecutor(
+                    entry.getOrSupplyAsyncRequestExecutor(() -> asyncRequestExecutor(channelConfig)));
+        }
+        if (hasCacheableMethods && exchangeAdapter != null) {
+            // no-op if the response cache is enabled for the channel
+            builder.exchangeAdapter(ResponseCachingExchangeAdapter.wrap(
+                    exchangeAdapter, responseCacheStore(channelConfig, entry), false));
+        }
         return builder.build();
     }
 
-    private ShadedHttpServiceProxyFactory buildShadedFactory(HttpExchangeProperties.Channel channelConfig) {
-        HttpServiceProxyFactory.Builder b = Cache.getOrSupply(channelConfig, () -> factoryBuilder(channelConfig));
-        return shadedProxyFactory(b).build();
+    private static ResponseCacheStore responseCacheStore(
+            HttpExchangeProperties.Channel channelConfig, Cache.Entry entry) {
+        return entry.getOrSupplyResponseCacheStore(() -> {
+            Integer maxEntries = Optional.ofNullable(channelConfig.getResponseCache())
+                    .map(HttpExchangeProperties.ResponseCache::getMaxEntries)
+                    .orElse(HttpExchangeProperties.ResponseCache.DEFAULT_MAX_ENTRIES);
+            return ResponseCacheStore.create(maxEntries);
+        });
+    }
+
+    private AsyncRequestExecutor asyncRequestExecutor(HttpExchangeProperties.Channel channelConfig) {
+        Executor executor = ClientExecutors.getAsyncExecutor(channelConfig.getAsyncExecutor(), beanFactory);
+        Integer maxInFlight = channelConfig.getAsyncMaxInFlight();
+        return new AsyncRequestExecutor(
+                executor, maxInFlight != null ? maxInFlight : HttpExchangeProperties.DEFAULT_ASYNC_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Propagate the thread-locals to the hedges by the {@link TaskDecorator} bean,
+     * or by Micrometer context propagation if present.
+     */
+    @Nullable
+    private TaskDecorator taskDecorator() {
+        return beanFactory.getBeanProvider(TaskDecorator.class).getIfUnique(() -> CONTEXT_PROPAGATION_PRESENT
+                ? new ContextPropagatingTaskDecorator()
+                : null);
+    }
+
+    private HttpServiceProxyFactory.Builder factoryBuilder(
+            HttpExchangeProperties.Channel channelConfig, Cache.Entry entry) {
+        StartupStep step = beanFactory
+                .getApplicationStartup()
+                .start("httpexchange.client.factory")
+                .tag("channel", String.valueOf(channelConfig.getName()));
+        try {
+            return doFactoryBuilder(channelConfig, entry);
+        } finally {
+            step.end();
+        }
     }
 
-    private HttpServiceProxyFactory.Builder factoryBuilder(HttpExchangeProperties.Channel channelConfig) {
-        HttpServiceProxyFactory.Builder builder = beanFactory
+    private HttpServiceProxyFactory.Builder doFactoryBuilder(
+            HttpExchangeProperties.Channel channelConfig, Cache.Entry entry) {
+        // the builder bean is shared by the channels, copy it and never write the decorated adapter back
+        HttpServiceProxyFactory.Builder builder = copyOf(beanFactory
                 .getBeanProvider(HttpServiceProxyFactory.Builder.class)
-                .getIfUnique(HttpServiceProxyFactory::builder);
+                .getIfUnique(HttpServiceProxyFactory::builder));
 
         HttpExchangeAdapter exchangeAdapter = getFieldValue(builder, exchangeAdapterField);
         if (exchangeAdapter == null) {
-            switch (channelConfig.getClientType()) {
-                case REST_CLIENT -> builder.exchangeAdapter(RestClientAdapter.create(buildRestClient(channelConfig)));
-                case REST_TEMPLATE -> builder.exchangeAdapter(
-                        RestTemplateAdapter.create(buildRestTemplate(channelConfig)));
+            exchangeAdapter = switch (channelConfig.getClientType()) {
+                case REST_CLIENT -> RestClientAdapter.create(buildRestClient(channelConfig, entry));
+                case REST_TEMPLATE -> RestTemplateAdapter.create(buildRestTemplate(channelConfig, entry));
                 case WEB_CLIENT -> {
                     if (WEBFLUX_PRESENT) {
-                        builder.exchangeAdapter(WebClientAdapter.create(buildWebClient(channelConfig)));
-                    } else {
-                        log.warn(
-                                "spring-webflux is not in the classpath, fall back client-type to '{}'",
-                                HttpExchangeProperties.ClientType.REST_CLIENT);
-                        builder.exchangeAdapter(RestClientAdapter.create(buildRestClient(channelConfig)));
+                        yield WebClientAdapter.create(buildWebClient(channelConfig));
                     }
+                    log.warn(
+                            "spring-webflux is not in the classpath, fall back client-type to '{}'",
+                            HttpExchangeProperties.ClientType.REST_CLIENT);
+                    yield RestClientAdapter.create(buildRestClient(channelConfig, entry));
                 }
-                default -> throw new IllegalStateException("Unexpected value: " + channelConfig.getClientType());
-            }
+            };
         }
+        builder.exchangeAdapter(decorate(exchangeAdapter, channelConfig, entry));
 
         // String value resolver, need to support ${} placeholder
+        Environment environment = environment();
         StringValueResolver resolver = Optional.ofNullable(getFieldValue(builder, embeddedValueResolverField))
                 .map(StringValueResolver.class::cast)
                 .map(r -> UrlPlaceholderStringValueResolver.create(environment, r))
@@ -163,7 +357,68 @@ class ExchangeClientCreator {
         return builder;
     }
 
-    private RestTemplate buildRestTemplate(HttpExchangeProperties.Channel channelConfig) {
+    /**
+     * Decorate the base adapter of the channel, from the innermost to the outermost.
+     */
+    private HttpExchangeAdapter decorate(
+            HttpExchangeAdapter exchangeAdapter, HttpExchangeProperties.Channel channelConfig, Cache.Entry entry) {
+        // limit the requests in flight, hedges and retries take their own permits
+        ConcurrencyLimitPolicy concurrencyLimitPolicy = ConcurrencyLimitPolicy.of(channelConfig.getConcurrencyLimit());
+        if (concurrencyLimitPolicy.enabled()) {
+            ConcurrencyLimiter limiter = new ConcurrencyLimiter(concurrencyLimitPolicy);
+            if (MICROMETER_PRESENT) {
+                Cache.onClose(entry, ChannelMetrics.bind(beanFactory, channelConfig, limiter));
+            }
+            exchangeAdapter = ConcurrencyLimitingExchangeAdapter.wrap(exchangeAdapter, limiter);
+        }
+
+        // limit the request rate, waiting for a permit doesn't hold a concurrency permit
+        RateLimitPolicy rateLimitPolicy = RateLimitPolicy.of(channelConfig.getRateLimit());
+        if (rateLimitPolicy.enabled()) {
+            exchangeAdapter = RateLimitingExchangeAdapter.wrap(exchangeAdapter, rateLimitPolicy);
+        }
+
+        // stop calling a failing server, rejected requests don't take rate or concurrency permits
+        CircuitBreakerPolicy circuitBreakerPolicy = CircuitBreakerPolicy.of(channelConfig.getCircuitBreaker());
+        if (circuitBreakerPolicy.enabled()) {
+            CircuitBreakers circuitBreakers = CircuitBreakers.register(channelConfig, circuitBreakerPolicy);
+            Cache.onClose(entry, circuitBreakers::unregister);
+            if (MICROMETER_PRESENT) {
+                Cache.onClose(entry, ChannelMetrics.bind(beanFactory, channelConfig, circuitBreakers));
+            }
+            exchangeAdapter = CircuitBreakingExchangeAdapter.wrap(exchangeAdapter, circuitBreakers);
+        }
+
+        // hedge slow requests, each hedge goes through the transport (and the load balancer)
+        HedgePolicy hedgePolicy = HedgePolicy.of(channelConfig.getHedge());
+        if (hedgePolicy.enabled()) {
+            exchangeAdapter = HedgingExchangeAdapter.wrap(
+                    exchangeAdapter,
+                    hedgePolicy,
+                    entry.getOrSupplyAsyncRequestExecutor(() -> asyncRequestExecutor(channelConfig)),
+                    taskDecorator());
+        }
+
+        // retry failed requests, each attempt goes through the transport,
+        // if retry is disabled for the channel, only the requests of @Retryable methods are retried
+        exchangeAdapter = RetryingExchangeAdapter.wrap(exchangeAdapter, RetryPolicy.of(channelConfig.getRetry()));
+
+        // coalesce identical in-flight requests, after the response cache misses
+        if (Boolean.TRUE.equals(channelConfig.getCoalescingEnabled())) {
+            exchangeAdapter = CoalescingExchangeAdapter.wrap(exchangeAdapter);
+        }
+
+        // response cache
+        if (channelConfig.getResponseCache() != null
+                && Boolean.TRUE.equals(channelConfig.getResponseCache().getEnabled())) {
+            exchangeAdapter = ResponseCachingExchangeAdapter.wrap(
+                    exchangeAdapter, responseCacheStore(channelConfig, entry), true);
+        }
+
+        return exchangeAdapter;
+    }
+
+    private RestTemplate buildRestTemplate(HttpExchangeProperties.Channel channelConfig, Cache.Entry entry) {
         RestTemplateBuilder builder =
                 beanFactory.getBeanProvider(RestTemplateBuilder.class).getIfUnique(RestTemplateBuilder::new);
         // see org.springframework.boot.web.client.RestTemplateBuilder#rootUri
@@ -183,7 +438,7 @@ class ExchangeClientCreator {
         if (channelConfig.getReadTimeout() != null) {
             builder = builder.setReadTimeout(Duration.ofMillis(channelConfig.getReadTimeout()));
         }
-        builder = builder.requestFactory(() -> getRequestFactory(channelConfig));
+        builder = builder.requestFactory(() -> getRequestFactory(channelConfig, entry));
 
         RestTemplate restTemplate = builder.build();
 
@@ -219,7 +474,7 @@ class ExchangeClientCreator {
         return builder.build();
     }
 
-    private RestClient buildRestClient(HttpExchangeProperties.Channel channelConfig) {
+    private RestClient buildRestClient(HttpExchangeProperties.Channel channelConfig, Cache.Entry entry) {
         RestClient.Builder builder =
                 beanFactory.getBeanProvider(RestClient.Builder.class).getIfUnique(RestClient::builder);
         // see org.springframework.web.client.DefaultRestClientBuilder#baseUrl
@@ -233,7 +488,7 @@ class ExchangeClientCreator {
                     .forEach(header -> builder.defaultHeader(
                             header.getKey(), header.getValues().toArray(String[]::new)));
         }
-        builder.requestFactory(getRequestFactory(channelConfig));
+        builder.requestFactory(getRequestFactory(channelConfig, entry));
         // If loadbalancer in the classpath, use LoadBalancerInterceptor.
         if (isLoadBalancerEnabled(channelConfig)) {
             builder.requestInterceptors(it -> beanFactory.getBeanProvider(ClientHttpRequestInterceptor.class).stream()
@@ -247,35 +502,70 @@ class ExchangeClientCreator {
         return !LoadBalancedExchangeFilterFunction.class.isAssignableFrom(e.getClass());
     }
 
-    private ClientHttpRequestFactory getRequestFactory(HttpExchangeProperties.Channel channelConfig) {
-        ClientHttpRequestFactorySettings settings = new ClientHttpRequestFactorySettings(
-                Optional.ofNullable(channelConfig.getConnectTimeout())
-                        .map(Duration::ofMillis)
-                        .orElse(null),
-                Optional.ofNullable(channelConfig.getReadTimeout())
-                        .map(Duration::ofMillis)
-                        .orElse(null),
-                (SslBundle) null);
+    private ClientHttpRequestFactory getRequestFactory(HttpExchangeProperties.Channel channelConfig, Cache.Entry entry) {
         ClientHttpRequestFactory requestFactory =
                 beanFactory.getBeanProvider(ClientHttpRequestFactory.class).getIfUnique();
-        return requestFactory != null
-                ? ClientHttpRequestFactories.get(
-                        AopProxyUtils.ultimateTargetClass(requestFactory).asSubclass(ClientHttpRequestFactory.class),
-                        settings)
-                : ClientHttpRequestFactories.get(JdkClientHttpRequestFactory.class, settings);
+        Class<? extends ClientHttpRequestFactory> requestFactoryClass = requestFactory != null
+                ? AopProxyUtils.ultimateTargetClass(requestFactory).asSubclass(ClientHttpRequestFactory.class)
+                : JdkClientHttpRequestFactory.class;
+        SslBundle sslBundle = StringUtils.hasText(channelConfig.getSslBundle())
+                ? beanFactory.getBean(SslBundles.class).getBundle(channelConfig.getSslBundle())
+                : null;
+        Executor executor = ClientExecutors.getExecutor(channelConfig.getExecutor(), beanFactory, environment());
+        TransportSettings settings = TransportSettings.of(requestFactoryClass, channelConfig, sslBundle, executor);
+
+        // Channels with the same host and settings share the same transport, retained by the cache entry
+        TransportRegistry.Transport transport = TransportRegistry.acquire(
+                getHost(channelConfig), settings, () -> RequestFactories.get(settings), entry);
+        Cache.setTransport(entry, transport);
+        return transport.getRequestFactory();
+    }
+
+    @Nullable
+    private static String getHost(HttpExchangeProperties.Channel channelConfig) {
+        if (!StringUtils.hasText(channelConfig.getBaseUrl())) {
+            return null;
+        }
+        UriComponents uri =
+                UriComponentsBuilder.fromUriString(getRealBaseUrl(channelConfig)).build();
+        return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() != -1 ? ":" + uri.getPort() : "");
     }
 
     private boolean isLoadBalancerEnabled(HttpExchangeProperties.Channel channelConfig) {
         return LOADBALANCER_PRESENT
-                && environment.getProperty("spring.cloud.loadbalancer.enabled", Boolean.class, true)
+                && environment().getProperty("spring.cloud.loadbalancer.enabled", Boolean.class, true)
                 && channelConfig.getLoadbalancerEnabled();
     }
 
+    /**
+     * Environment is resolved lazily, the creator can be created before the environment bean is registered (AOT).
+     */
+    private Environment environment() {
+        return beanFactory.getBean(Environment.class);
+    }
+
     private static String getRealBaseUrl(HttpExchangeProperties.Channel channelConfig) {
         String baseUrl = channelConfig.getBaseUrl();
         return baseUrl.contains("://") ? baseUrl : "http://" + baseUrl;
     }
 
+    private static HttpServiceProxyFactory.Builder copyOf(HttpServiceProxyFactory.Builder proxyFactory) {
+        HttpExchangeAdapter exchangeAdapter = getFieldValue(proxyFactory, exchangeAdapterField);
+        List<HttpServiceArgumentResolver> customArgumentResolvers =
+                getFieldValue(proxyFactory, customArgumentResolversField);
+        ConversionService conversionService = getFieldValue(proxyFactory, conversionServiceField);
+        StringValueResolver embeddedValueResolver = getFieldValue(proxyFactory, embeddedValueResolverField);
+
+        HttpServiceProxyFactory.Builder builder = HttpServiceProxyFactory.builder();
+        Optional.ofNullable(exchangeAdapter).ifPresent(builder::exchangeAdapter);
+        Optional.ofNullable(customArgumentResolvers).stream()
+                .flatMap(Collection::stream)
+                .forEach(builder::customArgumentResolver);
+        Optional.ofNullable(conversionService).ifPresent(builder::conversionService);
+        Optional.ofNullable(embeddedValueResolver).ifPresent(builder::embeddedValueResolver);
+        return builder;
+    }
+
     static ShadedHttpServiceProxyFactory.Builder shadedProxyFactory(HttpServiceProxyFactory.Builder proxyFactory) {
         HttpExchangeAdapter exchangeAdapter = getFieldValue(proxyFactory, exchangeAdapterField);
         List<HttpServiceArgumentResolver> customArgumentResolvers =
@@ -0,0 +1,53 @@
+package io.github.danielliu1123.httpexchange;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specify the bean to fall back to when a request fails and the circuit breaker is enabled,
+ * see {@link HttpExchangeProperties.CircuitBreaker}.
+ *
+ * <p> Example:
+ * <pre>{@code
+ * @HttpExchange("/users")
+ * @Fallback(UserApiFallback.class)
+ * interface UserApi {
+ *     @GetExchange("/{id}")
+ *     User get(@PathVariable String id);
+ * }
+ *
+ * @Component
+ * class UserApiFallback implements UserApi {
+ *     @Override
+ *     public User get(String id) {
+ *         return new User(id, "unknown");
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p> Without {@link Fallback}, an exchange method with a default implementation falls back to it:
+ * <pre>{@code
+ * @GetExchange("/{id}")
+ * default User get(@PathVariable String id) {
+ *     return new User(id, "unknown");
+ * }
+ * }</pre>
+ *
+ * <p> The fallback is invoked when the circuit is open or the request fails with an I/O error or {@code 5xx},
+ * other errors (e.g. {@code 4xx}) are thrown as is.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Fallback {
+    /**
+     * Type of the fallback bean, must implement the client interface.
+     */
+    Class<?> value();
+}
@@ -0,0 +1,164 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.service.annotation.HttpExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link MethodInterceptor} that invokes the fallback of the exchange method when the request fails,
+ * see {@link Fallback}.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+final class FallbackInterceptor implements MethodInterceptor {
+
+    private static final boolean REACTOR_PRESENT = ClassUtils.isPresent("reactor.core.publisher.Mono", null);
+
+    private final Set<Method> exchangeMethods;
+
+    @Nullable
+    private final Supplier<Object> fallbackBean;
+
+    private FallbackInterceptor(Set<Method> exchangeMethods, @Nullable Supplier<Object> fallbackBean) {
+        this.exchangeMethods = exchangeMethods;
+        this.fallbackBean = fallbackBean;
+    }
+
+    /**
+     * Decorate the client with the {@link Fallback} bean or the default exchange methods of the client interface.
+     *
+     * @param client      client to decorate
+     * @param clientType  client interface
+     * @param beanFactory bean factory to get the {@link Fallback} bean
+     * @param <T>         type of the client
+     * @return the decorated client, or the given client if there is no fallback
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T wrap(T client, Class<?> clientType, BeanFactory beanFactory) {
+        Fallback fallback = AnnotatedElementUtils.findMergedAnnotation(clientType, Fallback.class);
+        Supplier<Object> fallbackBean = null;
+        if (fallback != null) {
+            Class<?> fallbackType = fallback.value();
+            Assert.isTrue(
+                    clientType.isAssignableFrom(fallbackType),
+                    () -> "@Fallback type " + fallbackType.getName() + " must implement " + clientType.getName());
+            // looked up on the first fallback, the bean may depend on the client
+            fallbackBean = SingletonSupplier.of(() -> beanFactory.getBean(fallbackType));
+        }
+        Set<Method> exchangeMethods =
+                MethodIntrospector.selectMethods(clientType, FallbackInterceptor::isExchangeMethod);
+        if (fallbackBean == null && exchangeMethods.stream().noneMatch(Method::isDefault)) {
+            return client;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(client);
+        proxyFactory.addInterface(clientType);
+        proxyFactory.addAdvice(new FallbackInterceptor(exchangeMethods, fallbackBean));
+        return (T) proxyFactory.getProxy(clientType.getClassLoader());
+    }
+
+    /**
+     * Whether to fall back for the error, i.e. the circuit is open or the server is unhealthy.
+     */
+    static boolean shouldFallback(Throwable error) {
+        Throwable e = error instanceof CompletionException || error instanceof ExecutionException
+                ? (error.getCause() != null ? error.getCause() : error)
+                : error;
+        return e instanceof CircuitBreakerOpenException || CircuitBreakingExchangeAdapter.isFailure(e);
+    }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (!exchangeMethods.contains(method) || (fallbackBean == null && !method.isDefault())) {
+            return invocation.proceed();
+        }
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            if (!shouldFallback(e)) {
+                throw e;
+            }
+            return fallback(invocation);
+        }
+        if (result instanceof CompletableFuture<?> future) {
+            return ((CompletableFuture<Object>) future)
+                    .exceptionallyCompose(e -> shouldFallback(e)
+                            ? this.<CompletableFuture<Object>>invokeQuietly(invocation, CompletableFuture::failedFuture)
+                            : CompletableFuture.failedFuture(e));
+        }
+        if (REACTOR_PRESENT) {
+            return ReactorDelegate.withFallback(this, invocation, result);
+        }
+        return result;
+    }
+
+    @Nullable
+    private Object fallback(MethodInvocation invocation) throws Throwable {
+        if (fallbackBean != null) {
+            return AopUtils.invokeJoinpointUsingReflection(
+                    fallbackBean.get(), invocation.getMethod(), invocation.getArguments());
+        }
+        Object proxy = ((ProxyMethodInvocation) invocation).getProxy();
+        return InvocationHandler.invokeDefault(proxy, invocation.getMethod(), invocation.getArguments());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> R invokeQuietly(MethodInvocation invocation, Function<Throwable, R> onError) {
+        try {
+            return (R) fallback(invocation);
+        } catch (Throwable e) {
+            return onError.apply(e);
+        }
+    }
+
+    private static boolean isExchangeMethod(Method method) {
+        return AnnotatedElementUtils.hasAnnotation(method, HttpExchange.class)
+                || AnnotatedElementUtils.hasAnnotation(method, RequestMapping.class);
+    }
+
+    /**
+     * Inner class to avoid a hard dependency on Reactor at runtime.
+     */
+    private static final class ReactorDelegate {
+
+        @Nullable
+        @SuppressWarnings("unchecked")
+        static Object withFallback(
+                FallbackInterceptor interceptor, MethodInvocation invocation, @Nullable Object result) {
+            if (result instanceof Mono<?> mono) {
+                return ((Mono<Object>) mono).onErrorResume(FallbackInterceptor::shouldFallback, e -> Mono.defer(
+                        () -> interceptor.<Mono<Object>>invokeQuietly(invocation, Mono::error)));
+            }
+            if (result instanceof Flux<?> flux) {
+                return ((Flux<Object>) flux).onErrorResume(FallbackInterceptor::shouldFallback, e -> Flux.defer(
+                        () -> interceptor.<Flux<Object>>invokeQuietly(invocation, Flux::error)));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of {@link HttpExchangeProperties.Hedge} with defaults applied.
+ *
+ * @param enabled    whether to hedge requests
+ * @param delay      fixed delay before sending the hedge, or {@code null} to use the observed {@code percentile} latency
+ * @param percentile percentile of the observed latencies used as the delay
+ * @param minDelay   lower bound of the observed delay
+ * @param maxRatio   max ratio of hedges to requests
+ * @author Freeman
+ * @since 3.2.1
+ */
+record HedgePolicy(
+        boolean enabled, @Nullable Duration delay, double percentile, Duration minDelay, double maxRatio) {
+
+    static final double DEFAULT_PERCENTILE = 0.95;
+    static final int DEFAULT_MIN_DELAY = 10;
+    static final double DEFAULT_MAX_RATIO = 0.1;
+    /**
+     * Capacity of the hedge budget, i.e. the max number of hedges of a burst.
+     */
+    static final int BUDGET_MAX_TOKENS = 10;
+
+    static HedgePolicy of(@Nullable HttpExchangeProperties.Hedge hedge) {
+        HttpExchangeProperties.Hedge h = Optional.ofNullable(hedge).orElseGet(HttpExchangeProperties.Hedge::new);
+        return new HedgePolicy(
+                Boolean.TRUE.equals(h.getEnabled()),
+                Optional.ofNullable(h.getDelay()).map(Duration::ofMillis).orElse(null),
+                Optional.ofNullable(h.getPercentile()).orElse(DEFAULT_PERCENTILE),
+                Duration.ofMillis(Optional.ofNullable(h.getMinDelay()).orElse(DEFAULT_MIN_DELAY)),
+                Optional.ofNullable(h.getMaxRatio()).orElse(DEFAULT_MAX_RATIO));
+    }
+
+    /**
+     * Get the delay before sending the hedge.
+     *
+     * @param tracker latency tracker of the method, or {@code null} if the method is unknown
+     * @return the delay, or {@code null} if the request should not be hedged
+     */
+    @Nullable
+    Duration delay(@Nullable LatencyTracker tracker) {
+        if (delay != null) {
+            return delay;
+        }
+        Duration observed = tracker != null ? tracker.get() : null;
+        if (observed == null) {
+            return null;
+        }
+        return observed.compareTo(minDelay) < 0 ? minDelay : observed;
+    }
+}
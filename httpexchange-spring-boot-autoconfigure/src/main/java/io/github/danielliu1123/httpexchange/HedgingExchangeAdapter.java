@@ -0,0 +1,422 @@
+package io.github.danielliu1123.httpexchange;
+
+import io.github.danielliu1123.httpexchange.shaded.AsyncRequestExecutor;
+import jakarta.annotation.Nullable;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+
+/**
+ * {@link HttpExchangeAdapter} decorator that sends a second copy (hedge) of a slow idempotent request,
+ * the first successful response wins and the other request is cancelled.
+ *
+ * <p> The blocking request is sent on the caller thread, so the thread-locals of the caller are kept.
+ * Only the hedge is sent by the {@link AsyncRequestExecutor} of the channel, which bounds the requests in flight,
+ * the thread-locals are propagated to the hedge by the {@link TaskDecorator}.
+ * If the hedge wins, the original request is cancelled by interrupting the caller thread,
+ * the caller still waits for the original request if the underlying http client ignores interrupts.
+ * The failure of the cancelled request is not counted by the circuit breaker and the concurrency limiter,
+ * see {@link #isCancelled()}.
+ *
+ * <p> Hedges are limited by a {@link RetryBudget}: a hedge is a speculative retry.
+ *
+ * @author Freeman
+ * @see HttpExchangeProperties.Hedge
+ * @since 3.2.1
+ */
+class HedgingExchangeAdapter implements HttpExchangeAdapter {
+    private static final Logger log = LoggerFactory.getLogger(HedgingExchangeAdapter.class);
+
+    private static final Set<HttpMethod> HEDGEABLE_METHODS =
+            Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+    /**
+     * The race of the request running on the current thread.
+     */
+    private static final ThreadLocal<Race<?>> currentRace = new ThreadLocal<>();
+
+    private final HttpExchangeAdapter delegate;
+    private final HedgePolicy policy;
+
+    @Nullable
+    private final AsyncRequestExecutor executor;
+
+    @Nullable
+    private final TaskDecorator taskDecorator;
+
+    private final RetryBudget budget;
+    private final ConcurrentMap<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate      adapter to decorate
+     * @param policy        hedge policy of the channel
+     * @param executor      executor to send the blocking hedges, {@code null} for the reactive adapter
+     * @param taskDecorator decorator to propagate the thread-locals of the caller to the hedge
+     */
+    HedgingExchangeAdapter(
+            HttpExchangeAdapter delegate,
+            HedgePolicy policy,
+            @Nullable AsyncRequestExecutor executor,
+            @Nullable TaskDecorator taskDecorator) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.executor = executor;
+        this.taskDecorator = taskDecorator;
+        this.budget = new RetryBudget(policy.maxRatio(), HedgePolicy.BUDGET_MAX_TOKENS);
+    }
+
+    /**
+     * Decorate the adapter, the reactive adapter is decorated by {@link ReactorHedgingExchangeAdapter}.
+     *
+     * @param adapter       adapter to decorate
+     * @param policy        hedge policy of the channel
+     * @param executor      executor to send the blocking hedges
+     * @param taskDecorator decorator to propagate the thread-locals of the caller to the hedge
+     * @return the decorated adapter, or the given adapter if it's already decorated
+     */
+    static HttpExchangeAdapter wrap(
+            HttpExchangeAdapter adapter,
+            HedgePolicy policy,
+            AsyncRequestExecutor executor,
+            @Nullable TaskDecorator taskDecorator) {
+        if (adapter instanceof HedgingExchangeAdapter) {
+            return adapter;
+        }
+        return adapter instanceof ReactorHttpExchangeAdapter reactorAdapter
+                ? new ReactorHedgingExchangeAdapter(reactorAdapter, policy)
+                : new HedgingExchangeAdapter(adapter, policy, executor, taskDecorator);
+    }
+
+    /**
+     * Whether the request running on the current thread lost the hedge race, i.e. the other request already succeeded,
+     * so its failure is caused by the cancellation and says nothing about the health of the server.
+     */
+    static boolean isCancelled() {
+        Race<?> race = currentRace.get();
+        return race != null && race.isSettled();
+    }
+
+    @Override
+    public boolean supportsRequestAttributes() {
+        return delegate.supportsRequestAttributes();
+    }
+
+    @Override
+    public void exchange(HttpRequestValues requestValues) {
+        hedge(requestValues, () -> {
+            delegate.exchange(requestValues);
+            return null;
+        });
+    }
+
+    @Override
+    public HttpHeaders exchangeForHeaders(HttpRequestValues requestValues) {
+        return hedge(requestValues, () -> delegate.exchangeForHeaders(requestValues));
+    }
+
+    @Nullable
+    @Override
+    public <T> T exchangeForBody(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return hedge(requestValues, () -> delegate.exchangeForBody(requestValues, bodyType));
+    }
+
+    @Override
+    public ResponseEntity<Void> exchangeForBodilessEntity(HttpRequestValues requestValues) {
+        return hedge(requestValues, () -> delegate.exchangeForBodilessEntity(requestValues));
+    }
+
+    @Override
+    public <T> ResponseEntity<T> exchangeForEntity(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return hedge(requestValues, () -> delegate.exchangeForEntity(requestValues, bodyType));
+    }
+
+    private <T> T hedge(HttpRequestValues requestValues, Supplier<T> call) {
+        if (executor == null || !isHedgeable(requestValues)) {
+            return call.get();
+        }
+        budget.onRequest();
+        LatencyTracker tracker = trackerOf(requestValues);
+        Supplier<T> timed = timed(tracker, call);
+        Duration delay = policy.delay(tracker);
+        if (delay == null) {
+            return timed.get();
+        }
+
+        Race<T> race = new Race<>(Thread.currentThread());
+        Supplier<T> original = race.attempt(timed);
+        // captured on the caller thread
+        Supplier<T> hedge = decorate(race.attempt(timed));
+        ScheduledFuture<?> timer = Timer.schedule(
+                () -> {
+                    if (race.isPending() && tryHedge(requestValues, delay)) {
+                        race.hedge(hedge, executor);
+                    }
+                },
+                delay);
+        try {
+            RuntimeException error;
+            try {
+                return original.get();
+            } catch (RuntimeException e) {
+                error = e;
+            } finally {
+                timer.cancel(false);
+                race.done();
+            }
+            // the original request may fail because the hedge won
+            return race.awaitHedge(error);
+        } finally {
+            race.cancel();
+        }
+    }
+
+    /**
+     * Whether the request may be hedged, only idempotent requests without body are hedged.
+     */
+    boolean isHedgeable(HttpRequestValues requestValues) {
+        HttpMethod method = requestValues.getHttpMethod();
+        return method != null && HEDGEABLE_METHODS.contains(method) && requestValues.getBodyValue() == null;
+    }
+
+    /**
+     * Get the latency tracker of the request, requests of the same method and URI template share the tracker.
+     *
+     * @return the tracker, or {@code null} if the request has no URI template (e.g. {@link java.net.URI} argument)
+     */
+    @Nullable
+    LatencyTracker trackerOf(HttpRequestValues requestValues) {
+        String uriTemplate = requestValues.getUriTemplate();
+        if (uriTemplate == null) {
+            return null;
+        }
+        return latencies.computeIfAbsent(
+                requestValues.getHttpMethod() + " " + uriTemplate, k -> new LatencyTracker(policy.percentile()));
+    }
+
+    /**
+     * Take a token from the hedge budget.
+     *
+     * @return true if the hedge should be sent
+     */
+    boolean tryHedge(HttpRequestValues requestValues, Duration delay) {
+        if (!budget.tryRetry()) {
+            log.debug(
+                    "Hedge budget exhausted, not hedging {} {}",
+                    requestValues.getHttpMethod(),
+                    Util.expandUri(requestValues));
+            return false;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(
+                    "Hedging {} {} after {}ms",
+                    requestValues.getHttpMethod(),
+                    Util.expandUri(requestValues),
+                    delay.toMillis());
+        }
+        return true;
+    }
+
+    HedgePolicy getPolicy() {
+        return policy;
+    }
+
+    RetryBudget getBudget() {
+        return budget;
+    }
+
+    private static <T> Supplier<T> timed(@Nullable LatencyTracker tracker, Supplier<T> call) {
+        if (tracker == null) {
+            return call;
+        }
+        return () -> {
+            long start = System.nanoTime();
+            T result = call.get();
+            tracker.record(System.nanoTime() - start);
+            return result;
+        };
+    }
+
+    private <T> Supplier<T> decorate(Supplier<T> call) {
+        if (taskDecorator == null) {
+            return call;
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable task = taskDecorator.decorate(() -> result.complete(call.get()));
+        return () -> {
+            task.run();
+            return result.join();
+        };
+    }
+
+    /**
+     * The original request on the caller thread and the hedge sent by the executor.
+     */
+    private static final class Race<T> {
+        private final Thread caller;
+
+        /**
+         * Guarded by {@code this}.
+         */
+        @Nullable
+        private CompletableFuture<T> hedge;
+
+        /**
+         * Whether the original request is running, guarded by {@code this}.
+         */
+        private boolean pending = true;
+
+        /**
+         * Whether the caller thread is interrupted by the winning hedge, guarded by {@code this}.
+         */
+        private boolean interrupted;
+
+        /**
+         * Whether one of the requests succeeded, the other one is cancelled.
+         */
+        private volatile boolean settled;
+
+        private Race(Thread caller) {
+            this.caller = caller;
+        }
+
+        synchronized boolean isPending() {
+            return pending;
+        }
+
+        boolean isSettled() {
+            return settled;
+        }
+
+        /**
+         * Run the request as a contender of the race, the first successful request settles the race.
+         */
+        Supplier<T> attempt(Supplier<T> call) {
+            return () -> {
+                Race<?> previous = currentRace.get();
+                currentRace.set(this);
+                try {
+                    T result = call.get();
+                    settled = true;
+                    return result;
+                } finally {
+                    if (previous != null) {
+                        currentRace.set(previous);
+                    } else {
+                        currentRace.remove();
+                    }
+                }
+            };
+        }
+
+        /**
+         * Send the hedge if the original request is still running.
+         */
+        synchronized void hedge(Supplier<T> call, AsyncRequestExecutor executor) {
+            if (!pending) {
+                return;
+            }
+            CompletableFuture<T> future = executor.submit(call);
+            hedge = future;
+            future.thenRun(this::onHedgeSucceeded);
+        }
+
+        /**
+         * The original request completed, clear the interrupt delivered by the winning hedge.
+         */
+        void done() {
+            boolean won;
+            synchronized (this) {
+                pending = false;
+                won = interrupted;
+            }
+            if (won) {
+                // the caller was not interrupted before the race's interrupt, see onHedgeSucceeded
+                Thread.interrupted();
+            }
+        }
+
+        /**
+         * Wait for the hedge if sent.
+         *
+         * @param error error of the original request, thrown if there is no hedge or the hedge fails
+         */
+        T awaitHedge(RuntimeException error) {
+            CompletableFuture<T> future;
+            synchronized (this) {
+                future = hedge;
+            }
+            if (future == null) {
+                throw error;
+            }
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | CancellationException e) {
+                // use the error of the original request
+            }
+            throw error;
+        }
+
+        /**
+         * Cancel the hedge if it's still running, a completed hedge is not affected.
+         */
+        void cancel() {
+            CompletableFuture<T> future;
+            synchronized (this) {
+                future = hedge;
+            }
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+        private synchronized void onHedgeSucceeded() {
+            // an interrupt the caller already has is not ours to deliver or to clear
+            if (pending && !caller.isInterrupted()) {
+                interrupted = true;
+                caller.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Schedules the hedges, the task only submits the hedge to the executor.
+     */
+    private static final class Timer {
+        private static final ScheduledThreadPoolExecutor scheduler = createScheduler();
+
+        static ScheduledFuture<?> schedule(Runnable task, Duration delay) {
+            return scheduler.schedule(task, delay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        private static ScheduledThreadPoolExecutor createScheduler() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "http-exchange-hedge-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+}
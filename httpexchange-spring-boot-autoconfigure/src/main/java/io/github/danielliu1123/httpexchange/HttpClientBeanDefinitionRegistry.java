@@ -1,6 +1,7 @@
 package io.github.danielliu1123.httpexchange;
 
 import java.util.Set;
+import org.springframework.aot.AotDetector;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
@@ -24,6 +25,10 @@ class HttpClientBeanDefinitionRegistry implements BeanDefinitionRegistryPostProc
         if (HttpClientBeanRegistrar.hasRegistered(registry)) {
             return;
         }
+        // clients are registered by the code generated by HttpExchangeBeanFactoryInitializationAotProcessor
+        if (AotDetector.useGeneratedArtifacts()) {
+            return;
+        }
 
         this.properties = (properties == null ? Util.getProperties(environment) : properties);
         this.registrar = (registrar == null ? new HttpClientBeanRegistrar(properties, registry) : registrar);
@@ -1,8 +1,10 @@
 package io.github.danielliu1123.httpexchange;
 
-import java.lang.reflect.Method;
+import jakarta.annotation.Nullable;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
@@ -18,13 +20,14 @@ import org.springframework.beans.factory.support.BeanDefinitionOverrideException
 import org.springframework.beans.factory.support.BeanDefinitionReaderUtils;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
-import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.ClassMetadata;
 import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
-import org.springframework.util.ReflectionUtils;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.service.annotation.HttpExchange;
 
@@ -34,18 +37,43 @@ import org.springframework.web.service.annotation.HttpExchange;
 class HttpClientBeanRegistrar {
     private static final Logger log = LoggerFactory.getLogger(HttpClientBeanRegistrar.class);
 
+    /**
+     * Suffix of the client implementation generated by {@code ExchangeClientProcessor}.
+     */
+    static final String GENERATED_CLIENT_SUFFIX = "ExchangeClient";
+
+    /**
+     * Bean definition attribute holds the class name of HTTP client interface.
+     */
+    static final String CLIENT_CLASS_ATTRIBUTE = HttpClientBeanRegistrar.class.getName() + ".clientClass";
+
+    /**
+     * Bean definition attribute holds whether the HTTP client is using {@link HttpExchange}.
+     */
+    static final String USING_NEUTRAL_ANNOTATION_ATTRIBUTE =
+            HttpClientBeanRegistrar.class.getName() + ".usingNeutralAnnotation";
+
     private static final Set<BeanDefinitionRegistry> registries = ConcurrentHashMap.newKeySet();
     private static final boolean SPRING_CLOUD_CONTEXT_PRESENT =
-            ClassUtils.isPresent("org.springframework.cloud.context.scope.refresh.RefreshScope", null);
+            ClassUtils.isPresent("org.springframework.cloud.context.scope.GenericScope", null);
 
     private final ClassPathScanningCandidateComponentProvider scanner;
     private final HttpExchangeProperties properties;
     private final BeanDefinitionRegistry registry;
+    private final ApplicationStartup applicationStartup;
+
+    /**
+     * Loaded lazily, empty if there is no index in the classpath.
+     */
+    private Optional<HttpClientIndex> index;
 
     public HttpClientBeanRegistrar(HttpExchangeProperties properties, BeanDefinitionRegistry registry) {
         this.scanner = getScanner();
         this.properties = properties;
         this.registry = registry;
+        this.applicationStartup = registry instanceof ConfigurableBeanFactory bf
+                ? bf.getApplicationStartup()
+                : ApplicationStartup.DEFAULT;
         registries.add(registry);
     }
 
@@ -68,49 +96,52 @@ class HttpClientBeanRegistrar {
 
     public void register(Class<?>... clients) {
         for (Class<?> client : clients) {
-            registerHttpClientBean(registry, client.getName());
+            registerHttpClientBean(registry, AnnotationMetadata.introspect(client));
         }
     }
 
     /**
-     * Register HTTP client beans the specified class name.
+     * Register HTTP client beans the specified class metadata.
+     *
+     * <p> Only class metadata is used, the class is loaded when the client bean is resolved.
      *
-     * @param registry  {@link BeanDefinitionRegistry}
-     * @param className class name of HTTP client interface
+     * @param registry {@link BeanDefinitionRegistry}
+     * @param metadata class metadata of HTTP client interface
      */
-    private void registerHttpClientBean(BeanDefinitionRegistry registry, String className) {
-        Class<?> clz;
+    private void registerHttpClientBean(BeanDefinitionRegistry registry, AnnotationMetadata metadata) {
+        String className = metadata.getClassName();
+        StartupStep step = applicationStartup.start("httpexchange.clients.register").tag("client", className);
         try {
-            clz = Class.forName(className);
-        } catch (ClassNotFoundException e) {
-            throw new IllegalStateException(e);
+            doRegisterHttpClientBean(registry, metadata);
+        } finally {
+            step.end();
         }
+    }
 
-        if (!clz.isInterface()) {
+    private void doRegisterHttpClientBean(BeanDefinitionRegistry registry, AnnotationMetadata metadata) {
+        String className = metadata.getClassName();
+        if (!metadata.isInterface()) {
             throw new IllegalArgumentException(className + " is not an interface");
         }
 
-        boolean usingNeutralAnnotation = hasHttpExchangeAnnotation(clz);
+        MetadataReaderFactory metadataReaderFactory = scanner.getMetadataReaderFactory();
+        boolean usingNeutralAnnotation =
+                hasAnnotation(metadata, HttpExchange.class.getName(), metadataReaderFactory);
 
-        if (!usingNeutralAnnotation && !hasRequestMappingAnnotation(clz)) {
+        if (!usingNeutralAnnotation
+                && !hasAnnotation(metadata, RequestMapping.class.getName(), metadataReaderFactory)) {
             return;
         }
 
-        Assert.isInstanceOf(ConfigurableBeanFactory.class, registry);
-
-        ExchangeClientCreator creator =
-                new ExchangeClientCreator((ConfigurableBeanFactory) registry, clz, usingNeutralAnnotation);
-
-        AbstractBeanDefinition abd = BeanDefinitionBuilder.genericBeanDefinition(clz, creator::create)
-                .getBeanDefinition();
-
-        abd.setPrimary(true);
-        abd.setAutowireMode(AbstractBeanDefinition.AUTOWIRE_BY_TYPE);
-        abd.setLazyInit(true);
+        boolean refreshEnabled = properties.getRefresh().isEnabled() && SPRING_CLOUD_CONTEXT_PRESENT;
+        boolean holder =
+                refreshEnabled && properties.getRefresh().getMode() == HttpExchangeProperties.RefreshMode.HOLDER;
+        AbstractBeanDefinition abd = createBeanDefinition(registry, className, usingNeutralAnnotation, holder);
 
         try {
-            if (properties.getRefresh().isEnabled() && SPRING_CLOUD_CONTEXT_PRESENT) {
-                abd.setScope("refresh");
+            if (refreshEnabled && !holder) {
+                HttpExchangeRefreshScope.registerIfAbsent(registry);
+                abd.setScope(HttpExchangeRefreshScope.NAME);
                 BeanDefinitionHolder scopedProxy =
                         ScopedProxyUtils.createScopedProxy(new BeanDefinitionHolder(abd, className), registry, false);
                 BeanDefinitionReaderUtils.registerBeanDefinition(scopedProxy, registry);
@@ -125,6 +156,92 @@ class HttpClientBeanRegistrar {
         }
     }
 
+    /**
+     * Register HTTP client bean definition without scanning and refresh scope,
+     * used by the code generated by {@link HttpExchangeBeanFactoryInitializationAotProcessor}.
+     *
+     * @param registry               {@link BeanDefinitionRegistry}
+     * @param className              class name of HTTP client interface
+     * @param usingNeutralAnnotation whether the client is using {@link HttpExchange}
+     */
+    static void registerAotClientBean(
+            BeanDefinitionRegistry registry, String className, boolean usingNeutralAnnotation) {
+        AbstractBeanDefinition abd = createBeanDefinition(registry, className, usingNeutralAnnotation, false);
+        BeanDefinitionReaderUtils.registerBeanDefinition(new BeanDefinitionHolder(abd, className), registry);
+    }
+
+    /**
+     * @param holder whether to create {@link RefreshableClient}, see {@link HttpExchangeProperties.RefreshMode#HOLDER}
+     */
+    private static AbstractBeanDefinition createBeanDefinition(
+            BeanDefinitionRegistry registry, String className, boolean usingNeutralAnnotation, boolean holder) {
+        Assert.isInstanceOf(ConfigurableBeanFactory.class, registry);
+
+        ConfigurableBeanFactory beanFactory = (ConfigurableBeanFactory) registry;
+        ExchangeClientCreator creator = new ExchangeClientCreator(beanFactory, className, usingNeutralAnnotation);
+
+        AbstractBeanDefinition abd =
+                BeanDefinitionBuilder.genericBeanDefinition(className).getBeanDefinition();
+        if (holder) {
+            RefreshableClients.registerIfAbsent(registry);
+            abd.setInstanceSupplier(() -> RefreshableClient.create(
+                    creator, beanFactory.getBean(RefreshableClients.BEAN_NAME, RefreshableClients.class)));
+        } else {
+            abd.setInstanceSupplier(creator::create);
+        }
+
+        abd.setPrimary(true);
+        abd.setAutowireMode(AbstractBeanDefinition.AUTOWIRE_BY_TYPE);
+        abd.setLazyInit(true);
+        abd.setAttribute(CLIENT_CLASS_ATTRIBUTE, className);
+        abd.setAttribute(USING_NEUTRAL_ANNOTATION_ATTRIBUTE, usingNeutralAnnotation);
+        return abd;
+    }
+
+    /**
+     * Whether the interface, its methods or its super interfaces are annotated with the annotation (or meta-annotation).
+     */
+    private static boolean hasAnnotation(
+            AnnotationMetadata metadata, String annotation, MetadataReaderFactory metadataReaderFactory) {
+        if (metadata.isAnnotated(annotation) || metadata.hasAnnotatedMethods(annotation)) {
+            return true;
+        }
+        for (String superInterface : metadata.getInterfaceNames()) {
+            AnnotationMetadata superMetadata = getMetadata(superInterface, metadataReaderFactory);
+            if (superMetadata != null && hasAnnotation(superMetadata, annotation, metadataReaderFactory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static AnnotationMetadata getMetadata(String className, MetadataReaderFactory metadataReaderFactory) {
+        try {
+            return metadataReaderFactory.getMetadataReader(className).getAnnotationMetadata();
+        } catch (IOException e) {
+            log.debug("Failed to read class metadata of '{}'", className, e);
+            return null;
+        }
+    }
+
+    /**
+     * Find the client implementation generated at compile time, prefer it to the runtime proxy.
+     *
+     * @param clz HTTP client interface
+     * @return generated client class, or {@code null} if not present
+     */
+    @Nullable
+    static Class<?> findGeneratedClient(Class<?> clz) {
+        String className = clz.getPackageName() + "." + clz.getSimpleName() + GENERATED_CLIENT_SUFFIX;
+        if (!ClassUtils.isPresent(className, clz.getClassLoader())) {
+            return null;
+        }
+        Class<?> generated = ClassUtils.resolveClassName(className, clz.getClassLoader());
+        // nested interfaces with the same simple name in one package
+        return clz.isAssignableFrom(generated) ? generated : null;
+    }
+
     private static ClassPathScanningCandidateComponentProvider getScanner() {
         ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false) {
             @Override
@@ -146,43 +263,48 @@ class HttpClientBeanRegistrar {
                         || am.hasAnnotatedMethods(RequestMapping.class.getName()));
     }
 
-    private static boolean hasRequestMappingAnnotation(Class<?> clz) {
-        if (AnnotationUtils.findAnnotation(clz, RequestMapping.class) != null) {
-            return true;
-        }
-        Method[] methods = ReflectionUtils.getAllDeclaredMethods(clz);
-        for (Method method : methods) {
-            if (AnnotationUtils.findAnnotation(method, RequestMapping.class) != null) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private static boolean hasHttpExchangeAnnotation(Class<?> clz) {
-        if (AnnotationUtils.findAnnotation(clz, HttpExchange.class) != null) {
-            return true;
-        }
-        Method[] methods = ReflectionUtils.getAllDeclaredMethods(clz);
-        for (Method method : methods) {
-            if (AnnotationUtils.findAnnotation(method, HttpExchange.class) != null) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     private void registerBeans4BasePackages(Collection<String> basePackages) {
+        HttpClientIndex index = properties.isClientIndexEnabled() ? getIndex() : null;
         for (String pkg : basePackages) {
+            if (index != null && HttpClientIndex.supports(pkg) && index.covers(pkg)) {
+                StartupStep step = applicationStartup.start("httpexchange.clients.index").tag("basePackage", pkg);
+                Set<String> clients = index.getClients(pkg);
+                step.tag("candidates", String.valueOf(clients.size())).end();
+                for (String client : clients) {
+                    AnnotationMetadata metadata = getMetadata(client, scanner.getMetadataReaderFactory());
+                    // stale index
+                    if (metadata != null) {
+                        registerHttpClientBean(registry, metadata);
+                    }
+                }
+                continue;
+            }
+            StartupStep step = applicationStartup.start("httpexchange.clients.scan").tag("basePackage", pkg);
             Set<BeanDefinition> beanDefinitions = scanner.findCandidateComponents(pkg);
+            step.tag("candidates", String.valueOf(beanDefinitions.size())).end();
             for (BeanDefinition bd : beanDefinitions) {
-                if (bd.getBeanClassName() != null) {
-                    registerHttpClientBean(registry, bd.getBeanClassName());
+                if (bd instanceof AnnotatedBeanDefinition abd) {
+                    registerHttpClientBean(registry, abd.getMetadata());
                 }
             }
         }
     }
 
+    @Nullable
+    private HttpClientIndex getIndex() {
+        if (index == null) {
+            index = Optional.ofNullable(HttpClientIndex.load(getClassLoader()));
+        }
+        return index.orElse(null);
+    }
+
+    @Nullable
+    private ClassLoader getClassLoader() {
+        return registry instanceof ConfigurableBeanFactory bf
+                ? bf.getBeanClassLoader()
+                : ClassUtils.getDefaultClassLoader();
+    }
+
     static void clear() {
         registries.clear();
     }
@@ -0,0 +1,125 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Client interfaces listed in {@value #INDEX_LOCATION}, generated by {@code ClientIndexProcessor}.
+ *
+ * @author Freeman
+ */
+final class HttpClientIndex {
+
+    /**
+     * NOTE: keep the same as {@code ClientIndexProcessor}.
+     */
+    static final String INDEX_LOCATION = "META-INF/httpexchange/clients.index";
+
+    private final Set<String> clients;
+    /**
+     * Classpath roots that contain an index.
+     */
+    private final Set<String> roots;
+
+    @Nullable
+    private final ClassLoader classLoader;
+
+    private HttpClientIndex(Set<String> clients, Set<String> roots, @Nullable ClassLoader classLoader) {
+        this.clients = clients;
+        this.roots = roots;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Load all indexes in the classpath.
+     *
+     * @param classLoader class loader to load the indexes
+     * @return the index, or {@code null} if there is no index in the classpath
+     */
+    @Nullable
+    static HttpClientIndex load(@Nullable ClassLoader classLoader) {
+        try {
+            Enumeration<URL> urls = classLoader != null
+                    ? classLoader.getResources(INDEX_LOCATION)
+                    : ClassLoader.getSystemResources(INDEX_LOCATION);
+            if (!urls.hasMoreElements()) {
+                return null;
+            }
+            Set<String> clients = new LinkedHashSet<>();
+            Set<String> roots = new HashSet<>();
+            for (URL url : Collections.list(urls)) {
+                roots.add(root(url, INDEX_LOCATION));
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                    reader.lines()
+                            .map(String::trim)
+                            .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                            .forEach(clients::add);
+                }
+            }
+            return new HttpClientIndex(clients, roots, classLoader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to load indexes from location [" + INDEX_LOCATION + "]", e);
+        }
+    }
+
+    /**
+     * Whether the base package can be resolved by the index, Ant-style patterns need scanning.
+     */
+    static boolean supports(String basePackage) {
+        return !basePackage.contains("*") && !basePackage.contains("?");
+    }
+
+    /**
+     * Whether every classpath root containing the base package has an index,
+     * clients in a root without index (e.g. not compiled with {@code httpexchange-processor}) need scanning.
+     *
+     * @param basePackage base package, see {@link #supports(String)}
+     * @return whether the clients in the base package can be resolved by the index
+     */
+    boolean covers(String basePackage) {
+        String path = basePackage.replace('.', '/');
+        try {
+            Enumeration<URL> urls =
+                    classLoader != null ? classLoader.getResources(path) : ClassLoader.getSystemResources(path);
+            for (URL url : Collections.list(urls)) {
+                if (!roots.contains(root(url, path))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String root(URL url, String path) {
+        String location = url.toString();
+        int index = path.isEmpty() ? -1 : location.lastIndexOf(path);
+        return index >= 0 ? location.substring(0, index) : location;
+    }
+
+    /**
+     * @param basePackage base package, see {@link #supports(String)}
+     * @return class names of the client interfaces in the base package (including sub packages)
+     */
+    Set<String> getClients(String basePackage) {
+        Set<String> result = new LinkedHashSet<>();
+        String prefix = basePackage.isEmpty() ? "" : basePackage + ".";
+        for (String client : clients) {
+            if (client.startsWith(prefix)) {
+                result.add(client);
+            }
+        }
+        return result;
+    }
+}
@@ -2,15 +2,22 @@ package io.github.danielliu1123.httpexchange;
 
 import static io.github.danielliu1123.httpexchange.Checker.checkUnusedConfig;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.thread.Threading;
 import org.springframework.boot.web.client.ClientHttpRequestFactories;
 import org.springframework.boot.web.client.ClientHttpRequestFactorySettings;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.JdkClientHttpRequestFactory;
 
@@ -29,6 +36,11 @@ public class HttpExchangeAutoConfiguration implements DisposableBean {
         return new HttpClientBeanDefinitionRegistry();
     }
 
+    @Bean
+    static TransportReleasingPostProcessor httpExchangeTransportReleasingPostProcessor() {
+        return new TransportReleasingPostProcessor();
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public BeanParamArgumentResolver beanParamArgumentResolver(HttpExchangeProperties properties) {
@@ -36,11 +48,18 @@ public class HttpExchangeAutoConfiguration implements DisposableBean {
     }
 
     /**
-     * Using {@link java.net.http.HttpClient} as default.
+     * Using {@link java.net.http.HttpClient} as default, runs on virtual threads if {@code spring.threads.virtual.enabled=true}.
      */
     @Bean
     @ConditionalOnMissingBean(ClientHttpRequestFactory.class)
-    public ClientHttpRequestFactory httpExchangeClientHttpRequestFactory() {
+    public ClientHttpRequestFactory httpExchangeClientHttpRequestFactory(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return RequestFactories.get(TransportSettings.of(
+                    JdkClientHttpRequestFactory.class,
+                    new HttpExchangeProperties.Channel(),
+                    null,
+                    ClientExecutors.virtualThreadExecutor()));
+        }
         return ClientHttpRequestFactories.get(
                 JdkClientHttpRequestFactory.class, ClientHttpRequestFactorySettings.DEFAULTS);
     }
@@ -54,9 +73,33 @@ public class HttpExchangeAutoConfiguration implements DisposableBean {
         return args -> checkUnusedConfig(properties);
     }
 
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    static class MetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public CacheMetrics httpExchangeCacheMetrics() {
+            return new CacheMetrics();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({Endpoint.class, ConditionalOnAvailableEndpoint.class})
+    static class EndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnAvailableEndpoint
+        public CircuitBreakerEndpoint httpExchangeCircuitBreakerEndpoint() {
+            return new CircuitBreakerEndpoint();
+        }
+    }
+
     @Override
     public void destroy() {
         Cache.clear();
         HttpClientBeanRegistrar.clear();
+        CircuitBreakers.clear();
     }
 }
@@ -0,0 +1,137 @@
+package io.github.danielliu1123.httpexchange;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.lang.model.element.Modifier;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.generate.GeneratedClass;
+import org.springframework.aot.generate.GeneratedMethod;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.aot.BeanRegistrationExcludeFilter;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RegisteredBean;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Spring AOT support for exchange clients.
+ *
+ * <p> The client bean definitions are registered with instance suppliers, which can't be processed by AOT,
+ * they are excluded from the regular AOT processing, and registered by the generated code instead.
+ *
+ * <p> Runtime hints (JDK proxies, reflection for binding) of each client are registered at build time.
+ *
+ * @author Freeman
+ * @see HttpExchangeRuntimeHints
+ */
+class HttpExchangeBeanFactoryInitializationAotProcessor
+        implements BeanFactoryInitializationAotProcessor, BeanRegistrationExcludeFilter {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public boolean isExcludedFromAotProcessing(RegisteredBean registeredBean) {
+        BeanDefinition bd = registeredBean.getMergedBeanDefinition();
+        // scoped proxy of the client bean definition
+        BeanDefinition originating = bd.getOriginatingBeanDefinition();
+        return isClientBeanDefinition(bd)
+                || (originating != null && isClientBeanDefinition(originating))
+                // clients are registered without refresh scope in native image
+                || HttpExchangeRefreshScope.BEAN_NAME.equals(registeredBean.getBeanName())
+                || RefreshableClients.BEAN_NAME.equals(registeredBean.getBeanName());
+    }
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        // class name -> using @HttpExchange
+        Map<String, Boolean> clients = new LinkedHashMap<>();
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition bd = beanFactory.getBeanDefinition(name);
+            if (isClientBeanDefinition(bd)) {
+                clients.put(
+                        (String) bd.getAttribute(HttpClientBeanRegistrar.CLIENT_CLASS_ATTRIBUTE),
+                        Boolean.TRUE.equals(bd.getAttribute(HttpClientBeanRegistrar.USING_NEUTRAL_ANNOTATION_ATTRIBUTE)));
+            }
+        }
+        if (clients.isEmpty()) {
+            return null;
+        }
+        ClassLoader classLoader = beanFactory.getBeanClassLoader();
+        return (generationContext, code) -> {
+            RuntimeHints hints = generationContext.getRuntimeHints();
+            clients.keySet()
+                    .forEach(client -> registerHints(hints, ClassUtils.resolveClassName(client, classLoader)));
+
+            GeneratedClass generatedClass = generationContext
+                    .getGeneratedClasses()
+                    .addForFeatureComponent(
+                            "ExchangeClients",
+                            HttpExchangeBeanFactoryInitializationAotProcessor.class,
+                            type -> type.addModifiers(Modifier.PUBLIC));
+            GeneratedMethod method = generatedClass.getMethods().add("registerExchangeClients", m -> {
+                m.addJavadoc("Register exchange client bean definitions.");
+                m.addModifiers(Modifier.PUBLIC, Modifier.STATIC);
+                m.addParameter(DefaultListableBeanFactory.class, "beanFactory");
+                clients.forEach((client, usingNeutralAnnotation) -> m.addStatement(
+                        "$T.registerAotClientBean(beanFactory, $S, $L)",
+                        HttpClientBeanRegistrar.class,
+                        client,
+                        usingNeutralAnnotation));
+            });
+            code.addInitializer(method.toMethodReference());
+        };
+    }
+
+    private void registerHints(RuntimeHints hints, Class<?> client) {
+        // annotations are read from methods at runtime
+        hints.reflection().registerType(client, MemberCategory.INVOKE_PUBLIC_METHODS);
+        // HttpServiceProxyFactory creates JDK proxy via ProxyFactory
+        hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(client));
+
+        Class<?> generatedClient = HttpClientBeanRegistrar.findGeneratedClient(client);
+        if (generatedClient != null) {
+            hints.reflection().registerType(generatedClient, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(client)) {
+            if (method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            bindingRegistrar.registerReflectionHints(hints.reflection(), method.getGenericReturnType());
+            for (Type parameterType : method.getGenericParameterTypes()) {
+                bindingRegistrar.registerReflectionHints(hints.reflection(), parameterType);
+            }
+            for (Class<?> parameterType : method.getParameterTypes()) {
+                registerBeanParamHints(hints, parameterType);
+            }
+        }
+    }
+
+    /**
+     * Java beans may be converted to query parameters by {@link BeanParamArgumentResolver}.
+     */
+    private static void registerBeanParamHints(RuntimeHints hints, Class<?> type) {
+        if (BeanUtils.isSimpleValueType(type) || type.isArray() || type.isInterface() || type.isPrimitive()) {
+            return;
+        }
+        hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection()
+                .registerTypeIfPresent(
+                        type.getClassLoader(),
+                        BeanParamArgumentResolver.generatedBinderName(type),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+    }
+
+    private static boolean isClientBeanDefinition(BeanDefinition bd) {
+        return bd.getAttribute(HttpClientBeanRegistrar.CLIENT_CLASS_ATTRIBUTE) instanceof String;
+    }
+}
@@ -27,6 +27,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 @ConfigurationProperties(HttpExchangeProperties.PREFIX)
 public class HttpExchangeProperties implements InitializingBean {
     public static final String PREFIX = "http-exchange";
+    public static final int DEFAULT_ASYNC_MAX_IN_FLIGHT = 256;
 
     /**
      * Whether to enable http exchange autoconfiguration, default {@code true}.
@@ -122,6 +123,141 @@ public class HttpExchangeProperties implements InitializingBean {
      * @since 3.2.0
      */
     private boolean loadbalancerEnabled = true;
+    /**
+     * How to implement the exchange client interfaces, default {@link ProxyMode#JDK}.
+     *
+     * @see ProxyMode
+     * @since 3.2.1
+     */
+    private ProxyMode proxyMode = ProxyMode.JDK;
+    /**
+     * Whether to use the client implementations generated by {@code httpexchange-processor}, default {@code true}.
+     *
+     * <p> Generated clients are used instead of the runtime proxy when they are in the classpath,
+     * there is no runtime annotation introspection and proxy creation.
+     *
+     * @since 3.2.1
+     */
+    private boolean generatedClientEnabled = true;
+    /**
+     * Whether to use the client indexes ({@code META-INF/httpexchange/clients.index}) generated by {@code httpexchange-processor}
+     * instead of scanning base packages, default {@code true}.
+     *
+     * <p> A base package is scanned if any classpath root containing it has no index,
+     * e.g. the clients are not compiled with {@code httpexchange-processor}.
+     *
+     * @since 3.2.1
+     */
+    private boolean clientIndexEnabled = true;
+    /**
+     * Executor of the underlying {@link java.net.http.HttpClient}, only works for {@link ClientType#REST_CLIENT} and {@link ClientType#REST_TEMPLATE}
+     * when using {@link org.springframework.http.client.JdkClientHttpRequestFactory}.
+     *
+     * <ul>
+     *     <li> {@code platform}: use the default executor of {@link java.net.http.HttpClient}.</li>
+     *     <li> {@code virtual}: use a new virtual thread per task, requires Java 21+.</li>
+     *     <li> other value: the name of an {@link java.util.concurrent.Executor} bean.</li>
+     * </ul>
+     *
+     * <p> Default {@code virtual} if {@code spring.threads.virtual.enabled=true}, otherwise {@code platform}.
+     *
+     * @since 3.2.1
+     */
+    private String executor;
+    /**
+     * Executor to run the methods returning {@link java.util.concurrent.CompletableFuture}, {@link java.util.concurrent.CompletionStage}
+     * or {@link java.util.concurrent.Future}, only works for {@link ClientType#REST_CLIENT} and {@link ClientType#REST_TEMPLATE}.
+     *
+     * <ul>
+     *     <li> {@code virtual}: use a new virtual thread per request, requires Java 21+.</li>
+     *     <li> {@code platform}: use a new platform thread per request.</li>
+     *     <li> other value: the name of an {@link java.util.concurrent.Executor} bean.</li>
+     * </ul>
+     *
+     * <p> Default {@code virtual} on Java 21+, otherwise {@code platform}.
+     *
+     * @since 3.2.1
+     */
+    private String asyncExecutor;
+    /**
+     * Max number of asynchronous requests running at the same time per channel, default {@value #DEFAULT_ASYNC_MAX_IN_FLIGHT}.
+     *
+     * <p> Requests exceeding the limit are queued, the caller is not blocked.
+     *
+     * @see #asyncExecutor
+     * @since 3.2.1
+     */
+    private int asyncMaxInFlight = DEFAULT_ASYNC_MAX_IN_FLIGHT;
+    /**
+     * Name of the SSL bundle ({@code spring.ssl.bundle.*}) to use for {@link ClientType#REST_CLIENT} and {@link ClientType#REST_TEMPLATE}.
+     *
+     * @see org.springframework.boot.ssl.SslBundles
+     * @since 3.2.1
+     */
+    private String sslBundle;
+    /**
+     * HTTP protocol version, default is decided by the underlying http client.
+     *
+     * <p> Only works for {@link ClientType#REST_CLIENT} and {@link ClientType#REST_TEMPLATE}.
+     *
+     * @see HttpVersion
+     * @since 3.2.1
+     */
+    private HttpVersion httpVersion;
+    /**
+     * Connection pool configuration, only works for {@link ClientType#REST_CLIENT} and {@link ClientType#REST_TEMPLATE}.
+     *
+     * @since 3.2.1
+     */
+    private ConnectionPool connectionPool = new ConnectionPool();
+    /**
+     * Response cache configuration for {@code GET} requests, disabled by default.
+     *
+     * @see ResponseCacheable
+     * @since 3.2.1
+     */
+    private ResponseCache responseCache = new ResponseCache();
+    /**
+     * Whether identical idempotent requests in flight at the same time share one network call, default {@code false}.
+     *
+     * <p> {@code GET}, {@code HEAD} and {@code OPTIONS} requests with the same URI, headers, cookies and response type
+     * are coalesced, all callers receive the same result.
+     *
+     * @since 3.2.1
+     */
+    private boolean coalescingEnabled = false;
+    /**
+     * Retry configuration, disabled by default.
+     *
+     * @see Retryable
+     * @since 3.2.1
+     */
+    private Retry retry = new Retry();
+    /**
+     * Hedged requests configuration, disabled by default.
+     *
+     * @since 3.2.1
+     */
+    private Hedge hedge = new Hedge();
+    /**
+     * Adaptive concurrency limit configuration, disabled by default.
+     *
+     * @since 3.2.1
+     */
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+    /**
+     * Client-side rate limit configuration, disabled by default.
+     *
+     * @since 3.2.1
+     */
+    private RateLimit rateLimit = new RateLimit();
+    /**
+     * Circuit breaker configuration, disabled by default.
+     *
+     * @see Fallback
+     * @since 3.2.1
+     */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
 
     @Data
     @NoArgsConstructor
@@ -157,6 +293,46 @@ public class HttpExchangeProperties implements InitializingBean {
             mapper.from(loadbalancerEnabled)
                     .when(e -> isNull(chan.getLoadbalancerEnabled()))
                     .to(chan::setLoadbalancerEnabled);
+            mapper.from(executor).when(e -> isNull(chan.getExecutor())).to(chan::setExecutor);
+            mapper.from(asyncExecutor)
+                    .when(e -> isNull(chan.getAsyncExecutor()))
+                    .to(chan::setAsyncExecutor);
+            mapper.from(asyncMaxInFlight)
+                    .when(e -> isNull(chan.getAsyncMaxInFlight()))
+                    .to(chan::setAsyncMaxInFlight);
+            mapper.from(sslBundle).when(e -> isNull(chan.getSslBundle())).to(chan::setSslBundle);
+            mapper.from(httpVersion).when(e -> isNull(chan.getHttpVersion())).to(chan::setHttpVersion);
+            mapper.from(coalescingEnabled)
+                    .when(e -> isNull(chan.getCoalescingEnabled()))
+                    .to(chan::setCoalescingEnabled);
+            if (chan.getConnectionPool() == null) {
+                chan.setConnectionPool(new ConnectionPool());
+            }
+            chan.getConnectionPool().merge(connectionPool);
+            if (chan.getResponseCache() == null) {
+                chan.setResponseCache(new ResponseCache());
+            }
+            chan.getResponseCache().merge(responseCache);
+            if (chan.getRetry() == null) {
+                chan.setRetry(new Retry());
+            }
+            chan.getRetry().merge(retry);
+            if (chan.getHedge() == null) {
+                chan.setHedge(new Hedge());
+            }
+            chan.getHedge().merge(hedge);
+            if (chan.getConcurrencyLimit() == null) {
+                chan.setConcurrencyLimit(new ConcurrencyLimit());
+            }
+            chan.getConcurrencyLimit().merge(concurrencyLimit);
+            if (chan.getRateLimit() == null) {
+                chan.setRateLimit(new RateLimit());
+            }
+            chan.getRateLimit().merge(rateLimit);
+            if (chan.getCircuitBreaker() == null) {
+                chan.setCircuitBreaker(new CircuitBreaker());
+            }
+            chan.getCircuitBreaker().merge(circuitBreaker);
 
             // defaultHeaders + chan.headers
             LinkedHashMap<String, List<String>> total = headers.stream()
@@ -180,6 +356,19 @@ public class HttpExchangeProperties implements InitializingBean {
                 connectTimeout,
                 readTimeout,
                 loadbalancerEnabled,
+                executor,
+                asyncExecutor,
+                asyncMaxInFlight,
+                sslBundle,
+                httpVersion,
+                connectionPool,
+                responseCache,
+                coalescingEnabled,
+                retry,
+                hedge,
+                concurrencyLimit,
+                rateLimit,
+                circuitBreaker,
                 List.of(),
                 List.of());
     }
@@ -235,6 +424,97 @@ public class HttpExchangeProperties implements InitializingBean {
          * @since 3.2.0
          */
         private Boolean loadbalancerEnabled;
+        /**
+         * Executor of the underlying {@link java.net.http.HttpClient}, use {@link HttpExchangeProperties#executor} if not set.
+         *
+         * @see HttpExchangeProperties#executor
+         * @since 3.2.1
+         */
+        private String executor;
+        /**
+         * Executor to run the asynchronous methods, use {@link HttpExchangeProperties#asyncExecutor} if not set.
+         *
+         * @see HttpExchangeProperties#asyncExecutor
+         * @since 3.2.1
+         */
+        private String asyncExecutor;
+        /**
+         * Max number of asynchronous requests running at the same time, use {@link HttpExchangeProperties#asyncMaxInFlight} if not set.
+         *
+         * @see HttpExchangeProperties#asyncMaxInFlight
+         * @since 3.2.1
+         */
+        private Integer asyncMaxInFlight;
+        /**
+         * Name of the SSL bundle, use {@link HttpExchangeProperties#sslBundle} if not set.
+         *
+         * @see HttpExchangeProperties#sslBundle
+         * @since 3.2.1
+         */
+        private String sslBundle;
+        /**
+         * HTTP protocol version, use {@link HttpExchangeProperties#httpVersion} if not set.
+         *
+         * @see HttpExchangeProperties#httpVersion
+         * @since 3.2.1
+         */
+        private HttpVersion httpVersion;
+        /**
+         * Connection pool configuration, unset items use {@link HttpExchangeProperties#connectionPool}.
+         *
+         * @see HttpExchangeProperties#connectionPool
+         * @since 3.2.1
+         */
+        private ConnectionPool connectionPool = new ConnectionPool();
+        /**
+         * Response cache configuration, unset items use {@link HttpExchangeProperties#responseCache}.
+         *
+         * @see HttpExchangeProperties#responseCache
+         * @since 3.2.1
+         */
+        private ResponseCache responseCache = new ResponseCache();
+        /**
+         * Whether to coalesce identical in-flight requests, use {@link HttpExchangeProperties#coalescingEnabled} if not set.
+         *
+         * @see HttpExchangeProperties#coalescingEnabled
+         * @since 3.2.1
+         */
+        private Boolean coalescingEnabled;
+        /**
+         * Retry configuration, unset items use {@link HttpExchangeProperties#retry}.
+         *
+         * @see HttpExchangeProperties#retry
+         * @since 3.2.1
+         */
+        private Retry retry = new Retry();
+        /**
+         * Hedged requests configuration, unset items use {@link HttpExchangeProperties#hedge}.
+         *
+         * @see HttpExchangeProperties#hedge
+         * @since 3.2.1
+         */
+        private Hedge hedge = new Hedge();
+        /**
+         * Adaptive concurrency limit configuration, unset items use {@link HttpExchangeProperties#concurrencyLimit}.
+         *
+         * @see HttpExchangeProperties#concurrencyLimit
+         * @since 3.2.1
+         */
+        private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+        /**
+         * Client-side rate limit configuration, unset items use {@link HttpExchangeProperties#rateLimit}.
+         *
+         * @see HttpExchangeProperties#rateLimit
+         * @since 3.2.1
+         */
+        private RateLimit rateLimit = new RateLimit();
+        /**
+         * Circuit breaker configuration, unset items use {@link HttpExchangeProperties#circuitBreaker}.
+         *
+         * @see HttpExchangeProperties#circuitBreaker
+         * @since 3.2.1
+         */
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
         /**
          * Exchange Clients to apply this channel.
          *
@@ -259,6 +539,506 @@ public class HttpExchangeProperties implements InitializingBean {
         private List<Class<?>> classes = new ArrayList<>();
     }
 
+    /**
+     * Connection pool configuration, support is decided by the {@link org.springframework.http.client.ClientHttpRequestFactory} in use,
+     * items not supported are ignored with a warning.
+     *
+     * <table>
+     *     <tr><th></th><th>JDK</th><th>Apache HttpClient 5</th><th>Jetty</th></tr>
+     *     <tr><td>{@link #maxConnections}</td><td>-</td><td>yes</td><td>-</td></tr>
+     *     <tr><td>{@link #maxConnectionsPerRoute}</td><td>-</td><td>yes</td><td>yes</td></tr>
+     *     <tr><td>{@link #idleTimeout}</td><td>-</td><td>yes</td><td>yes</td></tr>
+     *     <tr><td>{@link #evictionInterval}</td><td>-</td><td>yes</td><td>-</td></tr>
+     *     <tr><td>{@link #validateAfterInactivity}</td><td>-</td><td>yes</td><td>-</td></tr>
+     * </table>
+     *
+     * <p> The connection pool of {@link java.net.http.HttpClient} can only be configured by system properties,
+     * e.g. {@code jdk.httpclient.connectionPoolSize}, {@code jdk.httpclient.keepalive.timeout}.
+     *
+     * @since 3.2.1
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ConnectionPool {
+        /**
+         * Max number of connections in total.
+         */
+        private Integer maxConnections;
+        /**
+         * Max number of connections per route (host and port).
+         */
+        private Integer maxConnectionsPerRoute;
+        /**
+         * Idle connections are closed after this duration, specified in milliseconds.
+         */
+        private Integer idleTimeout;
+        /**
+         * Interval of evicting idle and expired connections, specified in milliseconds, default {@link #idleTimeout}.
+         */
+        private Integer evictionInterval;
+        /**
+         * Connections idle longer than this duration are validated before being leased, specified in milliseconds.
+         */
+        private Integer validateAfterInactivity;
+
+        /**
+         * Whether any item is configured.
+         *
+         * @return true if any item is configured
+         */
+        public boolean isConfigured() {
+            return maxConnections != null
+                    || maxConnectionsPerRoute != null
+                    || idleTimeout != null
+                    || evictionInterval != null
+                    || validateAfterInactivity != null;
+        }
+
+        void merge(ConnectionPool defaults) {
+            PropertyMapper mapper = PropertyMapper.get().alwaysApplyingWhenNonNull();
+            mapper.from(defaults.getMaxConnections())
+                    .when(e -> isNull(maxConnections))
+                    .to(this::setMaxConnections);
+            mapper.from(defaults.getMaxConnectionsPerRoute())
+                    .when(e -> isNull(maxConnectionsPerRoute))
+                    .to(this::setMaxConnectionsPerRoute);
+            mapper.from(defaults.getIdleTimeout()).when(e -> isNull(idleTimeout)).to(this::setIdleTimeout);
+            mapper.from(defaults.getEvictionInterval())
+                    .when(e -> isNull(evictionInterval))
+                    .to(this::setEvictionInterval);
+            mapper.from(defaults.getValidateAfterInactivity())
+                    .when(e -> isNull(validateAfterInactivity))
+                    .to(this::setValidateAfterInactivity);
+        }
+    }
+
+    /**
+     * Response cache configuration.
+     *
+     * <p> Responses of {@code GET} requests are cached in memory according to {@code Cache-Control: max-age}/{@code Expires},
+     * stale responses with an {@code ETag} are revalidated by {@code If-None-Match}, and the {@code Vary} header is honored.
+     * The cache uses Caffeine if it's in the classpath, otherwise an LRU map.
+     *
+     * <p> NOTE: a cached body is the same decoded object for every caller, it's not copied on a cache hit.
+     * Only enable the cache for methods returning immutable bodies (e.g. records, {@link String}, immutable collections),
+     * a caller modifying the body corrupts the cache for all callers.
+     *
+     * @since 3.2.1
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ResponseCache {
+        public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+        /**
+         * Whether to cache the responses of all {@code GET} requests of the channel, default {@code false}.
+         *
+         * <p> All {@code GET} methods of the channel must return immutable bodies,
+         * prefer {@link ResponseCacheable} to opt in the methods one by one.
+         */
+        private Boolean enabled;
+        /**
+         * Max number of cached responses per channel, least recently used responses are evicted first,
+         * default {@value #DEFAULT_MAX_ENTRIES}.
+         */
+        private Integer maxEntries;
+
+        void merge(ResponseCache defaults) {
+            PropertyMapper mapper = PropertyMapper.get().alwaysApplyingWhenNonNull();
+            mapper.from(defaults.getEnabled()).when(e -> isNull(enabled)).to(this::setEnabled);
+            mapper.from(defaults.getMaxEntries()).when(e -> isNull(maxEntries)).to(this::setMaxEntries);
+        }
+    }
+
+    /**
+     * Retry configuration.
+     *
+     * <p> Failed requests are retried with exponential backoff and jitter, when the response status is retryable,
+     * or an I/O error (e.g. connection refused) or a configured exception occurs.
+     * Only idempotent requests ({@code GET}, {@code HEAD}, {@code OPTIONS}, {@code PUT}, {@code DELETE}, {@code TRACE})
+     * are retried unless {@link #retryNonIdempotent} is enabled.
+     *
+     * <p> Retries are limited by a token bucket (retry budget): each request adds {@link #budgetRatio} tokens,
+     * each retry takes one token, so retries are capped at a percentage of the normal traffic.
+     *
+     * @since 3.2.1
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Retry {
+        /**
+         * Whether to retry failed requests, default {@code false}.
+         *
+         * <p> Use {@link Retryable} to enable/disable it for specific methods.
+         */
+        private Boolean enabled;
+        /**
+         * Max number of attempts, including the first one, default {@code 3}.
+         */
+        private Integer maxAttempts;
+        /**
+         * Backoff before the first retry, specified in milliseconds, default {@code 100}.
+         */
+        private Integer initialBackoff;
+        /**
+         * Max backoff between retries, specified in milliseconds, default {@code 5000}.
+         */
+        private Integer maxBackoff;
+        /**
+         * Multiplier of the backoff for each retry, default {@code 2.0}.
+         */
+        private Double multiplier;
+        /**
+         * Random factor of the backoff in {@code [0, 1]}, the backoff is randomly reduced by at most this ratio,
+         * default {@code 0.5}.
+         */
+        private Double jitter;
+        /**
+         * Retryable response statuses, default {@code [429, 502, 503, 504]}.
+         */
+        private List<Integer> statuses;
+        /**
+         * Additional retryable exceptions (or their causes), I/O errors are always retryable.
+         */
+        private List<Class<? extends Throwable>> exceptions;
+        /**
+         * Whether to retry non-idempotent requests (e.g. {@code POST}), default {@code false}.
+         */
+        private Boolean retryNonIdempotent;
+        /**
+         * Whether to wait for the {@code Retry-After} response header, default {@code true}.
+         *
+         * <p> The request is not retried if {@code Retry-After} is longer than {@link #maxBackoff}.
+         */
+        private Boolean respectRetryAfter;
+        /**
+         * Tokens added to the retry budget by each request, i.e. the max ratio of retries to requests, default {@code 0.1}.
+         */
+        private Double budgetRatio;
+        /**
+         * Capacity of the retry budget, i.e. the max number of retries of a burst, default {@code 10}.
+         */
+        private Integer budgetMaxTokens;
+
+        void merge(Retry defaults) {
+            PropertyMapper mapper = PropertyMapper.get().alwaysApplyingWhenNonNull();
+            mapper.from(defaults.getEnabled()).when(e -> isNull(enabled)).to(this::setEnabled);
+            mapper.from(defaults.getMaxAttempts()).when(e -> isNull(maxAttempts)).to(this::setMaxAttempts);
+            mapper.from(defaults.getInitialBackoff())
+                    .when(e -> isNull(initialBackoff))
+                    .to(this::setInitialBackoff);
+            mapper.from(defaults.getMaxBackoff()).when(e -> isNull(maxBackoff)).to(this::setMaxBackoff);
+            mapper.from(defaults.getMultiplier()).when(e -> isNull(multiplier)).to(this::setMultiplier);
+            mapper.from(defaults.getJitter()).when(e -> isNull(jitter)).to(this::setJitter);
+            mapper.from(defaults.getStatuses()).when(e -> isNull(statuses)).to(this::setStatuses);
+            mapper.from(defaults.getExceptions()).when(e -> isNull(exceptions)).to(this::setExceptions);
+            mapper.from(defaults.getRetryNonIdempotent())
+                    .when(e -> isNull(retryNonIdempotent))
+                    .to(this::setRetryNonIdempotent);
+            mapper.from(defaults.getRespectRetryAfter())
+                    .when(e -> isNull(respectRetryAfter))
+                    .to(this::setRespectRetryAfter);
+            mapper.from(defaults.getBudgetRatio()).when(e -> isNull(budgetRatio)).to(this::setBudgetRatio);
+            mapper.from(defaults.getBudgetMaxTokens())
+                    .when(e -> isNull(budgetMaxTokens))
+                    .to(this::setBudgetMaxTokens);
+        }
+    }
+
+    /**
+     * Hedged requests configuration.
+     *
+     * <p> If an idempotent request ({@code GET}, {@code HEAD}, {@code OPTIONS}) has not completed after {@link #delay},
+     * a second copy (hedge) is sent, the first successful response wins and the other request is cancelled.
+     * Without {@link #delay}, the observed {@link #percentile} latency of the method is used,
+     * requests are not hedged until enough latencies are observed.
+     *
+     * <p> Each request adds {@link #maxRatio} tokens to a token bucket, each hedge takes one token,
+     * so hedges are capped at a percentage of the normal traffic.
+     *
+     * <p> Blocking requests are sent on the caller thread, the hedges are sent by the
+     * {@link HttpExchangeProperties#asyncExecutor}, at most {@link HttpExchangeProperties#asyncMaxInFlight}
+     * at the same time. The thread-locals are propagated to the hedges by the
+     * {@link org.springframework.core.task.TaskDecorator} bean, or by Micrometer context propagation if present.
+     *
+     * <p> Hedging is switched on per channel, not per method: the Spring proxy and the generated clients don't pass
+     * the method annotations to the adapter. Use a dedicated channel for the clients to hedge,
+     * only {@code GET}, {@code HEAD} and {@code OPTIONS} requests are hedged.
+     *
+     * @since 3.2.1
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hedge {
+        /**
+         * Whether to hedge slow idempotent requests, default {@code false}.
+         */
+        private Boolean enabled;
+        /**
+         * Fixed delay before sending the hedge, specified in milliseconds.
+         *
+         * <p> Use the observed {@link #percentile} latency of the method if not set.
+         */
+        private Integer delay;
+        /**
+         * Percentile of the observed latencies used as the delay, default {@code 0.95}.
+         */
+        private Double percentile;
+        /**
+         * Min delay when using the observed latency, specified in milliseconds, default {@code 10}.
+         */
+        private Integer minDelay;
+        /**
+         * Max ratio of hedges to requests, default {@code 0.1}.
+         */
+        private Double maxRatio;
+
+        void merge(Hedge defaults) {
+            PropertyMapper mapper = PropertyMapper.get().alwaysApplyingWhenNonNull();
+            mapper.from(defaults.getEnabled()).when(e -> isNull(enabled)).to(this::setEnabled);
+            mapper.from(defaults.getDelay()).when(e -> isNull(delay)).to(this::setDelay);
+            mapper.from(defaults.getPercentile()).when(e -> isNull(percentile)).to(this::setPercentile);
+            mapper.from(defaults.getMinDelay()).when(e -> isNull(minDelay)).to(this::setMinDelay);
+            mapper.from(defaults.getMaxRatio()).when(e -> isNull(maxRatio)).to(this::setMaxRatio);
+        }
+    }
+
+    /**
+     * Adaptive concurrency limit (bulkhead) configuration.
+     *
+     * <p> Limits the requests in flight per channel, requests exceeding the limit fail fast
+     * with {@link ConcurrencyLimitExceededException}. The limit adapts to the observed latency:
+     * <ul>
+     *     <li> {@link Algorithm#GRADIENT}: the limit follows the ratio of the long-term average latency to the current
+     *     latency, it shrinks when the latency grows.</li>
+     *     <li> {@link Algorithm#AIMD}: the limit grows by one on success and shrinks by {@link #backoffRatio}
+     *     when a request times out or is throttled ({@code 429}, {@code 5xx}).</li>
+     * </ul>
+     *
+     * @since 3.2.1
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ConcurrencyLimit {
+        /**
+         * Whether to limit the requests in flight, default {@code false}.
+         */
+        private Boolean enabled;
+        /**
+         * Algorithm to adapt the limit, default {@link Algorithm#GRADIENT}.
+         */
+        private Algorithm algorithm;
+        /**
+         * Initial limit, default {@code 20}.
+         */
+        private Integer initialLimit;
+        /**
+         * Min limit, default {@code 4}.
+         */
+        private Integer minLimit;
+        /**
+         * Max limit, default {@code 200}.
+         */
+        private Integer maxLimit;
+        /**
+         * Tolerated ratio of the current latency to the long-term average latency before the limit shrinks,
+         * only for {@link Algorithm#GRADIENT}, default {@code 1.5}.
+         */
+        private Double tolerance;
+        /**
+         * Ratio to shrink the limit when a request is dropped, only for {@link Algorithm#AIMD}, default {@code 0.9}.
+         */
+        private Double backoffRatio;
+
+        void merge(ConcurrencyLimit defaults) {
+            PropertyMapper mapper = PropertyMapper.get().alwaysApplyingWhenNonNull();
+            mapper.from(defaults.getEnabled()).when(e -> isNull(enabled)).to(this::setEnabled);
+            mapper.from(defaults.getAlgorithm()).when(e -> isNull(algorithm)).to(this::setAlgorithm);
+            mapper.from(defaults.getInitialLimit()).when(e -> isNull(initialLimit)).to(this::setInitialLimit);
+            mapper.from(defaults.getMinLimit()).when(e -> isNull(minLimit)).to(this::setMinLimit);
+            mapper.from(defaults.getMaxLimit()).when(e -> isNull(maxLimit)).to(this::setMaxLimit);
+            mapper.from(defaults.getTolerance()).when(e -> isNull(tolerance)).to(this::setTolerance);
+            mapper.from(defaults.getBackoffRatio()).when(e -> isNull(backoffRatio)).to(this::setBackoffRatio);
+        }
+
+        public enum Algorithm {
+            /**
+             * Gradient of the latency, like Netflix concurrency-limits {@code Gradient2Limit}.
+             */
+            GRADIENT,
+            /**
+             * Additive increase, multiplicative decrease.
+             */
+            AIMD
+        }
+    }
+
+    /**
+     * Client-side rate limit configuration.
+     *
+     * <p> Requests take permits from token buckets: one for the channel ({@link #permitsPerSecond})
+     * and one for each matching {@link #methods} rule. When no permit is available, the request waits for at most
+     * {@link #maxWait}, or fails fast with {@link RateLimitExceededException}.
+     *
+     * <p> When the server returns {@code 429}, the rate is reduced by {@link #backoffRatio}, requests are paused
+     * until {@code Retry-After} (or {@code RateLimit-Reset}/{@code X-RateLimit-Reset}), and the rate recovers
+     * to the configured one linearly in {@link #recovery}. Responses reporting an exhausted quota
+     * ({@code RateLimit-Remaining: 0}) pause the requests until the quota resets.
+     *
+     * @since 3.2.1
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RateLimit {
+        /**
+         * Whether to limit the request rate, default {@code false}.
+         */
+        private Boolean enabled;
+        /**
+         * Max requests per second of the channel, not limited if not set.
+         */
+        private Double permitsPerSecond;
+        /**
+         * Max requests of a burst, default {@link #permitsPerSecond} rounded up.
+         */
+        private Integer burst;
+        /**
+         * Max time to wait for a permit, specified in milliseconds, {@code 0} means fail fast, default {@code 0}.
+         */
+        private Integer maxWait;
+        /**
+         * Ratio to reduce the rate when the server returns {@code 429}, default {@code 0.5}.
+         */
+        private Double backoffRatio;
+        /**
+         * Time to recover to the configured rate after a {@code 429}, specified in milliseconds, default {@code 30000}.
+         */
+        private Integer recovery;
+        /**
+         * Rate limits of specific methods, a request takes a permit from the first matching rule.
+         */
+        private List<MethodRateLimit> methods;
+
+        void merge(RateLimit defaults) {
+            PropertyMapper mapper = PropertyMapper.get().alwaysApplyingWhenNonNull();
+            mapper.from(defaults.getEnabled()).when(e -> isNull(enabled)).to(this::setEnabled);
+            mapper.from(defaults.getPermitsPerSecond())
+                    .when(e -> isNull(permitsPerSecond))
+                    .to(this::setPermitsPerSecond);
+            mapper.from(defaults.getBurst()).when(e -> isNull(burst)).to(this::setBurst);
+            mapper.from(defaults.getMaxWait()).when(e -> isNull(maxWait)).to(this::setMaxWait);
+            mapper.from(defaults.getBackoffRatio()).when(e -> isNull(backoffRatio)).to(this::setBackoffRatio);
+            mapper.from(defaults.getRecovery()).when(e -> isNull(recovery)).to(this::setRecovery);
+            mapper.from(defaults.getMethods()).when(e -> isNull(methods)).to(this::setMethods);
+        }
+
+        /**
+         * Rate limit of the methods matching the HTTP method and the URI template.
+         */
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class MethodRateLimit {
+            /**
+             * HTTP method, e.g. {@code GET}, match all methods if not set.
+             */
+            private String method;
+            /**
+             * <a href="https://stackoverflow.com/questions/2952196/ant-path-style-patterns">Ant style pattern</a>
+             * of the URI template, e.g. {@code /users/{id}}, {@code /orders/**}.
+             */
+            private String path;
+            /**
+             * Max requests per second of the matching methods.
+             */
+            private Double permitsPerSecond;
+            /**
+             * Max requests of a burst, default {@link #permitsPerSecond} rounded up.
+             */
+            private Integer burst;
+        }
+    }
+
+    /**
+     * Circuit breaker configuration.
+     *
+     * <p> The circuit breaker records the outcome of the requests in a sliding {@link #window}, it opens when
+     * the failure rate (I/O errors and {@code 5xx}) or the slow call rate exceeds the threshold.
+     * While open, requests fail fast with {@link CircuitBreakerOpenException}. After {@link #openDuration},
+     * {@link #halfOpenCalls} probes are let through: the circuit closes if all of them succeed, otherwise opens again.
+     *
+     * <p> Failed requests fall back to the default method of the client interface or the {@link Fallback} bean.
+     *
+     * @since 3.2.1
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CircuitBreaker {
+        /**
+         * Whether to enable the circuit breaker, default {@code false}.
+         */
+        private Boolean enabled;
+        /**
+         * Whether to use a circuit breaker for each method (HTTP method and URI template) instead of the channel,
+         * default {@code false}.
+         */
+        private Boolean perMethod;
+        /**
+         * Length of the sliding window, specified in milliseconds, default {@code 10000}.
+         */
+        private Integer window;
+        /**
+         * Min calls in the window before the circuit can open, default {@code 20}.
+         */
+        private Integer minCalls;
+        /**
+         * Failure rate to open the circuit, default {@code 0.5}.
+         */
+        private Double failureRateThreshold;
+        /**
+         * Calls slower than this are slow calls, specified in milliseconds, default {@code 5000}.
+         */
+        private Integer slowCallDuration;
+        /**
+         * Slow call rate to open the circuit, default {@code 1.0}.
+         */
+        private Double slowCallRateThreshold;
+        /**
+         * Time to stay open before probing, specified in milliseconds, default {@code 30000}.
+         */
+        private Integer openDuration;
+        /**
+         * Number of probes in the half-open state, default {@code 5}.
+         */
+        private Integer halfOpenCalls;
+
+        void merge(CircuitBreaker defaults) {
+            PropertyMapper mapper = PropertyMapper.get().alwaysApplyingWhenNonNull();
+            mapper.from(defaults.getEnabled()).when(e -> isNull(enabled)).to(this::setEnabled);
+            mapper.from(defaults.getPerMethod()).when(e -> isNull(perMethod)).to(this::setPerMethod);
+            mapper.from(defaults.getWindow()).when(e -> isNull(window)).to(this::setWindow);
+            mapper.from(defaults.getMinCalls()).when(e -> isNull(minCalls)).to(this::setMinCalls);
+            mapper.from(defaults.getFailureRateThreshold())
+                    .when(e -> isNull(failureRateThreshold))
+                    .to(this::setFailureRateThreshold);
+            mapper.from(defaults.getSlowCallDuration())
+                    .when(e -> isNull(slowCallDuration))
+                    .to(this::setSlowCallDuration);
+            mapper.from(defaults.getSlowCallRateThreshold())
+                    .when(e -> isNull(slowCallRateThreshold))
+                    .to(this::setSlowCallRateThreshold);
+            mapper.from(defaults.getOpenDuration()).when(e -> isNull(openDuration)).to(this::setOpenDuration);
+            mapper.from(defaults.getHalfOpenCalls()).when(e -> isNull(halfOpenCalls)).to(this::setHalfOpenCalls);
+        }
+    }
+
     @Data
     public static class Refresh {
         public static final String PREFIX = HttpExchangeProperties.PREFIX + ".refresh";
@@ -268,6 +1048,13 @@ public class HttpExchangeProperties implements InitializingBean {
          * <p> NOTE: this feature needs {@code spring-cloud-context} dependency in the classpath.
          */
         private boolean enabled = false;
+        /**
+         * How to refresh the clients, default {@link RefreshMode#SCOPE}.
+         *
+         * @see RefreshMode
+         * @since 3.2.1
+         */
+        private RefreshMode mode = RefreshMode.SCOPE;
     }
 
     public enum ClientType {
@@ -284,4 +1071,46 @@ public class HttpExchangeProperties implements InitializingBean {
          */
         REST_TEMPLATE
     }
+
+    public enum HttpVersion {
+        /**
+         * HTTP/1.1
+         */
+        HTTP_1_1,
+        /**
+         * HTTP/2, only supported by {@link java.net.http.HttpClient}.
+         */
+        HTTP_2
+    }
+
+    public enum RefreshMode {
+        /**
+         * Clients are scoped beans, each call looks up the current client from the scope.
+         */
+        SCOPE,
+        /**
+         * Each client bean is a delegate holding a {@code volatile} reference to the current client,
+         * the reference is swapped to a new client on refresh, the old client is released after its in-flight calls complete.
+         *
+         * <p> This mode has less overhead per call than {@link #SCOPE}.
+         */
+        HOLDER
+    }
+
+    public enum ProxyMode {
+        /**
+         * JDK dynamic proxy.
+         *
+         * @see java.lang.reflect.Proxy
+         */
+        JDK,
+        /**
+         * Generate a hidden class per client interface, each method dispatches straight to its prebuilt request function.
+         *
+         * <p> Interfaces that cannot be implemented by a hidden class (e.g. non-public interfaces) fall back to {@link #JDK}.
+         *
+         * @see java.lang.invoke.MethodHandles.Lookup#defineHiddenClass(byte[], boolean, java.lang.invoke.MethodHandles.Lookup.ClassOption...)
+         */
+        HIDDEN_CLASS
+    }
 }
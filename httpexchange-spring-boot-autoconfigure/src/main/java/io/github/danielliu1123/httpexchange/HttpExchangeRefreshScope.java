@@ -0,0 +1,134 @@
+package io.github.danielliu1123.httpexchange;
+
+import static io.github.danielliu1123.httpexchange.Util.findMatchedConfig;
+
+import jakarta.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.aop.scope.ScopedProxyUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.scope.GenericScope;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Scope of the refreshable clients, an alternative to Spring Cloud's {@code refresh} scope.
+ *
+ * <p> The {@code refresh} scope destroys all beans on every {@link EnvironmentChangeEvent}.
+ * This scope compares the effective channel settings ({@link ChannelFingerprint}) of each client with the newly bound
+ * {@link HttpExchangeProperties}, only the clients whose settings changed are destroyed and rebuilt on next call,
+ * other clients keep their warm connection pools.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+class HttpExchangeRefreshScope extends GenericScope implements ApplicationListener<EnvironmentChangeEvent> {
+
+    static final String NAME = "httpExchangeRefresh";
+    static final String BEAN_NAME = "httpExchangeRefreshScope";
+
+    /**
+     * Target bean name -> client instance.
+     */
+    private final Map<String, Object> clients = new ConcurrentHashMap<>();
+
+    private ConfigurableListableBeanFactory beanFactory;
+
+    HttpExchangeRefreshScope() {
+        setName(NAME);
+    }
+
+    /**
+     * Register this scope if absent.
+     *
+     * @param registry {@link BeanDefinitionRegistry}
+     */
+    static void registerIfAbsent(BeanDefinitionRegistry registry) {
+        if (!registry.containsBeanDefinition(BEAN_NAME)) {
+            RootBeanDefinition bd = new RootBeanDefinition(HttpExchangeRefreshScope.class);
+            bd.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+            registry.registerBeanDefinition(BEAN_NAME, bd);
+        }
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        super.postProcessBeanFactory(beanFactory);
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        Object bean = super.get(name, objectFactory);
+        if (clients.get(name) != bean) {
+            clients.put(name, bean);
+        }
+        return bean;
+    }
+
+    @Override
+    public Object remove(String name) {
+        clients.remove(name);
+        return super.remove(name);
+    }
+
+    @Override
+    protected boolean destroy(String name) {
+        clients.remove(name);
+        return super.destroy(name);
+    }
+
+    @Override
+    public void destroy() {
+        clients.clear();
+        super.destroy();
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        refresh();
+    }
+
+    /**
+     * Destroy the clients whose channel settings changed, evict the cache entries no longer configured.
+     *
+     * @return names of the destroyed clients
+     */
+    List<String> refresh() {
+        HttpExchangeProperties properties = Util.getProperties(beanFactory.getBean(Environment.class));
+        List<String> refreshed = new ArrayList<>();
+        clients.forEach((name, client) -> {
+            Class<?> clientType = getClientType(name);
+            if (clientType == null) {
+                return;
+            }
+            ChannelFingerprint current = ChannelFingerprint.of(
+                    findMatchedConfig(clientType, properties).orElseGet(properties::defaultClient));
+            if (!current.equals(Cache.getFingerprint(client)) && destroy(name)) {
+                refreshed.add(ScopedProxyUtils.getOriginalBeanName(name));
+            }
+        });
+
+        Cache.evictStale(properties, refreshed);
+        return refreshed;
+    }
+
+    @Nullable
+    private Class<?> getClientType(String name) {
+        if (!beanFactory.containsBeanDefinition(name)) {
+            return null;
+        }
+        Object className =
+                beanFactory.getBeanDefinition(name).getAttribute(HttpClientBeanRegistrar.CLIENT_CLASS_ATTRIBUTE);
+        return className instanceof String s ? ClassUtils.resolveClassName(s, beanFactory.getBeanClassLoader()) : null;
+    }
+}
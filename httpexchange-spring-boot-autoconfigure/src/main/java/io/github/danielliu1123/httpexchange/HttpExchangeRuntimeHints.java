@@ -0,0 +1,40 @@
+package io.github.danielliu1123.httpexchange;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.web.service.invoker.HttpServiceProxyFactory;
+
+/**
+ * Runtime hints for the private fields read by {@link ExchangeClientCreator}.
+ *
+ * <p> Runtime hints of each client are registered by {@link HttpExchangeBeanFactoryInitializationAotProcessor}.
+ *
+ * @author Freeman
+ */
+class HttpExchangeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // see ExchangeClientCreator static initializer
+        hints.reflection()
+                .registerType(HttpServiceProxyFactory.Builder.class, MemberCategory.DECLARED_FIELDS);
+
+        // see ExchangeClientCreator#buildRestClient, #buildRestTemplate, #buildWebClient
+        hints.reflection()
+                .registerType(
+                        TypeReference.of("org.springframework.web.client.DefaultRestClientBuilder"),
+                        MemberCategory.DECLARED_FIELDS);
+        hints.reflection()
+                .registerTypeIfPresent(
+                        classLoader,
+                        "org.springframework.boot.web.client.RestTemplateBuilder",
+                        MemberCategory.DECLARED_FIELDS);
+        hints.reflection()
+                .registerTypeIfPresent(
+                        classLoader,
+                        "org.springframework.web.reactive.function.client.DefaultWebClientBuilder",
+                        MemberCategory.DECLARED_FIELDS);
+    }
+}
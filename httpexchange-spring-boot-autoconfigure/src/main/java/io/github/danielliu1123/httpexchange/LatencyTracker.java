@@ -0,0 +1,69 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks a percentile of the latencies over a sliding window of the most recent samples.
+ *
+ * <p> Recording is lock-free, the percentile is recomputed every {@link #RECOMPUTE_INTERVAL} samples,
+ * so reading it is just a volatile read.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+final class LatencyTracker {
+
+    static final int WINDOW = 128;
+    static final int MIN_SAMPLES = 20;
+    static final int RECOMPUTE_INTERVAL = 16;
+
+    private final double percentile;
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+    private final AtomicLong count = new AtomicLong();
+
+    @Nullable
+    private volatile Duration value;
+
+    /**
+     * @param percentile percentile to track, in {@code (0, 1]}
+     */
+    LatencyTracker(double percentile) {
+        this.percentile = Math.min(Math.max(percentile, 0.01), 1);
+    }
+
+    /**
+     * Record a sample.
+     *
+     * @param nanos latency in nanoseconds
+     */
+    void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples.set((int) (n % WINDOW), nanos);
+        long recorded = n + 1;
+        if (recorded >= MIN_SAMPLES && (recorded == MIN_SAMPLES || recorded % RECOMPUTE_INTERVAL == 0)) {
+            value = compute((int) Math.min(recorded, WINDOW));
+        }
+    }
+
+    /**
+     * @return the tracked percentile, or {@code null} if there are not enough samples
+     */
+    @Nullable
+    Duration get() {
+        return value;
+    }
+
+    private Duration compute(int size) {
+        long[] copy = new long[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        int index = (int) Math.ceil(percentile * size) - 1;
+        return Duration.ofNanos(copy[Math.min(Math.max(index, 0), size - 1)]);
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.danielliu1123.httpexchange;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown when no rate limit permit is available within the max wait, the request is not sent.
+ *
+ * @author Freeman
+ * @see HttpExchangeProperties.RateLimit
+ * @since 3.2.1
+ */
+public class RateLimitExceededException extends RestClientException {
+
+    public RateLimitExceededException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.util.Assert;
+
+/**
+ * Immutable snapshot of {@link HttpExchangeProperties.RateLimit} with defaults applied.
+ *
+ * @param enabled          whether to limit the request rate
+ * @param permitsPerSecond max requests per second of the channel, or {@code null} if not limited
+ * @param burst            max requests of a burst of the channel
+ * @param maxWait          max time to wait for a permit, {@link Duration#ZERO} means fail fast
+ * @param backoffRatio     ratio to reduce the rate when the server returns {@code 429}
+ * @param recovery         time to recover to the configured rate
+ * @param methods          rate limits of specific methods
+ * @author Freeman
+ * @since 3.2.1
+ */
+record RateLimitPolicy(
+        boolean enabled,
+        @Nullable Double permitsPerSecond,
+        int burst,
+        Duration maxWait,
+        double backoffRatio,
+        Duration recovery,
+        List<MethodRule> methods) {
+
+    static final int DEFAULT_MAX_WAIT = 0;
+    static final double DEFAULT_BACKOFF_RATIO = 0.5;
+    static final int DEFAULT_RECOVERY = 30_000;
+
+    static RateLimitPolicy of(@Nullable HttpExchangeProperties.RateLimit rateLimit) {
+        HttpExchangeProperties.RateLimit r =
+                Optional.ofNullable(rateLimit).orElseGet(HttpExchangeProperties.RateLimit::new);
+        Double permitsPerSecond = r.getPermitsPerSecond();
+        Assert.isTrue(
+                permitsPerSecond == null || permitsPerSecond > 0,
+                "http-exchange rate-limit 'permits-per-second' must be positive");
+        List<MethodRule> methods = Optional.ofNullable(r.getMethods()).orElseGet(List::of).stream()
+                .map(MethodRule::of)
+                .toList();
+        return new RateLimitPolicy(
+                Boolean.TRUE.equals(r.getEnabled()),
+                permitsPerSecond,
+                burst(r.getBurst(), permitsPerSecond),
+                Duration.ofMillis(Math.max(Optional.ofNullable(r.getMaxWait()).orElse(DEFAULT_MAX_WAIT), 0)),
+                Math.min(Math.max(Optional.ofNullable(r.getBackoffRatio()).orElse(DEFAULT_BACKOFF_RATIO), 0.01), 1),
+                Duration.ofMillis(Math.max(Optional.ofNullable(r.getRecovery()).orElse(DEFAULT_RECOVERY), 1)),
+                methods);
+    }
+
+    private static int burst(@Nullable Integer burst, @Nullable Double permitsPerSecond) {
+        if (burst != null) {
+            return Math.max(burst, 1);
+        }
+        return permitsPerSecond != null ? Math.max((int) Math.ceil(permitsPerSecond), 1) : 1;
+    }
+
+    /**
+     * @param method           HTTP method, or {@code null} to match all methods
+     * @param path             Ant style pattern of the URI template
+     * @param permitsPerSecond max requests per second
+     * @param burst            max requests of a burst
+     */
+    record MethodRule(@Nullable String method, String path, double permitsPerSecond, int burst) {
+
+        static MethodRule of(HttpExchangeProperties.RateLimit.MethodRateLimit m) {
+            Assert.hasText(m.getPath(), "http-exchange rate-limit method 'path' must not be empty");
+            Assert.isTrue(
+                    m.getPermitsPerSecond() != null && m.getPermitsPerSecond() > 0,
+                    "http-exchange rate-limit method 'permits-per-second' must be positive for '" + m.getPath() + "'");
+            return new MethodRule(
+                    m.getMethod(), m.getPath(), m.getPermitsPerSecond(), burst(m.getBurst(), m.getPermitsPerSecond()));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package io.github.danielliu1123.httpexchange;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket that adapts its rate to the throttling of the server.
+ *
+ * <p> The bucket is implemented by the generic cell rate algorithm: the state is a single theoretical arrival time,
+ * reserving a permit is one CAS, and permits are granted in order, so waiting callers are served fairly.
+ *
+ * <p> When throttled, the rate is multiplied by the backoff ratio and recovers to the configured rate linearly.
+ *
+ * @author Freeman
+ * @see HttpExchangeProperties.RateLimit
+ * @since 3.2.1
+ */
+final class RateLimiter {
+
+    /**
+     * The rate is never reduced below this ratio of the configured rate.
+     */
+    private static final double MIN_FACTOR = 0.01;
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final double backoffRatio;
+    private final long recoveryNanos;
+    /**
+     * Clock in nanoseconds, {@link System#nanoTime()} by default.
+     */
+    private final LongSupplier clock;
+    /**
+     * Theoretical arrival time of the next permit, in {@link #clock} time.
+     */
+    private final AtomicLong tat;
+
+    private volatile Throttle throttle = new Throttle(1, 0);
+
+    RateLimiter(double permitsPerSecond, int burst, double backoffRatio, Duration recovery) {
+        this(permitsPerSecond, burst, backoffRatio, recovery, System::nanoTime);
+    }
+
+    RateLimiter(double permitsPerSecond, int burst, double backoffRatio, Duration recovery, LongSupplier clock) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = Math.max(burst, 1);
+        this.backoffRatio = backoffRatio;
+        this.recoveryNanos = Math.max(recovery.toNanos(), 1);
+        this.clock = clock;
+        this.tat = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Reserve a permit.
+     *
+     * @param maxWaitNanos max time to wait for the permit
+     * @return the time to wait for the reserved permit in nanoseconds, or {@code -1} if no permit is available in time
+     */
+    long reserve(long maxWaitNanos) {
+        while (true) {
+            long now = clock.getAsLong();
+            long interval = interval(now);
+            long t = tat.get();
+            long next = Math.max(t, now) + interval;
+            long wait = next - interval * burst - now;
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            if (tat.compareAndSet(t, next)) {
+                return Math.max(wait, 0);
+            }
+        }
+    }
+
+    /**
+     * Give back a reserved permit that is not used.
+     */
+    void cancel() {
+        long interval = interval(clock.getAsLong());
+        tat.getAndUpdate(t -> t - interval);
+    }
+
+    /**
+     * The server throttled the request, reduce the rate and pause until the given time.
+     *
+     * @param pause time to pause, or {@link Duration#ZERO} if unknown
+     */
+    void onThrottled(Duration pause) {
+        long now = clock.getAsLong();
+        double factor = Math.max(factor(now) * backoffRatio, MIN_FACTOR);
+        throttle = new Throttle(factor, now);
+        pause(pause);
+    }
+
+    /**
+     * The quota is exhausted, pause until the given time without reducing the rate.
+     *
+     * @param pause time to pause
+     */
+    void pause(Duration pause) {
+        if (pause.isZero() || pause.isNegative()) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long interval = interval(now);
+        // the next permit is granted after the pause
+        long resumeAt = now + pause.toNanos() + interval * (burst - 1);
+        tat.getAndUpdate(t -> Math.max(t, resumeAt));
+    }
+
+    /**
+     * @return the current rate in permits per second
+     */
+    double getRate() {
+        return permitsPerSecond * factor(clock.getAsLong());
+    }
+
+    private long interval(long now) {
+        return (long) (TimeUnit.SECONDS.toNanos(1) / (permitsPerSecond * factor(now)));
+    }
+
+    private double factor(long now) {
+        Throttle t = throttle;
+        if (t.factor >= 1) {
+            return 1;
+        }
+        double recovered = (double) (now - t.since) / recoveryNanos;
+        return recovered >= 1 ? 1 : t.factor + (1 - t.factor) * recovered;
+    }
+
+    /**
+     * @param factor ratio of the configured rate when throttled
+     * @param since  time of the throttling
+     */
+    private record Throttle(double factor, long since) {}
+}
@@ -0,0 +1,286 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+
+/**
+ * {@link HttpExchangeAdapter} decorator that limits the request rate by {@link RateLimiter}s,
+ * one for the channel and one for each {@link RateLimitPolicy.MethodRule}.
+ *
+ * <p> {@code 429} responses and exhausted quotas reported by the rate limit headers slow down the limiters.
+ *
+ * @author Freeman
+ * @see HttpExchangeProperties.RateLimit
+ * @since 3.2.1
+ */
+class RateLimitingExchangeAdapter implements HttpExchangeAdapter {
+
+    private static final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final long EPOCH_SECONDS_THRESHOLD = 1_000_000_000L;
+
+    private final HttpExchangeAdapter delegate;
+    private final RateLimitPolicy policy;
+
+    @Nullable
+    private final RateLimiter channelLimiter;
+
+    private final List<RateLimiter> methodLimiters;
+    /**
+     * {@code HTTP method + URI template} to the index of the matching rule, {@code -1} if no rule matches.
+     */
+    private final ConcurrentMap<String, Integer> ruleIndexes = new ConcurrentHashMap<>();
+
+    RateLimitingExchangeAdapter(HttpExchangeAdapter delegate, RateLimitPolicy policy) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.channelLimiter = policy.permitsPerSecond() != null
+                ? new RateLimiter(policy.permitsPerSecond(), policy.burst(), policy.backoffRatio(), policy.recovery())
+                : null;
+        this.methodLimiters = policy.methods().stream()
+                .map(m -> new RateLimiter(m.permitsPerSecond(), m.burst(), policy.backoffRatio(), policy.recovery()))
+                .toList();
+    }
+
+    /**
+     * Decorate the adapter, the reactive adapter is decorated by {@link ReactorRateLimitingExchangeAdapter}.
+     *
+     * @param adapter adapter to decorate
+     * @param policy  rate limit policy of the channel
+     * @return the decorated adapter, or the given adapter if it's already decorated
+     */
+    static HttpExchangeAdapter wrap(HttpExchangeAdapter adapter, RateLimitPolicy policy) {
+        if (adapter instanceof RateLimitingExchangeAdapter) {
+            return adapter;
+        }
+        return adapter instanceof ReactorHttpExchangeAdapter reactorAdapter
+                ? new ReactorRateLimitingExchangeAdapter(reactorAdapter, policy)
+                : new RateLimitingExchangeAdapter(adapter, policy);
+    }
+
+    @Override
+    public boolean supportsRequestAttributes() {
+        return delegate.supportsRequestAttributes();
+    }
+
+    @Override
+    public void exchange(HttpRequestValues requestValues) {
+        limit(requestValues, () -> {
+            delegate.exchange(requestValues);
+            return null;
+        });
+    }
+
+    @Override
+    public HttpHeaders exchangeForHeaders(HttpRequestValues requestValues) {
+        return limit(requestValues, () -> delegate.exchangeForHeaders(requestValues));
+    }
+
+    @Nullable
+    @Override
+    public <T> T exchangeForBody(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return limit(requestValues, () -> delegate.exchangeForBody(requestValues, bodyType));
+    }
+
+    @Override
+    public ResponseEntity<Void> exchangeForBodilessEntity(HttpRequestValues requestValues) {
+        return limit(requestValues, () -> delegate.exchangeForBodilessEntity(requestValues));
+    }
+
+    @Override
+    public <T> ResponseEntity<T> exchangeForEntity(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return limit(requestValues, () -> delegate.exchangeForEntity(requestValues, bodyType));
+    }
+
+    private <T> T limit(HttpRequestValues requestValues, Supplier<T> call) {
+        RateLimiter methodLimiter = methodLimiterOf(requestValues);
+        long wait = acquire(requestValues, methodLimiter);
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                cancel(methodLimiter);
+                Thread.currentThread().interrupt();
+                throw new RateLimitExceededException("Interrupted while waiting for the rate limit permit of "
+                        + requestValues.getHttpMethod() + " " + Util.expandUri(requestValues));
+            }
+        }
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            onError(e, methodLimiter);
+            throw e;
+        }
+        onResponse(result, methodLimiter);
+        return result;
+    }
+
+    /**
+     * Reserve permits from the channel limiter and the method limiter.
+     *
+     * @return the time to wait for the permits in nanoseconds
+     * @throws RateLimitExceededException if no permit is available within the max wait
+     */
+    long acquire(HttpRequestValues requestValues, @Nullable RateLimiter methodLimiter) {
+        long maxWait = policy.maxWait().toNanos();
+        long wait = 0;
+        if (methodLimiter != null) {
+            wait = methodLimiter.reserve(maxWait);
+            if (wait < 0) {
+                throw rejected(requestValues);
+            }
+        }
+        if (channelLimiter != null) {
+            long channelWait = channelLimiter.reserve(maxWait);
+            if (channelWait < 0) {
+                if (methodLimiter != null) {
+                    methodLimiter.cancel();
+                }
+                throw rejected(requestValues);
+            }
+            wait = Math.max(wait, channelWait);
+        }
+        return wait;
+    }
+
+    /**
+     * Give back the permits reserved by {@link #acquire} if the request is not sent.
+     */
+    void cancel(@Nullable RateLimiter methodLimiter) {
+        if (methodLimiter != null) {
+            methodLimiter.cancel();
+        }
+        if (channelLimiter != null) {
+            channelLimiter.cancel();
+        }
+    }
+
+    /**
+     * Get the limiter of the first rule matching the request.
+     *
+     * @return the limiter, or {@code null} if no rule matches
+     */
+    @Nullable
+    RateLimiter methodLimiterOf(HttpRequestValues requestValues) {
+        String uriTemplate = requestValues.getUriTemplate();
+        if (methodLimiters.isEmpty() || uriTemplate == null) {
+            return null;
+        }
+        HttpMethod method = requestValues.getHttpMethod();
+        int index = ruleIndexes.computeIfAbsent(method + " " + uriTemplate, k -> {
+            List<RateLimitPolicy.MethodRule> rules = policy.methods();
+            for (int i = 0; i < rules.size(); i++) {
+                RateLimitPolicy.MethodRule rule = rules.get(i);
+                if ((rule.method() == null || (method != null && method.matches(rule.method().toUpperCase())))
+                        && pathMatcher.match(rule.path(), uriTemplate)) {
+                    return i;
+                }
+            }
+            return -1;
+        });
+        return index >= 0 ? methodLimiters.get(index) : null;
+    }
+
+    /**
+     * Slow down the limiters if the request is throttled by the server.
+     */
+    void onError(Throwable error, @Nullable RateLimiter methodLimiter) {
+        Integer status = RetryPolicy.Errors.status(error);
+        if (status == null || status != TOO_MANY_REQUESTS) {
+            return;
+        }
+        Duration pause = RetryPolicy.retryAfter(error);
+        if (pause == null) {
+            HttpHeaders headers = RetryPolicy.Errors.headers(error);
+            pause = headers != null ? reset(headers) : null;
+        }
+        Duration p = pause != null ? pause : Duration.ZERO;
+        if (channelLimiter != null) {
+            channelLimiter.onThrottled(p);
+        }
+        if (methodLimiter != null) {
+            methodLimiter.onThrottled(p);
+        }
+    }
+
+    /**
+     * Pause the limiters until the quota resets if the response reports an exhausted quota.
+     */
+    void onResponse(@Nullable Object result, @Nullable RateLimiter methodLimiter) {
+        HttpHeaders headers = result instanceof ResponseEntity<?> entity
+                ? entity.getHeaders()
+                : (result instanceof HttpHeaders h ? h : null);
+        if (headers == null || !"0".equals(first(headers, "RateLimit-Remaining", "X-RateLimit-Remaining"))) {
+            return;
+        }
+        Duration reset = reset(headers);
+        if (reset == null) {
+            return;
+        }
+        if (channelLimiter != null) {
+            channelLimiter.pause(reset);
+        }
+        if (methodLimiter != null) {
+            methodLimiter.pause(reset);
+        }
+    }
+
+    RateLimitExceededException rejected(HttpRequestValues requestValues) {
+        return new RateLimitExceededException("Rate limit exceeded for " + requestValues.getHttpMethod() + " "
+                + Util.expandUri(requestValues));
+    }
+
+    @Nullable
+    RateLimiter getChannelLimiter() {
+        return channelLimiter;
+    }
+
+    /**
+     * Get the time until the quota resets, from {@code RateLimit-Reset} (delta seconds)
+     * or {@code X-RateLimit-Reset} (delta seconds or epoch seconds).
+     */
+    @Nullable
+    static Duration reset(HttpHeaders headers) {
+        String value = first(headers, "RateLimit-Reset", "X-RateLimit-Reset");
+        if (value == null) {
+            return null;
+        }
+        try {
+            long seconds = Long.parseLong(value);
+            if (seconds > EPOCH_SECONDS_THRESHOLD) {
+                return Duration.ofMillis(Math.max(seconds * 1000 - System.currentTimeMillis(), 0));
+            }
+            return Duration.ofSeconds(Math.max(seconds, 0));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static String first(HttpHeaders headers, String... names) {
+        for (String name : names) {
+            String value = headers.getFirst(name);
+            if (value != null) {
+                return value.trim();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link CircuitBreakingExchangeAdapter} for {@link ReactorHttpExchangeAdapter},
+ * the permission is acquired on subscription and the outcome is recorded on termination.
+ *
+ * <p> {@link Flux} responses are never slow calls, the length of a stream doesn't indicate the health of the server.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+class ReactorCircuitBreakingExchangeAdapter extends CircuitBreakingExchangeAdapter
+        implements ReactorHttpExchangeAdapter {
+
+    private final ReactorHttpExchangeAdapter delegate;
+
+    ReactorCircuitBreakingExchangeAdapter(ReactorHttpExchangeAdapter delegate, CircuitBreakers circuitBreakers) {
+        super(delegate, circuitBreakers);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ReactiveAdapterRegistry getReactiveAdapterRegistry() {
+        return delegate.getReactiveAdapterRegistry();
+    }
+
+    @Nullable
+    @Override
+    public Duration getBlockTimeout() {
+        return delegate.getBlockTimeout();
+    }
+
+    @Override
+    public Mono<Void> exchangeForMono(HttpRequestValues requestValues) {
+        return execute(requestValues, () -> delegate.exchangeForMono(requestValues));
+    }
+
+    @Override
+    public Mono<HttpHeaders> exchangeForHeadersMono(HttpRequestValues requestValues) {
+        return execute(requestValues, () -> delegate.exchangeForHeadersMono(requestValues));
+    }
+
+    @Override
+    public <T> Mono<T> exchangeForBodyMono(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return execute(requestValues, () -> delegate.exchangeForBodyMono(requestValues, bodyType));
+    }
+
+    @Override
+    public <T> Flux<T> exchangeForBodyFlux(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return executeFlux(requestValues, () -> delegate.exchangeForBodyFlux(requestValues, bodyType));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> exchangeForBodilessEntityMono(HttpRequestValues requestValues) {
+        return execute(requestValues, () -> delegate.exchangeForBodilessEntityMono(requestValues));
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<T>> exchangeForEntityMono(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return execute(requestValues, () -> delegate.exchangeForEntityMono(requestValues, bodyType));
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<Flux<T>>> exchangeForEntityFlux(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return execute(requestValues, () -> delegate.exchangeForEntityFlux(requestValues, bodyType));
+    }
+
+    private <T> Mono<T> execute(HttpRequestValues requestValues, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            CircuitBreaker circuitBreaker = getCircuitBreakers().get(requestValues);
+            CircuitBreaker.Phase phase = circuitBreaker.tryAcquire();
+            if (phase == null) {
+                return Mono.error(rejected(requestValues, circuitBreaker));
+            }
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return call.get()
+                    .doOnSuccess(v -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            circuitBreaker.onResult(phase, System.nanoTime() - start, false);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            record(circuitBreaker, phase, System.nanoTime() - start, e);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            circuitBreaker.onIgnored(phase);
+                        }
+                    });
+        });
+    }
+
+    private <T> Flux<T> executeFlux(HttpRequestValues requestValues, Supplier<Flux<T>> call) {
+        return Flux.defer(() -> {
+            CircuitBreaker circuitBreaker = getCircuitBreakers().get(requestValues);
+            CircuitBreaker.Phase phase = circuitBreaker.tryAcquire();
+            if (phase == null) {
+                return Flux.error(rejected(requestValues, circuitBreaker));
+            }
+            AtomicBoolean recorded = new AtomicBoolean();
+            return call.get()
+                    .doOnComplete(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            circuitBreaker.onResult(phase, 0, false);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            record(circuitBreaker, phase, 0, e);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            circuitBreaker.onIgnored(phase);
+                        }
+                    });
+        });
+    }
+
+    private static void record(CircuitBreaker circuitBreaker, CircuitBreaker.Phase phase, long nanos, Throwable e) {
+        if (isIgnored(e)) {
+            circuitBreaker.onIgnored(phase);
+        } else {
+            circuitBreaker.onResult(phase, nanos, isFailure(e));
+        }
+    }
+}
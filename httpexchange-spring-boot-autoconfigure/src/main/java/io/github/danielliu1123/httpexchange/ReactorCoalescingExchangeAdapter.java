@@ -0,0 +1,105 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link CoalescingExchangeAdapter} for {@link ReactorHttpExchangeAdapter}.
+ *
+ * <p> The first subscriber subscribes to the request, the subscribers arriving before it completes share the result.
+ * The request is cancelled only if all subscribers cancel.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+class ReactorCoalescingExchangeAdapter extends CoalescingExchangeAdapter implements ReactorHttpExchangeAdapter {
+
+    private final ReactorHttpExchangeAdapter delegate;
+    private final ConcurrentMap<Key, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    ReactorCoalescingExchangeAdapter(ReactorHttpExchangeAdapter delegate) {
+        super(delegate);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ReactiveAdapterRegistry getReactiveAdapterRegistry() {
+        return delegate.getReactiveAdapterRegistry();
+    }
+
+    @Nullable
+    @Override
+    public Duration getBlockTimeout() {
+        return delegate.getBlockTimeout();
+    }
+
+    @Override
+    public Mono<Void> exchangeForMono(HttpRequestValues requestValues) {
+        return delegate.exchangeForMono(requestValues);
+    }
+
+    @Override
+    public Mono<HttpHeaders> exchangeForHeadersMono(HttpRequestValues requestValues) {
+        return coalesce(
+                Key.of(Kind.HEADERS, requestValues, null), () -> delegate.exchangeForHeadersMono(requestValues));
+    }
+
+    @Override
+    public <T> Mono<T> exchangeForBodyMono(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return coalesce(
+                Key.of(Kind.BODY, requestValues, bodyType),
+                () -> delegate.exchangeForBodyMono(requestValues, bodyType));
+    }
+
+    @Override
+    public <T> Flux<T> exchangeForBodyFlux(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return delegate.exchangeForBodyFlux(requestValues, bodyType);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> exchangeForBodilessEntityMono(HttpRequestValues requestValues) {
+        return coalesce(
+                Key.of(Kind.BODILESS_ENTITY, requestValues, null),
+                () -> delegate.exchangeForBodilessEntityMono(requestValues));
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<T>> exchangeForEntityMono(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return coalesce(
+                Key.of(Kind.ENTITY, requestValues, bodyType),
+                () -> delegate.exchangeForEntityMono(requestValues, bodyType));
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<Flux<T>>> exchangeForEntityFlux(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return delegate.exchangeForEntityFlux(requestValues, bodyType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> coalesce(@Nullable Key key, Supplier<Mono<T>> call) {
+        if (key == null) {
+            return call.get();
+        }
+        // the key is computed on assembly, the request values are not changed after that
+        return Mono.defer(() -> (Mono<T>) inFlight.computeIfAbsent(key, k -> {
+            Mono<?>[] self = new Mono<?>[1];
+            self[0] = Mono.defer(call)
+                    .doFinally(signal -> inFlight.remove(k, self[0]))
+                    .share();
+            return self[0];
+        }));
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ConcurrencyLimitingExchangeAdapter} for {@link ReactorHttpExchangeAdapter},
+ * the permit is acquired on subscription and released on termination or cancellation.
+ *
+ * <p> {@link Flux} responses hold a permit until the stream terminates, but don't update the limit.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+class ReactorConcurrencyLimitingExchangeAdapter extends ConcurrencyLimitingExchangeAdapter
+        implements ReactorHttpExchangeAdapter {
+
+    private final ReactorHttpExchangeAdapter delegate;
+
+    ReactorConcurrencyLimitingExchangeAdapter(ReactorHttpExchangeAdapter delegate, ConcurrencyLimiter limiter) {
+        super(delegate, limiter);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ReactiveAdapterRegistry getReactiveAdapterRegistry() {
+        return delegate.getReactiveAdapterRegistry();
+    }
+
+    @Nullable
+    @Override
+    public Duration getBlockTimeout() {
+        return delegate.getBlockTimeout();
+    }
+
+    @Override
+    public Mono<Void> exchangeForMono(HttpRequestValues requestValues) {
+        return limit(requestValues, () -> delegate.exchangeForMono(requestValues));
+    }
+
+    @Override
+    public Mono<HttpHeaders> exchangeForHeadersMono(HttpRequestValues requestValues) {
+        return limit(requestValues, () -> delegate.exchangeForHeadersMono(requestValues));
+    }
+
+    @Override
+    public <T> Mono<T> exchangeForBodyMono(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return limit(requestValues, () -> delegate.exchangeForBodyMono(requestValues, bodyType));
+    }
+
+    @Override
+    public <T> Flux<T> exchangeForBodyFlux(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return limitFlux(requestValues, () -> delegate.exchangeForBodyFlux(requestValues, bodyType));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> exchangeForBodilessEntityMono(HttpRequestValues requestValues) {
+        return limit(requestValues, () -> delegate.exchangeForBodilessEntityMono(requestValues));
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<T>> exchangeForEntityMono(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return limit(requestValues, () -> delegate.exchangeForEntityMono(requestValues, bodyType));
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<Flux<T>>> exchangeForEntityFlux(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return limit(requestValues, () -> delegate.exchangeForEntityFlux(requestValues, bodyType));
+    }
+
+    private <T> Mono<T> limit(HttpRequestValues requestValues, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            ConcurrencyLimiter limiter = getLimiter();
+            if (!limiter.tryAcquire()) {
+                return Mono.error(rejected(requestValues));
+            }
+            long start = System.nanoTime();
+            AtomicBoolean released = new AtomicBoolean();
+            return call.get()
+                    .doOnSuccess(v -> {
+                        if (released.compareAndSet(false, true)) {
+                            limiter.release(System.nanoTime() - start, false);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (released.compareAndSet(false, true)) {
+                            limiter.release(System.nanoTime() - start, isDropped(e));
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (released.compareAndSet(false, true)) {
+                            limiter.releaseIgnored();
+                        }
+                    });
+        });
+    }
+
+    private <T> Flux<T> limitFlux(HttpRequestValues requestValues, Supplier<Flux<T>> call) {
+        return Flux.defer(() -> {
+            ConcurrencyLimiter limiter = getLimiter();
+            if (!limiter.tryAcquire()) {
+                return Flux.error(rejected(requestValues));
+            }
+            return call.get().doFinally(signal -> limiter.releaseIgnored());
+        });
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * {@link HedgingExchangeAdapter} for {@link ReactorHttpExchangeAdapter}, the loser is cancelled by disposing it.
+ *
+ * <p> {@link Flux} responses are not hedged, since the elements may have been emitted.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+class ReactorHedgingExchangeAdapter extends HedgingExchangeAdapter implements ReactorHttpExchangeAdapter {
+
+    private final ReactorHttpExchangeAdapter delegate;
+
+    ReactorHedgingExchangeAdapter(ReactorHttpExchangeAdapter delegate, HedgePolicy policy) {
+        super(delegate, policy, null, null);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ReactiveAdapterRegistry getReactiveAdapterRegistry() {
+        return delegate.getReactiveAdapterRegistry();
+    }
+
+    @Nullable
+    @Override
+    public Duration getBlockTimeout() {
+        return delegate.getBlockTimeout();
+    }
+
+    @Override
+    public Mono<Void> exchangeForMono(HttpRequestValues requestValues) {
+        return hedge(requestValues, () -> delegate.exchangeForMono(requestValues));
+    }
+
+    @Override
+    public Mono<HttpHeaders> exchangeForHeadersMono(HttpRequestValues requestValues) {
+        return hedge(requestValues, () -> delegate.exchangeForHeadersMono(requestValues));
+    }
+
+    @Override
+    public <T> Mono<T> exchangeForBodyMono(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return hedge(requestValues, () -> delegate.exchangeForBodyMono(requestValues, bodyType));
+    }
+
+    @Override
+    public <T> Flux<T> exchangeForBodyFlux(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return delegate.exchangeForBodyFlux(requestValues, bodyType);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> exchangeForBodilessEntityMono(HttpRequestValues requestValues) {
+        return hedge(requestValues, () -> delegate.exchangeForBodilessEntityMono(requestValues));
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<T>> exchangeForEntityMono(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return hedge(requestValues, () -> delegate.exchangeForEntityMono(requestValues, bodyType));
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<Flux<T>>> exchangeForEntityFlux(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return delegate.exchangeForEntityFlux(requestValues, bodyType);
+    }
+
+    private <T> Mono<T> hedge(HttpRequestValues requestValues, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            if (!isHedgeable(requestValues)) {
+                return call.get();
+            }
+            getBudget().onRequest();
+            LatencyTracker tracker = trackerOf(requestValues);
+            Mono<T> timed = timed(tracker, call);
+            Duration delay = getPolicy().delay(tracker);
+            if (delay == null) {
+                return timed;
+            }
+            return Mono.create(sink -> race(sink, requestValues, timed, delay));
+        });
+    }
+
+    private <T> void race(MonoSink<T> sink, HttpRequestValues requestValues, Mono<T> attempt, Duration delay) {
+        Disposable.Composite attempts = Disposables.composite();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger running = new AtomicInteger();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        sink.onDispose(attempts);
+
+        Runnable start = () -> {
+            running.incrementAndGet();
+            attempts.add(attempt.contextWrite(sink.contextView())
+                    .subscribe(
+                            value -> {
+                                if (done.compareAndSet(false, true)) {
+                                    sink.success(value);
+                                }
+                            },
+                            e -> {
+                                error.compareAndSet(null, e);
+                                if (running.decrementAndGet() == 0 && done.compareAndSet(false, true)) {
+                                    sink.error(error.get());
+                                }
+                            },
+                            () -> {
+                                if (done.compareAndSet(false, true)) {
+                                    sink.success();
+                                }
+                            }));
+        };
+        start.run();
+        attempts.add(Mono.delay(delay).subscribe(tick -> {
+            if (!done.get() && tryHedge(requestValues, delay)) {
+                start.run();
+            }
+        }));
+    }
+
+    private static <T> Mono<T> timed(@Nullable LatencyTracker tracker, Supplier<Mono<T>> call) {
+        if (tracker == null) {
+            return Mono.defer(call);
+        }
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.get().doOnSuccess(v -> tracker.record(System.nanoTime() - start));
+        });
+    }
+}
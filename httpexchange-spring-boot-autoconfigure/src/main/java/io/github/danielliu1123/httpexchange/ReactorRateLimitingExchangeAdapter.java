@@ -0,0 +1,93 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.time.Duration;
+import java.util.function.Supplier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link RateLimitingExchangeAdapter} for {@link ReactorHttpExchangeAdapter}, waiting for a permit doesn't block.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+class ReactorRateLimitingExchangeAdapter extends RateLimitingExchangeAdapter implements ReactorHttpExchangeAdapter {
+
+    private final ReactorHttpExchangeAdapter delegate;
+
+    ReactorRateLimitingExchangeAdapter(ReactorHttpExchangeAdapter delegate, RateLimitPolicy policy) {
+        super(delegate, policy);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ReactiveAdapterRegistry getReactiveAdapterRegistry() {
+        return delegate.getReactiveAdapterRegistry();
+    }
+
+    @Nullable
+    @Override
+    public Duration getBlockTimeout() {
+        return delegate.getBlockTimeout();
+    }
+
+    @Override
+    public Mono<Void> exchangeForMono(HttpRequestValues requestValues) {
+        return limit(requestValues, () -> delegate.exchangeForMono(requestValues));
+    }
+
+    @Override
+    public Mono<HttpHeaders> exchangeForHeadersMono(HttpRequestValues requestValues) {
+        return limit(requestValues, () -> delegate.exchangeForHeadersMono(requestValues));
+    }
+
+    @Override
+    public <T> Mono<T> exchangeForBodyMono(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return limit(requestValues, () -> delegate.exchangeForBodyMono(requestValues, bodyType));
+    }
+
+    @Override
+    public <T> Flux<T> exchangeForBodyFlux(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return limit(requestValues, () -> Mono.just(delegate.exchangeForBodyFlux(requestValues, bodyType)))
+                .flatMapMany(flux -> flux);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> exchangeForBodilessEntityMono(HttpRequestValues requestValues) {
+        return limit(requestValues, () -> delegate.exchangeForBodilessEntityMono(requestValues));
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<T>> exchangeForEntityMono(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return limit(requestValues, () -> delegate.exchangeForEntityMono(requestValues, bodyType));
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<Flux<T>>> exchangeForEntityFlux(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return limit(requestValues, () -> delegate.exchangeForEntityFlux(requestValues, bodyType));
+    }
+
+    private <T> Mono<T> limit(HttpRequestValues requestValues, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            RateLimiter methodLimiter = methodLimiterOf(requestValues);
+            long wait = acquire(requestValues, methodLimiter);
+            Mono<T> result = Mono.defer(call)
+                    .doOnSuccess(value -> onResponse(value, methodLimiter))
+                    .doOnError(e -> onError(e, methodLimiter));
+            return wait > 0
+                    ? Mono.delay(Duration.ofNanos(wait))
+                            .doOnCancel(() -> cancel(methodLimiter))
+                            .then(result)
+                    : result;
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.time.Duration;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ResponseCachingExchangeAdapter} for {@link ReactorHttpExchangeAdapter}.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+class ReactorResponseCachingExchangeAdapter extends ResponseCachingExchangeAdapter
+        implements ReactorHttpExchangeAdapter {
+
+    private final ReactorHttpExchangeAdapter delegate;
+
+    ReactorResponseCachingExchangeAdapter(
+            ReactorHttpExchangeAdapter delegate, ResponseCacheStore store, boolean cacheByDefault) {
+        super(delegate, store, cacheByDefault);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ReactiveAdapterRegistry getReactiveAdapterRegistry() {
+        return delegate.getReactiveAdapterRegistry();
+    }
+
+    @Nullable
+    @Override
+    public Duration getBlockTimeout() {
+        return delegate.getBlockTimeout();
+    }
+
+    @Override
+    public Mono<Void> exchangeForMono(HttpRequestValues requestValues) {
+        return delegate.exchangeForMono(requestValues);
+    }
+
+    @Override
+    public Mono<HttpHeaders> exchangeForHeadersMono(HttpRequestValues requestValues) {
+        return delegate.exchangeForHeadersMono(requestValues);
+    }
+
+    @Override
+    public <T> Mono<T> exchangeForBodyMono(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        if (!isCacheable(requestValues)) {
+            return delegate.exchangeForBodyMono(requestValues, bodyType);
+        }
+        return exchangeForEntityMono(requestValues, bodyType).mapNotNull(ResponseEntity::getBody);
+    }
+
+    @Override
+    public <T> Flux<T> exchangeForBodyFlux(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return delegate.exchangeForBodyFlux(requestValues, bodyType);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> exchangeForBodilessEntityMono(HttpRequestValues requestValues) {
+        return delegate.exchangeForBodilessEntityMono(requestValues);
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<T>> exchangeForEntityMono(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        if (!isCacheable(requestValues)) {
+            return delegate.exchangeForEntityMono(requestValues, bodyType);
+        }
+        return Mono.defer(() -> {
+            Key key = Key.of(requestValues, bodyType);
+            CachedResponse cached = lookup(key, requestValues);
+            if (cached != null && cached.isFresh()) {
+                return Mono.just(cached.toEntity());
+            }
+            return delegate.exchangeForEntityMono(requestValues, bodyType)
+                    .map(response -> onResponse(key, requestValues, cached, response));
+        });
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<Flux<T>>> exchangeForEntityFlux(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return delegate.exchangeForEntityFlux(requestValues, bodyType);
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.time.Duration;
+import java.util.function.Supplier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link RetryingExchangeAdapter} for {@link ReactorHttpExchangeAdapter}, the backoff doesn't block.
+ *
+ * <p> {@link Flux} responses are not retried, since the elements may have been emitted.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+class ReactorRetryingExchangeAdapter extends RetryingExchangeAdapter implements ReactorHttpExchangeAdapter {
+
+    private final ReactorHttpExchangeAdapter delegate;
+
+    ReactorRetryingExchangeAdapter(ReactorHttpExchangeAdapter delegate, RetryPolicy policy) {
+        super(delegate, policy);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ReactiveAdapterRegistry getReactiveAdapterRegistry() {
+        return delegate.getReactiveAdapterRegistry();
+    }
+
+    @Nullable
+    @Override
+    public Duration getBlockTimeout() {
+        return delegate.getBlockTimeout();
+    }
+
+    @Override
+    public Mono<Void> exchangeForMono(HttpRequestValues requestValues) {
+        return retry(requestValues, () -> delegate.exchangeForMono(requestValues));
+    }
+
+    @Override
+    public Mono<HttpHeaders> exchangeForHeadersMono(HttpRequestValues requestValues) {
+        return retry(requestValues, () -> delegate.exchangeForHeadersMono(requestValues));
+    }
+
+    @Override
+    public <T> Mono<T> exchangeForBodyMono(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return retry(requestValues, () -> delegate.exchangeForBodyMono(requestValues, bodyType));
+    }
+
+    @Override
+    public <T> Flux<T> exchangeForBodyFlux(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return delegate.exchangeForBodyFlux(requestValues, bodyType);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> exchangeForBodilessEntityMono(HttpRequestValues requestValues) {
+        return retry(requestValues, () -> delegate.exchangeForBodilessEntityMono(requestValues));
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<T>> exchangeForEntityMono(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return retry(requestValues, () -> delegate.exchangeForEntityMono(requestValues, bodyType));
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<Flux<T>>> exchangeForEntityFlux(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return delegate.exchangeForEntityFlux(requestValues, bodyType);
+    }
+
+    private <T> Mono<T> retry(HttpRequestValues requestValues, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            RetryPolicy p = policyOf(requestValues);
+            if (!p.enabled()) {
+                // retry is disabled for the channel and the method is not @Retryable
+                return call.get();
+            }
+            getBudget().onRequest();
+            if (!p.isRetryable(requestValues.getHttpMethod())) {
+                return call.get();
+            }
+            return attempt(p, requestValues, call, 1);
+        });
+    }
+
+    private <T> Mono<T> attempt(
+            RetryPolicy p, HttpRequestValues requestValues, Supplier<Mono<T>> call, int attempts) {
+        return Mono.defer(call).onErrorResume(e -> {
+            Duration backoff = nextBackoff(p, requestValues, attempts, e);
+            if (backoff == null) {
+                return Mono.error(e);
+            }
+            return Mono.delay(backoff).then(attempt(p, requestValues, call, attempts + 1));
+        });
+    }
+}
@@ -0,0 +1,194 @@
+package io.github.danielliu1123.httpexchange;
+
+import static io.github.danielliu1123.httpexchange.Util.findMatchedConfig;
+
+import jakarta.annotation.Nullable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Client bean of {@link HttpExchangeProperties.RefreshMode#HOLDER} mode, delegates to the current client held by a {@code volatile} field.
+ *
+ * <p> Calls don't take any lock, the in-flight calls of each client are counted.
+ * On refresh, the new client is built before being swapped in, the old client is released
+ * (and its transport closed if no longer used) after its in-flight calls complete.
+ *
+ * <p> Calls returning {@link CompletionStage} are in-flight until the stage completes,
+ * reactive calls are only in-flight until the publisher is returned.
+ *
+ * @author Freeman
+ * @see RefreshableClients
+ * @since 3.2.1
+ */
+final class RefreshableClient implements InvocationHandler {
+
+    private final ExchangeClientCreator creator;
+    private final RefreshableClients registry;
+    private volatile Target target;
+    private volatile boolean closed;
+
+    private RefreshableClient(ExchangeClientCreator creator, RefreshableClients registry, Object client) {
+        this.creator = creator;
+        this.registry = registry;
+        this.target = new Target(client);
+    }
+
+    /**
+     * Create a refreshable client bean.
+     *
+     * @param creator  creator of the underlying clients
+     * @param registry registry to refresh the client
+     * @return the client bean
+     */
+    static Object create(ExchangeClientCreator creator, RefreshableClients registry) {
+        Object client = creator.create();
+        Class<?> clientType = creator.getClientType();
+        RefreshableClient handler = new RefreshableClient(creator, registry, client);
+        registry.add(handler);
+        return Proxy.newProxyInstance(clientType.getClassLoader(), new Class<?>[] {clientType}, handler);
+    }
+
+    /**
+     * Get the {@link RefreshableClient} of the bean.
+     *
+     * @param bean bean
+     * @return the {@link RefreshableClient}, or {@code null} if the bean is not a refreshable client
+     */
+    @Nullable
+    static RefreshableClient of(Object bean) {
+        return Proxy.isProxyClass(bean.getClass()) && Proxy.getInvocationHandler(bean) instanceof RefreshableClient rc
+                ? rc
+                : null;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (ReflectionUtils.isEqualsMethod(method)) {
+            return proxy == args[0];
+        }
+        if (ReflectionUtils.isHashCodeMethod(method)) {
+            return System.identityHashCode(proxy);
+        }
+        if (ReflectionUtils.isToStringMethod(method)) {
+            return "Refreshable(" + target.client + ")";
+        }
+        Target t = acquire();
+        boolean async = false;
+        try {
+            ReflectionUtils.makeAccessible(method);
+            Object result = method.invoke(t.client, args);
+            if (result instanceof CompletionStage<?> stage) {
+                async = true;
+                stage.whenComplete((r, e) -> t.release());
+            }
+            return result;
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        } finally {
+            if (!async) {
+                t.release();
+            }
+        }
+    }
+
+    private Target acquire() {
+        while (true) {
+            Target t = target;
+            if (t.acquire()) {
+                return t;
+            }
+            // retired after being read, the new target is already visible unless closed
+            if (closed) {
+                throw new IllegalStateException("Client " + creator.getClientType().getName() + " has been closed");
+            }
+        }
+    }
+
+    /**
+     * Swap to a new client if the channel settings of the client changed.
+     *
+     * @param properties newly bound properties
+     * @return true if refreshed
+     */
+    synchronized boolean refresh(HttpExchangeProperties properties) {
+        if (closed) {
+            return false;
+        }
+        Target old = target;
+        ChannelFingerprint current = ChannelFingerprint.of(findMatchedConfig(creator.getClientType(), properties)
+                .orElseGet(properties::defaultClient));
+        if (current.equals(Cache.getFingerprint(old.client))) {
+            return false;
+        }
+        target = new Target(creator.create(properties));
+        old.retire();
+        return true;
+    }
+
+    /**
+     * Close the client, the current client is released after its in-flight calls complete.
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        registry.remove(this);
+        target.retire();
+    }
+
+    Class<?> getClientType() {
+        return creator.getClientType();
+    }
+
+    /**
+     * A client and its in-flight calls.
+     */
+    private static final class Target {
+        /**
+         * The sign bit of {@link #state}, the lower bits are the number of in-flight calls.
+         */
+        private static final int RETIRED = Integer.MIN_VALUE;
+
+        private final Object client;
+        private final AtomicInteger state = new AtomicInteger();
+
+        private Target(Object client) {
+            this.client = client;
+        }
+
+        private boolean acquire() {
+            while (true) {
+                int s = state.get();
+                if (s < 0) {
+                    return false;
+                }
+                if (state.compareAndSet(s, s + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private void release() {
+            if (state.decrementAndGet() == RETIRED) {
+                drained();
+            }
+        }
+
+        private void retire() {
+            int prev = state.getAndUpdate(s -> s | RETIRED);
+            if (prev == 0) {
+                drained();
+            }
+        }
+
+        private void drained() {
+            Cache.release(client);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.danielliu1123.httpexchange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+/**
+ * Refresh the {@link RefreshableClient}s of {@link HttpExchangeProperties.RefreshMode#HOLDER} mode on {@link EnvironmentChangeEvent}.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+class RefreshableClients implements ApplicationListener<EnvironmentChangeEvent>, EnvironmentAware {
+
+    static final String BEAN_NAME = "httpExchangeRefreshableClients";
+
+    private final Set<RefreshableClient> clients = ConcurrentHashMap.newKeySet();
+
+    private Environment environment;
+
+    /**
+     * Register this listener if absent.
+     *
+     * @param registry {@link BeanDefinitionRegistry}
+     */
+    static void registerIfAbsent(BeanDefinitionRegistry registry) {
+        if (!registry.containsBeanDefinition(BEAN_NAME)) {
+            RootBeanDefinition bd = new RootBeanDefinition(RefreshableClients.class);
+            bd.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+            registry.registerBeanDefinition(BEAN_NAME, bd);
+        }
+    }
+
+    void add(RefreshableClient client) {
+        clients.add(client);
+    }
+
+    void remove(RefreshableClient client) {
+        clients.remove(client);
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        refresh();
+    }
+
+    /**
+     * Swap the clients whose channel settings changed, evict the cache entries no longer configured.
+     *
+     * @return names of the refreshed client types
+     */
+    List<String> refresh() {
+        HttpExchangeProperties properties = Util.getProperties(environment);
+        List<String> refreshed = new ArrayList<>();
+        for (RefreshableClient client : clients) {
+            if (client.refresh(properties)) {
+                refreshed.add(client.getClientType().getName());
+            }
+        }
+
+        Cache.evictStale(properties, refreshed);
+        return refreshed;
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+}
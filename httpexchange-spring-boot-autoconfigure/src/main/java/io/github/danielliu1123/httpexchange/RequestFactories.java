@@ -0,0 +1,302 @@
+package io.github.danielliu1123.httpexchange;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLParameters;
+import lombok.experimental.UtilityClass;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.IdleConnectionEvictor;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.DefaultHostnameVerifier;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.eclipse.jetty.client.transport.HttpClientTransportOverHTTP;
+import org.eclipse.jetty.io.ClientConnector;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ssl.SslBundle;
+import org.springframework.boot.ssl.SslOptions;
+import org.springframework.boot.web.client.ClientHttpRequestFactories;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.JettyClientHttpRequestFactory;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Create {@link ClientHttpRequestFactory} from {@link TransportSettings}.
+ *
+ * <p> Settings beyond {@link org.springframework.boot.web.client.ClientHttpRequestFactorySettings}
+ * (executor, http version, connection pool) are supported by {@link JdkClientHttpRequestFactory},
+ * {@link HttpComponentsClientHttpRequestFactory} and {@link JettyClientHttpRequestFactory},
+ * other factories are created by {@link ClientHttpRequestFactories} and the extra settings are ignored.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+@UtilityClass
+class RequestFactories {
+    private static final Logger log = LoggerFactory.getLogger(RequestFactories.class);
+
+    private static final boolean APACHE_HTTP_CLIENT_PRESENT =
+            ClassUtils.isPresent("org.apache.hc.client5.http.impl.classic.HttpClients", null);
+    private static final boolean JETTY_CLIENT_PRESENT =
+            ClassUtils.isPresent("org.eclipse.jetty.client.HttpClient", null);
+
+    /**
+     * Create a {@link ClientHttpRequestFactory}.
+     *
+     * @param settings settings
+     * @return the request factory
+     */
+    static ClientHttpRequestFactory get(TransportSettings settings) {
+        if (settings.isSimple()) {
+            return ClientHttpRequestFactories.get(settings.factoryType(), settings.toClientHttpRequestFactorySettings());
+        }
+        Class<? extends ClientHttpRequestFactory> type = settings.factoryType();
+        if (type == JdkClientHttpRequestFactory.class) {
+            return Jdk.get(settings);
+        }
+        if (type == HttpComponentsClientHttpRequestFactory.class && APACHE_HTTP_CLIENT_PRESENT) {
+            return HttpComponents.get(settings);
+        }
+        if (type == JettyClientHttpRequestFactory.class && JETTY_CLIENT_PRESENT) {
+            return Jetty.get(settings);
+        }
+        log.warn(
+                "Executor, http version and connection pool settings are not supported by {}, ignored",
+                type.getName());
+        return ClientHttpRequestFactories.get(type, settings.toClientHttpRequestFactorySettings());
+    }
+
+    private static void warnUnsupported(Class<?> factoryType, List<String> unsupported) {
+        if (!unsupported.isEmpty()) {
+            log.warn("Settings {} are not supported by {}, ignored", unsupported, factoryType.getSimpleName());
+        }
+    }
+
+    private static final class Jdk {
+
+        static JdkClientHttpRequestFactory get(TransportSettings settings) {
+            List<String> unsupported = new ArrayList<>();
+            if (settings.maxConnections() != null) {
+                unsupported.add("max-connections");
+            }
+            if (settings.maxConnectionsPerRoute() != null) {
+                unsupported.add("max-connections-per-route");
+            }
+            if (settings.idleTimeout() != null) {
+                unsupported.add("idle-timeout");
+            }
+            if (settings.evictionInterval() != null) {
+                unsupported.add("eviction-interval");
+            }
+            if (settings.validateAfterInactivity() != null) {
+                unsupported.add("validate-after-inactivity");
+            }
+            if (!unsupported.isEmpty()) {
+                log.warn(
+                        "Settings {} are not supported by {}, use system properties 'jdk.httpclient.connectionPoolSize' and 'jdk.httpclient.keepalive.timeout' instead",
+                        unsupported,
+                        JdkClientHttpRequestFactory.class.getSimpleName());
+            }
+
+            HttpClient.Builder builder = HttpClient.newBuilder();
+            if (settings.executor() != null) {
+                builder.executor(settings.executor());
+            }
+            if (settings.connectTimeout() != null) {
+                builder.connectTimeout(settings.connectTimeout());
+            }
+            if (settings.httpVersion() != null) {
+                builder.version(
+                        switch (settings.httpVersion()) {
+                            case HTTP_1_1 -> HttpClient.Version.HTTP_1_1;
+                            case HTTP_2 -> HttpClient.Version.HTTP_2;
+                        });
+            }
+            SslBundle sslBundle = settings.sslBundle();
+            if (sslBundle != null) {
+                builder.sslContext(sslBundle.createSslContext());
+                SslOptions options = sslBundle.getOptions();
+                if (options.getCiphers() != null || options.getEnabledProtocols() != null) {
+                    builder.sslParameters(new SSLParameters(options.getCiphers(), options.getEnabledProtocols()));
+                }
+            }
+
+            JdkClientHttpRequestFactory requestFactory = settings.executor() != null
+                    ? new JdkClientHttpRequestFactory(builder.build(), settings.executor())
+                    : new JdkClientHttpRequestFactory(builder.build());
+            if (settings.readTimeout() != null) {
+                requestFactory.setReadTimeout(settings.readTimeout());
+            }
+            return requestFactory;
+        }
+    }
+
+    private static final class HttpComponents {
+
+        static HttpComponentsClientHttpRequestFactory get(TransportSettings settings) {
+            List<String> unsupported = new ArrayList<>();
+            if (settings.executor() != null) {
+                unsupported.add("executor");
+            }
+            if (settings.httpVersion() == HttpExchangeProperties.HttpVersion.HTTP_2) {
+                unsupported.add("http-version=HTTP_2");
+            }
+            warnUnsupported(HttpComponentsClientHttpRequestFactory.class, unsupported);
+
+            PoolingHttpClientConnectionManagerBuilder connectionManagerBuilder =
+                    PoolingHttpClientConnectionManagerBuilder.create();
+            if (settings.maxConnections() != null) {
+                connectionManagerBuilder.setMaxConnTotal(settings.maxConnections());
+            }
+            if (settings.maxConnectionsPerRoute() != null) {
+                connectionManagerBuilder.setMaxConnPerRoute(settings.maxConnectionsPerRoute());
+            }
+            ConnectionConfig.Builder connectionConfig = ConnectionConfig.custom();
+            if (settings.connectTimeout() != null) {
+                connectionConfig.setConnectTimeout(settings.connectTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            }
+            if (settings.validateAfterInactivity() != null) {
+                connectionConfig.setValidateAfterInactivity(
+                        TimeValue.ofMilliseconds(settings.validateAfterInactivity().toMillis()));
+            }
+            connectionManagerBuilder.setDefaultConnectionConfig(connectionConfig.build());
+            if (settings.readTimeout() != null) {
+                connectionManagerBuilder.setDefaultSocketConfig(SocketConfig.custom()
+                        .setSoTimeout((int) settings.readTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                        .build());
+            }
+            SslBundle sslBundle = settings.sslBundle();
+            if (sslBundle != null) {
+                SslOptions options = sslBundle.getOptions();
+                connectionManagerBuilder.setSSLSocketFactory(new SSLConnectionSocketFactory(
+                        sslBundle.createSslContext(),
+                        options.getEnabledProtocols(),
+                        options.getCiphers(),
+                        new DefaultHostnameVerifier()));
+            }
+            PoolingHttpClientConnectionManager connectionManager = connectionManagerBuilder.build();
+            CloseableHttpClient httpClient =
+                    HttpClients.custom().setConnectionManager(connectionManager).build();
+
+            if (settings.idleTimeout() == null && settings.evictionInterval() == null) {
+                return new HttpComponentsClientHttpRequestFactory(httpClient);
+            }
+            TimeValue maxIdleTime = settings.idleTimeout() != null
+                    ? TimeValue.ofMilliseconds(settings.idleTimeout().toMillis())
+                    : null;
+            TimeValue sleepTime = settings.evictionInterval() != null
+                    ? TimeValue.ofMilliseconds(settings.evictionInterval().toMillis())
+                    : maxIdleTime;
+            IdleConnectionEvictor evictor = new IdleConnectionEvictor(connectionManager, sleepTime, maxIdleTime);
+            evictor.start();
+            return new EvictingHttpComponentsClientHttpRequestFactory(httpClient, evictor);
+        }
+    }
+
+    /**
+     * Stops the {@link IdleConnectionEvictor} when the request factory is destroyed.
+     */
+    private static final class EvictingHttpComponentsClientHttpRequestFactory
+            extends HttpComponentsClientHttpRequestFactory {
+        private final IdleConnectionEvictor evictor;
+
+        EvictingHttpComponentsClientHttpRequestFactory(CloseableHttpClient httpClient, IdleConnectionEvictor evictor) {
+            super(httpClient);
+            this.evictor = evictor;
+        }
+
+        @Override
+        public void destroy() throws Exception {
+            evictor.shutdown();
+            super.destroy();
+        }
+    }
+
+    /**
+     * {@link JettyClientHttpRequestFactory} only stops the {@link org.eclipse.jetty.client.HttpClient} created by itself.
+     */
+    private static final class StoppingJettyClientHttpRequestFactory extends JettyClientHttpRequestFactory {
+        private final org.eclipse.jetty.client.HttpClient httpClient;
+
+        StoppingJettyClientHttpRequestFactory(org.eclipse.jetty.client.HttpClient httpClient) {
+            super(httpClient);
+            this.httpClient = httpClient;
+        }
+
+        @Override
+        public void destroy() throws Exception {
+            super.destroy();
+            if (httpClient.isRunning()) {
+                httpClient.stop();
+            }
+        }
+    }
+
+    private static final class Jetty {
+
+        static JettyClientHttpRequestFactory get(TransportSettings settings) {
+            List<String> unsupported = new ArrayList<>();
+            if (settings.executor() != null) {
+                unsupported.add("executor");
+            }
+            if (settings.httpVersion() == HttpExchangeProperties.HttpVersion.HTTP_2) {
+                unsupported.add("http-version=HTTP_2");
+            }
+            if (settings.maxConnections() != null) {
+                unsupported.add("max-connections");
+            }
+            if (settings.evictionInterval() != null) {
+                unsupported.add("eviction-interval");
+            }
+            if (settings.validateAfterInactivity() != null) {
+                unsupported.add("validate-after-inactivity");
+            }
+            warnUnsupported(JettyClientHttpRequestFactory.class, unsupported);
+
+            SslContextFactory.Client sslContextFactory = new SslContextFactory.Client();
+            SslBundle sslBundle = settings.sslBundle();
+            if (sslBundle != null) {
+                SslOptions options = sslBundle.getOptions();
+                sslContextFactory.setSslContext(sslBundle.createSslContext());
+                if (options.getCiphers() != null) {
+                    sslContextFactory.setIncludeCipherSuites(options.getCiphers());
+                    sslContextFactory.setExcludeCipherSuites();
+                }
+                if (options.getEnabledProtocols() != null) {
+                    sslContextFactory.setIncludeProtocols(options.getEnabledProtocols());
+                    sslContextFactory.setExcludeProtocols();
+                }
+            }
+            ClientConnector connector = new ClientConnector();
+            connector.setSslContextFactory(sslContextFactory);
+
+            org.eclipse.jetty.client.HttpClient httpClient =
+                    new org.eclipse.jetty.client.HttpClient(new HttpClientTransportOverHTTP(connector));
+            if (settings.maxConnectionsPerRoute() != null) {
+                httpClient.setMaxConnectionsPerDestination(settings.maxConnectionsPerRoute());
+            }
+            if (settings.idleTimeout() != null) {
+                httpClient.setIdleTimeout(settings.idleTimeout().toMillis());
+            }
+
+            JettyClientHttpRequestFactory requestFactory = new StoppingJettyClientHttpRequestFactory(httpClient);
+            if (settings.connectTimeout() != null) {
+                requestFactory.setConnectTimeout(settings.connectTimeout());
+            }
+            if (settings.readTimeout() != null) {
+                requestFactory.setReadTimeout(settings.readTimeout());
+            }
+            return requestFactory;
+        }
+    }
+}
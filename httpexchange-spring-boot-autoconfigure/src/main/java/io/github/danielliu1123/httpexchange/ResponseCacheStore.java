@@ -0,0 +1,93 @@
+package io.github.danielliu1123.httpexchange;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Bounded in-memory store of {@link ResponseCachingExchangeAdapter}.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+interface ResponseCacheStore {
+
+    @Nullable
+    ResponseCachingExchangeAdapter.CachedResponse get(ResponseCachingExchangeAdapter.Key key);
+
+    void put(ResponseCachingExchangeAdapter.Key key, ResponseCachingExchangeAdapter.CachedResponse response);
+
+    void remove(ResponseCachingExchangeAdapter.Key key);
+
+    /**
+     * Create a store, use Caffeine if it's in the classpath.
+     *
+     * @param maxEntries max number of entries
+     * @return the store
+     */
+    static ResponseCacheStore create(int maxEntries) {
+        return ClassUtils.isPresent("com.github.benmanes.caffeine.cache.Caffeine", null)
+                ? new CaffeineStore(maxEntries)
+                : new LruStore(maxEntries);
+    }
+
+    final class LruStore implements ResponseCacheStore {
+        private final Map<ResponseCachingExchangeAdapter.Key, ResponseCachingExchangeAdapter.CachedResponse> map;
+
+        LruStore(int maxEntries) {
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<ResponseCachingExchangeAdapter.Key, ResponseCachingExchangeAdapter.CachedResponse>
+                                eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        @Nullable
+        @Override
+        public synchronized ResponseCachingExchangeAdapter.CachedResponse get(ResponseCachingExchangeAdapter.Key key) {
+            return map.get(key);
+        }
+
+        @Override
+        public synchronized void put(
+                ResponseCachingExchangeAdapter.Key key, ResponseCachingExchangeAdapter.CachedResponse response) {
+            map.put(key, response);
+        }
+
+        @Override
+        public synchronized void remove(ResponseCachingExchangeAdapter.Key key) {
+            map.remove(key);
+        }
+    }
+
+    final class CaffeineStore implements ResponseCacheStore {
+        private final com.github.benmanes.caffeine.cache.Cache<
+                        ResponseCachingExchangeAdapter.Key, ResponseCachingExchangeAdapter.CachedResponse>
+                cache;
+
+        CaffeineStore(int maxEntries) {
+            this.cache = Caffeine.newBuilder().maximumSize(maxEntries).build();
+        }
+
+        @Nullable
+        @Override
+        public ResponseCachingExchangeAdapter.CachedResponse get(ResponseCachingExchangeAdapter.Key key) {
+            return cache.getIfPresent(key);
+        }
+
+        @Override
+        public void put(ResponseCachingExchangeAdapter.Key key, ResponseCachingExchangeAdapter.CachedResponse response) {
+            cache.put(key, response);
+        }
+
+        @Override
+        public void remove(ResponseCachingExchangeAdapter.Key key) {
+            cache.invalidate(key);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.danielliu1123.httpexchange;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enable/disable the response cache for {@code GET} methods, overrides {@code http-exchange.response-cache.enabled}.
+ *
+ * <p> Example:
+ * <pre>{@code
+ * @HttpExchange("/countries")
+ * interface CountryApi {
+ *     @GetExchange
+ *     @ResponseCacheable
+ *     List<Country> list();
+ * }
+ * }</pre>
+ *
+ * <p> The response is cached according to its {@code Cache-Control}/{@code Expires}/{@code ETag}/{@code Vary} headers,
+ * see {@link HttpExchangeProperties.ResponseCache}.
+ *
+ * <p> The cached body is shared by all callers without copying, the return type must be immutable
+ * (e.g. records, {@link String}, {@link java.util.List#of immutable collections}).
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface ResponseCacheable {
+    /**
+     * Whether to cache the response, default {@code true}.
+     */
+    boolean value() default true;
+}
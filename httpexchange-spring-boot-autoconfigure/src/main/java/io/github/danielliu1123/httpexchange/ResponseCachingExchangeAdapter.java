@@ -0,0 +1,377 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+
+/**
+ * {@link HttpExchangeAdapter} decorator that caches the responses of {@code GET} requests.
+ *
+ * <p> Requests are cached when the {@link ResponseCacheable} attribute is {@code true},
+ * or the attribute is absent and the cache is enabled for the channel.
+ *
+ * <p> The cache is shared by all callers of the channel, so it follows the rules of a shared cache:
+ * {@code private} responses are not stored, and responses to requests with credentials are only stored
+ * when they are explicitly {@code public} or have {@code s-maxage}.
+ *
+ * @author Freeman
+ * @see HttpExchangeProperties.ResponseCache
+ * @since 3.2.1
+ */
+class ResponseCachingExchangeAdapter implements HttpExchangeAdapter {
+
+    /**
+     * Request attribute holds the {@link ResponseCacheable#value()} of the invoked method.
+     */
+    static final String CACHEABLE_ATTRIBUTE = ResponseCacheable.class.getName();
+
+    private final HttpExchangeAdapter delegate;
+    private final ResponseCacheStore store;
+    private final boolean cacheByDefault;
+
+    ResponseCachingExchangeAdapter(HttpExchangeAdapter delegate, ResponseCacheStore store, boolean cacheByDefault) {
+        this.delegate = delegate;
+        this.store = store;
+        this.cacheByDefault = cacheByDefault;
+    }
+
+    /**
+     * Decorate the adapter, the reactive adapter is decorated by {@link ReactorResponseCachingExchangeAdapter}.
+     *
+     * @param adapter        adapter to decorate
+     * @param store          response store
+     * @param cacheByDefault whether to cache the requests without {@link ResponseCacheable}
+     * @return the decorated adapter, or the given adapter if it's already decorated
+     */
+    static HttpExchangeAdapter wrap(HttpExchangeAdapter adapter, ResponseCacheStore store, boolean cacheByDefault) {
+        if (adapter instanceof ResponseCachingExchangeAdapter) {
+            return adapter;
+        }
+        return adapter instanceof ReactorHttpExchangeAdapter reactorAdapter
+                ? new ReactorResponseCachingExchangeAdapter(reactorAdapter, store, cacheByDefault)
+                : new ResponseCachingExchangeAdapter(adapter, store, cacheByDefault);
+    }
+
+    /**
+     * Whether the client type or any of its methods is annotated with {@link ResponseCacheable}.
+     *
+     * @param clientType client type
+     * @return true if {@link ResponseCacheable} is present
+     */
+    static boolean hasCacheableMethods(Class<?> clientType) {
+        if (AnnotatedElementUtils.hasAnnotation(clientType, ResponseCacheable.class)) {
+            return true;
+        }
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(clientType)) {
+            if (AnnotatedElementUtils.hasAnnotation(method, ResponseCacheable.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean supportsRequestAttributes() {
+        return delegate.supportsRequestAttributes();
+    }
+
+    @Override
+    public void exchange(HttpRequestValues requestValues) {
+        delegate.exchange(requestValues);
+    }
+
+    @Override
+    public HttpHeaders exchangeForHeaders(HttpRequestValues requestValues) {
+        return delegate.exchangeForHeaders(requestValues);
+    }
+
+    @Nullable
+    @Override
+    public <T> T exchangeForBody(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        if (!isCacheable(requestValues)) {
+            return delegate.exchangeForBody(requestValues, bodyType);
+        }
+        return exchangeForEntity(requestValues, bodyType).getBody();
+    }
+
+    @Override
+    public ResponseEntity<Void> exchangeForBodilessEntity(HttpRequestValues requestValues) {
+        return delegate.exchangeForBodilessEntity(requestValues);
+    }
+
+    @Override
+    public <T> ResponseEntity<T> exchangeForEntity(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        if (!isCacheable(requestValues)) {
+            return delegate.exchangeForEntity(requestValues, bodyType);
+        }
+        Key key = Key.of(requestValues, bodyType);
+        CachedResponse cached = lookup(key, requestValues);
+        if (cached != null && cached.isFresh()) {
+            return cached.toEntity();
+        }
+        return onResponse(key, requestValues, cached, delegate.exchangeForEntity(requestValues, bodyType));
+    }
+
+    /**
+     * Whether the request should go through the cache.
+     */
+    boolean isCacheable(HttpRequestValues requestValues) {
+        if (requestValues.getHttpMethod() != HttpMethod.GET) {
+            return false;
+        }
+        Object cacheable = requestValues.getAttributes().get(CACHEABLE_ATTRIBUTE);
+        boolean enabled = cacheable instanceof Boolean b ? b : cacheByDefault;
+        return enabled && !CacheControl.parse(requestValues.getHeaders()).noStore();
+    }
+
+    /**
+     * Find the cached response matching the request, add {@code If-None-Match} header if it's stale.
+     *
+     * @return the matched response, or {@code null} if there is no matched response
+     */
+    @Nullable
+    CachedResponse lookup(Key key, HttpRequestValues requestValues) {
+        CachedResponse cached = store.get(key);
+        if (cached == null || !cached.matches(requestValues.getHeaders())) {
+            return null;
+        }
+        if (CacheControl.parse(requestValues.getHeaders()).noCache()) {
+            cached = cached.expire();
+        }
+        if (!cached.isFresh() && cached.etag() != null) {
+            try {
+                requestValues.getHeaders().setIfNoneMatch(cached.etag());
+            } catch (UnsupportedOperationException e) {
+                // read-only headers, can't revalidate
+                return null;
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Update the cache with the response, return the cached response if the response is {@code 304 Not Modified}.
+     */
+    <T> ResponseEntity<T> onResponse(
+            Key key, HttpRequestValues requestValues, @Nullable CachedResponse cached, ResponseEntity<T> response) {
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && cached != null) {
+            CachedResponse revalidated = cached.revalidate(response.getHeaders());
+            store.put(key, revalidated);
+            return revalidated.toEntity();
+        }
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.OK)) {
+            CachedResponse toCache = CachedResponse.of(requestValues.getHeaders(), response);
+            if (toCache != null) {
+                store.put(key, toCache);
+            } else {
+                store.remove(key);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Cache key, the {@code Vary} headers are checked by {@link CachedResponse#matches}.
+     *
+     * @param uri      expanded URI
+     * @param bodyType body type of the response
+     */
+    record Key(String uri, Type bodyType) {
+
+        static Key of(HttpRequestValues requestValues, ParameterizedTypeReference<?> bodyType) {
+            return new Key(Util.expandUri(requestValues), bodyType.getType());
+        }
+    }
+
+    /**
+     * A cached response.
+     *
+     * @param body       decoded response body, shared by the callers without copying
+     * @param headers    response headers
+     * @param varyValues request header values of the {@code Vary} headers
+     * @param etag       entity tag
+     * @param expiresAt  the response is fresh before this time (nanoTime)
+     */
+    record CachedResponse(
+            @Nullable Object body,
+            HttpHeaders headers,
+            Map<String, List<String>> varyValues,
+            @Nullable String etag,
+            long expiresAt) {
+
+        /**
+         * Create a cached response if the response is cacheable.
+         *
+         * @return the cached response, or {@code null} if the response is not cacheable
+         */
+        @Nullable
+        static CachedResponse of(HttpHeaders requestHeaders, ResponseEntity<?> response) {
+            HttpHeaders headers = response.getHeaders();
+            CacheControl cacheControl = CacheControl.parse(headers);
+            List<String> vary = headers.getVary();
+            if (cacheControl.noStore() || cacheControl.isPrivate() || vary.contains("*")) {
+                return null;
+            }
+            // the response may be specific to the credentials, RFC 9111 section 3.5
+            if (hasCredentials(requestHeaders) && !cacheControl.isPublic() && cacheControl.sMaxAge() == null) {
+                return null;
+            }
+            Duration freshness = freshness(headers, cacheControl);
+            String etag = headers.getETag();
+            if (freshness.isZero() && etag == null) {
+                return null;
+            }
+            Map<String, List<String>> varyValues = new LinkedHashMap<>();
+            for (String name : vary) {
+                varyValues.put(name.toLowerCase(Locale.ROOT), requestHeaders.get(name));
+            }
+            return new CachedResponse(
+                    response.getBody(),
+                    HttpHeaders.readOnlyHttpHeaders(headers),
+                    varyValues,
+                    etag,
+                    System.nanoTime() + freshness.toNanos());
+        }
+
+        private static boolean hasCredentials(HttpHeaders requestHeaders) {
+            return requestHeaders.containsKey(HttpHeaders.AUTHORIZATION)
+                    || requestHeaders.containsKey(HttpHeaders.COOKIE);
+        }
+
+        private static Duration freshness(HttpHeaders headers, CacheControl cacheControl) {
+            if (cacheControl.noCache()) {
+                return Duration.ZERO;
+            }
+            Duration lifetime;
+            if (cacheControl.sMaxAge() != null) {
+                lifetime = cacheControl.sMaxAge();
+            } else if (cacheControl.maxAge() != null) {
+                lifetime = cacheControl.maxAge();
+            } else if (headers.getExpires() > 0) {
+                long date = headers.getDate() > 0 ? headers.getDate() : System.currentTimeMillis();
+                lifetime = Duration.ofMillis(headers.getExpires() - date);
+            } else {
+                lifetime = Duration.ZERO;
+            }
+            String age = headers.getFirst(HttpHeaders.AGE);
+            if (age != null) {
+                try {
+                    lifetime = lifetime.minusSeconds(Long.parseLong(age.trim()));
+                } catch (NumberFormatException ignored) {
+                    // ignore invalid Age header
+                }
+            }
+            return lifetime.isNegative() ? Duration.ZERO : lifetime;
+        }
+
+        boolean matches(HttpHeaders requestHeaders) {
+            for (Map.Entry<String, List<String>> entry : varyValues.entrySet()) {
+                if (!Objects.equals(entry.getValue(), requestHeaders.get(entry.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean isFresh() {
+            return System.nanoTime() - expiresAt < 0;
+        }
+
+        CachedResponse expire() {
+            return new CachedResponse(body, headers, varyValues, etag, System.nanoTime());
+        }
+
+        /**
+         * Update the freshness with the headers of {@code 304 Not Modified} response.
+         */
+        CachedResponse revalidate(HttpHeaders notModifiedHeaders) {
+            HttpHeaders merged = new HttpHeaders();
+            merged.putAll(headers);
+            notModifiedHeaders.forEach((name, values) -> {
+                if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                    merged.put(name, values);
+                }
+            });
+            Duration freshness = freshness(merged, CacheControl.parse(merged));
+            return new CachedResponse(
+                    body,
+                    HttpHeaders.readOnlyHttpHeaders(merged),
+                    varyValues,
+                    Objects.requireNonNullElse(merged.getETag(), etag),
+                    System.nanoTime() + freshness.toNanos());
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> ResponseEntity<T> toEntity() {
+            return ResponseEntity.ok().headers(headers).body((T) body);
+        }
+    }
+
+    /**
+     * Directives of {@code Cache-Control} header used by the cache.
+     */
+    record CacheControl(
+            boolean noStore,
+            boolean noCache,
+            boolean isPrivate,
+            boolean isPublic,
+            @Nullable Duration maxAge,
+            @Nullable Duration sMaxAge) {
+
+        static CacheControl parse(HttpHeaders headers) {
+            boolean noStore = false;
+            boolean noCache = false;
+            boolean isPrivate = false;
+            boolean isPublic = false;
+            Duration maxAge = null;
+            Duration sMaxAge = null;
+            for (String value : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+                for (String directive : StringUtils.tokenizeToStringArray(value, ",")) {
+                    String d = directive.toLowerCase(Locale.ROOT);
+                    if (d.equals("no-store")) {
+                        noStore = true;
+                    } else if (d.equals("no-cache")) {
+                        noCache = true;
+                    } else if (d.equals("private") || d.startsWith("private=")) {
+                        isPrivate = true;
+                    } else if (d.equals("public")) {
+                        isPublic = true;
+                    } else if (d.startsWith("max-age=")) {
+                        maxAge = seconds(d.substring("max-age=".length()), maxAge);
+                    } else if (d.startsWith("s-maxage=")) {
+                        sMaxAge = seconds(d.substring("s-maxage=".length()), sMaxAge);
+                    }
+                }
+            }
+            return new CacheControl(noStore, noCache, isPrivate, isPublic, maxAge, sMaxAge);
+        }
+
+        @Nullable
+        private static Duration seconds(String value, @Nullable Duration defaultValue) {
+            try {
+                return Duration.ofSeconds(Long.parseLong(value));
+            } catch (NumberFormatException ignored) {
+                // ignore invalid value
+                return defaultValue;
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.danielliu1123.httpexchange;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that caps retries at a ratio of the requests.
+ *
+ * <p> Each request deposits {@code ratio} tokens, each retry withdraws one token.
+ * The bucket starts full, so a burst of at most {@code maxTokens} retries is allowed.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+final class RetryBudget {
+
+    /**
+     * Tokens are stored as fixed-point numbers to support fractional ratios.
+     */
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong tokens;
+
+    RetryBudget(double ratio, int maxTokens) {
+        this.deposit = (long) (Math.max(ratio, 0) * SCALE);
+        this.capacity = Math.max(maxTokens, 0) * SCALE;
+        this.tokens = new AtomicLong(capacity);
+    }
+
+    /**
+     * Called for each request (not retry).
+     */
+    void onRequest() {
+        if (tokens.get() >= capacity) {
+            return;
+        }
+        tokens.getAndUpdate(t -> Math.min(t + deposit, capacity));
+    }
+
+    /**
+     * Try to withdraw a token for a retry.
+     *
+     * @return true if the retry is allowed
+     */
+    boolean tryRetry() {
+        while (true) {
+            long t = tokens.get();
+            if (t < SCALE) {
+                return false;
+            }
+            if (tokens.compareAndSet(t, t - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return available tokens
+     */
+    double available() {
+        return (double) tokens.get() / SCALE;
+    }
+}
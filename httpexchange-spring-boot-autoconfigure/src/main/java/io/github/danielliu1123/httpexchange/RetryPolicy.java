@@ -0,0 +1,228 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Immutable snapshot of {@link HttpExchangeProperties.Retry} with defaults applied.
+ *
+ * @param enabled            whether to retry
+ * @param maxAttempts        max number of attempts, including the first one
+ * @param initialBackoff     backoff before the first retry
+ * @param maxBackoff         max backoff
+ * @param multiplier         multiplier of the backoff
+ * @param jitter             random factor of the backoff
+ * @param statuses           retryable statuses
+ * @param exceptions         additional retryable exceptions
+ * @param retryNonIdempotent whether to retry non-idempotent requests
+ * @param respectRetryAfter  whether to wait for the {@code Retry-After} header
+ * @param budgetRatio        tokens added to the retry budget by each request
+ * @param budgetMaxTokens    capacity of the retry budget
+ * @author Freeman
+ * @since 3.2.1
+ */
+record RetryPolicy(
+        boolean enabled,
+        int maxAttempts,
+        Duration initialBackoff,
+        Duration maxBackoff,
+        double multiplier,
+        double jitter,
+        Set<Integer> statuses,
+        List<Class<? extends Throwable>> exceptions,
+        boolean retryNonIdempotent,
+        boolean respectRetryAfter,
+        double budgetRatio,
+        int budgetMaxTokens) {
+
+    static final int DEFAULT_MAX_ATTEMPTS = 3;
+    static final int DEFAULT_INITIAL_BACKOFF = 100;
+    static final int DEFAULT_MAX_BACKOFF = 5000;
+    static final double DEFAULT_MULTIPLIER = 2.0;
+    static final double DEFAULT_JITTER = 0.5;
+    static final List<Integer> DEFAULT_STATUSES = List.of(429, 502, 503, 504);
+    static final double DEFAULT_BUDGET_RATIO = 0.1;
+    static final int DEFAULT_BUDGET_MAX_TOKENS = 10;
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = Set.of(
+            HttpMethod.GET,
+            HttpMethod.HEAD,
+            HttpMethod.OPTIONS,
+            HttpMethod.PUT,
+            HttpMethod.DELETE,
+            HttpMethod.TRACE);
+
+    private static final boolean WEBFLUX_PRESENT =
+            ClassUtils.isPresent("org.springframework.web.reactive.function.client.WebClient", null);
+
+    static RetryPolicy of(@Nullable HttpExchangeProperties.Retry retry) {
+        HttpExchangeProperties.Retry r = Optional.ofNullable(retry).orElseGet(HttpExchangeProperties.Retry::new);
+        return new RetryPolicy(
+                Boolean.TRUE.equals(r.getEnabled()),
+                Optional.ofNullable(r.getMaxAttempts()).orElse(DEFAULT_MAX_ATTEMPTS),
+                Duration.ofMillis(Optional.ofNullable(r.getInitialBackoff()).orElse(DEFAULT_INITIAL_BACKOFF)),
+                Duration.ofMillis(Optional.ofNullable(r.getMaxBackoff()).orElse(DEFAULT_MAX_BACKOFF)),
+                Optional.ofNullable(r.getMultiplier()).orElse(DEFAULT_MULTIPLIER),
+                Math.min(Math.max(Optional.ofNullable(r.getJitter()).orElse(DEFAULT_JITTER), 0), 1),
+                Set.copyOf(Optional.ofNullable(r.getStatuses()).orElse(DEFAULT_STATUSES)),
+                List.copyOf(Optional.ofNullable(r.getExceptions()).orElseGet(List::of)),
+                Boolean.TRUE.equals(r.getRetryNonIdempotent()),
+                !Boolean.FALSE.equals(r.getRespectRetryAfter()),
+                Optional.ofNullable(r.getBudgetRatio()).orElse(DEFAULT_BUDGET_RATIO),
+                Optional.ofNullable(r.getBudgetMaxTokens()).orElse(DEFAULT_BUDGET_MAX_TOKENS));
+    }
+
+    /**
+     * Apply the {@link Retryable} of the invoked method.
+     *
+     * @param retryable {@link Retryable} of the method, or {@code null} if absent
+     * @return the policy for the method
+     */
+    RetryPolicy forMethod(@Nullable Retryable retryable) {
+        if (retryable == null) {
+            return this;
+        }
+        return new RetryPolicy(
+                true,
+                retryable.maxAttempts() > 0 ? retryable.maxAttempts() : maxAttempts,
+                initialBackoff,
+                maxBackoff,
+                multiplier,
+                jitter,
+                statuses,
+                exceptions,
+                retryNonIdempotent || retryable.retryNonIdempotent(),
+                respectRetryAfter,
+                budgetRatio,
+                budgetMaxTokens);
+    }
+
+    /**
+     * Whether the request may be retried at all.
+     */
+    boolean isRetryable(@Nullable HttpMethod method) {
+        return enabled
+                && maxAttempts > 1
+                && (retryNonIdempotent || (method != null && IDEMPOTENT_METHODS.contains(method)));
+    }
+
+    /**
+     * Compute the backoff before the next attempt.
+     *
+     * @param attempts number of attempts made
+     * @param error    error of the last attempt
+     * @return the backoff, or {@code null} if the request should not be retried
+     */
+    @Nullable
+    Duration backoff(int attempts, Throwable error) {
+        if (attempts >= maxAttempts || !isRetryableError(error)) {
+            return null;
+        }
+        double exponential = initialBackoff.toMillis() * Math.pow(multiplier, attempts - 1);
+        double capped = Math.min(exponential, maxBackoff.toMillis());
+        double jittered = capped * (1 - jitter * ThreadLocalRandom.current().nextDouble());
+        Duration backoff = Duration.ofMillis((long) jittered);
+
+        if (respectRetryAfter) {
+            Duration retryAfter = retryAfter(error);
+            if (retryAfter != null) {
+                if (retryAfter.compareTo(maxBackoff) > 0) {
+                    return null;
+                }
+                if (retryAfter.compareTo(backoff) > 0) {
+                    return retryAfter;
+                }
+            }
+        }
+        return backoff;
+    }
+
+    private boolean isRetryableError(Throwable error) {
+        Integer status = Errors.status(error);
+        if (status != null) {
+            return statuses.contains(status);
+        }
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (Errors.isIoError(e)) {
+                return true;
+            }
+            for (Class<? extends Throwable> type : exceptions) {
+                if (type.isInstance(e)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the {@code Retry-After} of the error response.
+     *
+     * @return the duration to wait, or {@code null} if absent
+     */
+    @Nullable
+    static Duration retryAfter(Throwable error) {
+        HttpHeaders headers = Errors.headers(error);
+        String value = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            // HTTP-date
+        }
+        try {
+            long date = headers.getFirstDate(HttpHeaders.RETRY_AFTER);
+            return Duration.ofMillis(Math.max(date - System.currentTimeMillis(), 0));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Extract the response of the errors thrown by the clients.
+     */
+    static final class Errors {
+
+        @Nullable
+        static Integer status(Throwable error) {
+            if (error instanceof RestClientResponseException e) {
+                return e.getStatusCode().value();
+            }
+            if (WEBFLUX_PRESENT && error instanceof WebClientResponseException e) {
+                return e.getStatusCode().value();
+            }
+            return null;
+        }
+
+        @Nullable
+        static HttpHeaders headers(Throwable error) {
+            if (error instanceof RestClientResponseException e) {
+                return e.getResponseHeaders();
+            }
+            if (WEBFLUX_PRESENT && error instanceof WebClientResponseException e) {
+                return e.getHeaders();
+            }
+            return null;
+        }
+
+        static boolean isIoError(Throwable error) {
+            return error instanceof IOException
+                    || error instanceof ResourceAccessException
+                    || (WEBFLUX_PRESENT && error instanceof WebClientRequestException);
+        }
+    }
+}
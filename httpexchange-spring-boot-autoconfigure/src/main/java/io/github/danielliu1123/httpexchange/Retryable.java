@@ -0,0 +1,45 @@
+package io.github.danielliu1123.httpexchange;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enable/customize retries for specific clients or methods, overrides {@code http-exchange.retry.*}.
+ *
+ * <p> Example:
+ * <pre>{@code
+ * @HttpExchange("/orders")
+ * interface OrderApi {
+ *     @PostExchange
+ *     @Retryable(maxAttempts = 3, retryNonIdempotent = true)
+ *     Order create(@RequestHeader("Idempotency-Key") String key, @RequestBody Order order);
+ *
+ *     @DeleteExchange("/{id}")
+ *     @Retryable(maxAttempts = 1) // never retry
+ *     void delete(@PathVariable String id);
+ * }
+ * }</pre>
+ *
+ * <p> Other settings (backoff, retryable statuses, retry budget) come from the channel, see {@link HttpExchangeProperties.Retry}.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Retryable {
+    /**
+     * Max number of attempts including the first one, {@code 1} disables retries,
+     * non-positive values use the channel configuration.
+     */
+    int maxAttempts() default 0;
+
+    /**
+     * Whether to retry non-idempotent requests (e.g. {@code POST}), e.g. when the server supports idempotency keys.
+     */
+    boolean retryNonIdempotent() default false;
+}
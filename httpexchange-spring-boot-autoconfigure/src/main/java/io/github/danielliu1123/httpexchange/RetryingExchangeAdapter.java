@@ -0,0 +1,185 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+
+/**
+ * {@link HttpExchangeAdapter} decorator that retries failed requests according to the {@link RetryPolicy}.
+ *
+ * <p> If retry is disabled for the channel, only the requests of {@link Retryable} methods are retried,
+ * so the clients of the channel share the layers above, e.g. request coalescing and the response cache.
+ *
+ * @author Freeman
+ * @see HttpExchangeProperties.Retry
+ * @since 3.2.1
+ */
+class RetryingExchangeAdapter implements HttpExchangeAdapter {
+    private static final Logger log = LoggerFactory.getLogger(RetryingExchangeAdapter.class);
+
+    /**
+     * Request attribute holds the {@link Retryable} of the invoked method.
+     */
+    static final String RETRYABLE_ATTRIBUTE = Retryable.class.getName();
+
+    private final HttpExchangeAdapter delegate;
+    private final RetryPolicy policy;
+    private final RetryBudget budget;
+
+    RetryingExchangeAdapter(HttpExchangeAdapter delegate, RetryPolicy policy) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.budget = new RetryBudget(policy.budgetRatio(), policy.budgetMaxTokens());
+    }
+
+    /**
+     * Decorate the adapter, the reactive adapter is decorated by {@link ReactorRetryingExchangeAdapter}.
+     *
+     * @param adapter adapter to decorate
+     * @param policy  retry policy of the channel
+     * @return the decorated adapter, or the given adapter if it's already decorated
+     */
+    static HttpExchangeAdapter wrap(HttpExchangeAdapter adapter, RetryPolicy policy) {
+        if (adapter instanceof RetryingExchangeAdapter) {
+            return adapter;
+        }
+        return adapter instanceof ReactorHttpExchangeAdapter reactorAdapter
+                ? new ReactorRetryingExchangeAdapter(reactorAdapter, policy)
+                : new RetryingExchangeAdapter(adapter, policy);
+    }
+
+    /**
+     * Whether the client type or any of its methods is annotated with {@link Retryable}.
+     *
+     * @param clientType client type
+     * @return true if {@link Retryable} is present
+     */
+    static boolean hasRetryableMethods(Class<?> clientType) {
+        if (AnnotatedElementUtils.hasAnnotation(clientType, Retryable.class)) {
+            return true;
+        }
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(clientType)) {
+            if (AnnotatedElementUtils.hasAnnotation(method, Retryable.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean supportsRequestAttributes() {
+        return delegate.supportsRequestAttributes();
+    }
+
+    @Override
+    public void exchange(HttpRequestValues requestValues) {
+        retry(requestValues, () -> {
+            delegate.exchange(requestValues);
+            return null;
+        });
+    }
+
+    @Override
+    public HttpHeaders exchangeForHeaders(HttpRequestValues requestValues) {
+        return retry(requestValues, () -> delegate.exchangeForHeaders(requestValues));
+    }
+
+    @Nullable
+    @Override
+    public <T> T exchangeForBody(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return retry(requestValues, () -> delegate.exchangeForBody(requestValues, bodyType));
+    }
+
+    @Override
+    public ResponseEntity<Void> exchangeForBodilessEntity(HttpRequestValues requestValues) {
+        return retry(requestValues, () -> delegate.exchangeForBodilessEntity(requestValues));
+    }
+
+    @Override
+    public <T> ResponseEntity<T> exchangeForEntity(
+            HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+        return retry(requestValues, () -> delegate.exchangeForEntity(requestValues, bodyType));
+    }
+
+    private <T> T retry(HttpRequestValues requestValues, Supplier<T> call) {
+        RetryPolicy p = policyOf(requestValues);
+        if (!p.enabled()) {
+            // retry is disabled for the channel and the method is not @Retryable
+            return call.get();
+        }
+        budget.onRequest();
+        if (!p.isRetryable(requestValues.getHttpMethod())) {
+            return call.get();
+        }
+        for (int attempts = 1; ; attempts++) {
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                Duration backoff = nextBackoff(p, requestValues, attempts, e);
+                if (backoff == null) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(backoff.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the policy for the request.
+     */
+    RetryPolicy policyOf(HttpRequestValues requestValues) {
+        Object retryable = requestValues.getAttributes().get(RETRYABLE_ATTRIBUTE);
+        return policy.forMethod(retryable instanceof Retryable r ? r : null);
+    }
+
+    /**
+     * Get the backoff before the next attempt, and take a token from the retry budget.
+     *
+     * @return the backoff, or {@code null} if the request should not be retried
+     */
+    @Nullable
+    Duration nextBackoff(RetryPolicy p, HttpRequestValues requestValues, int attempts, Throwable error) {
+        Duration backoff = p.backoff(attempts, error);
+        if (backoff == null) {
+            return null;
+        }
+        if (!budget.tryRetry()) {
+            log.debug(
+                    "Retry budget exhausted, not retrying {} {}",
+                    requestValues.getHttpMethod(),
+                    Util.expandUri(requestValues));
+            return null;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(
+                    "Retrying {} {} in {}ms (attempt {}/{}): {}",
+                    requestValues.getHttpMethod(),
+                    Util.expandUri(requestValues),
+                    backoff.toMillis(),
+                    attempts + 1,
+                    p.maxAttempts(),
+                    error.toString());
+        }
+        return backoff;
+    }
+
+    RetryBudget getBudget() {
+        return budget;
+    }
+}
@@ -0,0 +1,208 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.http.HttpClient;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import lombok.experimental.UtilityClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Shares the {@link ClientHttpRequestFactory} (and its connection pool, threads) between channels
+ * with the same host and {@link TransportSettings}.
+ *
+ * <p> A transport is reference-counted by its owners (the {@link Cache.Entry cache entries} using it),
+ * it is closed when the last owner releases it.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+@UtilityClass
+class TransportRegistry {
+    private static final Logger log = LoggerFactory.getLogger(TransportRegistry.class);
+
+    private static final Object lock = new Object();
+
+    /**
+     * Guarded by {@link #lock}.
+     */
+    private static final Map<Key, Transport> transports = new HashMap<>();
+
+    /**
+     * Guarded by {@link #lock}.
+     */
+    private static final Map<Object, Transport> ownerToTransport = new IdentityHashMap<>();
+
+    /**
+     * Get the transport for the given host and settings, create one if absent, and retain it for the owner.
+     *
+     * <p> The request factory is created outside the lock, a transport losing the creation race is closed.
+     *
+     * @param host     host of the channel, may be a service id if loadbalancer is enabled
+     * @param settings transport settings
+     * @param factory  request factory supplier
+     * @param owner    owner using the transport
+     * @return the transport retained by the owner
+     */
+    static Transport acquire(
+            @Nullable String host,
+            TransportSettings settings,
+            Supplier<ClientHttpRequestFactory> factory,
+            Object owner) {
+        Key key = new Key(host, settings);
+        synchronized (lock) {
+            Transport existing = retainExisting(key, owner);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        Transport created = new Transport(key, factory.get());
+        Transport existing;
+        synchronized (lock) {
+            existing = retainExisting(key, owner);
+            if (existing == null) {
+                transports.put(key, created);
+                retain(created, owner);
+                return created;
+            }
+        }
+        created.close();
+        return existing;
+    }
+
+    /**
+     * Guarded by {@link #lock}.
+     *
+     * @return the transport already retained by the owner or shared for the key, or {@code null} if absent
+     */
+    @Nullable
+    private static Transport retainExisting(Key key, Object owner) {
+        Transport transport = ownerToTransport.get(owner);
+        if (transport == null) {
+            transport = transports.get(key);
+        }
+        if (transport != null) {
+            retain(transport, owner);
+        }
+        return transport;
+    }
+
+    /**
+     * Guarded by {@link #lock}, transports in {@link #transports} are never closed.
+     */
+    private static void retain(Transport transport, Object owner) {
+        if (ownerToTransport.putIfAbsent(owner, transport) == null) {
+            transport.refCount++;
+        }
+    }
+
+    /**
+     * Whether the owner retains a transport.
+     *
+     * @param owner owner
+     * @return true if the owner retains a transport
+     */
+    static boolean isRetained(Object owner) {
+        synchronized (lock) {
+            return ownerToTransport.containsKey(owner);
+        }
+    }
+
+    /**
+     * Release the transport retained by the owner, close the transport if it's the last owner.
+     *
+     * @param owner owner
+     */
+    static void release(Object owner) {
+        Transport toClose = null;
+        synchronized (lock) {
+            Transport transport = ownerToTransport.remove(owner);
+            if (transport != null && --transport.refCount == 0) {
+                transports.remove(transport.key);
+                transport.closed = true;
+                toClose = transport;
+            }
+        }
+        if (toClose != null) {
+            toClose.close();
+        }
+    }
+
+    /**
+     * @return number of open transports
+     */
+    static int size() {
+        synchronized (lock) {
+            return transports.size();
+        }
+    }
+
+    private record Key(@Nullable String host, TransportSettings settings) {}
+
+    /**
+     * A shared {@link ClientHttpRequestFactory}.
+     */
+    static final class Transport {
+        private final Key key;
+        private final ClientHttpRequestFactory requestFactory;
+        private int refCount;
+        private boolean closed;
+
+        private Transport(Key key, ClientHttpRequestFactory requestFactory) {
+            this.key = key;
+            this.requestFactory = requestFactory;
+        }
+
+        ClientHttpRequestFactory getRequestFactory() {
+            return requestFactory;
+        }
+
+        int getRefCount() {
+            synchronized (lock) {
+                return refCount;
+            }
+        }
+
+        boolean isClosed() {
+            synchronized (lock) {
+                return closed;
+            }
+        }
+
+        private void close() {
+            try {
+                closeRequestFactory(requestFactory);
+            } catch (Exception e) {
+                log.warn("Failed to close request factory {}", requestFactory, e);
+            }
+        }
+    }
+
+    private static void closeRequestFactory(ClientHttpRequestFactory requestFactory) throws Exception {
+        if (requestFactory instanceof DisposableBean disposable) {
+            disposable.destroy();
+        } else if (requestFactory instanceof AutoCloseable closeable) {
+            closeable.close();
+        } else if (requestFactory instanceof JdkClientHttpRequestFactory) {
+            // java.net.http.HttpClient can be shut down since Java 21,
+            // not close() it, which waits for the in-flight requests and may block a refresh
+            Field field = ReflectionUtils.findField(JdkClientHttpRequestFactory.class, "httpClient");
+            Method shutdown = ReflectionUtils.findMethod(HttpClient.class, "shutdown");
+            if (field != null && shutdown != null) {
+                ReflectionUtils.makeAccessible(field);
+                if (ReflectionUtils.getField(field, requestFactory) instanceof HttpClient httpClient) {
+                    ReflectionUtils.invokeMethod(shutdown, httpClient);
+                }
+            }
+        }
+    }
+}
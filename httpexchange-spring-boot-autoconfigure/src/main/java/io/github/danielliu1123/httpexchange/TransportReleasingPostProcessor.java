@@ -0,0 +1,30 @@
+package io.github.danielliu1123.httpexchange;
+
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+
+/**
+ * Release the cache entry retained by the client when the client bean is destroyed,
+ * the transport of an evicted entry is closed when the last client using it is destroyed.
+ *
+ * @author Freeman
+ * @see Cache
+ * @see TransportRegistry
+ * @since 3.2.1
+ */
+class TransportReleasingPostProcessor implements DestructionAwareBeanPostProcessor {
+
+    @Override
+    public boolean requiresDestruction(Object bean) {
+        return Cache.isRetained(bean) || RefreshableClient.of(bean) != null;
+    }
+
+    @Override
+    public void postProcessBeforeDestruction(Object bean, String beanName) {
+        RefreshableClient refreshableClient = RefreshableClient.of(bean);
+        if (refreshableClient != null) {
+            refreshableClient.close();
+        } else {
+            Cache.release(bean);
+        }
+    }
+}
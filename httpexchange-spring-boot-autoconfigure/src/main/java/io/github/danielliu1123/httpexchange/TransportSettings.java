@@ -0,0 +1,85 @@
+package io.github.danielliu1123.httpexchange;
+
+import jakarta.annotation.Nullable;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import org.springframework.boot.ssl.SslBundle;
+import org.springframework.boot.web.client.ClientHttpRequestFactorySettings;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+/**
+ * Immutable settings to create a {@link ClientHttpRequestFactory}.
+ *
+ * @param factoryType             type of the {@link ClientHttpRequestFactory}
+ * @param connectTimeout          connect timeout
+ * @param readTimeout             read timeout
+ * @param sslBundle               SSL bundle
+ * @param executor                executor of the underlying http client, {@code null} means the default
+ * @param httpVersion             HTTP protocol version, {@code null} means the default
+ * @param maxConnections          max number of connections in total
+ * @param maxConnectionsPerRoute  max number of connections per route
+ * @param idleTimeout             idle timeout of connections
+ * @param evictionInterval        interval of evicting idle and expired connections
+ * @param validateAfterInactivity validate connections idle longer than this duration before being leased
+ * @author Freeman
+ * @since 3.2.1
+ */
+record TransportSettings(
+        Class<? extends ClientHttpRequestFactory> factoryType,
+        @Nullable Duration connectTimeout,
+        @Nullable Duration readTimeout,
+        @Nullable SslBundle sslBundle,
+        @Nullable Executor executor,
+        @Nullable HttpExchangeProperties.HttpVersion httpVersion,
+        @Nullable Integer maxConnections,
+        @Nullable Integer maxConnectionsPerRoute,
+        @Nullable Duration idleTimeout,
+        @Nullable Duration evictionInterval,
+        @Nullable Duration validateAfterInactivity) {
+
+    static TransportSettings of(
+            Class<? extends ClientHttpRequestFactory> factoryType,
+            HttpExchangeProperties.Channel channel,
+            @Nullable SslBundle sslBundle,
+            @Nullable Executor executor) {
+        HttpExchangeProperties.ConnectionPool pool =
+                Optional.ofNullable(channel.getConnectionPool()).orElseGet(HttpExchangeProperties.ConnectionPool::new);
+        return new TransportSettings(
+                factoryType,
+                millis(channel.getConnectTimeout()),
+                millis(channel.getReadTimeout()),
+                sslBundle,
+                executor,
+                channel.getHttpVersion(),
+                pool.getMaxConnections(),
+                pool.getMaxConnectionsPerRoute(),
+                millis(pool.getIdleTimeout()),
+                millis(pool.getEvictionInterval()),
+                millis(pool.getValidateAfterInactivity()));
+    }
+
+    /**
+     * Whether the settings can be fully applied by {@link org.springframework.boot.web.client.ClientHttpRequestFactories}.
+     *
+     * @return true if there is no executor, http version and connection pool settings
+     */
+    boolean isSimple() {
+        return executor == null
+                && httpVersion == null
+                && maxConnections == null
+                && maxConnectionsPerRoute == null
+                && idleTimeout == null
+                && evictionInterval == null
+                && validateAfterInactivity == null;
+    }
+
+    ClientHttpRequestFactorySettings toClientHttpRequestFactorySettings() {
+        return new ClientHttpRequestFactorySettings(connectTimeout, readTimeout, sslBundle);
+    }
+
+    @Nullable
+    private static Duration millis(@Nullable Integer millis) {
+        return millis != null ? Duration.ofMillis(millis) : null;
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.danielliu1123.httpexchange;
 
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -7,6 +8,10 @@ import lombok.experimental.UtilityClass;
 import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.core.env.Environment;
 import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.util.UriBuilderFactory;
+import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * @author Freeman
@@ -60,4 +65,35 @@ class Util {
         properties.afterPropertiesSet();
         return properties;
     }
+
+    /**
+     * Get the name of the channel used by metrics and endpoints, the channel name, or the base URL if absent.
+     *
+     * @param channel channel config
+     * @return channel name, {@code default} if neither is set
+     */
+    public static String channelName(HttpExchangeProperties.Channel channel) {
+        String name = StringUtils.hasText(channel.getName()) ? channel.getName() : channel.getBaseUrl();
+        return StringUtils.hasText(name) ? name : "default";
+    }
+
+    /**
+     * Expand the URI of the request, the base URL of the underlying client is not included.
+     *
+     * @param requestValues {@link HttpRequestValues}
+     * @return expanded URI
+     */
+    public static String expandUri(HttpRequestValues requestValues) {
+        if (requestValues.getUri() != null) {
+            return requestValues.getUri().toString();
+        }
+        String template = Objects.requireNonNullElse(requestValues.getUriTemplate(), "");
+        UriBuilderFactory uriBuilderFactory = requestValues.getUriBuilderFactory();
+        if (uriBuilderFactory != null) {
+            return uriBuilderFactory.expand(template, requestValues.getUriVariables()).toString();
+        }
+        return UriComponentsBuilder.fromUriString(template)
+                .buildAndExpand(requestValues.getUriVariables())
+                .toUriString();
+    }
 }
@@ -0,0 +1,152 @@
+package io.github.danielliu1123.httpexchange.shaded;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.util.Assert;
+
+/**
+ * Executes blocking requests for the HTTP service methods returning
+ * {@link CompletableFuture}, {@link java.util.concurrent.CompletionStage} or {@link java.util.concurrent.Future}.
+ *
+ * <p> At most {@code maxInFlight} requests are running at the same time, the others are queued
+ * and started when a running request completes, the caller is never blocked.
+ *
+ * <p> Cancelling the returned future removes a queued request, or interrupts the thread running the request,
+ * which aborts the underlying HTTP request for interruptible clients (e.g. {@link java.net.http.HttpClient}).
+ * Cancellation is not propagated from dependent stages, e.g. {@code future.thenApply(...)}.
+ *
+ * @author Freeman
+ * @since 3.2.1
+ */
+public final class AsyncRequestExecutor {
+
+    private final Executor executor;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<RequestTask<?>> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param executor    executor to run the blocking requests
+     * @param maxInFlight max number of requests running at the same time
+     */
+    public AsyncRequestExecutor(Executor executor, int maxInFlight) {
+        Assert.notNull(executor, "executor must not be null");
+        Assert.isTrue(maxInFlight > 0, "maxInFlight must be positive");
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Submit a blocking request.
+     *
+     * @param request the blocking request
+     * @param <T>     response type
+     * @return the future of the response
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> request) {
+        RequestTask<T> task = new RequestTask<>(request);
+        pending.add(task);
+        drain();
+        return task;
+    }
+
+    /**
+     * @return number of requests running
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return number of requests waiting for a free slot
+     */
+    public int getPending() {
+        return pending.size();
+    }
+
+    private void drain() {
+        while (!pending.isEmpty()) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                // The request completing next will drain the queue
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            RequestTask<?> task = pending.poll();
+            if (task == null || task.isDone()) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                inFlight.decrementAndGet();
+                task.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    private final class RequestTask<T> extends CompletableFuture<T> implements Runnable {
+
+        private final Supplier<T> request;
+        private Thread runner;
+        private boolean interrupted;
+
+        private RequestTask(Supplier<T> request) {
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            try {
+                synchronized (this) {
+                    if (isDone()) {
+                        return;
+                    }
+                    runner = Thread.currentThread();
+                }
+                complete(request.get());
+            } catch (Throwable e) {
+                completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                    if (interrupted) {
+                        // Don't leak the interrupt to the next task running on this thread
+                        Thread.interrupted();
+                    }
+                }
+                release();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                if (pending.remove(this)) {
+                    return true;
+                }
+                synchronized (this) {
+                    if (runner != null) {
+                        interrupted = true;
+                        runner.interrupt();
+                    }
+                }
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package io.github.danielliu1123.httpexchange.shaded;
+
+import jakarta.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.experimental.UtilityClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.core.KotlinDetector;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.service.annotation.HttpExchange;
+
+/**
+ * Generates a hidden class per HTTP service interface, each abstract method and each default method
+ * annotated with an exchange annotation dispatches straight to its {@link ShadedHttpServiceMethod},
+ * the same as the JDK dynamic proxy.
+ *
+ * <p> Compared to the JDK dynamic proxy, there is no {@link java.lang.reflect.InvocationHandler},
+ * no method lookup and no {@code MethodInvocation} per call, and default methods without an exchange annotation
+ * are not overridden, so they are invoked directly by the JVM.
+ *
+ * <p> Interfaces that cannot be implemented by a hidden class in this package (non-public, sealed,
+ * not visible from this class loader, Kotlin suspending functions, abstract methods that are not HTTP service methods)
+ * are not supported, {@link #createProxy} returns {@code null} for them.
+ * Hidden classes can't be defined in a native image, {@link #createProxy} always returns {@code null} there.
+ *
+ * @author Freeman
+ */
+@UtilityClass
+class HiddenClassProxyGenerator {
+    private static final Logger log = LoggerFactory.getLogger(HiddenClassProxyGenerator.class);
+
+    private static final String PROXY_INTERNAL_NAME =
+            ClassUtils.convertClassNameToResourcePath(HiddenClassProxyGenerator.class.getPackageName())
+                    + "/ShadedHttpServiceProxy";
+    private static final String METHOD_INTERNAL_NAME = Type.getInternalName(ShadedHttpServiceMethod.class);
+    private static final String METHODS_FIELD = "methods";
+    private static final String METHODS_DESCRIPTOR = Type.getDescriptor(ShadedHttpServiceMethod[].class);
+    private static final String INVOKE_DESCRIPTOR = "([Ljava/lang/Object;)Ljava/lang/Object;";
+
+    private static final ClassValue<Optional<ProxyClass>> proxyClasses = new ClassValue<>() {
+        @Override
+        protected Optional<ProxyClass> computeValue(Class<?> type) {
+            return defineProxyClass(type);
+        }
+    };
+
+    /**
+     * Create a hidden class based proxy for the given HTTP service interface.
+     *
+     * @param serviceType        the HTTP service interface
+     * @param httpServiceMethods HTTP service methods of the interface
+     * @param <S>                the HTTP service type
+     * @return the proxy, or {@code null} if the interface is not supported
+     */
+    @Nullable
+    static <S> S createProxy(Class<S> serviceType, Map<Method, ShadedHttpServiceMethod> httpServiceMethods) {
+        ProxyClass proxyClass = proxyClasses.get(serviceType).orElse(null);
+        if (proxyClass == null) {
+            return null;
+        }
+        ShadedHttpServiceMethod[] methods = new ShadedHttpServiceMethod[proxyClass.methods().length];
+        for (int i = 0; i < methods.length; i++) {
+            methods[i] = httpServiceMethods.get(proxyClass.methods()[i]);
+            if (methods[i] == null) {
+                log.debug(
+                        "Method '{}' is not a HTTP service method, fall back to JDK dynamic proxy",
+                        proxyClass.methods()[i]);
+                return null;
+            }
+        }
+        try {
+            return serviceType.cast(proxyClass.constructor().invoke(methods));
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to instantiate hidden class proxy for " + serviceType, e);
+        }
+    }
+
+    private static Optional<ProxyClass> defineProxyClass(Class<?> serviceType) {
+        if (NativeDetector.inNativeImage() || !isSupported(serviceType)) {
+            return Optional.empty();
+        }
+
+        List<Method> methods = new ArrayList<>();
+        Set<String> signatures = new HashSet<>();
+        for (Method method : serviceType.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())
+                    || (!Modifier.isAbstract(method.getModifiers()) && !isExchangeMethod(method))) {
+                continue;
+            }
+            if (!signatures.add(method.getName() + Type.getMethodDescriptor(method))
+                    || KotlinDetector.isSuspendingFunction(method)
+                    || !isVisible(method)) {
+                log.debug("Method '{}' is not supported by hidden class proxy", method);
+                return Optional.empty();
+            }
+            methods.add(method);
+        }
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(generate(serviceType, methods), true);
+            MethodHandle constructor = lookup.findConstructor(
+                    lookup.lookupClass(), MethodType.methodType(void.class, ShadedHttpServiceMethod[].class));
+            return Optional.of(new ProxyClass(constructor, methods.toArray(Method[]::new)));
+        } catch (IllegalAccessException | NoSuchMethodException | LinkageError e) {
+            log.warn("Failed to define hidden class proxy for '{}', fall back to JDK dynamic proxy", serviceType, e);
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isSupported(Class<?> serviceType) {
+        return serviceType.isInterface()
+                && Modifier.isPublic(serviceType.getModifiers())
+                && !serviceType.isSealed()
+                && !serviceType.isHidden()
+                && ClassUtils.isVisible(serviceType, HiddenClassProxyGenerator.class.getClassLoader());
+    }
+
+    private static boolean isExchangeMethod(Method method) {
+        return AnnotatedElementUtils.hasAnnotation(method, HttpExchange.class)
+                || AnnotatedElementUtils.hasAnnotation(method, RequestMapping.class);
+    }
+
+    private static boolean isVisible(Method method) {
+        ClassLoader classLoader = HiddenClassProxyGenerator.class.getClassLoader();
+        if (!ClassUtils.isVisible(method.getReturnType(), classLoader)) {
+            return false;
+        }
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!ClassUtils.isVisible(parameterType, classLoader)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] generate(Class<?> serviceType, List<Method> methods) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(
+                Opcodes.V17,
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+                PROXY_INTERNAL_NAME,
+                null,
+                "java/lang/Object",
+                new String[] {Type.getInternalName(serviceType)});
+
+        cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, METHODS_FIELD, METHODS_DESCRIPTOR, null, null)
+                .visitEnd();
+
+        generateConstructor(cw);
+        for (int i = 0; i < methods.size(); i++) {
+            generateMethod(cw, methods.get(i), i);
+        }
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void generateConstructor(ClassWriter cw) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "(" + METHODS_DESCRIPTOR + ")V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitFieldInsn(Opcodes.PUTFIELD, PROXY_INTERNAL_NAME, METHODS_FIELD, METHODS_DESCRIPTOR);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Generate {@code return (R) this.methods[index].invoke(new Object[] {arg0, arg1, ...});}
+     */
+    private static void generateMethod(ClassWriter cw, Method method, int index) {
+        MethodVisitor mv = cw.visitMethod(
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, method.getName(), Type.getMethodDescriptor(method), null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, PROXY_INTERNAL_NAME, METHODS_FIELD, METHODS_DESCRIPTOR);
+        pushInt(mv, index);
+        mv.visitInsn(Opcodes.AALOAD);
+
+        Type[] argumentTypes = Type.getArgumentTypes(method);
+        pushInt(mv, argumentTypes.length);
+        mv.visitTypeInsn(Opcodes.ANEWARRAY, "java/lang/Object");
+        int slot = 1;
+        for (int i = 0; i < argumentTypes.length; i++) {
+            Type argumentType = argumentTypes[i];
+            mv.visitInsn(Opcodes.DUP);
+            pushInt(mv, i);
+            mv.visitVarInsn(argumentType.getOpcode(Opcodes.ILOAD), slot);
+            box(mv, argumentType);
+            mv.visitInsn(Opcodes.AASTORE);
+            slot += argumentType.getSize();
+        }
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, METHOD_INTERNAL_NAME, "invoke", INVOKE_DESCRIPTOR, false);
+
+        Type returnType = Type.getReturnType(method);
+        switch (returnType.getSort()) {
+            case Type.VOID -> {
+                mv.visitInsn(Opcodes.POP);
+                mv.visitInsn(Opcodes.RETURN);
+            }
+            case Type.OBJECT, Type.ARRAY -> {
+                mv.visitTypeInsn(Opcodes.CHECKCAST, returnType.getInternalName());
+                mv.visitInsn(Opcodes.ARETURN);
+            }
+            default -> {
+                unbox(mv, returnType);
+                mv.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+            }
+        }
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    private static void box(MethodVisitor mv, Type type) {
+        String wrapper = wrapperInternalName(type);
+        if (wrapper != null) {
+            mv.visitMethodInsn(
+                    Opcodes.INVOKESTATIC,
+                    wrapper,
+                    "valueOf",
+                    "(" + type.getDescriptor() + ")L" + wrapper + ";",
+                    false);
+        }
+    }
+
+    private static void unbox(MethodVisitor mv, Type type) {
+        String wrapper = wrapperInternalName(type);
+        if (wrapper != null) {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, wrapper);
+            mv.visitMethodInsn(
+                    Opcodes.INVOKEVIRTUAL, wrapper, type.getClassName() + "Value", "()" + type.getDescriptor(), false);
+        }
+    }
+
+    @Nullable
+    private static String wrapperInternalName(Type type) {
+        return switch (type.getSort()) {
+            case Type.BOOLEAN -> "java/lang/Boolean";
+            case Type.CHAR -> "java/lang/Character";
+            case Type.BYTE -> "java/lang/Byte";
+            case Type.SHORT -> "java/lang/Short";
+            case Type.INT -> "java/lang/Integer";
+            case Type.FLOAT -> "java/lang/Float";
+            case Type.LONG -> "java/lang/Long";
+            case Type.DOUBLE -> "java/lang/Double";
+            default -> null;
+        };
+    }
+
+    private record ProxyClass(MethodHandle constructor, Method[] methods) {}
+}
@@ -0,0 +1,270 @@
+package io.github.danielliu1123.httpexchange.shaded;
+
+import io.github.danielliu1123.httpexchange.Batched;
+import jakarta.annotation.Nullable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringValueResolver;
+
+/**
+ * Collects the calls of a {@link Batched} method and sends them as one call of the target method.
+ *
+ * <p> The first call of a batch is the leader, it waits until the batch is full or {@link Batched#maxDelay()} elapsed,
+ * then closes the batch and invokes the target method on its own thread. The other calls wait for the result.
+ *
+ * @author Freeman
+ * @see Batched
+ * @since 3.2.1
+ */
+final class RequestBatcher {
+
+    private final Method method;
+    private final ShadedHttpServiceMethod target;
+    private final int maxSize;
+    private final long maxDelayNanos;
+
+    private final Object lock = new Object();
+
+    /**
+     * Guarded by {@link #lock}.
+     */
+    @Nullable
+    private Batch current;
+
+    private RequestBatcher(Method method, ShadedHttpServiceMethod target, int maxSize, Duration maxDelay) {
+        this.method = method;
+        this.target = target;
+        this.maxSize = maxSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+    }
+
+    /**
+     * Create a batcher for the {@link Batched} method.
+     *
+     * @param method                the {@link Batched} method
+     * @param methods               HTTP service methods of the interface, used to find the target method
+     * @param embeddedValueResolver resolver for the {@link Batched#maxDelay()}
+     * @return the batcher, or {@code null} if the method is not annotated with {@link Batched}
+     */
+    @Nullable
+    static RequestBatcher create(
+            Method method,
+            Map<Method, ShadedHttpServiceMethod> methods,
+            @Nullable StringValueResolver embeddedValueResolver) {
+        Batched batched = AnnotatedElementUtils.findMergedAnnotation(method, Batched.class);
+        if (batched == null) {
+            return null;
+        }
+        Assert.state(
+                method.getParameterCount() == 1,
+                () -> "@Batched method must have exactly one parameter: " + method.toGenericString());
+        Class<?> returnType = method.getReturnType();
+        Assert.state(
+                returnType != void.class
+                        && !ShadedHttpServiceMethod.isFutureType(returnType)
+                        && ReactiveAdapterRegistry.getSharedInstance().getAdapter(returnType) == null,
+                () -> "@Batched method must have a blocking return type: " + method.toGenericString());
+        Assert.state(batched.maxSize() > 0, () -> "@Batched maxSize must be positive: " + method.toGenericString());
+
+        ShadedHttpServiceMethod target = methods.values().stream()
+                .filter(m -> m.getMethod().getName().equals(batched.target()))
+                .filter(m -> m.getMethod().getParameterCount() == 1)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("@Batched target method '" + batched.target()
+                        + "' with one parameter not found for " + method.toGenericString()));
+        Method targetMethod = target.getMethod();
+        Class<?> keysType = targetMethod.getParameterTypes()[0];
+        Assert.state(
+                Collection.class.isAssignableFrom(keysType) || keysType.isArray(),
+                () -> "@Batched target method must have a Collection or array parameter: "
+                        + targetMethod.toGenericString());
+        Class<?> resultType = targetMethod.getReturnType();
+        Assert.state(
+                Map.class.isAssignableFrom(resultType)
+                        || Collection.class.isAssignableFrom(resultType)
+                        || resultType.isArray(),
+                () -> "@Batched target method must return a Map, Collection or array: "
+                        + targetMethod.toGenericString());
+
+        String maxDelay = embeddedValueResolver != null
+                ? embeddedValueResolver.resolveStringValue(batched.maxDelay())
+                : batched.maxDelay();
+        Assert.hasText(maxDelay, () -> "@Batched maxDelay must not be empty: " + method.toGenericString());
+        return new RequestBatcher(method, target, batched.maxSize(), DurationStyle.detectAndParse(maxDelay));
+    }
+
+    /**
+     * Add the key to the current batch and wait for its result.
+     *
+     * @param key the argument of the {@link Batched} method
+     * @return the result of the key
+     */
+    @Nullable
+    Object submit(@Nullable Object key) {
+        Batch batch;
+        CompletableFuture<Object> future;
+        boolean leader = false;
+        synchronized (lock) {
+            batch = current;
+            if (batch == null) {
+                batch = new Batch();
+                current = batch;
+                leader = true;
+            }
+            future = batch.futures.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (batch.futures.size() >= maxSize) {
+                current = null;
+                batch.full.countDown();
+            }
+        }
+        if (leader) {
+            boolean interrupted = awaitFull(batch);
+            synchronized (lock) {
+                if (current == batch) {
+                    current = null;
+                }
+            }
+            try {
+                execute(batch);
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        return await(future);
+    }
+
+    /**
+     * @return whether the leader was interrupted, the interrupt is restored after the bulk call,
+     * an interrupted thread fails the bulk call (e.g. JDK {@code HttpClient}) for all the calls of the batch
+     */
+    private boolean awaitFull(Batch batch) {
+        try {
+            batch.full.await(maxDelayNanos, TimeUnit.NANOSECONDS);
+            return false;
+        } catch (InterruptedException e) {
+            // send the batch now
+            return true;
+        }
+    }
+
+    private void execute(Batch batch) {
+        // the batch is closed, no more keys are added
+        List<Object> keys = new ArrayList<>(batch.futures.keySet());
+        Object result;
+        try {
+            result = target.invoke(new Object[] {toKeysArgument(keys)});
+        } catch (Throwable e) {
+            batch.futures.values().forEach(f -> f.completeExceptionally(e));
+            return;
+        }
+        if (result instanceof Map<?, ?> map) {
+            batch.futures.forEach((key, f) -> {
+                if (map.containsKey(key)) {
+                    f.complete(map.get(key));
+                } else {
+                    f.completeExceptionally(new IllegalStateException(String.format(
+                            "@Batched target method '%s' returned no result for key '%s' (%s), "
+                                    + "can't dispatch result for %s, returned key type: %s",
+                            target.getMethod().getName(),
+                            key,
+                            ObjectUtils.nullSafeClassName(key),
+                            method.getName(),
+                            map.keySet().stream()
+                                    .filter(Objects::nonNull)
+                                    .findFirst()
+                                    .map(k -> k.getClass().getName())
+                                    .orElse("none"))));
+                }
+            });
+            return;
+        }
+        List<?> values = toList(result);
+        if (values.size() != keys.size()) {
+            IllegalStateException e = new IllegalStateException(String.format(
+                    "@Batched target method '%s' returned %d results for %d keys, can't dispatch results for %s",
+                    target.getMethod().getName(), values.size(), keys.size(), method.getName()));
+            batch.futures.values().forEach(f -> f.completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            batch.futures.get(keys.get(i)).complete(values.get(i));
+        }
+    }
+
+    private Object toKeysArgument(List<Object> keys) {
+        Class<?> type = target.getMethod().getParameterTypes()[0];
+        if (type.isArray()) {
+            Object array = Array.newInstance(type.getComponentType(), keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                Array.set(array, i, keys.get(i));
+            }
+            return array;
+        }
+        if (Set.class.isAssignableFrom(type)) {
+            return new LinkedHashSet<>(keys);
+        }
+        return keys;
+    }
+
+    private static List<?> toList(@Nullable Object result) {
+        if (result == null) {
+            return List.of();
+        }
+        if (result instanceof Collection<?> c) {
+            return new ArrayList<>(c);
+        }
+        int length = Array.getLength(result);
+        List<Object> list = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            list.add(Array.get(result, i));
+        }
+        return list;
+    }
+
+    /**
+     * The failure is shared by all the calls of the batch and thrown as is, the same as a call that is not batched.
+     */
+    @Nullable
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Batch {
+        /**
+         * Key -> result, guarded by {@link RequestBatcher#lock} until the batch is closed.
+         */
+        private final Map<Object, CompletableFuture<Object>> futures = new LinkedHashMap<>();
+
+        private final CountDownLatch full = new CountDownLatch(1);
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.danielliu1123.httpexchange.shaded;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.service.invoker.HttpServiceArgumentResolver;
+
+/**
+ * {@link HttpServiceArgumentResolver} that can tell from the {@link MethodParameter} alone whether it may resolve it.
+ *
+ * <p> Custom resolvers are invoked for every argument by default,
+ * implementing this interface lets {@link ShadedHttpServiceProxyFactory} skip the resolver for parameters it never handles.
+ *
+ * @author Freeman
+ */
+public interface SelectiveArgumentResolver extends HttpServiceArgumentResolver {
+
+    /**
+     * Whether this resolver may resolve arguments of the given parameter.
+     *
+     * <p> Called once per parameter when the client is created, returning {@code true} does not mean that
+     * {@link #resolve} always returns {@code true}, it may still depend on the argument value.
+     *
+     * @param parameter the method parameter
+     * @return {@code false} if this resolver never resolves arguments of the parameter
+     */
+    boolean supportsParameter(MethodParameter parameter);
+}
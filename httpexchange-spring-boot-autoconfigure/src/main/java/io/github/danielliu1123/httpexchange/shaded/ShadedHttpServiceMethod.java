@@ -16,12 +16,21 @@
 
 package io.github.danielliu1123.httpexchange.shaded;
 
+import io.github.danielliu1123.httpexchange.ResponseCacheable;
+import io.github.danielliu1123.httpexchange.Retryable;
 import jakarta.annotation.Nullable;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import org.reactivestreams.Publisher;
@@ -41,13 +50,33 @@ import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.util.StringValueResolver;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.invoker.CookieValueArgumentResolver;
 import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpMethodArgumentResolver;
 import org.springframework.web.service.invoker.HttpRequestValues;
 import org.springframework.web.service.invoker.HttpServiceArgumentResolver;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
+import org.springframework.web.service.invoker.PathVariableArgumentResolver;
 import org.springframework.web.service.invoker.ReactiveHttpRequestValues;
 import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+import org.springframework.web.service.invoker.RequestAttributeArgumentResolver;
+import org.springframework.web.service.invoker.RequestBodyArgumentResolver;
+import org.springframework.web.service.invoker.RequestHeaderArgumentResolver;
+import org.springframework.web.service.invoker.RequestParamArgumentResolver;
+import org.springframework.web.service.invoker.RequestPartArgumentResolver;
+import org.springframework.web.service.invoker.UriBuilderFactoryArgumentResolver;
+import org.springframework.web.service.invoker.UrlArgumentResolver;
+import org.springframework.web.util.UriBuilderFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -70,22 +99,33 @@ final class ShadedHttpServiceMethod {
 
     private final MethodParameter[] parameters;
 
-    private final List<HttpServiceArgumentResolver> argumentResolvers;
+    private final ArgumentBinder[] argumentBinders;
 
     private final HttpRequestValuesInitializer requestValuesInitializer;
 
     private final ResponseFunction responseFunction;
 
+    @Nullable
+    private final ResponseCacheable responseCacheable;
+
+    @Nullable
+    private final Retryable retryable;
+
+    @Nullable
+    private final RequestBatcher batcher;
+
     ShadedHttpServiceMethod(
             Method method,
             Class<?> containingClass,
             List<HttpServiceArgumentResolver> argumentResolvers,
             HttpExchangeAdapter adapter,
-            @Nullable StringValueResolver embeddedValueResolver) {
+            @Nullable StringValueResolver embeddedValueResolver,
+            @Nullable AsyncRequestExecutor asyncRequestExecutor,
+            @Nullable RequestBatcher batcher) {
 
         this.method = method;
         this.parameters = initMethodParameters(method);
-        this.argumentResolvers = argumentResolvers;
+        this.argumentBinders = initArgumentBinders(this.parameters, argumentResolvers);
 
         boolean isReactorAdapter = (REACTOR_PRESENT && adapter instanceof ReactorHttpExchangeAdapter);
 
@@ -97,7 +137,14 @@ final class ShadedHttpServiceMethod {
 
         this.responseFunction = (isReactorAdapter
                 ? ReactorExchangeResponseFunction.create((ReactorHttpExchangeAdapter) adapter, method)
-                : ExchangeResponseFunction.create(adapter, method));
+                : ExchangeResponseFunction.create(adapter, method, asyncRequestExecutor));
+
+        this.responseCacheable = Optional.ofNullable(
+                        AnnotatedElementUtils.findMergedAnnotation(method, ResponseCacheable.class))
+                .orElseGet(() -> AnnotatedElementUtils.findMergedAnnotation(containingClass, ResponseCacheable.class));
+        this.retryable = Optional.ofNullable(AnnotatedElementUtils.findMergedAnnotation(method, Retryable.class))
+                .orElseGet(() -> AnnotatedElementUtils.findMergedAnnotation(containingClass, Retryable.class));
+        this.batcher = batcher;
     }
 
     private static MethodParameter[] initMethodParameters(Method method) {
@@ -124,28 +171,178 @@ final class ShadedHttpServiceMethod {
 
     @Nullable
     public Object invoke(Object[] arguments) {
+        if (this.batcher != null) {
+            return this.batcher.submit(arguments[0]);
+        }
         HttpRequestValues.Builder requestValues = this.requestValuesInitializer.initializeRequestValuesBuilder();
         applyArguments(requestValues, arguments);
+        if (this.responseCacheable != null) {
+            requestValues.addAttribute(ResponseCacheable.class.getName(), this.responseCacheable.value());
+        }
+        if (this.retryable != null) {
+            requestValues.addAttribute(Retryable.class.getName(), this.retryable);
+        }
         return this.responseFunction.execute(requestValues.build());
     }
 
+    /**
+     * Whether the return type is executed by {@link AsyncRequestExecutor} with a blocking {@link HttpExchangeAdapter}.
+     */
+    static boolean isFutureType(Class<?> returnType) {
+        return returnType == CompletableFuture.class || returnType == CompletionStage.class || returnType == Future.class;
+    }
+
+    private static ArgumentBinder[] initArgumentBinders(
+            MethodParameter[] parameters, List<HttpServiceArgumentResolver> argumentResolvers) {
+        ArgumentBinder[] binders = new ArgumentBinder[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            binders[i] = ArgumentBinder.create(parameters[i], argumentResolvers);
+        }
+        return binders;
+    }
+
     private void applyArguments(HttpRequestValues.Builder requestValues, Object[] arguments) {
-        Assert.isTrue(arguments.length == this.parameters.length, "Method argument mismatch");
+        if (arguments.length != this.argumentBinders.length) {
+            throw new IllegalArgumentException("Method argument mismatch");
+        }
         for (int i = 0; i < arguments.length; i++) {
-            Object value = arguments[i];
-            boolean resolved = false;
-            for (HttpServiceArgumentResolver resolver : this.argumentResolvers) {
-                if (resolver.resolve(value, this.parameters[i], requestValues)) {
-                    resolved = true;
+            this.argumentBinders[i].bind(arguments[i], requestValues);
+        }
+    }
+
+    /**
+     * Binding plan for a single method parameter.
+     *
+     * <p>The resolvers that can handle the parameter are selected once, from its annotations and
+     * declared type, when the method is introspected. Built-in resolvers matched by annotation or
+     * type always resolve, so the resolvers after them are dropped; custom resolvers that cannot
+     * be decided up front (see {@link SelectiveArgumentResolver}) are still consulted at runtime.
+     */
+    private interface ArgumentBinder {
+
+        /**
+         * Built-in resolvers that only handle parameters with the given annotation.
+         */
+        Map<Class<?>, Class<? extends Annotation>> ANNOTATION_BASED_RESOLVERS = Map.of(
+                RequestHeaderArgumentResolver.class, RequestHeader.class,
+                RequestBodyArgumentResolver.class, RequestBody.class,
+                PathVariableArgumentResolver.class, PathVariable.class,
+                RequestParamArgumentResolver.class, RequestParam.class,
+                CookieValueArgumentResolver.class, CookieValue.class,
+                RequestAttributeArgumentResolver.class, RequestAttribute.class);
+
+        void bind(@Nullable Object argument, HttpRequestValues.Builder requestValues);
+
+        static ArgumentBinder create(MethodParameter parameter, List<HttpServiceArgumentResolver> resolvers) {
+            String errorMessage = "Could not resolve parameter [" + parameter.getParameterIndex() + "] in "
+                    + parameter.getExecutable().toGenericString() + ": No suitable resolver";
+
+            List<HttpServiceArgumentResolver> candidates = new ArrayList<>();
+            for (HttpServiceArgumentResolver resolver : resolvers) {
+                Applicability applicability = applicability(resolver, parameter);
+                if (applicability == Applicability.NEVER) {
+                    continue;
+                }
+                candidates.add(resolver);
+                if (applicability == Applicability.ALWAYS) {
                     break;
                 }
             }
-            int index = i;
-            Assert.state(
-                    resolved,
-                    () -> "Could not resolve parameter [" + this.parameters[index].getParameterIndex() + "] in "
-                            + this.parameters[index].getExecutable().toGenericString()
-                            + (StringUtils.hasText("No suitable resolver") ? ": " + "No suitable resolver" : ""));
+
+            if (candidates.isEmpty()) {
+                return new UnresolvableArgumentBinder(errorMessage);
+            }
+            if (candidates.size() == 1) {
+                return new SingleResolverArgumentBinder(candidates.get(0), parameter, errorMessage);
+            }
+            return new ResolverChainArgumentBinder(
+                    candidates.toArray(HttpServiceArgumentResolver[]::new), parameter, errorMessage);
+        }
+
+        private static Applicability applicability(HttpServiceArgumentResolver resolver, MethodParameter parameter) {
+            if (resolver instanceof SelectiveArgumentResolver selective) {
+                return selective.supportsParameter(parameter) ? Applicability.MAYBE : Applicability.NEVER;
+            }
+            // Exact class match, subclasses of the built-in resolvers may behave differently
+            Class<?> resolverClass = resolver.getClass();
+            Class<? extends Annotation> annotationType = ANNOTATION_BASED_RESOLVERS.get(resolverClass);
+            if (annotationType != null) {
+                return parameter.hasParameterAnnotation(annotationType) ? Applicability.ALWAYS : Applicability.NEVER;
+            }
+            if (resolverClass == RequestPartArgumentResolver.class) {
+                // MultipartFile is resolved as request part without annotation
+                return parameter.hasParameterAnnotation(RequestPart.class)
+                        ? Applicability.ALWAYS
+                        : isNestedType(parameter, MultipartFile.class);
+            }
+            if (resolverClass == UrlArgumentResolver.class) {
+                return isNestedType(parameter, URI.class);
+            }
+            if (resolverClass == UriBuilderFactoryArgumentResolver.class) {
+                return isNestedType(parameter, UriBuilderFactory.class);
+            }
+            if (resolverClass == HttpMethodArgumentResolver.class) {
+                return parameter.getParameterType().equals(HttpMethod.class)
+                        ? Applicability.ALWAYS
+                        : Applicability.NEVER;
+            }
+            return Applicability.MAYBE;
+        }
+
+        private static Applicability isNestedType(MethodParameter parameter, Class<?> type) {
+            return parameter.nestedIfOptional().getNestedParameterType().equals(type)
+                    ? Applicability.ALWAYS
+                    : Applicability.NEVER;
+        }
+    }
+
+    private enum Applicability {
+        /**
+         * The resolver never handles the parameter.
+         */
+        NEVER,
+        /**
+         * The resolver may handle the parameter, depending on the argument value.
+         */
+        MAYBE,
+        /**
+         * The resolver always handles the parameter.
+         */
+        ALWAYS
+    }
+
+    private record UnresolvableArgumentBinder(String errorMessage) implements ArgumentBinder {
+
+        @Override
+        public void bind(@Nullable Object argument, HttpRequestValues.Builder requestValues) {
+            throw new IllegalStateException(this.errorMessage);
+        }
+    }
+
+    private record SingleResolverArgumentBinder(
+            HttpServiceArgumentResolver resolver, MethodParameter parameter, String errorMessage)
+            implements ArgumentBinder {
+
+        @Override
+        public void bind(@Nullable Object argument, HttpRequestValues.Builder requestValues) {
+            if (!this.resolver.resolve(argument, this.parameter, requestValues)) {
+                throw new IllegalStateException(this.errorMessage);
+            }
+        }
+    }
+
+    private record ResolverChainArgumentBinder(
+            HttpServiceArgumentResolver[] resolvers, MethodParameter parameter, String errorMessage)
+            implements ArgumentBinder {
+
+        @Override
+        public void bind(@Nullable Object argument, HttpRequestValues.Builder requestValues) {
+            for (HttpServiceArgumentResolver resolver : this.resolvers) {
+                if (resolver.resolve(argument, this.parameter, requestValues)) {
+                    return;
+                }
+            }
+            throw new IllegalStateException(this.errorMessage);
         }
     }
 
@@ -186,6 +383,15 @@ final class ShadedHttpServiceMethod {
                 @Nullable StringValueResolver embeddedValueResolver,
                 Supplier<HttpRequestValues.Builder> requestValuesSupplier) {
 
+            HttpExchange exchangeAnnot = AnnotatedElementUtils.findMergedAnnotation(method, HttpExchange.class);
+            if (exchangeAnnot != null) {
+                return createForHttpExchange(
+                        AnnotatedElementUtils.findMergedAnnotation(containingClass, HttpExchange.class),
+                        exchangeAnnot,
+                        embeddedValueResolver,
+                        requestValuesSupplier);
+            }
+
             RequestMapping annot1 = AnnotatedElementUtils.findMergedAnnotation(containingClass, RequestMapping.class);
             RequestMapping annot2 = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
 
@@ -200,6 +406,43 @@ final class ShadedHttpServiceMethod {
                     httpMethod, url, contentType, acceptableMediaTypes, requestValuesSupplier);
         }
 
+        /**
+         * Same as {@link HttpServiceProxyFactory} does for {@link HttpExchange @HttpExchange} methods.
+         */
+        private static HttpRequestValuesInitializer createForHttpExchange(
+                @Nullable HttpExchange typeAnnot,
+                HttpExchange annot,
+                @Nullable StringValueResolver embeddedValueResolver,
+                Supplier<HttpRequestValues.Builder> requestValuesSupplier) {
+
+            String method = StringUtils.hasText(annot.method())
+                    ? annot.method()
+                    : (typeAnnot != null && StringUtils.hasText(typeAnnot.method()) ? typeAnnot.method() : null);
+            HttpMethod httpMethod = (method != null ? HttpMethod.valueOf(method) : null);
+
+            String url1 = (typeAnnot != null ? typeAnnot.url() : null);
+            String url2 = annot.url();
+            if (embeddedValueResolver != null) {
+                url1 = (url1 != null ? embeddedValueResolver.resolveStringValue(url1) : null);
+                url2 = embeddedValueResolver.resolveStringValue(url2);
+            }
+            String url = combineUrl(url1, url2);
+
+            String contentType = StringUtils.hasText(annot.contentType())
+                    ? annot.contentType()
+                    : (typeAnnot != null && StringUtils.hasText(typeAnnot.contentType())
+                            ? typeAnnot.contentType()
+                            : null);
+            MediaType mediaType = (contentType != null ? MediaType.parseMediaType(contentType) : null);
+
+            String[] accept = !ObjectUtils.isEmpty(annot.accept())
+                    ? annot.accept()
+                    : (typeAnnot != null && !ObjectUtils.isEmpty(typeAnnot.accept()) ? typeAnnot.accept() : null);
+            List<MediaType> acceptMediaTypes = (accept != null ? MediaType.parseMediaTypes(Arrays.asList(accept)) : null);
+
+            return new HttpRequestValuesInitializer(httpMethod, url, mediaType, acceptMediaTypes, requestValuesSupplier);
+        }
+
         @Nullable
         private static HttpMethod initHttpMethod(@Nullable RequestMapping typeAnnot, RequestMapping annot) {
 
@@ -237,6 +480,11 @@ final class ShadedHttpServiceMethod {
                 url2 = embeddedValueResolver.resolveStringValue(url2);
             }
 
+            return combineUrl(url1, url2);
+        }
+
+        @Nullable
+        private static String combineUrl(@Nullable String url1, @Nullable String url2) {
             boolean hasUrl1 = StringUtils.hasText(url1);
             boolean hasUrl2 = StringUtils.hasText(url2);
 
@@ -308,12 +556,28 @@ final class ShadedHttpServiceMethod {
         /**
          * Create the {@code ResponseFunction} that matches the method return type.
          */
-        public static ResponseFunction create(HttpExchangeAdapter client, Method method) {
+        public static ResponseFunction create(
+                HttpExchangeAdapter client, Method method, @Nullable AsyncRequestExecutor asyncRequestExecutor) {
             if (KotlinDetector.isSuspendingFunction(method)) {
                 throw new IllegalStateException("Kotlin Coroutines are only supported with reactive implementations");
             }
 
-            MethodParameter param = new MethodParameter(method, -1).nestedIfOptional();
+            if (isFutureType(method.getReturnType())) {
+                Assert.state(
+                        asyncRequestExecutor != null,
+                        () -> "No AsyncRequestExecutor configured for asynchronous method " + method);
+                Function<HttpRequestValues, Object> responseFunction =
+                        initResponseFunction(client, new MethodParameter(method, -1).nested());
+                return new ExchangeResponseFunction(
+                        request -> asyncRequestExecutor.submit(() -> responseFunction.apply(request)));
+            }
+
+            return new ExchangeResponseFunction(
+                    initResponseFunction(client, new MethodParameter(method, -1).nestedIfOptional()));
+        }
+
+        private static Function<HttpRequestValues, Object> initResponseFunction(
+                HttpExchangeAdapter client, MethodParameter param) {
             Class<?> paramType = param.getNestedParameterType();
 
             Function<HttpRequestValues, Object> responseFunction;
@@ -341,8 +605,7 @@ final class ShadedHttpServiceMethod {
                 responseFunction =
                         request -> asOptionalIfNecessary(client.exchangeForBody(request, bodyTypeRef), param);
             }
-
-            return new ExchangeResponseFunction(responseFunction);
+            return responseFunction;
         }
 
         private static @Nullable Object asOptionalIfNecessary(@Nullable Object response, MethodParameter param) {
@@ -16,13 +16,16 @@
 
 package io.github.danielliu1123.httpexchange.shaded;
 
+import io.github.danielliu1123.httpexchange.Batched;
 import jakarta.annotation.Nullable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import kotlin.coroutines.Continuation;
@@ -79,14 +82,23 @@ public final class ShadedHttpServiceProxyFactory {
     @Nullable
     private final StringValueResolver embeddedValueResolver;
 
+    private final boolean hiddenClassProxyEnabled;
+
+    @Nullable
+    private final AsyncRequestExecutor asyncRequestExecutor;
+
     private ShadedHttpServiceProxyFactory(
             HttpExchangeAdapter exchangeAdapter,
             List<HttpServiceArgumentResolver> argumentResolvers,
-            @Nullable StringValueResolver embeddedValueResolver) {
+            @Nullable StringValueResolver embeddedValueResolver,
+            boolean hiddenClassProxyEnabled,
+            @Nullable AsyncRequestExecutor asyncRequestExecutor) {
 
         this.exchangeAdapter = exchangeAdapter;
         this.argumentResolvers = argumentResolvers;
         this.embeddedValueResolver = embeddedValueResolver;
+        this.hiddenClassProxyEnabled = hiddenClassProxyEnabled;
+        this.asyncRequestExecutor = asyncRequestExecutor;
     }
 
     /**
@@ -99,24 +111,85 @@ public final class ShadedHttpServiceProxyFactory {
      */
     public <S> S createClient(Class<S> serviceType) {
 
-        List<ShadedHttpServiceMethod> httpServiceMethods =
-                MethodIntrospector.selectMethods(serviceType, this::isExchangeMethod).stream()
-                        .map(method -> createHttpServiceMethod(serviceType, method))
-                        .toList();
+        Set<Method> methods = MethodIntrospector.selectMethods(serviceType, this::isExchangeMethod);
+        Map<Method, ShadedHttpServiceMethod> methodMap = new LinkedHashMap<>();
+        for (Method method : methods) {
+            if (!AnnotatedElementUtils.hasAnnotation(method, Batched.class)) {
+                methodMap.put(method, createHttpServiceMethod(serviceType, method, null));
+            }
+        }
+        // @Batched methods delegate to the target methods created above
+        for (Method method : methods) {
+            RequestBatcher batcher = RequestBatcher.create(method, methodMap, this.embeddedValueResolver);
+            if (batcher != null) {
+                methodMap.put(method, createHttpServiceMethod(serviceType, method, batcher));
+            }
+        }
+        List<ShadedHttpServiceMethod> httpServiceMethods = List.copyOf(methodMap.values());
+
+        if (this.hiddenClassProxyEnabled) {
+            S proxy = HiddenClassProxyGenerator.createProxy(serviceType, toMethodMap(httpServiceMethods));
+            if (proxy != null) {
+                return proxy;
+            }
+        }
 
         return ProxyFactory.getProxy(serviceType, new HttpServiceMethodInterceptor(httpServiceMethods));
     }
 
+    private static Map<Method, ShadedHttpServiceMethod> toMethodMap(List<ShadedHttpServiceMethod> methods) {
+        return methods.stream().collect(Collectors.toMap(ShadedHttpServiceMethod::getMethod, Function.identity()));
+    }
+
     private boolean isExchangeMethod(Method method) {
         return AnnotatedElementUtils.hasAnnotation(method, HttpExchange.class)
                 || AnnotatedElementUtils.hasAnnotation(method, RequestMapping.class);
     }
 
-    private <S> ShadedHttpServiceMethod createHttpServiceMethod(Class<S> serviceType, Method method) {
+    private <S> ShadedHttpServiceMethod createHttpServiceMethod(
+            Class<S> serviceType, Method method, @Nullable RequestBatcher batcher) {
         Assert.notNull(this.argumentResolvers, "No argument resolvers: afterPropertiesSet was not called");
 
         return new ShadedHttpServiceMethod(
-                method, serviceType, this.argumentResolvers, this.exchangeAdapter, this.embeddedValueResolver);
+                method,
+                serviceType,
+                this.argumentResolvers,
+                this.exchangeAdapter,
+                this.embeddedValueResolver,
+                this.asyncRequestExecutor,
+                batcher);
+    }
+
+    /**
+     * Whether the given HTTP service interface has methods returning
+     * {@link java.util.concurrent.CompletableFuture}, {@link java.util.concurrent.CompletionStage}
+     * or {@link java.util.concurrent.Future}, which need an {@link AsyncRequestExecutor} for blocking adapters.
+     *
+     * @param serviceType the HTTP service interface
+     * @return whether there are asynchronous methods
+     */
+    public static boolean hasFutureMethods(Class<?> serviceType) {
+        for (Method method : serviceType.getMethods()) {
+            if (ShadedHttpServiceMethod.isFutureType(method.getReturnType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the given HTTP service interface has {@link Batched} methods.
+     *
+     * @param serviceType the HTTP service interface
+     * @return whether there are batched methods
+     */
+    public static boolean hasBatchedMethods(Class<?> serviceType) {
+        for (Method method : serviceType.getMethods()) {
+            if (AnnotatedElementUtils.hasAnnotation(method, Batched.class)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -163,6 +236,11 @@ public final class ShadedHttpServiceProxyFactory {
         @Nullable
         private StringValueResolver embeddedValueResolver;
 
+        private boolean hiddenClassProxyEnabled;
+
+        @Nullable
+        private AsyncRequestExecutor asyncRequestExecutor;
+
         private Builder() {}
 
         /**
@@ -227,6 +305,34 @@ public final class ShadedHttpServiceProxyFactory {
             return this;
         }
 
+        /**
+         * Whether to implement the HTTP service interface with a generated hidden class
+         * instead of a JDK dynamic proxy.
+         * <p>Interfaces that cannot be implemented by a hidden class fall back to
+         * the JDK dynamic proxy. By default this is {@code false}.
+         *
+         * @param hiddenClassProxyEnabled whether to use hidden class proxy
+         * @return this same builder instance
+         */
+        public Builder hiddenClassProxy(boolean hiddenClassProxyEnabled) {
+            this.hiddenClassProxyEnabled = hiddenClassProxyEnabled;
+            return this;
+        }
+
+        /**
+         * Set the {@link AsyncRequestExecutor} to execute the HTTP service methods returning
+         * {@link java.util.concurrent.CompletableFuture}, {@link java.util.concurrent.CompletionStage}
+         * or {@link java.util.concurrent.Future} with a blocking {@link HttpExchangeAdapter}.
+         * <p>Required if there are such methods and the adapter is not reactive.
+         *
+         * @param asyncRequestExecutor the executor to use
+         * @return this same builder instance
+         */
+        public Builder asyncRequestExecutor(@Nullable AsyncRequestExecutor asyncRequestExecutor) {
+            this.asyncRequestExecutor = asyncRequestExecutor;
+            return this;
+        }
+
         /**
          * Set the {@link ReactiveAdapterRegistry} to use to support different
          * asynchronous types for HTTP service method return values.
@@ -270,7 +376,11 @@ public final class ShadedHttpServiceProxyFactory {
             Assert.notNull(this.exchangeAdapter, "HttpClientAdapter is required");
 
             return new ShadedHttpServiceProxyFactory(
-                    this.exchangeAdapter, initArgumentResolvers(), this.embeddedValueResolver);
+                    this.exchangeAdapter,
+                    initArgumentResolvers(),
+                    this.embeddedValueResolver,
+                    this.hiddenClassProxyEnabled,
+                    this.asyncRequestExecutor);
         }
 
         @SuppressWarnings("DataFlowIssue")
@@ -311,8 +421,7 @@ public final class ShadedHttpServiceProxyFactory {
         private final Map<Method, ShadedHttpServiceMethod> httpServiceMethods;
 
         private HttpServiceMethodInterceptor(List<ShadedHttpServiceMethod> methods) {
-            this.httpServiceMethods =
-                    methods.stream().collect(Collectors.toMap(ShadedHttpServiceMethod::getMethod, Function.identity()));
+            this.httpServiceMethods = toMethodMap(methods);
         }
 
         @Override
@@ -3,6 +3,7 @@ package io.github.danielliu1123.httpexchange;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.entry;
 
 import io.github.danielliu1123.PortGetter;
 import java.net.URI;
@@ -14,6 +15,7 @@ import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -21,6 +23,7 @@ import org.springframework.web.service.annotation.DeleteExchange;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.PostExchange;
 import org.springframework.web.service.annotation.PutExchange;
+import org.springframework.web.service.invoker.HttpRequestValues;
 
 /**
  * {@link BeanParamArgumentResolver} tester.
@@ -89,6 +92,45 @@ class BeanParamArgumentResolverTests {
         ctx.close();
     }
 
+    @Test
+    void flattenNestedBeanProperties() throws Exception {
+        HttpExchangeProperties properties = new HttpExchangeProperties();
+        BeanParamArgumentResolver resolver = new BeanParamArgumentResolver(properties);
+        MethodParameter parameter = new MethodParameter(NestedApi.class.getMethod("find", Person.class), 0);
+
+        HttpRequestValues.Builder builder = HttpRequestValues.builder();
+        Person person = new Person(
+                "freeman", new int[] {1, 2}, new Address("Shanghai", null, new Person("nested", null, null)));
+        assertThat(resolver.resolve(person, parameter, builder)).isTrue();
+
+        assertThat(builder.build().getRequestParams())
+                .containsExactly(
+                        entry("name", List.of("freeman")),
+                        entry("scores", List.of("1", "2")),
+                        entry("address.city", List.of("Shanghai")),
+                        entry("address.owner.name", List.of("nested")));
+
+        // Not resolved when parameter is not annotated with @BeanParam and bean-to-query is disabled
+        MethodParameter unannotated =
+                new MethodParameter(NestedApi.class.getMethod("findUnannotated", Person.class), 0);
+        assertThat(resolver.resolve(person, unannotated, HttpRequestValues.builder()))
+                .isFalse();
+        assertThat(resolver.resolve(Map.of(), parameter, HttpRequestValues.builder()))
+                .isFalse();
+    }
+
+    record Person(String name, int[] scores, Address address) {}
+
+    record Address(String city, String street, Person owner) {}
+
+    interface NestedApi {
+        @GetExchange("/person")
+        List<Person> find(@BeanParam Person person);
+
+        @GetExchange("/person")
+        List<Person> findUnannotated(Person person);
+    }
+
     record Foo(String id, String name) {}
 
     record FooWithArrProp(String id, String[] arr, List<Integer> list, Date date, URI url) {}
@@ -0,0 +1,199 @@
+package io.github.danielliu1123.httpexchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+/**
+ * {@link Cache} tester.
+ */
+class CacheTest {
+
+    @AfterEach
+    void reset() {
+        Cache.clear();
+        CircuitBreakers.clear();
+        Cache.setMaxSize(Cache.DEFAULT_MAX_SIZE);
+    }
+
+    @Test
+    void testFingerprint_whenSameSettings_thenSameEntry() {
+        HttpExchangeProperties.Channel foo = channel("http://foo");
+        foo.setName("foo");
+        foo.setClients(List.of("FooApi"));
+        HttpExchangeProperties.Channel other = channel("http://foo");
+        other.setName("other");
+
+        Cache.Stats before = Cache.stats();
+        Cache.Entry entry = Cache.getEntry(foo);
+
+        assertThat(Cache.getEntry(other)).isSameAs(entry);
+        assertThat(Cache.stats().hits() - before.hits()).isEqualTo(1);
+        assertThat(Cache.stats().misses() - before.misses()).isEqualTo(1);
+
+        // Mutating the channel doesn't affect the cached entry
+        foo.getHeaders().get(0).getValues().set(0, "changed");
+        assertThat(Cache.getEntry(foo)).isNotSameAs(entry);
+        assertThat(Cache.getEntry(other)).isSameAs(entry);
+    }
+
+    @Test
+    void testFingerprint_whenCircuitBreakerEnabled_thenEntryPerChannelName() {
+        HttpExchangeProperties.Channel foo = channel("http://foo");
+        foo.setName("foo");
+        foo.getCircuitBreaker().setEnabled(true);
+        HttpExchangeProperties.Channel other = channel("http://foo");
+        other.setName("other");
+        other.getCircuitBreaker().setEnabled(true);
+
+        assertThat(Cache.getEntry(other)).isNotSameAs(Cache.getEntry(foo));
+    }
+
+    @Test
+    void testEvictAllExcept_whenUnused_thenCloseTransport() {
+        HttpExchangeProperties.Channel foo = channel("http://foo");
+        HttpExchangeProperties.Channel bar = channel("http://bar");
+        Cache.Entry fooEntry = Cache.getEntry(foo);
+        Cache.Entry barEntry = Cache.getEntry(bar);
+        TransportRegistry.Transport transport = transport(fooEntry, "http://foo");
+        Cache.setTransport(fooEntry, transport);
+        long evictions = Cache.stats().evictions();
+
+        assertThat(Cache.evictAllExcept(List.of(channel("http://bar")))).isEqualTo(1);
+
+        assertThat(fooEntry.isClosed()).isTrue();
+        assertThat(transport.isClosed()).isTrue();
+        assertThat(barEntry.isClosed()).isFalse();
+        assertThat(Cache.getEntry(bar)).isSameAs(barEntry);
+        assertThat(Cache.stats().evictions() - evictions).isEqualTo(1);
+    }
+
+    @Test
+    void testEvictAllExcept_whenUsed_thenCloseAfterLastClientReleased() {
+        HttpExchangeProperties.Channel foo = channel("http://foo");
+        Cache.Entry entry = Cache.getEntry(foo);
+        TransportRegistry.Transport transport = transport(entry, "http://foo");
+        Cache.setTransport(entry, transport);
+        Object client = new Object();
+        assertThat(Cache.retain(entry, client)).isTrue();
+
+        Cache.evictAllExcept(List.of());
+
+        assertThat(entry.isClosed()).isFalse();
+        assertThat(transport.isClosed()).isFalse();
+        assertThat(Cache.getEntry(foo)).isNotSameAs(entry);
+
+        Cache.release(client);
+
+        assertThat(entry.isClosed()).isTrue();
+        assertThat(transport.isClosed()).isTrue();
+        assertThat(Cache.retain(entry, new Object())).isFalse();
+    }
+
+    @Test
+    void testEvictAllExcept_thenUnregisterCircuitBreakersAndMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", registry);
+        HttpExchangeProperties.Channel foo = channel("http://foo");
+        foo.setName("foo");
+        foo.getCircuitBreaker().setEnabled(true);
+        CircuitBreakerPolicy policy = CircuitBreakerPolicy.of(foo.getCircuitBreaker());
+        Cache.Entry entry = Cache.getEntry(foo);
+        CircuitBreakers circuitBreakers = CircuitBreakers.register(foo, policy);
+        Cache.onClose(entry, circuitBreakers::unregister);
+        Cache.onClose(entry, ChannelMetrics.bind(beanFactory, foo, circuitBreakers));
+
+        // rebuilt channel, e.g. after a refresh, keeps its state when the old entry is closed
+        HttpExchangeProperties.Channel rebuilt = channel("http://foo");
+        rebuilt.setName("foo");
+        rebuilt.getCircuitBreaker().setEnabled(true);
+        rebuilt.getCircuitBreaker().setMinCalls(1);
+        Cache.Entry rebuiltEntry = Cache.getEntry(rebuilt);
+        CircuitBreakers rebuiltCircuitBreakers = CircuitBreakers.register(rebuilt, policy);
+        Cache.onClose(rebuiltEntry, rebuiltCircuitBreakers::unregister);
+        Cache.onClose(rebuiltEntry, ChannelMetrics.bind(beanFactory, rebuilt, rebuiltCircuitBreakers));
+
+        Cache.evictAllExcept(List.of(rebuilt));
+
+        assertThat(entry.isClosed()).isTrue();
+        assertThat(CircuitBreakers.getAll()).containsEntry("foo", rebuiltCircuitBreakers);
+        assertThat(registry.find(ChannelMetrics.CIRCUIT_BREAKER_FAILURE_RATE)
+                        .tag("channel", "foo")
+                        .meters())
+                .hasSize(1);
+
+        Cache.evictAllExcept(List.of());
+
+        assertThat(CircuitBreakers.getAll()).doesNotContainKey("foo");
+        assertThat(registry.find(ChannelMetrics.CIRCUIT_BREAKER_FAILURE_RATE)
+                        .tag("channel", "foo")
+                        .meters())
+                .isEmpty();
+
+        // closed entry runs the action immediately
+        AtomicBoolean closed = new AtomicBoolean();
+        Cache.onClose(entry, () -> closed.set(true));
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void testMaxSize_thenEvictLeastRecentlyUsedUnusedEntry() {
+        Cache.setMaxSize(2);
+        Cache.Entry foo = Cache.getEntry(channel("http://foo"));
+        Cache.Entry bar = Cache.getEntry(channel("http://bar"));
+        Object client = new Object();
+        Cache.retain(foo, client);
+
+        Cache.getEntry(channel("http://baz"));
+
+        // foo is the eldest but used by a client
+        assertThat(foo.isClosed()).isFalse();
+        assertThat(bar.isClosed()).isTrue();
+        assertThat(Cache.stats().size()).isEqualTo(2);
+
+        Cache.release(client);
+    }
+
+    @Test
+    void testMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new CacheMetrics().bindTo(registry);
+        Cache.Stats before = Cache.stats();
+
+        Cache.getEntry(channel("http://foo"));
+        Cache.getEntry(channel("http://foo"));
+
+        assertThat(registry.get("http.exchange.cache.gets")
+                        .tag("result", "hit")
+                        .functionCounter()
+                        .count())
+                .isEqualTo(before.hits() + 1);
+        assertThat(registry.get("http.exchange.cache.gets")
+                        .tag("result", "miss")
+                        .functionCounter()
+                        .count())
+                .isEqualTo(before.misses() + 1);
+        assertThat(registry.get("http.exchange.cache.size").gauge().value()).isEqualTo(1);
+    }
+
+    private static HttpExchangeProperties.Channel channel(String baseUrl) {
+        HttpExchangeProperties.Channel channel = new HttpExchangeProperties.Channel();
+        channel.setBaseUrl(baseUrl);
+        channel.setHeaders(List.of(new HttpExchangeProperties.Header("X-Foo", new ArrayList<>(List.of("foo")))));
+        return channel;
+    }
+
+    private static TransportRegistry.Transport transport(Cache.Entry entry, String host) {
+        TransportSettings settings = TransportSettings.of(
+                SimpleClientHttpRequestFactory.class, new HttpExchangeProperties.Channel(), null, null);
+        return TransportRegistry.acquire(host, settings, SimpleClientHttpRequestFactory::new, entry);
+    }
+}
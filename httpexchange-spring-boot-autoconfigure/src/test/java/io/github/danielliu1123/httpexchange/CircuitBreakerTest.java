@@ -0,0 +1,260 @@
+package io.github.danielliu1123.httpexchange;
+
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.STRING;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.circuitBreaker;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.circuitBreakerPolicy;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.request;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link CircuitBreaker} tester.
+ */
+class CircuitBreakerTest {
+
+    @AfterEach
+    void reset() {
+        CircuitBreakers.clear();
+    }
+
+    @Test
+    void testOnResult_whenFailureRateExceeded_thenOpen() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", null, circuitBreakerPolicy(4, 30_000));
+
+        record(circuitBreaker, false);
+        record(circuitBreaker, false);
+        record(circuitBreaker, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        record(circuitBreaker, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.getStats().failureRate()).isEqualTo(0.5);
+        assertThat(circuitBreaker.tryAcquire()).isNull();
+        assertThat(circuitBreaker.getRejections()).isEqualTo(1);
+    }
+
+    @Test
+    void testOnResult_whenSlowCallRateExceeded_thenOpen() {
+        HttpExchangeProperties.CircuitBreaker config = circuitBreaker(2, 30_000);
+        config.setSlowCallDuration(10);
+        config.setSlowCallRateThreshold(0.5);
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", null, CircuitBreakerPolicy.of(config));
+
+        CircuitBreaker.Phase phase = circuitBreaker.tryAcquire();
+        circuitBreaker.onResult(phase, TimeUnit.MILLISECONDS.toNanos(1), false);
+        phase = circuitBreaker.tryAcquire();
+        circuitBreaker.onResult(phase, TimeUnit.MILLISECONDS.toNanos(20), false);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.getStats().slowCallRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void testHalfOpen_whenProbesSucceed_thenClose_whenProbeFails_thenOpen() {
+        HttpExchangeProperties.CircuitBreaker config = circuitBreaker(1, 0);
+        config.setHalfOpenCalls(2);
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", null, CircuitBreakerPolicy.of(config));
+
+        record(circuitBreaker, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        CircuitBreaker.Phase first = circuitBreaker.tryAcquire();
+        CircuitBreaker.Phase second = circuitBreaker.tryAcquire();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(circuitBreaker.tryAcquire()).isNull();
+
+        circuitBreaker.onResult(first, 0, false);
+        circuitBreaker.onResult(second, 0, false);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        record(circuitBreaker, true);
+        CircuitBreaker.Phase probe = circuitBreaker.tryAcquire();
+        circuitBreaker.onResult(probe, 0, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void testHalfOpen_whenProbeIgnoredAfterRejection_thenPermitNewProbe() {
+        HttpExchangeProperties.CircuitBreaker config = circuitBreaker(1, 0);
+        config.setHalfOpenCalls(1);
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", null, CircuitBreakerPolicy.of(config));
+
+        record(circuitBreaker, true);
+        CircuitBreaker.Phase probe = circuitBreaker.tryAcquire();
+        assertThat(probe).isNotNull();
+        assertThat(circuitBreaker.tryAcquire()).isNull();
+
+        circuitBreaker.onIgnored(probe);
+        CircuitBreaker.Phase next = circuitBreaker.tryAcquire();
+        assertThat(next).isNotNull();
+
+        circuitBreaker.onResult(next, 0, false);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void testAdapter_whenPerMethod_thenIsolateMethods() {
+        HttpExchangeAdapter delegate = mock(HttpExchangeAdapter.class);
+        when(delegate.exchangeForBody(any(), any())).thenAnswer(invocation -> {
+            HttpRequestValues requestValues = invocation.getArgument(0);
+            if ("/broken".equals(requestValues.getUriTemplate())) {
+                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            if ("/missing".equals(requestValues.getUriTemplate())) {
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            }
+            return "OK";
+        });
+        HttpExchangeProperties.CircuitBreaker config = circuitBreaker(1, 30_000);
+        config.setPerMethod(true);
+        HttpExchangeAdapter adapter = CircuitBreakingExchangeAdapter.wrap(
+                delegate, new CircuitBreakers("test", CircuitBreakerPolicy.of(config)));
+
+        assertThatExceptionOfType(HttpServerErrorException.class)
+                .isThrownBy(() -> adapter.exchangeForBody(request("/broken"), STRING));
+        assertThatExceptionOfType(CircuitBreakerOpenException.class)
+                .isThrownBy(() -> adapter.exchangeForBody(request("/broken"), STRING));
+
+        // 4xx is not a failure
+        assertThatExceptionOfType(HttpClientErrorException.class)
+                .isThrownBy(() -> adapter.exchangeForBody(request("/missing"), STRING));
+        assertThatExceptionOfType(HttpClientErrorException.class)
+                .isThrownBy(() -> adapter.exchangeForBody(request("/missing"), STRING));
+
+        assertThat(adapter.exchangeForBody(request("/ok"), STRING)).isEqualTo("OK");
+    }
+
+    @Test
+    void testFallback_whenDefaultMethod_thenFallBackOnFailure() {
+        UserApi client =
+                FallbackInterceptor.wrap(new FailingUserApi(), UserApi.class, new DefaultListableBeanFactory());
+
+        assertThat(client.get("1")).isEqualTo("unknown-1");
+        assertThat(client.getMono("1").block(Duration.ofSeconds(1))).isEqualTo("unknown-1");
+        // 4xx is thrown as is
+        assertThatExceptionOfType(HttpClientErrorException.class).isThrownBy(() -> client.get("404"));
+    }
+
+    @Test
+    void testFallback_whenFallbackBean_thenFallBackToBean() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("orderApiFallback", new OrderApiFallback());
+        OrderApi failing = id -> {
+            throw new CircuitBreakerOpenException("open");
+        };
+        OrderApi client = FallbackInterceptor.wrap(failing, OrderApi.class, beanFactory);
+
+        assertThat(client.get("1")).isEqualTo("fallback-1");
+    }
+
+    @Test
+    void testFallback_whenNoFallback_thenNotDecorated() {
+        NoFallbackApi client = id -> "OK";
+
+        assertThat(FallbackInterceptor.wrap(client, NoFallbackApi.class, new DefaultListableBeanFactory()))
+                .isSameAs(client);
+    }
+
+    @Test
+    void testMetricsAndEndpoint() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", registry);
+        HttpExchangeProperties.Channel channel = new HttpExchangeProperties.Channel();
+        channel.setName("order");
+        CircuitBreakers circuitBreakers = CircuitBreakers.register(channel, circuitBreakerPolicy(1, 30_000));
+        ChannelMetrics.bind(beanFactory, channel, circuitBreakers);
+
+        CircuitBreaker circuitBreaker = circuitBreakers.get(request("/orders"));
+        record(circuitBreaker, true);
+
+        assertThat(registry.get(ChannelMetrics.CIRCUIT_BREAKER_STATE)
+                        .tags("channel", "order", "state", "open")
+                        .gauge()
+                        .value())
+                .isEqualTo(1);
+        assertThat(registry.get(ChannelMetrics.CIRCUIT_BREAKER_FAILURE_RATE)
+                        .tags("channel", "order")
+                        .gauge()
+                        .value())
+                .isEqualTo(1);
+        assertThat(new CircuitBreakerEndpoint().circuitBreaker("order"))
+                .singleElement()
+                .satisfies(descriptor -> {
+                    assertThat(descriptor.state()).isEqualTo("OPEN");
+                    assertThat(descriptor.calls()).isEqualTo(1);
+                });
+    }
+
+    private static void record(CircuitBreaker circuitBreaker, boolean failed) {
+        CircuitBreaker.Phase phase = circuitBreaker.tryAcquire();
+        assertThat(phase).isNotNull();
+        circuitBreaker.onResult(phase, 0, failed);
+    }
+
+    interface UserApi {
+        @GetExchange("/users/{id}")
+        default String get(@PathVariable String id) {
+            return "unknown-" + id;
+        }
+
+        @GetExchange("/users/{id}")
+        default Mono<String> getMono(@PathVariable String id) {
+            return Mono.just("unknown-" + id);
+        }
+    }
+
+    static class FailingUserApi implements UserApi {
+        @Override
+        public String get(String id) {
+            if ("404".equals(id)) {
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            }
+            throw new ResourceAccessException("Read timed out");
+        }
+
+        @Override
+        public Mono<String> getMono(String id) {
+            return Mono.error(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+        }
+    }
+
+    @Fallback(OrderApiFallback.class)
+    interface OrderApi {
+        @GetExchange("/orders/{id}")
+        String get(@PathVariable String id);
+    }
+
+    static class OrderApiFallback implements OrderApi {
+        @Override
+        public String get(String id) {
+            return "fallback-" + id;
+        }
+    }
+
+    interface NoFallbackApi {
+        @GetExchange("/orders/{id}")
+        String get(@PathVariable String id);
+    }
+}
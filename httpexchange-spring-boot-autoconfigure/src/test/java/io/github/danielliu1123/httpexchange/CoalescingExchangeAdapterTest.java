@@ -0,0 +1,131 @@
+package io.github.danielliu1123.httpexchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link CoalescingExchangeAdapter} tester.
+ */
+class CoalescingExchangeAdapterTest {
+
+    private static final ParameterizedTypeReference<String> STRING = new ParameterizedTypeReference<>() {};
+
+    @Test
+    @SneakyThrows
+    void testBlocking_whenSameRequestInFlight_thenShareOneCall() {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        HttpExchangeAdapter delegate = mock(HttpExchangeAdapter.class);
+        when(delegate.exchangeForBody(any(), any())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return "config";
+        });
+        HttpExchangeAdapter adapter = CoalescingExchangeAdapter.wrap(delegate);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> adapter.exchangeForBody(get("1"), STRING), executor));
+        }
+        // wait for all callers to join the in-flight call
+        Thread.sleep(200);
+        release.countDown();
+
+        for (CompletableFuture<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("config");
+        }
+        assertThat(calls.get()).isEqualTo(1);
+
+        // not in flight anymore
+        adapter.exchangeForBody(get("1"), STRING);
+        assertThat(calls.get()).isEqualTo(2);
+
+        executor.shutdown();
+    }
+
+    @Test
+    void testBlocking_whenDifferentRequest_thenNotCoalesced() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpExchangeAdapter delegate = mock(HttpExchangeAdapter.class);
+        when(delegate.exchangeForBody(any(), any())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            return "config";
+        });
+        HttpExchangeAdapter adapter = CoalescingExchangeAdapter.wrap(delegate);
+
+        adapter.exchangeForBody(get("1"), STRING);
+        adapter.exchangeForBody(get("2"), STRING);
+        adapter.exchangeForBody(
+                HttpRequestValues.builder()
+                        .setHttpMethod(HttpMethod.POST)
+                        .setUriTemplate("/config/1")
+                        .build(),
+                STRING);
+
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void testBlocking_whenFailed_thenRethrow() {
+        HttpExchangeAdapter delegate = mock(HttpExchangeAdapter.class);
+        when(delegate.exchangeForBody(any(), any())).thenThrow(new IllegalStateException("boom"));
+        HttpExchangeAdapter adapter = CoalescingExchangeAdapter.wrap(delegate);
+
+        assertThatThrownBy(() -> adapter.exchangeForBody(get("1"), STRING))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+    }
+
+    @Test
+    void testReactive_whenSameRequestInFlight_thenShareOneSubscription() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        ReactorHttpExchangeAdapter delegate = mock(ReactorHttpExchangeAdapter.class);
+        when(delegate.exchangeForBodyMono(any(), any()))
+                .thenAnswer(invocation -> Mono.fromCallable(subscriptions::incrementAndGet)
+                        .delayElement(Duration.ofMillis(200))
+                        .map(String::valueOf));
+        ReactorHttpExchangeAdapter adapter = (ReactorHttpExchangeAdapter) CoalescingExchangeAdapter.wrap(delegate);
+
+        List<String> results = Flux.range(0, 8)
+                .flatMap(i -> adapter.exchangeForBodyMono(get("1"), STRING))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(results).hasSize(8).containsOnly("1");
+        assertThat(subscriptions.get()).isEqualTo(1);
+
+        assertThat(adapter.exchangeForBodyMono(get("1"), STRING).block(Duration.ofSeconds(5)))
+                .isEqualTo("2");
+    }
+
+    private static HttpRequestValues get(String id) {
+        return HttpRequestValues.builder()
+                .setHttpMethod(HttpMethod.GET)
+                .setUriTemplate("/config/{id}")
+                .setUriVariable("id", id)
+                .build();
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.danielliu1123.httpexchange;
+
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.STRING;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.concurrencyLimitPolicy;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.request;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.unavailable;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.danielliu1123.httpexchange.HttpExchangeProperties.ConcurrencyLimit.Algorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ConcurrencyLimiter} tester.
+ */
+class ConcurrencyLimiterTest {
+
+    @Test
+    void testTryAcquire_whenLimitReached_thenReject() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(concurrencyLimitPolicy(Algorithm.AIMD, 2));
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        assertThat(limiter.getRejections()).isEqualTo(1);
+
+        limiter.releaseIgnored();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void testAimd_whenSuccessUnderLoad_thenGrow_whenDropped_thenShrink() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(concurrencyLimitPolicy(Algorithm.AIMD, 10));
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+        }
+
+        limiter.release(1_000_000, false);
+        assertThat(limiter.getLimit()).isEqualTo(11);
+
+        limiter.release(1_000_000, true);
+        assertThat(limiter.getLimit()).isEqualTo(9);
+    }
+
+    @Test
+    void testGradient_whenLatencyIncreases_thenShrink() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(concurrencyLimitPolicy(Algorithm.GRADIENT, 20));
+        long fast = TimeUnit.MILLISECONDS.toNanos(10);
+        for (int i = 0; i < 100; i++) {
+            sample(limiter, fast);
+        }
+        int before = limiter.getLimit();
+
+        long slow = TimeUnit.MILLISECONDS.toNanos(100);
+        for (int i = 0; i < 20; i++) {
+            sample(limiter, slow);
+        }
+        assertThat(limiter.getLimit()).isLessThan(before);
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(ConcurrencyLimitPolicy.DEFAULT_MIN_LIMIT);
+    }
+
+    @Test
+    void testAdapter_whenLimitReached_thenFailFast() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        HttpExchangeAdapter delegate = mock(HttpExchangeAdapter.class);
+        when(delegate.exchangeForBody(any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            finish.await();
+            return "OK";
+        });
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(concurrencyLimitPolicy(Algorithm.AIMD, 1));
+        HttpExchangeAdapter adapter = ConcurrencyLimitingExchangeAdapter.wrap(delegate, limiter);
+
+        CompletableFuture<String> first =
+                CompletableFuture.supplyAsync(() -> adapter.exchangeForBody(request(), STRING));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatExceptionOfType(ConcurrencyLimitExceededException.class)
+                .isThrownBy(() -> adapter.exchangeForBody(request(), STRING))
+                .satisfies(e -> assertThat(e.getLimit()).isEqualTo(1));
+
+        finish.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("OK");
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void testAdapter_whenReactiveFails_thenReleaseAndShrink() {
+        ReactorHttpExchangeAdapter delegate = mock(ReactorHttpExchangeAdapter.class);
+        when(delegate.exchangeForBodyMono(any(), any()))
+                .thenReturn(Mono.error(unavailable()));
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(concurrencyLimitPolicy(Algorithm.AIMD, 10));
+        ReactorHttpExchangeAdapter adapter =
+                (ReactorHttpExchangeAdapter) ConcurrencyLimitingExchangeAdapter.wrap(delegate, limiter);
+
+        assertThatExceptionOfType(HttpServerErrorException.class)
+                .isThrownBy(() -> adapter.exchangeForBodyMono(request(), STRING).block(Duration.ofSeconds(5)));
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getLimit()).isEqualTo(9);
+    }
+
+    @Test
+    void testMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", registry);
+        HttpExchangeProperties.Channel channel = new HttpExchangeProperties.Channel();
+        channel.setName("order");
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(concurrencyLimitPolicy(Algorithm.AIMD, 1));
+
+        ChannelMetrics.bind(beanFactory, channel, limiter);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        assertThat(registry.get(ChannelMetrics.CONCURRENCY_LIMIT)
+                        .tag("channel", "order")
+                        .gauge()
+                        .value())
+                .isEqualTo(1);
+        assertThat(registry.get(ChannelMetrics.CONCURRENCY_INFLIGHT)
+                        .tag("channel", "order")
+                        .gauge()
+                        .value())
+                .isEqualTo(1);
+        assertThat(registry.get(ChannelMetrics.CONCURRENCY_REJECTIONS)
+                        .tag("channel", "order")
+                        .functionCounter()
+                        .count())
+                .isEqualTo(1);
+
+        // rebuilt channel replaces the meters
+        ConcurrencyLimiter rebuilt = new ConcurrencyLimiter(concurrencyLimitPolicy(Algorithm.AIMD, 1));
+        ChannelMetrics.bind(beanFactory, channel, rebuilt);
+        assertThat(registry.get(ChannelMetrics.CONCURRENCY_INFLIGHT)
+                        .tag("channel", "order")
+                        .gauge()
+                        .value())
+                .isZero();
+    }
+
+    /**
+     * Record a sample under full load.
+     */
+    private static void sample(ConcurrencyLimiter limiter, long rttNanos) {
+        while (limiter.tryAcquire()) {
+            // acquire all permits
+        }
+        limiter.release(rttNanos, false);
+        while (limiter.getInFlight() > 0) {
+            limiter.releaseIgnored();
+        }
+    }
+}
@@ -3,7 +3,12 @@ package io.github.danielliu1123.httpexchange;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import io.github.danielliu1123.PortGetter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
+import org.springframework.aop.scope.ScopedProxyUtils;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.cloud.endpoint.event.RefreshEvent;
@@ -33,9 +38,19 @@ class DynamicRefreshTests {
 
         assertThat(api.get()).isEqualTo("OK");
 
+        Cache.Entry entry =
+                Cache.getEntry(ctx.getBean(HttpExchangeProperties.class).defaultClient());
+        long evictions = Cache.stats().evictions();
+
         System.setProperty("http-exchange.base-url", "http://localhost:" + port + "/v2");
         ctx.publishEvent(new RefreshEvent(ctx, null, null));
 
+        // The stale entry is evicted and its transport is closed
+        assertThat(entry.isClosed()).isTrue();
+        assertThat(entry.getTransport()).isNotNull();
+        assertThat(entry.getTransport().isClosed()).isTrue();
+        assertThat(Cache.stats().evictions()).isGreaterThan(evictions);
+
         // base-url changed
         assertThat(api.get()).isEqualTo("OK v2");
 
@@ -43,6 +58,146 @@ class DynamicRefreshTests {
         ctx.close();
     }
 
+    @Test
+    void testIncrementalRefresh_thenOnlyRebuildChangedClients() {
+        int port = PortGetter.availablePort();
+        var ctx = new SpringApplicationBuilder(MultiCfg.class)
+                .properties("server.port=" + port)
+                .properties("http-exchange.refresh.enabled=true")
+                .properties("http-exchange.channels[0].base-url=http://localhost:" + port)
+                .properties("http-exchange.channels[0].clients[0]=FooApi")
+                .properties("http-exchange.channels[1].base-url=http://localhost:" + port)
+                .properties("http-exchange.channels[1].read-timeout=5000")
+                .properties("http-exchange.channels[1].clients[0]=BarApi")
+                .run();
+
+        FooApi foo = ctx.getBean(FooApi.class);
+        BarApi bar = ctx.getBean(BarApi.class);
+        assertThat(foo.get()).isEqualTo("OK");
+        assertThat(bar.bar()).isEqualTo("bar");
+
+        Object fooTarget = ctx.getBean(ScopedProxyUtils.getTargetBeanName(FooApi.class.getName()));
+        Object barTarget = ctx.getBean(ScopedProxyUtils.getTargetBeanName(BarApi.class.getName()));
+
+        // Unrelated change, no client is rebuilt
+        System.setProperty("logging.level.io.github.danielliu1123", "debug");
+        ctx.publishEvent(new RefreshEvent(ctx, null, null));
+
+        assertThat(ctx.getBean(ScopedProxyUtils.getTargetBeanName(FooApi.class.getName())))
+                .isSameAs(fooTarget);
+        assertThat(ctx.getBean(ScopedProxyUtils.getTargetBeanName(BarApi.class.getName())))
+                .isSameAs(barTarget);
+
+        // Only the channel of FooApi changed
+        System.setProperty("http-exchange.channels[0].base-url", "http://localhost:" + port + "/v2");
+        ctx.publishEvent(new RefreshEvent(ctx, null, null));
+
+        assertThat(foo.get()).isEqualTo("OK v2");
+        assertThat(bar.bar()).isEqualTo("bar");
+        assertThat(ctx.getBean(ScopedProxyUtils.getTargetBeanName(FooApi.class.getName())))
+                .isNotSameAs(fooTarget);
+        assertThat(ctx.getBean(ScopedProxyUtils.getTargetBeanName(BarApi.class.getName())))
+                .isSameAs(barTarget);
+
+        System.clearProperty("logging.level.io.github.danielliu1123");
+        System.clearProperty("http-exchange.channels[0].base-url");
+        ctx.close();
+    }
+
+    @Test
+    void testHolderMode_thenSwapClientAfterInFlightCallsDrained() throws Exception {
+        int port = PortGetter.availablePort();
+        var ctx = new SpringApplicationBuilder(HolderCfg.class)
+                .properties("server.port=" + port)
+                .properties("http-exchange.base-url=http://localhost:" + port)
+                .properties("http-exchange.refresh.enabled=true")
+                .properties("http-exchange.refresh.mode=HOLDER")
+                .run();
+
+        // Two beans: controller bean, api bean (no scoped proxy)
+        assertThat(ctx.getBeanProvider(SlowApi.class)).hasSize(2);
+
+        SlowApi api = ctx.getBean(SlowApi.class);
+        assertThat(api.get()).isEqualTo("OK");
+
+        HttpExchangeProperties properties = ctx.getBean(HttpExchangeProperties.class);
+        Cache.Entry entry = Cache.getEntry(properties.defaultClient());
+        CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(api::slow);
+        assertThat(HolderCfg.started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        System.setProperty("http-exchange.base-url", "http://localhost:" + port + "/v2");
+        ctx.publishEvent(new RefreshEvent(ctx, null, null));
+
+        // New calls go to the new client, the old one is kept until the in-flight call completes
+        assertThat(ctx.getBean(SlowApi.class)).isSameAs(api);
+        assertThat(api.get()).isEqualTo("OK v2");
+        assertThat(entry.isClosed()).isFalse();
+
+        HolderCfg.release.countDown();
+
+        assertThat(inFlight.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+        assertThat(entry.isClosed()).isTrue();
+        // Same host, the new client reuses the warm transport
+        assertThat(Cache.getEntry(ctx.getBean(HttpExchangeProperties.class).defaultClient())
+                        .getTransport())
+                .isSameAs(entry.getTransport());
+        assertThat(entry.getTransport().isClosed()).isFalse();
+
+        System.clearProperty("http-exchange.base-url");
+        ctx.close();
+
+        assertThat(entry.getTransport().isClosed()).isTrue();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration
+    @EnableExchangeClients(clients = SlowApi.class)
+    @RestController
+    static class HolderCfg implements SlowApi {
+        static final CountDownLatch started = new CountDownLatch(1);
+        static final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String get() {
+            return "OK";
+        }
+
+        @GetMapping("/v2/get")
+        public String getV2() {
+            return "OK v2";
+        }
+
+        @Override
+        @SneakyThrows
+        public String slow() {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "slow";
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration
+    @EnableExchangeClients(clients = {FooApi.class, BarApi.class})
+    @RestController
+    static class MultiCfg implements FooApi, BarApi {
+
+        @Override
+        public String get() {
+            return "OK";
+        }
+
+        @GetMapping("/v2/get")
+        public String getV2() {
+            return "OK v2";
+        }
+
+        @Override
+        public String bar() {
+            return "bar";
+        }
+    }
+
     @Configuration(proxyBeanMethods = false)
     @EnableAutoConfiguration
     @EnableExchangeClients(clients = FooApi.class)
@@ -65,4 +220,19 @@ class DynamicRefreshTests {
         @GetExchange("/get")
         String get();
     }
+
+    interface SlowApi {
+
+        @GetExchange("/get")
+        String get();
+
+        @GetExchange("/slow")
+        String slow();
+    }
+
+    interface BarApi {
+
+        @GetExchange("/bar")
+        String bar();
+    }
 }
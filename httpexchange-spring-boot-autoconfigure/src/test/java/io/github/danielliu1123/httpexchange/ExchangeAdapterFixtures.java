@@ -0,0 +1,133 @@
+package io.github.danielliu1123.httpexchange;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.danielliu1123.httpexchange.HttpExchangeProperties.ConcurrencyLimit.Algorithm;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpRequestValues;
+
+/**
+ * Shared fixtures of the {@link HttpExchangeAdapter} decorator tests.
+ */
+final class ExchangeAdapterFixtures {
+
+    static final ParameterizedTypeReference<String> STRING = new ParameterizedTypeReference<>() {};
+
+    private ExchangeAdapterFixtures() {}
+
+    static HttpRequestValues request() {
+        return request(HttpMethod.GET, "/foo");
+    }
+
+    static HttpRequestValues request(HttpMethod method) {
+        return request(method, "/foo");
+    }
+
+    static HttpRequestValues request(String uriTemplate) {
+        return request(HttpMethod.GET, uriTemplate);
+    }
+
+    static HttpRequestValues request(HttpMethod method, String uriTemplate) {
+        return HttpRequestValues.builder()
+                .setHttpMethod(method)
+                .setUriTemplate(uriTemplate)
+                .build();
+    }
+
+    static HttpServerErrorException unavailable() {
+        return unavailable(null);
+    }
+
+    static HttpServerErrorException unavailable(HttpHeaders headers) {
+        return HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "", headers, null, null);
+    }
+
+    /**
+     * Adapter responding {@code OK}, counting the calls.
+     */
+    static HttpExchangeAdapter counting(AtomicInteger calls) {
+        return failing(calls, 0, unavailable());
+    }
+
+    /**
+     * Adapter failing the first calls with the error then responding {@code OK}, counting the calls.
+     */
+    static HttpExchangeAdapter failing(AtomicInteger calls, int failures, RuntimeException error) {
+        HttpExchangeAdapter delegate = mock(HttpExchangeAdapter.class);
+        when(delegate.exchangeForBody(any(), any())).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() <= failures) {
+                throw error;
+            }
+            return "OK";
+        });
+        return delegate;
+    }
+
+    static HttpExchangeProperties.Retry retry() {
+        HttpExchangeProperties.Retry retry = new HttpExchangeProperties.Retry();
+        retry.setEnabled(true);
+        retry.setInitialBackoff(1);
+        retry.setMaxBackoff(10);
+        retry.setStatuses(List.of(503));
+        return retry;
+    }
+
+    static RetryPolicy retryPolicy() {
+        return RetryPolicy.of(retry());
+    }
+
+    static HttpExchangeProperties.Hedge hedge(int delay) {
+        HttpExchangeProperties.Hedge hedge = new HttpExchangeProperties.Hedge();
+        hedge.setEnabled(true);
+        hedge.setDelay(delay);
+        return hedge;
+    }
+
+    static HedgePolicy hedgePolicy(int delay) {
+        return HedgePolicy.of(hedge(delay));
+    }
+
+    static ConcurrencyLimitPolicy concurrencyLimitPolicy(Algorithm algorithm, int limit) {
+        HttpExchangeProperties.ConcurrencyLimit concurrencyLimit = new HttpExchangeProperties.ConcurrencyLimit();
+        concurrencyLimit.setEnabled(true);
+        concurrencyLimit.setAlgorithm(algorithm);
+        concurrencyLimit.setInitialLimit(limit);
+        concurrencyLimit.setMinLimit(Math.min(limit, ConcurrencyLimitPolicy.DEFAULT_MIN_LIMIT));
+        return ConcurrencyLimitPolicy.of(concurrencyLimit);
+    }
+
+    static HttpExchangeProperties.RateLimit rateLimit(
+            Double permitsPerSecond, List<HttpExchangeProperties.RateLimit.MethodRateLimit> methods) {
+        HttpExchangeProperties.RateLimit rateLimit = new HttpExchangeProperties.RateLimit();
+        rateLimit.setEnabled(true);
+        rateLimit.setPermitsPerSecond(permitsPerSecond);
+        rateLimit.setMethods(methods);
+        return rateLimit;
+    }
+
+    static RateLimitPolicy rateLimitPolicy(
+            Double permitsPerSecond, List<HttpExchangeProperties.RateLimit.MethodRateLimit> methods) {
+        return RateLimitPolicy.of(rateLimit(permitsPerSecond, methods));
+    }
+
+    static HttpExchangeProperties.CircuitBreaker circuitBreaker(int minCalls, int openDuration) {
+        HttpExchangeProperties.CircuitBreaker config = new HttpExchangeProperties.CircuitBreaker();
+        config.setEnabled(true);
+        config.setMinCalls(minCalls);
+        config.setOpenDuration(openDuration);
+        return config;
+    }
+
+    static CircuitBreakerPolicy circuitBreakerPolicy(int minCalls, int openDuration) {
+        return CircuitBreakerPolicy.of(circuitBreaker(minCalls, openDuration));
+    }
+}
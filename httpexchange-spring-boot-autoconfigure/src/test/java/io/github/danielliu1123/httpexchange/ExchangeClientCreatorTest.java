@@ -1,8 +1,24 @@
 package io.github.danielliu1123.httpexchange;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 
 /**
@@ -20,4 +36,119 @@ class ExchangeClientCreatorTest {
                 .hasOnlyDeclaredFields(
                         "exchangeAdapter", "customArgumentResolvers", "conversionService", "embeddedValueResolver");
     }
+
+    @Test
+    void testSharedBuilder_whenDecoratorsEnabled_thenNotDecorateTwice() {
+        var ctx = new SpringApplicationBuilder(Cfg.class)
+                .web(WebApplicationType.NONE)
+                .properties("http-exchange.retry.enabled=true")
+                .properties("http-exchange.retry.initial-backoff=1")
+                .properties("http-exchange.retry.max-backoff=1")
+                .properties("http-exchange.channels[0].base-url=http://foo")
+                .properties("http-exchange.channels[0].clients[0]=FooApi")
+                .properties("http-exchange.channels[1].base-url=http://bar")
+                .properties("http-exchange.channels[1].clients[0]=BarApi")
+                .run();
+
+        Cfg cfg = ctx.getBean(Cfg.class);
+
+        assertThatExceptionOfType(HttpServerErrorException.class)
+                .isThrownBy(() -> ctx.getBean(FooApi.class).foo());
+        assertThat(cfg.calls).hasValue(RetryPolicy.DEFAULT_MAX_ATTEMPTS);
+
+        cfg.calls.set(0);
+        assertThatExceptionOfType(HttpServerErrorException.class)
+                .isThrownBy(() -> ctx.getBean(BarApi.class).bar());
+        assertThat(cfg.calls).hasValue(RetryPolicy.DEFAULT_MAX_ATTEMPTS);
+
+        // The builder bean keeps the undecorated adapter
+        Field field = ReflectionUtils.findField(HttpServiceProxyFactory.Builder.class, "exchangeAdapter");
+        ReflectionUtils.makeAccessible(field);
+        assertThat(ReflectionUtils.getField(field, ctx.getBean(HttpServiceProxyFactory.Builder.class)))
+                .isSameAs(cfg.adapter);
+
+        ctx.close();
+    }
+
+    @Test
+    void testRetryable_whenChannelRetryDisabled_thenShareRetryBudgetOfChannel() {
+        var ctx = new SpringApplicationBuilder(RetryableCfg.class)
+                .web(WebApplicationType.NONE)
+                .properties("http-exchange.retry.initial-backoff=1")
+                .properties("http-exchange.retry.max-backoff=1")
+                .properties("http-exchange.retry.budget-ratio=0")
+                .properties("http-exchange.retry.budget-max-tokens=2")
+                .properties("http-exchange.base-url=http://foo")
+                .run();
+
+        RetryableCfg cfg = ctx.getBean(RetryableCfg.class);
+
+        assertThatExceptionOfType(HttpServerErrorException.class)
+                .isThrownBy(() -> ctx.getBean(RetryableFooApi.class).foo());
+        assertThat(cfg.calls).hasValue(3);
+
+        // the retry budget is exhausted by the other client of the channel
+        cfg.calls.set(0);
+        assertThatExceptionOfType(HttpServerErrorException.class)
+                .isThrownBy(() -> ctx.getBean(RetryableBarApi.class).bar());
+        assertThat(cfg.calls).hasValue(1);
+
+        ctx.close();
+    }
+
+    interface FooApi {
+        @GetExchange("/foo")
+        String foo();
+    }
+
+    interface BarApi {
+        @GetExchange("/bar")
+        String bar();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration
+    @EnableExchangeClients(clients = {FooApi.class, BarApi.class})
+    static class Cfg {
+        final AtomicInteger calls = new AtomicInteger();
+        final HttpExchangeAdapter adapter = mock(HttpExchangeAdapter.class);
+
+        @Bean
+        HttpServiceProxyFactory.Builder httpServiceProxyFactoryBuilder() {
+            when(adapter.exchangeForBody(any(), any())).thenAnswer(invocation -> {
+                calls.incrementAndGet();
+                throw HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "", null, null, null);
+            });
+            return HttpServiceProxyFactory.builder().exchangeAdapter(adapter);
+        }
+    }
+
+    @Retryable(maxAttempts = 3)
+    interface RetryableFooApi {
+        @GetExchange("/foo")
+        String foo();
+    }
+
+    @Retryable(maxAttempts = 3)
+    interface RetryableBarApi {
+        @GetExchange("/bar")
+        String bar();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration
+    @EnableExchangeClients(clients = {RetryableFooApi.class, RetryableBarApi.class})
+    static class RetryableCfg {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Bean
+        HttpServiceProxyFactory.Builder httpServiceProxyFactoryBuilder() {
+            HttpExchangeAdapter adapter = mock(HttpExchangeAdapter.class);
+            when(adapter.exchangeForBody(any(), any())).thenAnswer(invocation -> {
+                calls.incrementAndGet();
+                throw HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "", null, null, null);
+            });
+            return HttpServiceProxyFactory.builder().exchangeAdapter(adapter);
+        }
+    }
 }
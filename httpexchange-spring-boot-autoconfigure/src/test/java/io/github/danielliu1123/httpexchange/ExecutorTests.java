@@ -0,0 +1,114 @@
+package io.github.danielliu1123.httpexchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.danielliu1123.PortGetter;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.service.annotation.GetExchange;
+
+/**
+ * @author Freeman
+ */
+class ExecutorTests {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"REST_CLIENT", "REST_TEMPLATE"})
+    void testExecutorBean(String clientType) {
+        int port = PortGetter.availablePort();
+        var ctx = new SpringApplicationBuilder(ExecutorConfig.class)
+                .properties("server.port=" + port)
+                .properties(HttpExchangeProperties.PREFIX + ".client-type=" + clientType)
+                .properties(HttpExchangeProperties.PREFIX + ".channels[0].base-url=localhost:" + port)
+                .properties(HttpExchangeProperties.PREFIX + ".channels[0].executor=countingExecutor")
+                .properties(HttpExchangeProperties.PREFIX + ".channels[0].clients[0]=EchoApi")
+                .run();
+        EchoApi api = ctx.getBean(EchoApi.class);
+        CountingExecutor executor = ctx.getBean(CountingExecutor.class);
+
+        assertThat(api.echo()).isEqualTo("echo");
+        assertThat(executor.count.get()).isPositive();
+
+        ctx.close();
+    }
+
+    @Test
+    void testPlatformExecutor() {
+        int port = PortGetter.availablePort();
+        var ctx = new SpringApplicationBuilder(ExecutorConfig.class)
+                .properties("server.port=" + port)
+                .properties(HttpExchangeProperties.PREFIX + ".base-url=localhost:" + port)
+                .properties(HttpExchangeProperties.PREFIX + ".executor=platform")
+                .run();
+        EchoApi api = ctx.getBean(EchoApi.class);
+        CountingExecutor executor = ctx.getBean(CountingExecutor.class);
+
+        assertThat(api.echo()).isEqualTo("echo");
+        assertThat(executor.count.get()).isZero();
+
+        ctx.close();
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void testVirtualExecutor_whenVirtualThreadsEnabled() {
+        int port = PortGetter.availablePort();
+        var ctx = new SpringApplicationBuilder(ExecutorConfig.class)
+                .properties("server.port=" + port)
+                .properties("spring.threads.virtual.enabled=true")
+                .properties(HttpExchangeProperties.PREFIX + ".base-url=localhost:" + port)
+                .run();
+        EchoApi api = ctx.getBean(EchoApi.class);
+
+        assertThat(api.echo()).isEqualTo("echo");
+        assertThat(ClientExecutors.getExecutor(null, ctx.getBeanFactory(), ctx.getEnvironment()))
+                .isInstanceOf(VirtualThreadTaskExecutor.class);
+        assertThat(ClientExecutors.getExecutor("platform", ctx.getBeanFactory(), ctx.getEnvironment()))
+                .isNull();
+
+        ctx.close();
+    }
+
+    interface EchoApi {
+        @GetExchange("/echo")
+        String echo();
+    }
+
+    static class CountingExecutor implements Executor {
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public void execute(Runnable command) {
+            count.incrementAndGet();
+            new Thread(command).start();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration
+    @EnableExchangeClients(clients = EchoApi.class)
+    @RestController
+    static class ExecutorConfig implements EchoApi {
+
+        @Bean
+        CountingExecutor countingExecutor() {
+            return new CountingExecutor();
+        }
+
+        @Override
+        public String echo() {
+            return "echo";
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package io.github.danielliu1123.httpexchange;
+
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.STRING;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.circuitBreakerPolicy;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.concurrencyLimitPolicy;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.counting;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.hedge;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.hedgePolicy;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.request;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.unavailable;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.github.danielliu1123.httpexchange.HttpExchangeProperties.ConcurrencyLimit.Algorithm;
+import io.github.danielliu1123.httpexchange.shaded.AsyncRequestExecutor;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * {@link HedgingExchangeAdapter} tester.
+ */
+class HedgingExchangeAdapterTest {
+
+    private static final ThreadLocal<String> USER = new ThreadLocal<>();
+
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private final AsyncRequestExecutor executor = new AsyncRequestExecutor(executorService, 10);
+
+    @AfterEach
+    void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void testHedge_whenPrimaryIsSlow_thenHedgeWinsAndPrimaryIsCancelled() {
+        Thread caller = Thread.currentThread();
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        HttpExchangeAdapter delegate = mock(HttpExchangeAdapter.class);
+        when(delegate.exchangeForBody(any(), any())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            if (Thread.currentThread() == caller) {
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw new IllegalStateException(e);
+                }
+            }
+            return "OK-" + USER.get();
+        });
+        TaskDecorator propagateUser = task -> {
+            String user = USER.get();
+            return () -> {
+                USER.set(user);
+                try {
+                    task.run();
+                } finally {
+                    USER.remove();
+                }
+            };
+        };
+        HttpExchangeAdapter adapter = HedgingExchangeAdapter.wrap(delegate, hedgePolicy(0), executor, propagateUser);
+
+        USER.set("freeman");
+        try {
+            assertThat(adapter.exchangeForBody(request(HttpMethod.GET), STRING))
+                    .isEqualTo("OK-freeman");
+        } finally {
+            USER.remove();
+        }
+        assertThat(calls).hasValue(2);
+        assertThat(interrupted.getCount()).isZero();
+        // the interrupt of the winning hedge is cleared
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void testHedge_whenHedgeWins_thenCancelledPrimaryIsNotCountedAsFailure() {
+        Thread caller = Thread.currentThread();
+        HttpExchangeAdapter delegate = mock(HttpExchangeAdapter.class);
+        when(delegate.exchangeForBody(any(), any())).thenAnswer(invocation -> {
+            if (Thread.currentThread() == caller) {
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    // the http client surfaces the interrupt as an I/O error
+                    throw new ResourceAccessException("Request was interrupted");
+                }
+            }
+            return "OK";
+        });
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(concurrencyLimitPolicy(Algorithm.AIMD, 10));
+        CircuitBreakers circuitBreakers = new CircuitBreakers("test", circuitBreakerPolicy(1, 30_000));
+        HttpExchangeAdapter adapter = HedgingExchangeAdapter.wrap(
+                CircuitBreakingExchangeAdapter.wrap(
+                        ConcurrencyLimitingExchangeAdapter.wrap(delegate, limiter), circuitBreakers),
+                hedgePolicy(0),
+                executor,
+                null);
+
+        assertThat(adapter.exchangeForBody(request(HttpMethod.GET), STRING)).isEqualTo("OK");
+
+        CircuitBreaker circuitBreaker = circuitBreakers.get(request(HttpMethod.GET));
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.getStats().calls()).isEqualTo(1);
+        assertThat(circuitBreaker.getStats().failures()).isZero();
+        assertThat(limiter.getLimit()).isEqualTo(10);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void testHedge_whenCallerInterruptedElsewhere_thenKeepInterrupt() {
+        Thread caller = Thread.currentThread();
+        CountDownLatch callerInterrupted = new CountDownLatch(1);
+        AtomicBoolean hedgeCompleted = new AtomicBoolean();
+        HttpExchangeAdapter delegate = mock(HttpExchangeAdapter.class);
+        when(delegate.exchangeForBody(any(), any())).thenAnswer(invocation -> {
+            if (Thread.currentThread() == caller) {
+                // interrupted by someone else while the request ignores interrupts
+                caller.interrupt();
+                callerInterrupted.countDown();
+                while (!hedgeCompleted.get()) {
+                    Thread.onSpinWait();
+                }
+            } else {
+                callerInterrupted.await();
+            }
+            return "OK";
+        });
+        AsyncRequestExecutor hedgeExecutor = new AsyncRequestExecutor(
+                task -> executorService.execute(() -> {
+                    task.run();
+                    hedgeCompleted.set(true);
+                }),
+                10);
+        HttpExchangeAdapter adapter = HedgingExchangeAdapter.wrap(delegate, hedgePolicy(0), hedgeExecutor, null);
+
+        assertThat(adapter.exchangeForBody(request(HttpMethod.GET), STRING)).isEqualTo("OK");
+        // the interrupt is not delivered by the race, so it's kept for the caller
+        assertThat(Thread.interrupted()).isTrue();
+    }
+
+    @Test
+    void testHedge_whenPrimaryIsFast_thenNoHedge() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpExchangeAdapter adapter =
+                HedgingExchangeAdapter.wrap(counting(calls), hedgePolicy(10_000), executor, null);
+
+        assertThat(adapter.exchangeForBody(request(HttpMethod.GET), STRING)).isEqualTo("OK");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void testHedge_whenPrimaryFailsBeforeDelay_thenThrowWithoutHedge() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpExchangeAdapter delegate = mock(HttpExchangeAdapter.class);
+        when(delegate.exchangeForBody(any(), any())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            throw unavailable();
+        });
+        HttpExchangeAdapter adapter = HedgingExchangeAdapter.wrap(delegate, hedgePolicy(10_000), executor, null);
+
+        assertThatExceptionOfType(HttpServerErrorException.class)
+                .isThrownBy(() -> adapter.exchangeForBody(request(HttpMethod.GET), STRING));
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void testHedge_whenNotIdempotent_thenNoHedge() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpExchangeAdapter adapter = HedgingExchangeAdapter.wrap(counting(calls), hedgePolicy(0), executor, null);
+
+        assertThat(adapter.exchangeForBody(request(HttpMethod.POST), STRING)).isEqualTo("OK");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void testHedge_whenBudgetExhausted_thenNoHedge() {
+        HttpExchangeProperties.Hedge hedge = hedge(0);
+        hedge.setMaxRatio(0.0);
+        AtomicInteger calls = new AtomicInteger();
+        HedgingExchangeAdapter adapter = (HedgingExchangeAdapter)
+                HedgingExchangeAdapter.wrap(counting(calls), HedgePolicy.of(hedge), executor, null);
+        while (adapter.getBudget().tryRetry()) {
+            // drain the budget
+        }
+
+        assertThat(adapter.exchangeForBody(request(HttpMethod.GET), STRING)).isEqualTo("OK");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void testHedge_whenReactive_thenFirstResponseWins() {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        ReactorHttpExchangeAdapter delegate = mock(ReactorHttpExchangeAdapter.class);
+        when(delegate.exchangeForBodyMono(any(), any()))
+                .thenReturn(Mono.defer(() -> calls.incrementAndGet() == 1
+                        ? Mono.delay(Duration.ofSeconds(10))
+                                .thenReturn("SLOW")
+                                .doOnCancel(() -> cancelled.set(true))
+                        : Mono.just("OK")));
+        ReactorHttpExchangeAdapter adapter =
+                (ReactorHttpExchangeAdapter) HedgingExchangeAdapter.wrap(delegate, hedgePolicy(50), executor, null);
+
+        StepVerifier.withVirtualTime(() -> adapter.exchangeForBodyMono(request(HttpMethod.GET), STRING))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(49))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext("OK")
+                .verifyComplete();
+        assertThat(calls).hasValue(2);
+        assertThat(cancelled).isTrue();
+    }
+
+    @Test
+    void testDelay_whenNoFixedDelay_thenUseObservedPercentile() {
+        HttpExchangeProperties.Hedge hedge = new HttpExchangeProperties.Hedge();
+        hedge.setEnabled(true);
+        hedge.setPercentile(0.9);
+        hedge.setMinDelay(5);
+        HedgePolicy policy = HedgePolicy.of(hedge);
+        LatencyTracker tracker = new LatencyTracker(policy.percentile());
+
+        assertThat(policy.delay(tracker)).isNull();
+
+        for (int i = 1; i <= 80; i++) {
+            tracker.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        assertThat(policy.delay(tracker)).isEqualTo(Duration.ofMillis(72));
+
+        LatencyTracker fast = new LatencyTracker(policy.percentile());
+        for (int i = 0; i < LatencyTracker.MIN_SAMPLES; i++) {
+            fast.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertThat(policy.delay(fast)).isEqualTo(Duration.ofMillis(5));
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.danielliu1123.httpexchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.danielliu1123.httpexchange.metadata.MetadataOnlyApi;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * {@link HttpClientBeanRegistrar} tester.
+ */
+class HttpClientBeanRegistrarTest {
+
+    private static final String PACKAGE = "io.github.danielliu1123.httpexchange.metadata";
+
+    @AfterEach
+    void reset() {
+        HttpClientBeanRegistrar.clear();
+    }
+
+    @Test
+    void registerFromMetadata_thenClassIsNotResolved() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        HttpClientBeanRegistrar registrar = new HttpClientBeanRegistrar(new HttpExchangeProperties(), beanFactory);
+
+        registrar.register(PACKAGE);
+        // not a scanning candidate, but annotated methods are inherited
+        registrar.register(MetadataOnlyApi.Sub.class);
+
+        assertThat(beanFactory.getBeanDefinitionNames())
+                .containsExactlyInAnyOrder(PACKAGE + ".MetadataOnlyApi", PACKAGE + ".MetadataOnlyApi$Sub");
+
+        AbstractBeanDefinition bd = (AbstractBeanDefinition) beanFactory.getBeanDefinition(PACKAGE + ".MetadataOnlyApi");
+        assertThat(bd.hasBeanClass()).isFalse();
+        assertThat(bd.getBeanClassName()).isEqualTo(PACKAGE + ".MetadataOnlyApi");
+        assertThat(bd.isLazyInit()).isTrue();
+        assertThat(bd.getAttribute(HttpClientBeanRegistrar.USING_NEUTRAL_ANNOTATION_ATTRIBUTE))
+                .isEqualTo(true);
+
+        // class is loaded when the bean type is resolved
+        assertThat(beanFactory.getType(PACKAGE + ".MetadataOnlyApi")).isEqualTo(MetadataOnlyApi.class);
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.danielliu1123.httpexchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link HttpClientIndex} tester.
+ */
+class HttpClientIndexTest {
+
+    @Test
+    void testLoad(@TempDir Path dir) throws Exception {
+        Path index = dir.resolve(HttpClientIndex.INDEX_LOCATION);
+        Files.createDirectories(index.getParent());
+        Files.writeString(index, """
+                com.example.user.UserApi
+                com.example.user.api.UserHobbyApi
+                # comment
+
+                com.example.order.OrderApi$Nested
+                com.example.userx.OtherApi
+                """);
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {dir.toUri().toURL()}, null)) {
+            HttpClientIndex clientIndex = HttpClientIndex.load(classLoader);
+
+            assertThat(clientIndex).isNotNull();
+            assertThat(clientIndex.getClients("com.example.user"))
+                    .containsExactly("com.example.user.UserApi", "com.example.user.api.UserHobbyApi");
+            assertThat(clientIndex.getClients("com.example.order")).containsExactly("com.example.order.OrderApi$Nested");
+            assertThat(clientIndex.getClients("com.example")).hasSize(4);
+            assertThat(clientIndex.getClients("org.example")).isEmpty();
+        }
+    }
+
+    @Test
+    void whenNoIndex_thenReturnNull(@TempDir Path dir) throws Exception {
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {dir.toUri().toURL()}, null)) {
+            assertThat(HttpClientIndex.load(classLoader)).isNull();
+        }
+    }
+
+    @Test
+    void testCovers(@TempDir Path indexed, @TempDir Path notIndexed) throws Exception {
+        Path index = indexed.resolve(HttpClientIndex.INDEX_LOCATION);
+        Files.createDirectories(index.getParent());
+        Files.writeString(index, "com.example.user.UserApi\n");
+        Files.createDirectories(indexed.resolve("com/example/user"));
+        Files.createDirectories(notIndexed.resolve("com/example/order"));
+
+        URL[] urls = {indexed.toUri().toURL(), notIndexed.toUri().toURL()};
+        try (URLClassLoader classLoader = new URLClassLoader(urls, null)) {
+            HttpClientIndex clientIndex = HttpClientIndex.load(classLoader);
+
+            assertThat(clientIndex).isNotNull();
+            assertThat(clientIndex.covers("com.example.user")).isTrue();
+            assertThat(clientIndex.covers("com.example.order")).isFalse();
+            assertThat(clientIndex.covers("com.example")).isFalse();
+        }
+    }
+
+    @Test
+    void testSupports() {
+        assertThat(HttpClientIndex.supports("com.example")).isTrue();
+        assertThat(HttpClientIndex.supports("com.**.api")).isFalse();
+    }
+}
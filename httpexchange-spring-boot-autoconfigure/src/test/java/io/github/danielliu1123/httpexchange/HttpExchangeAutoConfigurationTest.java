@@ -20,6 +20,7 @@ class HttpExchangeAutoConfigurationTest {
     void testDefault() {
         runner.run(ctx -> {
             assertThat(ctx).hasSingleBean(HttpClientBeanDefinitionRegistry.class);
+            assertThat(ctx).hasSingleBean(TransportReleasingPostProcessor.class);
             assertThat(ctx).hasSingleBean(BeanParamArgumentResolver.class);
             assertThat(ctx).hasSingleBean(ClientHttpRequestFactory.class);
             assertThat(ctx).hasSingleBean(CommandLineRunner.class);
@@ -0,0 +1,82 @@
+package io.github.danielliu1123.httpexchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.aot.test.generate.TestGenerationContext;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationCode;
+import org.springframework.beans.factory.support.RegisteredBean;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.invoker.HttpServiceProxyFactory;
+
+/**
+ * {@link HttpExchangeBeanFactoryInitializationAotProcessor} tester.
+ */
+class HttpExchangeBeanFactoryInitializationAotProcessorTest {
+
+    @Test
+    void testAotContribution() {
+        var ctx = new SpringApplicationBuilder(Cfg.class)
+                .web(WebApplicationType.NONE)
+                .properties(HttpExchangeProperties.PREFIX + ".base-url=http://localhost:8080")
+                .run();
+        var beanFactory = ctx.getBeanFactory();
+        var processor = new HttpExchangeBeanFactoryInitializationAotProcessor();
+
+        String beanName = AotApi.class.getName();
+        assertThat(processor.isExcludedFromAotProcessing(RegisteredBean.of(beanFactory, beanName)))
+                .isTrue();
+        assertThat(processor.isExcludedFromAotProcessing(RegisteredBean.of(beanFactory, "beanParamArgumentResolver")))
+                .isFalse();
+
+        BeanFactoryInitializationAotContribution contribution = processor.processAheadOfTime(beanFactory);
+        assertThat(contribution).isNotNull();
+
+        TestGenerationContext generationContext = new TestGenerationContext();
+        BeanFactoryInitializationCode code = mock(BeanFactoryInitializationCode.class);
+        contribution.applyTo(generationContext, code);
+
+        verify(code).addInitializer(any());
+        RuntimeHints hints = generationContext.getRuntimeHints();
+        assertThat(RuntimeHintsPredicates.proxies()
+                        .forInterfaces(AopProxyUtils.completeJdkProxyInterfaces(AotApi.class)))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(AotApi.class, "get"))
+                .accepts(hints);
+
+        ctx.close();
+    }
+
+    @Test
+    void testRuntimeHints() {
+        RuntimeHints hints = new RuntimeHints();
+        new HttpExchangeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onField(HttpServiceProxyFactory.Builder.class, "exchangeAdapter"))
+                .accepts(hints);
+    }
+
+    @HttpExchange("/aot")
+    interface AotApi {
+        @GetExchange("/{id}")
+        String get(@PathVariable("id") String id);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration
+    @EnableExchangeClients(clients = AotApi.class)
+    static class Cfg {}
+}
@@ -0,0 +1,164 @@
+package io.github.danielliu1123.httpexchange;
+
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.STRING;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.rateLimit;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.rateLimitPolicy;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.request;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+/**
+ * {@link RateLimiter} tester.
+ */
+class RateLimiterTest {
+
+    @Test
+    void testReserve_whenBurstExhausted_thenFailFastOrWait() {
+        RateLimiter limiter = new RateLimiter(10, 2, 0.5, Duration.ofSeconds(30));
+
+        assertThat(limiter.reserve(0)).isZero();
+        assertThat(limiter.reserve(0)).isZero();
+        assertThat(limiter.reserve(0)).isEqualTo(-1);
+
+        long wait = limiter.reserve(TimeUnit.SECONDS.toNanos(1));
+        assertThat(Duration.ofNanos(wait)).isBetween(Duration.ofMillis(50), Duration.ofMillis(100));
+    }
+
+    @Test
+    void testOnThrottled_thenReduceRateAndRecover() {
+        AtomicLong clock = new AtomicLong();
+        RateLimiter limiter = new RateLimiter(10, 1, 0.5, Duration.ofMillis(200), clock::get);
+
+        limiter.onThrottled(Duration.ZERO);
+        assertThat(limiter.getRate()).isEqualTo(5.0);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(limiter.getRate()).isEqualTo(7.5);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        assertThat(limiter.getRate()).isEqualTo(10.0);
+    }
+
+    @Test
+    void testPause_thenRejectUntilResumed() {
+        RateLimiter limiter = new RateLimiter(10, 5, 0.5, Duration.ofSeconds(30));
+
+        limiter.pause(Duration.ofSeconds(10));
+
+        assertThat(limiter.reserve(0)).isEqualTo(-1);
+        assertThat(limiter.getRate()).isEqualTo(10.0);
+    }
+
+    @Test
+    void testAdapter_when429WithRetryAfter_thenPause() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "10");
+        HttpExchangeAdapter delegate = mock(HttpExchangeAdapter.class);
+        when(delegate.exchangeForBody(any(), any())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "", headers, null, null);
+        });
+        HttpExchangeAdapter adapter = RateLimitingExchangeAdapter.wrap(delegate, rateLimitPolicy(100.0, List.of()));
+
+        assertThatExceptionOfType(HttpClientErrorException.class)
+                .isThrownBy(() -> adapter.exchangeForBody(request("/foo"), STRING));
+        assertThatExceptionOfType(RateLimitExceededException.class)
+                .isThrownBy(() -> adapter.exchangeForBody(request("/foo"), STRING));
+        assertThat(calls).hasValue(1);
+        assertThat(((RateLimitingExchangeAdapter) adapter).getChannelLimiter().getRate())
+                .isCloseTo(50.0, offset(1.0));
+    }
+
+    @Test
+    void testAdapter_whenQuotaExhausted_thenPause() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Remaining", "0");
+        headers.set("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + 60));
+        HttpExchangeAdapter delegate = mock(HttpExchangeAdapter.class);
+        when(delegate.exchangeForEntity(any(), any())).thenReturn(new ResponseEntity<>("OK", headers, HttpStatus.OK));
+        HttpExchangeAdapter adapter = RateLimitingExchangeAdapter.wrap(delegate, rateLimitPolicy(100.0, List.of()));
+
+        assertThat(adapter.exchangeForEntity(request("/foo"), STRING).getBody()).isEqualTo("OK");
+        assertThatExceptionOfType(RateLimitExceededException.class)
+                .isThrownBy(() -> adapter.exchangeForEntity(request("/foo"), STRING));
+    }
+
+    @Test
+    void testAdapter_whenMethodRuleMatches_thenLimitMethod() {
+        HttpExchangeAdapter delegate = mock(HttpExchangeAdapter.class);
+        when(delegate.exchangeForBody(any(), any())).thenReturn("OK");
+        HttpExchangeProperties.RateLimit.MethodRateLimit users =
+                new HttpExchangeProperties.RateLimit.MethodRateLimit("GET", "/users/**", 1.0, 1);
+        HttpExchangeAdapter adapter = RateLimitingExchangeAdapter.wrap(delegate, rateLimitPolicy(null, List.of(users)));
+
+        assertThat(adapter.exchangeForBody(request("/users/{id}"), STRING)).isEqualTo("OK");
+        assertThatExceptionOfType(RateLimitExceededException.class)
+                .isThrownBy(() -> adapter.exchangeForBody(request("/users/{id}"), STRING));
+        // not matched
+        assertThat(adapter.exchangeForBody(request("/orders/{id}"), STRING)).isEqualTo("OK");
+        assertThat(adapter.exchangeForBody(request("/orders/{id}"), STRING)).isEqualTo("OK");
+    }
+
+    @Test
+    void testAdapter_whenInterruptedWhileWaiting_thenGiveBackPermit() {
+        HttpExchangeAdapter delegate = mock(HttpExchangeAdapter.class);
+        when(delegate.exchangeForBody(any(), any())).thenReturn("OK");
+        HttpExchangeProperties.RateLimit rateLimit = rateLimit(10.0, List.of());
+        rateLimit.setBurst(1);
+        rateLimit.setMaxWait(150);
+        HttpExchangeAdapter adapter = RateLimitingExchangeAdapter.wrap(delegate, RateLimitPolicy.of(rateLimit));
+
+        assertThat(adapter.exchangeForBody(request("/foo"), STRING)).isEqualTo("OK");
+
+        Thread.currentThread().interrupt();
+        assertThatExceptionOfType(RateLimitExceededException.class)
+                .isThrownBy(() -> adapter.exchangeForBody(request("/foo"), STRING));
+        assertThat(Thread.interrupted()).isTrue();
+
+        // the permit of the interrupted call is given back, the next one waits 100ms instead of 200ms
+        assertThat(adapter.exchangeForBody(request("/foo"), STRING)).isEqualTo("OK");
+    }
+
+    @Test
+    void testAdapter_whenReactiveAndMaxWait_thenDelay() {
+        ReactorHttpExchangeAdapter delegate = mock(ReactorHttpExchangeAdapter.class);
+        when(delegate.exchangeForBodyMono(any(), any())).thenReturn(Mono.just("OK"));
+        HttpExchangeProperties.RateLimit rateLimit = rateLimit(10.0, List.of());
+        rateLimit.setBurst(1);
+        rateLimit.setMaxWait(1000);
+        ReactorHttpExchangeAdapter adapter = (ReactorHttpExchangeAdapter)
+                RateLimitingExchangeAdapter.wrap(delegate, RateLimitPolicy.of(rateLimit));
+
+        StepVerifier.withVirtualTime(() -> Flux.concat(
+                        adapter.exchangeForBodyMono(request("/foo"), STRING),
+                        adapter.exchangeForBodyMono(request("/foo"), STRING)))
+                .expectSubscription()
+                .expectNext("OK")
+                // the second permit is reserved 100ms after the first one
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenAwait(Duration.ofMillis(50))
+                .expectNext("OK")
+                .verifyComplete();
+    }
+}
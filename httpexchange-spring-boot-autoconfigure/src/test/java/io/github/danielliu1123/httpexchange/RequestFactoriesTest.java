@@ -0,0 +1,111 @@
+package io.github.danielliu1123.httpexchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.http.HttpClient;
+import java.util.List;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.JettyClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * {@link RequestFactories} tester.
+ */
+class RequestFactoriesTest {
+
+    @Test
+    void testJdk() {
+        HttpExchangeProperties.Channel channel = channel();
+        channel.setHttpVersion(HttpExchangeProperties.HttpVersion.HTTP_1_1);
+
+        ClientHttpRequestFactory factory =
+                RequestFactories.get(TransportSettings.of(JdkClientHttpRequestFactory.class, channel, null, null));
+
+        assertThat(factory).isInstanceOf(JdkClientHttpRequestFactory.class);
+        HttpClient httpClient = (HttpClient) ReflectionTestUtils.getField(factory, "httpClient");
+        assertThat(httpClient).isNotNull();
+        assertThat(httpClient.version()).isEqualTo(HttpClient.Version.HTTP_1_1);
+        assertThat(httpClient.connectTimeout()).hasValueSatisfying(d -> assertThat(d.toMillis())
+                .isEqualTo(1000));
+    }
+
+    @Test
+    void testHttpComponents() throws Exception {
+        HttpExchangeProperties.Channel channel = channel();
+        channel.getConnectionPool().setMaxConnections(100);
+        channel.getConnectionPool().setMaxConnectionsPerRoute(20);
+        channel.getConnectionPool().setIdleTimeout(30_000);
+        channel.getConnectionPool().setValidateAfterInactivity(2_000);
+
+        ClientHttpRequestFactory factory = RequestFactories.get(
+                TransportSettings.of(HttpComponentsClientHttpRequestFactory.class, channel, null, null));
+
+        assertThat(factory).isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+        Object httpClient = ((HttpComponentsClientHttpRequestFactory) factory).getHttpClient();
+        PoolingHttpClientConnectionManager connectionManager =
+                (PoolingHttpClientConnectionManager) ReflectionTestUtils.getField(httpClient, "connManager");
+        assertThat(connectionManager).isNotNull();
+        assertThat(connectionManager.getMaxTotal()).isEqualTo(100);
+        assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(20);
+
+        ((HttpComponentsClientHttpRequestFactory) factory).destroy();
+    }
+
+    @Test
+    void testJetty() {
+        HttpExchangeProperties.Channel channel = channel();
+        channel.getConnectionPool().setMaxConnectionsPerRoute(16);
+        channel.getConnectionPool().setIdleTimeout(30_000);
+
+        ClientHttpRequestFactory factory = RequestFactories.get(
+                TransportSettings.of(JettyClientHttpRequestFactory.class, channel, null, null));
+
+        assertThat(factory).isInstanceOf(JettyClientHttpRequestFactory.class);
+        org.eclipse.jetty.client.HttpClient httpClient =
+                (org.eclipse.jetty.client.HttpClient) ReflectionTestUtils.getField(factory, "httpClient");
+        assertThat(httpClient).isNotNull();
+        assertThat(httpClient.getMaxConnectionsPerDestination()).isEqualTo(16);
+        assertThat(httpClient.getIdleTimeout()).isEqualTo(30_000);
+    }
+
+    @Test
+    void testUnsupportedFactory_thenIgnorePoolSettings() {
+        HttpExchangeProperties.Channel channel = channel();
+        channel.getConnectionPool().setMaxConnections(100);
+
+        ClientHttpRequestFactory factory = RequestFactories.get(
+                TransportSettings.of(SimpleClientHttpRequestFactory.class, channel, null, null));
+
+        assertThat(factory).isInstanceOf(SimpleClientHttpRequestFactory.class);
+    }
+
+    @Test
+    void testMergeConnectionPool() {
+        HttpExchangeProperties properties = new HttpExchangeProperties();
+        properties.getConnectionPool().setMaxConnections(200);
+        properties.getConnectionPool().setIdleTimeout(60_000);
+        properties.setHttpVersion(HttpExchangeProperties.HttpVersion.HTTP_2);
+        HttpExchangeProperties.Channel channel = new HttpExchangeProperties.Channel();
+        channel.getConnectionPool().setMaxConnections(50);
+        properties.setChannels(List.of(channel));
+
+        properties.merge();
+
+        assertThat(channel.getConnectionPool().getMaxConnections()).isEqualTo(50);
+        assertThat(channel.getConnectionPool().getIdleTimeout()).isEqualTo(60_000);
+        assertThat(channel.getConnectionPool().getMaxConnectionsPerRoute()).isNull();
+        assertThat(channel.getHttpVersion()).isEqualTo(HttpExchangeProperties.HttpVersion.HTTP_2);
+    }
+
+    private static HttpExchangeProperties.Channel channel() {
+        HttpExchangeProperties.Channel channel = new HttpExchangeProperties.Channel();
+        channel.setConnectTimeout(1000);
+        channel.setReadTimeout(5000);
+        return channel;
+    }
+}
@@ -0,0 +1,204 @@
+package io.github.danielliu1123.httpexchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.danielliu1123.PortGetter;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.service.annotation.GetExchange;
+
+/**
+ * @author Freeman
+ */
+class ResponseCacheTests {
+
+    @Test
+    void testMaxAge_whenCacheEnabled_thenServeFromCache() {
+        int port = PortGetter.availablePort();
+        var ctx = new SpringApplicationBuilder(Cfg.class)
+                .properties("server.port=" + port)
+                .properties("http-exchange.base-url=http://localhost:" + port)
+                .properties("http-exchange.response-cache.enabled=true")
+                .run();
+
+        CacheApi api = ctx.getBean(CacheApi.class);
+        Controller controller = ctx.getBean(Controller.class);
+
+        assertThat(api.maxAge()).isEqualTo("1");
+        assertThat(api.maxAge()).isEqualTo("1");
+        assertThat(controller.maxAgeCalls.get()).isEqualTo(1);
+
+        // no-store response is never cached
+        assertThat(api.noStore()).isEqualTo("1");
+        assertThat(api.noStore()).isEqualTo("2");
+
+        ctx.close();
+    }
+
+    @Test
+    void testSharedCache_whenPrivateOrAuthorized_thenNotServedToOtherCallers() {
+        int port = PortGetter.availablePort();
+        var ctx = new SpringApplicationBuilder(Cfg.class)
+                .properties("server.port=" + port)
+                .properties("http-exchange.base-url=http://localhost:" + port)
+                .properties("http-exchange.response-cache.enabled=true")
+                .run();
+
+        CacheApi api = ctx.getBean(CacheApi.class);
+
+        // private response is never cached
+        assertThat(api.privateMaxAge()).isEqualTo("1");
+        assertThat(api.privateMaxAge()).isEqualTo("2");
+
+        // response to an authorized request is not cached unless it's public
+        assertThat(api.authorized("Bearer alice")).isEqualTo("alice-1");
+        assertThat(api.authorized("Bearer bob")).isEqualTo("bob-2");
+        assertThat(api.authorizedPublic("Bearer alice")).isEqualTo("1");
+        assertThat(api.authorizedPublic("Bearer bob")).isEqualTo("1");
+
+        ctx.close();
+    }
+
+    @Test
+    void testETag_whenStale_thenRevalidate() {
+        int port = PortGetter.availablePort();
+        var ctx = new SpringApplicationBuilder(Cfg.class)
+                .properties("server.port=" + port)
+                .properties("http-exchange.base-url=http://localhost:" + port)
+                .properties("http-exchange.response-cache.enabled=true")
+                .run();
+
+        CacheApi api = ctx.getBean(CacheApi.class);
+        Controller controller = ctx.getBean(Controller.class);
+
+        assertThat(api.etag()).isEqualTo("etag");
+        assertThat(api.etag()).isEqualTo("etag");
+        assertThat(controller.etagCalls.get()).isEqualTo(2);
+        assertThat(controller.notModified.get()).isEqualTo(1);
+
+        ctx.close();
+    }
+
+    @Test
+    void testAnnotation_whenCacheDisabled_thenOnlyCacheAnnotatedMethods() {
+        int port = PortGetter.availablePort();
+        var ctx = new SpringApplicationBuilder(Cfg.class)
+                .properties("server.port=" + port)
+                .properties("http-exchange.base-url=http://localhost:" + port)
+                .run();
+
+        CacheApi api = ctx.getBean(CacheApi.class);
+        Controller controller = ctx.getBean(Controller.class);
+
+        api.maxAge();
+        api.maxAge();
+        assertThat(controller.maxAgeCalls.get()).isEqualTo(2);
+
+        assertThat(api.cacheableMaxAge()).isEqualTo("3");
+        assertThat(api.cacheableMaxAge()).isEqualTo("3");
+        assertThat(controller.maxAgeCalls.get()).isEqualTo(3);
+
+        ctx.close();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration
+    @EnableExchangeClients(clients = CacheApi.class)
+    static class Cfg {
+
+        @Bean
+        Controller controller() {
+            return new Controller();
+        }
+    }
+
+    @RestController
+    static class Controller {
+        final AtomicInteger maxAgeCalls = new AtomicInteger();
+        final AtomicInteger noStoreCalls = new AtomicInteger();
+        final AtomicInteger etagCalls = new AtomicInteger();
+        final AtomicInteger notModified = new AtomicInteger();
+        final AtomicInteger privateCalls = new AtomicInteger();
+        final AtomicInteger authorizedCalls = new AtomicInteger();
+        final AtomicInteger publicCalls = new AtomicInteger();
+
+        @GetMapping("/max-age")
+        ResponseEntity<String> maxAge() {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, "max-age=60")
+                    .body(String.valueOf(maxAgeCalls.incrementAndGet()));
+        }
+
+        @GetMapping("/no-store")
+        ResponseEntity<String> noStore() {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                    .body(String.valueOf(noStoreCalls.incrementAndGet()));
+        }
+
+        @GetMapping("/private")
+        ResponseEntity<String> privateMaxAge() {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, "private, max-age=60")
+                    .body(String.valueOf(privateCalls.incrementAndGet()));
+        }
+
+        @GetMapping("/authorized")
+        ResponseEntity<String> authorized(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, "max-age=60")
+                    .body(authorization.substring("Bearer ".length()) + "-" + authorizedCalls.incrementAndGet());
+        }
+
+        @GetMapping("/authorized-public")
+        ResponseEntity<String> authorizedPublic() {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, "public, max-age=60")
+                    .body(String.valueOf(publicCalls.incrementAndGet()));
+        }
+
+        @GetMapping("/etag")
+        ResponseEntity<String> etag(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String tag) {
+            etagCalls.incrementAndGet();
+            if ("\"v1\"".equals(tag)) {
+                notModified.incrementAndGet();
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("v1").build();
+            }
+            return ResponseEntity.ok().eTag("v1").body("etag");
+        }
+    }
+
+    interface CacheApi {
+        @GetExchange("/max-age")
+        String maxAge();
+
+        @GetExchange("/max-age")
+        @ResponseCacheable
+        String cacheableMaxAge();
+
+        @GetExchange("/no-store")
+        String noStore();
+
+        @GetExchange("/etag")
+        String etag();
+
+        @GetExchange("/private")
+        String privateMaxAge();
+
+        @GetExchange("/authorized")
+        String authorized(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization);
+
+        @GetExchange("/authorized-public")
+        String authorizedPublic(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization);
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.danielliu1123.httpexchange;
+
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.STRING;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.failing;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.request;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.retry;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.retryPolicy;
+import static io.github.danielliu1123.httpexchange.ExchangeAdapterFixtures.unavailable;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.ReactorHttpExchangeAdapter;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link RetryingExchangeAdapter} tester.
+ */
+class RetryingExchangeAdapterTest {
+
+    @Test
+    void testRetry_whenRetryableStatus_thenRetryUntilSuccess() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpExchangeAdapter adapter = RetryingExchangeAdapter.wrap(failing(calls, 2, unavailable()), retryPolicy());
+
+        assertThat(adapter.exchangeForBody(request(HttpMethod.GET), STRING)).isEqualTo("OK");
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void testRetry_whenMaxAttemptsReached_thenThrow() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpExchangeAdapter adapter = RetryingExchangeAdapter.wrap(failing(calls, 5, unavailable()), retryPolicy());
+
+        assertThatExceptionOfType(HttpServerErrorException.class)
+                .isThrownBy(() -> adapter.exchangeForBody(request(HttpMethod.GET), STRING));
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void testRetry_whenNotRetryable_thenNoRetry() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpExchangeAdapter adapter = RetryingExchangeAdapter.wrap(failing(calls, 1, unavailable()), retryPolicy());
+
+        // POST is not idempotent
+        assertThatExceptionOfType(HttpServerErrorException.class)
+                .isThrownBy(() -> adapter.exchangeForBody(request(HttpMethod.POST), STRING));
+        assertThat(calls).hasValue(1);
+
+        // 400 is not retryable
+        calls.set(0);
+        HttpExchangeAdapter badRequest = RetryingExchangeAdapter.wrap(
+                failing(calls, 1, HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "", null, null, null)),
+                retryPolicy());
+        assertThatExceptionOfType(HttpClientErrorException.class)
+                .isThrownBy(() -> badRequest.exchangeForBody(request(HttpMethod.GET), STRING));
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void testRetry_whenIoErrorOrAnnotated_thenRetry() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpExchangeAdapter adapter = RetryingExchangeAdapter.wrap(
+                failing(calls, 1, new ResourceAccessException("Connection refused")), retryPolicy());
+
+        HttpRequestValues post = HttpRequestValues.builder()
+                .setHttpMethod(HttpMethod.POST)
+                .setUriTemplate("/foo")
+                .addAttribute(
+                        RetryingExchangeAdapter.RETRYABLE_ATTRIBUTE, Annotated.class.getAnnotation(Retryable.class))
+                .build();
+
+        assertThat(adapter.exchangeForBody(post, STRING)).isEqualTo("OK");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void testRetry_whenChannelRetryDisabled_thenOnlyRetryAnnotated() {
+        HttpExchangeProperties.Retry retry = retry();
+        retry.setEnabled(false);
+        AtomicInteger calls = new AtomicInteger();
+        HttpExchangeAdapter adapter =
+                RetryingExchangeAdapter.wrap(failing(calls, 1, unavailable()), RetryPolicy.of(retry));
+
+        assertThatExceptionOfType(HttpServerErrorException.class)
+                .isThrownBy(() -> adapter.exchangeForBody(request(HttpMethod.GET), STRING));
+        assertThat(calls).hasValue(1);
+
+        calls.set(0);
+        HttpRequestValues annotated = HttpRequestValues.builder()
+                .setHttpMethod(HttpMethod.GET)
+                .setUriTemplate("/foo")
+                .addAttribute(
+                        RetryingExchangeAdapter.RETRYABLE_ATTRIBUTE, Annotated.class.getAnnotation(Retryable.class))
+                .build();
+        assertThat(adapter.exchangeForBody(annotated, STRING)).isEqualTo("OK");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void testRetry_whenRetryAfterTooLong_thenNoRetry() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "60");
+        HttpExchangeAdapter adapter =
+                RetryingExchangeAdapter.wrap(failing(calls, 1, unavailable(headers)), retryPolicy());
+
+        assertThatExceptionOfType(HttpServerErrorException.class)
+                .isThrownBy(() -> adapter.exchangeForBody(request(HttpMethod.GET), STRING));
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void testRetryBudget_whenExhausted_thenNoRetry() {
+        HttpExchangeProperties.Retry retry = retry();
+        retry.setBudgetMaxTokens(1);
+        retry.setBudgetRatio(0.0);
+        AtomicInteger calls = new AtomicInteger();
+        HttpExchangeAdapter adapter =
+                RetryingExchangeAdapter.wrap(failing(calls, 100, unavailable()), RetryPolicy.of(retry));
+
+        assertThatExceptionOfType(HttpServerErrorException.class)
+                .isThrownBy(() -> adapter.exchangeForBody(request(HttpMethod.GET), STRING));
+        // one retry allowed by the budget
+        assertThat(calls).hasValue(2);
+
+        calls.set(0);
+        assertThatExceptionOfType(HttpServerErrorException.class)
+                .isThrownBy(() -> adapter.exchangeForBody(request(HttpMethod.GET), STRING));
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void testRetry_whenReactive_thenResubscribe() {
+        AtomicInteger calls = new AtomicInteger();
+        ReactorHttpExchangeAdapter delegate = mock(ReactorHttpExchangeAdapter.class);
+        when(delegate.exchangeForBodyMono(any(), any()))
+                .thenReturn(Mono.defer(() -> calls.incrementAndGet() < 3
+                        ? Mono.error(unavailable())
+                        : Mono.just("OK")));
+        ReactorHttpExchangeAdapter adapter =
+                (ReactorHttpExchangeAdapter) RetryingExchangeAdapter.wrap(delegate, retryPolicy());
+
+        assertThat(adapter.exchangeForBodyMono(request(HttpMethod.GET), STRING).block(Duration.ofSeconds(5)))
+                .isEqualTo("OK");
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void testBackoff_thenExponentialWithJitterAndCapped() {
+        HttpExchangeProperties.Retry retry = retry();
+        retry.setInitialBackoff(100);
+        retry.setMaxBackoff(300);
+        retry.setMaxAttempts(10);
+        RetryPolicy policy = RetryPolicy.of(retry);
+
+        assertThat(policy.backoff(1, unavailable())).isBetween(Duration.ofMillis(50), Duration.ofMillis(100));
+        assertThat(policy.backoff(2, unavailable())).isBetween(Duration.ofMillis(100), Duration.ofMillis(200));
+        assertThat(policy.backoff(5, unavailable())).isBetween(Duration.ofMillis(150), Duration.ofMillis(300));
+        assertThat(policy.backoff(10, unavailable())).isNull();
+    }
+
+    @Retryable(retryNonIdempotent = true)
+    interface Annotated {}
+}
@@ -0,0 +1,179 @@
+package io.github.danielliu1123.httpexchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.danielliu1123.PortGetter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.service.annotation.GetExchange;
+
+/**
+ * {@link TransportRegistry} tester.
+ */
+class TransportRegistryTest {
+
+    @Test
+    void testReferenceCounting() {
+        TransportSettings settings = TransportSettings.of(
+                SimpleClientHttpRequestFactory.class, new HttpExchangeProperties.Channel(), null, null);
+        AtomicInteger created = new AtomicInteger();
+        Object client1 = new Object();
+        Object client2 = new Object();
+
+        TransportRegistry.Transport transport = TransportRegistry.acquire(
+                "http://foo",
+                settings,
+                () -> {
+                    created.incrementAndGet();
+                    return new SimpleClientHttpRequestFactory();
+                },
+                client1);
+        TransportRegistry.Transport same =
+                TransportRegistry.acquire("http://foo", settings, SimpleClientHttpRequestFactory::new, client2);
+        TransportRegistry.acquire("http://foo", settings, SimpleClientHttpRequestFactory::new, client2);
+
+        assertThat(same).isSameAs(transport);
+        assertThat(created).hasValue(1);
+        assertThat(transport.getRefCount()).isEqualTo(2);
+
+        TransportRegistry.release(client1);
+        assertThat(transport.isClosed()).isFalse();
+
+        TransportRegistry.release(client2);
+        assertThat(transport.isClosed()).isTrue();
+        assertThat(TransportRegistry.isRetained(client2)).isFalse();
+
+        TransportRegistry.Transport recreated =
+                TransportRegistry.acquire("http://foo", settings, SimpleClientHttpRequestFactory::new, client1);
+        assertThat(recreated).isNotSameAs(transport);
+        TransportRegistry.release(client1);
+    }
+
+    @Test
+    void testAcquire_whenLoseCreationRace_thenCloseCreatedTransport() throws Exception {
+        TransportSettings settings = TransportSettings.of(
+                SimpleClientHttpRequestFactory.class, new HttpExchangeProperties.Channel(), null, null);
+        Object client1 = new Object();
+        Object client2 = new Object();
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch created = new CountDownLatch(1);
+        JdkClientHttpRequestFactory slow = new JdkClientHttpRequestFactory();
+
+        CompletableFuture<TransportRegistry.Transport> loser = CompletableFuture.supplyAsync(
+                () -> TransportRegistry.acquire(
+                        "http://race",
+                        settings,
+                        () -> {
+                            creating.countDown();
+                            awaitQuietly(created);
+                            return slow;
+                        },
+                        client1));
+        creating.await(5, TimeUnit.SECONDS);
+        // The slow creation doesn't hold the lock
+        TransportRegistry.Transport winner =
+                TransportRegistry.acquire("http://race", settings, SimpleClientHttpRequestFactory::new, client2);
+        created.countDown();
+
+        assertThat(loser.get(5, TimeUnit.SECONDS)).isSameAs(winner);
+        assertThat(winner.getRequestFactory()).isInstanceOf(SimpleClientHttpRequestFactory.class);
+        assertThat(winner.getRefCount()).isEqualTo(2);
+
+        TransportRegistry.release(client1);
+        TransportRegistry.release(client2);
+        assertThat(winner.isClosed()).isTrue();
+    }
+
+    @Test
+    void testDifferentHost_thenNotShared() {
+        TransportSettings settings = TransportSettings.of(
+                SimpleClientHttpRequestFactory.class, new HttpExchangeProperties.Channel(), null, null);
+        Object client = new Object();
+        Object other = new Object();
+
+        TransportRegistry.Transport foo =
+                TransportRegistry.acquire("http://foo", settings, SimpleClientHttpRequestFactory::new, client);
+        TransportRegistry.Transport bar =
+                TransportRegistry.acquire("http://bar", settings, SimpleClientHttpRequestFactory::new, other);
+
+        assertThat(foo).isNotSameAs(bar);
+
+        TransportRegistry.release(client);
+        TransportRegistry.release(other);
+    }
+
+    @Test
+    void testChannelsWithSameSettings_thenShareTransport() {
+        int port = PortGetter.availablePort();
+        var ctx = new SpringApplicationBuilder(Cfg.class)
+                .properties("server.port=" + port)
+                .properties(HttpExchangeProperties.PREFIX + ".channels[0].base-url=localhost:" + port)
+                .properties(HttpExchangeProperties.PREFIX + ".channels[0].clients[0]=FooApi")
+                .properties(HttpExchangeProperties.PREFIX + ".channels[1].base-url=localhost:" + port)
+                .properties(HttpExchangeProperties.PREFIX + ".channels[1].headers[0].key=X-Bar")
+                .properties(HttpExchangeProperties.PREFIX + ".channels[1].headers[0].values[0]=bar")
+                .properties(HttpExchangeProperties.PREFIX + ".channels[1].clients[0]=BarApi")
+                .run();
+
+        HttpExchangeProperties properties = ctx.getBean(HttpExchangeProperties.class);
+        TransportRegistry.Transport foo =
+                Cache.getEntry(properties.getChannels().get(0)).getTransport();
+        TransportRegistry.Transport bar =
+                Cache.getEntry(properties.getChannels().get(1)).getTransport();
+
+        assertThat(ctx.getBean(FooApi.class).foo()).isEqualTo("foo");
+        assertThat(ctx.getBean(BarApi.class).bar()).isEqualTo("bar");
+        assertThat(foo).isNotNull().isSameAs(bar);
+        assertThat(foo.getRequestFactory()).isInstanceOf(JdkClientHttpRequestFactory.class);
+        // Retained by the cache entries of the two channels
+        assertThat(foo.getRefCount()).isEqualTo(2);
+
+        ctx.close();
+
+        assertThat(foo.isClosed()).isTrue();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    interface FooApi {
+        @GetExchange("/foo")
+        String foo();
+    }
+
+    interface BarApi {
+        @GetExchange("/bar")
+        String bar();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration
+    @EnableExchangeClients(clients = {FooApi.class, BarApi.class})
+    @RestController
+    static class Cfg implements FooApi, BarApi {
+
+        @Override
+        public String foo() {
+            return "foo";
+        }
+
+        @Override
+        public String bar() {
+            return "bar";
+        }
+    }
+}
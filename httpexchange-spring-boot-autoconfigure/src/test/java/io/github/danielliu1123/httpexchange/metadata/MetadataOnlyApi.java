@@ -0,0 +1,18 @@
+package io.github.danielliu1123.httpexchange.metadata;
+
+import org.springframework.web.service.annotation.GetExchange;
+
+/**
+ * @author Freeman
+ */
+public interface MetadataOnlyApi {
+
+    @GetExchange("/metadata")
+    String get();
+
+    interface Sub extends MetadataOnlyApi {}
+
+    interface NotClient {
+        String get();
+    }
+}
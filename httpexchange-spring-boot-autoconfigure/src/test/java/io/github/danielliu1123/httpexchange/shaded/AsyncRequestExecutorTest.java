@@ -0,0 +1,113 @@
+package io.github.danielliu1123.httpexchange.shaded;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link AsyncRequestExecutor} tester.
+ */
+class AsyncRequestExecutorTest {
+
+    final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testMaxInFlight() throws Exception {
+        AsyncRequestExecutor asyncExecutor = new AsyncRequestExecutor(executor, 1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = asyncExecutor.submit(() -> await(release, "first"));
+        CompletableFuture<String> second = asyncExecutor.submit(() -> "second");
+
+        assertThat(asyncExecutor.getInFlight()).isEqualTo(1);
+        assertThat(asyncExecutor.getPending()).isEqualTo(1);
+        assertThat(second).isNotDone();
+
+        release.countDown();
+
+        assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(second.get(1, TimeUnit.SECONDS)).isEqualTo("second");
+        assertThat(asyncExecutor.getPending()).isZero();
+    }
+
+    @Test
+    void testCancel_whenRunning_thenInterruptRequest() throws Exception {
+        AsyncRequestExecutor asyncExecutor = new AsyncRequestExecutor(executor, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        CompletableFuture<String> future = asyncExecutor.submit(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+                return "done";
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(future.cancel(true)).isTrue();
+
+        // The slot is released once the interrupted request returns
+        assertThat(asyncExecutor.submit(() -> "next").get(1, TimeUnit.SECONDS)).isEqualTo("next");
+        assertThat(interrupted).isTrue();
+        assertThat(future).isCancelled();
+    }
+
+    @Test
+    void testCancel_whenPending_thenNeverRun() throws Exception {
+        AsyncRequestExecutor asyncExecutor = new AsyncRequestExecutor(executor, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        CompletableFuture<String> first = asyncExecutor.submit(() -> await(release, "first"));
+        CompletableFuture<String> second = asyncExecutor.submit(() -> {
+            ran.set(true);
+            return "second";
+        });
+
+        assertThat(second.cancel(true)).isTrue();
+        assertThat(asyncExecutor.getPending()).isZero();
+
+        release.countDown();
+
+        assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(ran).isFalse();
+    }
+
+    @Test
+    void testException() {
+        AsyncRequestExecutor asyncExecutor = new AsyncRequestExecutor(executor, 1);
+
+        CompletableFuture<String> future = asyncExecutor.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThatExceptionOfType(ExecutionException.class)
+                .isThrownBy(() -> future.get(1, TimeUnit.SECONDS))
+                .withCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @SneakyThrows
+    private static String await(CountDownLatch latch, String result) {
+        latch.await();
+        return result;
+    }
+}
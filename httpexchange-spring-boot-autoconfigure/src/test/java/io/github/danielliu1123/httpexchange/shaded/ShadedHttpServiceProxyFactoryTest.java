@@ -1,10 +1,38 @@
 package io.github.danielliu1123.httpexchange.shaded;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
+import io.github.danielliu1123.httpexchange.Batched;
 import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.service.annotation.DeleteExchange;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.PostExchange;
+import org.springframework.web.service.invoker.HttpExchangeAdapter;
+import org.springframework.web.service.invoker.HttpRequestValues;
+import org.springframework.web.service.invoker.HttpServiceArgumentResolver;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 
 /**
@@ -28,4 +56,384 @@ class ShadedHttpServiceProxyFactoryTest {
                 .containsExactlyInAnyOrder(
                         "exchangeAdapter", "customArgumentResolvers", "conversionService", "embeddedValueResolver");
     }
+
+    @Test
+    void testArgumentBinding_whenResolverSelectedUpFront() {
+        RecordingAdapter adapter = new RecordingAdapter();
+        AtomicInteger skipped = new AtomicInteger();
+        AtomicInteger consulted = new AtomicInteger();
+        FooApi api = ShadedHttpServiceProxyFactory.builderFor(adapter)
+                .customArgumentResolver(new SelectiveArgumentResolver() {
+                    @Override
+                    public boolean supportsParameter(MethodParameter parameter) {
+                        return false;
+                    }
+
+                    @Override
+                    public boolean resolve(
+                            Object argument, MethodParameter parameter, HttpRequestValues.Builder requestValues) {
+                        skipped.incrementAndGet();
+                        return false;
+                    }
+                })
+                .customArgumentResolver((argument, parameter, requestValues) -> {
+                    consulted.incrementAndGet();
+                    return false;
+                })
+                .build()
+                .createClient(FooApi.class);
+
+        api.get("1", "foo");
+
+        HttpRequestValues values = adapter.requestValues.get();
+        assertThat(values.getUriVariables()).containsEntry("id", "1");
+        assertThat(values.getRequestParams().getFirst("name")).isEqualTo("foo");
+        assertThat(skipped).hasValue(0);
+        assertThat(consulted).hasValue(2);
+    }
+
+    @Test
+    void testArgumentBinding_whenNoSuitableResolver() {
+        FooApi api = ShadedHttpServiceProxyFactory.builderFor(new RecordingAdapter())
+                .build()
+                .createClient(FooApi.class);
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> api.find(Map.of()))
+                .withMessageContaining("No suitable resolver");
+    }
+
+    @Test
+    void testHiddenClassProxy() {
+        RecordingAdapter adapter = new RecordingAdapter();
+        BarApi api = ShadedHttpServiceProxyFactory.builderFor(adapter)
+                .hiddenClassProxy(true)
+                .build()
+                .createClient(BarApi.class);
+
+        assertThat(api.getClass().isHidden()).isTrue();
+
+        api.get(1L, true);
+        assertThat(adapter.requestValues.get().getUriVariables()).containsEntry("id", "1");
+        assertThat(adapter.requestValues.get().getRequestParams().getFirst("enabled"))
+                .isEqualTo("true");
+
+        assertThat(api.getOrDefault(2L)).isEqualTo("default");
+        assertThat(adapter.requestValues.get().getUriVariables()).containsEntry("id", "2");
+    }
+
+    @Test
+    void testHiddenClassProxy_whenDefaultMethodIsExchangeMethod_thenSendRequest() {
+        RecordingAdapter adapter = new RecordingAdapter();
+        BarApi api = ShadedHttpServiceProxyFactory.builderFor(adapter)
+                .hiddenClassProxy(true)
+                .build()
+                .createClient(BarApi.class);
+
+        assertThat(api.getClass().isHidden()).isTrue();
+        assertThat(api.getName(3L)).isNull();
+        assertThat(adapter.requestValues.get().getUriTemplate()).isEqualTo("/bar/{id}/name");
+        assertThat(adapter.requestValues.get().getUriVariables()).containsEntry("id", "3");
+    }
+
+    @Test
+    void testHiddenClassProxy_whenInterfaceIsNotPublic_thenFallbackToJdkProxy() {
+        FooApi api = ShadedHttpServiceProxyFactory.builderFor(new RecordingAdapter())
+                .hiddenClassProxy(true)
+                .build()
+                .createClient(FooApi.class);
+
+        assertThat(api.getClass().isHidden()).isFalse();
+        assertThat(Proxy.isProxyClass(api.getClass())).isTrue();
+    }
+
+    @Test
+    void testFutureReturnTypes() throws Exception {
+        RecordingAdapter adapter = new RecordingAdapter();
+        AsyncApi api = ShadedHttpServiceProxyFactory.builderFor(adapter)
+                .asyncRequestExecutor(new AsyncRequestExecutor(Runnable::run, 1))
+                .build()
+                .createClient(AsyncApi.class);
+
+        assertThat(api.get(1L).get(1, TimeUnit.SECONDS)).isNull();
+        assertThat(adapter.requestValues.get().getUriVariables()).containsEntry("id", "1");
+
+        assertThat(api.getEntity(2L).toCompletableFuture().get(1, TimeUnit.SECONDS).getStatusCode().value())
+                .isEqualTo(200);
+        assertThat(adapter.requestValues.get().getUriVariables()).containsEntry("id", "2");
+
+        assertThat(api.delete(3L).get(1, TimeUnit.SECONDS)).isNull();
+        assertThat(adapter.requestValues.get().getUriVariables()).containsEntry("id", "3");
+    }
+
+    @Test
+    void testFutureReturnTypes_whenNoAsyncRequestExecutor_thenThrow() {
+        ShadedHttpServiceProxyFactory factory =
+                ShadedHttpServiceProxyFactory.builderFor(new RecordingAdapter()).build();
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> factory.createClient(AsyncApi.class))
+                .withMessageContaining("No AsyncRequestExecutor configured");
+    }
+
+    @Test
+    void testHasFutureMethods() {
+        assertThat(ShadedHttpServiceProxyFactory.hasFutureMethods(AsyncApi.class))
+                .isTrue();
+        assertThat(ShadedHttpServiceProxyFactory.hasFutureMethods(BarApi.class))
+                .isFalse();
+    }
+
+    @Test
+    void testBatchedMethod_whenMaxSizeReached_thenSendOneBulkCall() throws Exception {
+        BulkAdapter adapter = new BulkAdapter();
+        UserApi api = ShadedHttpServiceProxyFactory.builderFor(adapter)
+                .build()
+                .createClient(UserApi.class);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        List<CompletableFuture<String>> results = List.of("1", "2", "3").stream()
+                .map(id -> CompletableFuture.supplyAsync(() -> api.get(id), executor))
+                .toList();
+
+        // maxDelay is 10s, the bulk call is sent when the third key arrives
+        assertThat(results.get(0).get(5, TimeUnit.SECONDS)).isEqualTo("user-1");
+        assertThat(results.get(1).get(5, TimeUnit.SECONDS)).isEqualTo("user-2");
+        assertThat(results.get(2).get(5, TimeUnit.SECONDS)).isEqualTo("user-3");
+        assertThat(adapter.bulkCalls).hasValue(1);
+        assertThat(adapter.requestValues.get().getUriTemplate()).isEqualTo("/users:batchGet");
+
+        executor.shutdown();
+    }
+
+    @Test
+    void testBatchedMethod_whenTargetReturnsList_thenDispatchByPosition() {
+        BulkAdapter adapter = new BulkAdapter();
+        OrderApi api = ShadedHttpServiceProxyFactory.builderFor(adapter)
+                .build()
+                .createClient(OrderApi.class);
+
+        assertThat(api.get("1")).isEqualTo("order-1");
+        assertThat(adapter.bulkCalls).hasValue(1);
+    }
+
+    @Test
+    void testBatchedMethod_whenLeaderInterrupted_thenSendBulkCallAndRestoreInterrupt() {
+        BulkAdapter adapter = new BulkAdapter() {
+            @Override
+            public <T> T exchangeForBody(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+                assertThat(Thread.currentThread().isInterrupted()).isFalse();
+                return super.exchangeForBody(requestValues, bodyType);
+            }
+        };
+        OrderApi api = ShadedHttpServiceProxyFactory.builderFor(adapter)
+                .build()
+                .createClient(OrderApi.class);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThat(api.get("1")).isEqualTo("order-1");
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void testBatchedMethod_whenBulkCallFails_thenEachCallerGetsTheException() throws Exception {
+        IllegalStateException error = new IllegalStateException("bulk call failed");
+        BulkAdapter adapter = new BulkAdapter() {
+            @Override
+            public <T> T exchangeForBody(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+                bulkCalls.incrementAndGet();
+                throw error;
+            }
+        };
+        UserApi api = ShadedHttpServiceProxyFactory.builderFor(adapter)
+                .build()
+                .createClient(UserApi.class);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        List<CompletableFuture<Throwable>> results = List.of("1", "2", "3").stream()
+                .map(id -> CompletableFuture.supplyAsync(
+                        () -> {
+                            try {
+                                api.get(id);
+                                return null;
+                            } catch (Throwable e) {
+                                return e;
+                            }
+                        },
+                        executor))
+                .toList();
+
+        Throwable first = results.get(0).get(5, TimeUnit.SECONDS);
+        Throwable second = results.get(1).get(5, TimeUnit.SECONDS);
+        Throwable third = results.get(2).get(5, TimeUnit.SECONDS);
+        // thrown as is, the same as a call that is not batched
+        assertThat(List.of(first, second, third)).allSatisfy(e -> assertThat(e).isSameAs(error));
+        assertThat(adapter.bulkCalls).hasValue(1);
+
+        executor.shutdown();
+    }
+
+    @Test
+    void testBatchedMethod_whenKeyMissingFromResult_thenThrow() {
+        BulkAdapter adapter = new BulkAdapter() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T exchangeForBody(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+                bulkCalls.incrementAndGet();
+                return (T) Map.of(1L, "account-1");
+            }
+        };
+        AccountApi api = ShadedHttpServiceProxyFactory.builderFor(adapter)
+                .build()
+                .createClient(AccountApi.class);
+
+        // Integer key, Long keys in the result
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> api.get(1))
+                .withMessageContaining("no result for key '1' (java.lang.Integer)")
+                .withMessageContaining("java.lang.Long");
+        assertThat(adapter.bulkCalls).hasValue(1);
+    }
+
+    @Test
+    void testBatchedMethod_whenTargetNotFound_thenThrow() {
+        ShadedHttpServiceProxyFactory factory =
+                ShadedHttpServiceProxyFactory.builderFor(new BulkAdapter()).build();
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> factory.createClient(InvalidBatchApi.class))
+                .withMessageContaining("@Batched target method 'notExists'");
+        assertThat(ShadedHttpServiceProxyFactory.hasBatchedMethods(UserApi.class))
+                .isTrue();
+        assertThat(ShadedHttpServiceProxyFactory.hasBatchedMethods(BarApi.class))
+                .isFalse();
+    }
+
+    interface UserApi {
+        @GetExchange("/users/{id}")
+        @Batched(target = "batchGet", maxSize = 3, maxDelay = "10s")
+        String get(@PathVariable String id);
+
+        @PostExchange("/users:batchGet")
+        Map<String, String> batchGet(@RequestBody List<String> ids);
+    }
+
+    interface OrderApi {
+        @GetExchange("/orders/{id}")
+        @Batched(target = "batchGet", maxDelay = "10ms")
+        String get(@PathVariable String id);
+
+        @PostExchange("/orders:batchGet")
+        List<String> batchGet(@RequestBody String[] ids);
+    }
+
+    interface AccountApi {
+        @GetExchange("/accounts/{id}")
+        @Batched(target = "batchGet", maxDelay = "10ms")
+        String get(@PathVariable Integer id);
+
+        @PostExchange("/accounts:batchGet")
+        Map<Long, String> batchGet(@RequestBody List<Integer> ids);
+    }
+
+    interface InvalidBatchApi {
+        @GetExchange("/users/{id}")
+        @Batched(target = "notExists")
+        String get(@PathVariable String id);
+    }
+
+    public interface AsyncApi {
+        @GetExchange("/async/{id}")
+        CompletableFuture<String> get(@PathVariable long id);
+
+        @GetExchange("/async/{id}")
+        CompletionStage<ResponseEntity<String>> getEntity(@PathVariable long id);
+
+        @DeleteExchange("/async/{id}")
+        Future<Void> delete(@PathVariable long id);
+    }
+
+    public interface BarApi {
+        @GetExchange("/bar/{id}")
+        String get(@PathVariable long id, @RequestParam boolean enabled);
+
+        default String getOrDefault(long id) {
+            String result = get(id, false);
+            return result != null ? result : "default";
+        }
+
+        @GetExchange("/bar/{id}/name")
+        default String getName(@PathVariable long id) {
+            return "local";
+        }
+    }
+
+    interface FooApi {
+        @GetMapping("/foo/{id}")
+        void get(@PathVariable String id, @RequestParam String name);
+
+        @GetMapping("/foo")
+        void find(Map<String, Object> map);
+    }
+
+    static class BulkAdapter extends RecordingAdapter {
+
+        final AtomicInteger bulkCalls = new AtomicInteger();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T exchangeForBody(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+            super.exchangeForBody(requestValues, bodyType);
+            bulkCalls.incrementAndGet();
+            Object body = requestValues.getBodyValue();
+            if (body instanceof String[] ids) {
+                return (T) Arrays.stream(ids).map(id -> "order-" + id).toList();
+            }
+            return (T) ((List<String>) body).stream().collect(Collectors.toMap(id -> id, id -> "user-" + id));
+        }
+    }
+
+    static class RecordingAdapter implements HttpExchangeAdapter {
+
+        final AtomicReference<HttpRequestValues> requestValues = new AtomicReference<>();
+
+        @Override
+        public boolean supportsRequestAttributes() {
+            return true;
+        }
+
+        @Override
+        public void exchange(HttpRequestValues requestValues) {
+            this.requestValues.set(requestValues);
+        }
+
+        @Override
+        public HttpHeaders exchangeForHeaders(HttpRequestValues requestValues) {
+            this.requestValues.set(requestValues);
+            return new HttpHeaders();
+        }
+
+        @Override
+        public <T> T exchangeForBody(HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+            this.requestValues.set(requestValues);
+            return null;
+        }
+
+        @Override
+        public ResponseEntity<Void> exchangeForBodilessEntity(HttpRequestValues requestValues) {
+            this.requestValues.set(requestValues);
+            return ResponseEntity.ok().build();
+        }
+
+        @Override
+        public <T> ResponseEntity<T> exchangeForEntity(
+                HttpRequestValues requestValues, ParameterizedTypeReference<T> bodyType) {
+            this.requestValues.set(requestValues);
+            return ResponseEntity.ok().build();
+        }
+    }
 }